@@ -0,0 +1,124 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainResponse;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link BigDecimalNanDeserializer}, which reads JSON numbers with the parser's
+ * decimal accessor, with the previous implementation that converted every value to a String
+ * first, on the option chain and quote fixtures.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="BigDecimalNanDeserializerBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BigDecimalNanDeserializerBenchmark {
+
+    private ObjectReader optionChainReader;
+    private ObjectReader legacyOptionChainReader;
+    private ObjectReader quotesReader;
+    private ObjectReader legacyQuotesReader;
+    private byte[] optionChainBody;
+    private byte[] quotesBody;
+
+    /**
+     * create readers with the current and the previous deserializer
+     */
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+        ObjectMapper legacyObjectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new LegacyBigDecimalNanDeserializer()));
+        optionChainReader = objectMapper.readerFor(OptionChainResponse.class);
+        legacyOptionChainReader = legacyObjectMapper.readerFor(OptionChainResponse.class);
+        quotesReader = objectMapper.readerFor(objectMapper.getTypeFactory()
+                .constructMapType(Map.class, String.class, QuoteResponse.class));
+        legacyQuotesReader = legacyObjectMapper.readerFor(legacyObjectMapper.getTypeFactory()
+                .constructMapType(Map.class, String.class, QuoteResponse.class));
+        optionChainBody = SchwabFixtures.load(SchwabFixtures.OPTION_CHAIN_SPY);
+        quotesBody = SchwabFixtures.load(SchwabFixtures.QUOTES_500);
+    }
+
+    /**
+     * decode the SPY option chain with the current deserializer
+     * @return {@link OptionChainResponse}
+     * @throws IOException when the fixture can't be decoded
+     */
+    @Benchmark
+    public OptionChainResponse optionChain() throws IOException {
+        return optionChainReader.readValue(optionChainBody);
+    }
+
+    /**
+     * decode the SPY option chain with the previous deserializer
+     * @return {@link OptionChainResponse}
+     * @throws IOException when the fixture can't be decoded
+     */
+    @Benchmark
+    public OptionChainResponse optionChainLegacy() throws IOException {
+        return legacyOptionChainReader.readValue(optionChainBody);
+    }
+
+    /**
+     * decode quotes for 500 symbols with the current deserializer
+     * @return {@link Map}
+     * @throws IOException when the fixture can't be decoded
+     */
+    @Benchmark
+    public Map<String, QuoteResponse> quotes() throws IOException {
+        return quotesReader.readValue(quotesBody);
+    }
+
+    /**
+     * decode quotes for 500 symbols with the previous deserializer
+     * @return {@link Map}
+     * @throws IOException when the fixture can't be decoded
+     */
+    @Benchmark
+    public Map<String, QuoteResponse> quotesLegacy() throws IOException {
+        return legacyQuotesReader.readValue(quotesBody);
+    }
+
+    // the deserializer as it was before reading numbers natively
+    private static class LegacyBigDecimalNanDeserializer extends JsonDeserializer<BigDecimal> {
+        @Override
+        public BigDecimal deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+            BigDecimal ret = null;
+            final String valueAsString = jsonParser.getValueAsString();
+            if(valueAsString != null && !valueAsString.isEmpty()) {
+                if ((!valueAsString.equalsIgnoreCase("null")) && (!valueAsString.equalsIgnoreCase("nan"))) {
+                    try {
+                        ret = new BigDecimal(valueAsString);
+                    } catch (NumberFormatException ignored) {}
+                }
+            }
+            return ret;
+        }
+    }
+}
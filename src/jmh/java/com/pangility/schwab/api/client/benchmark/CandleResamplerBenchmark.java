@@ -0,0 +1,73 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleResampler;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deriving 5 minute, 60 minute and daily bars from the 10 days of 1 minute candles
+ * of the {@link SchwabFixtures} with the {@link CandleResampler}.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="CandleResamplerBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandleResamplerBenchmark {
+
+    private final CandleResampler resampler = new CandleResampler();
+    private CandleSeries minutes;
+
+    /**
+     * decode the 1 minute candles
+     */
+    @Setup
+    public void setup() {
+        minutes = SchwabWebClientBenchmark.newSchwabWebClient().getResponseDecoder()
+                .decode(DefaultDataBufferFactory.sharedInstance.wrap(SchwabFixtures.load(SchwabFixtures.PRICE_HISTORY_1MIN_10DAYS)),
+                        new ParameterizedTypeReference<CandleSeries>() {});
+    }
+
+    /**
+     * build 5 minute bars
+     * @return {@link CandleSeries}
+     */
+    @Benchmark
+    public CandleSeries fiveMinutes() {
+        return resampler.resample(minutes, Duration.ofMinutes(5));
+    }
+
+    /**
+     * build 60 minute bars
+     * @return {@link CandleSeries}
+     */
+    @Benchmark
+    public CandleSeries sixtyMinutes() {
+        return resampler.resample(minutes, Duration.ofMinutes(60));
+    }
+
+    /**
+     * build daily bars
+     * @return {@link CandleSeries}
+     */
+    @Benchmark
+    public CandleSeries daily() {
+        return resampler.resampleDaily(minutes);
+    }
+}
@@ -0,0 +1,225 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.MarketDataEvent;
+import com.pangility.schwab.api.client.marketdata.MarketDataEventHandler;
+import com.pangility.schwab.api.client.marketdata.SchwabMarketDataEventBus;
+import com.pangility.schwab.api.client.marketdata.WaitStrategy;
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fanning level one equity updates out to consumers through a {@link SchwabMarketDataEventBus}.
+ * {@code publish} publishes as fast as the slowest consumer allows; {@code paced} publishes one event
+ * every microsecond, 1M events/s, and should report close to 1M ops/s.  One operation is one event.
+ * Each consumer records the delay from publishing to delivery, and the percentiles of the iteration,
+ * p99.9 included, are printed when it ends.  BUSY_SPIN needs a core per consumer plus one for the producer.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="MarketDataEventBusBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarketDataEventBusBenchmark {
+
+    private static final int EVENTS = 1000;
+    private static final long PACE_NANOS = 1_000L;
+    private static final int SYMBOLS = 500;
+    // log-linear histogram, 16 buckets per power of 2 of nanoseconds
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    /**
+     * wait strategy of the consumers
+     */
+    @Param({"PARK", "YIELD", "BUSY_SPIN"})
+    public WaitStrategy waitStrategy;
+
+    /**
+     * number of consumers
+     */
+    @Param({"4"})
+    public int consumerCount;
+
+    private final StreamerRecord[] records = new StreamerRecord[SYMBOLS];
+    private SchwabMarketDataEventBus bus;
+    private LatencyRecorder[] recorders;
+    private int next;
+
+    /**
+     * decode a record per symbol and start the consumers
+     */
+    @Setup
+    public void setup() {
+        StreamerFieldDecoder decoder = new StreamerFieldDecoder(StreamerService.LEVELONE_EQUITIES);
+        for(int i = 0; i < SYMBOLS; i++) {
+            String message = String.format(Locale.US, "{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"content\":"
+                    + "[{\"key\":\"SYM%d\",\"1\":%.2f,\"2\":%.2f,\"4\":%d,\"5\":%d}]}]}", i, 100.0 + i, 100.01 + i, i, i);
+            decoder.decode(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)), record -> {});
+            records[i] = decoder.getRecord("SYM" + i);
+        }
+        bus = new SchwabMarketDataEventBus(16384, waitStrategy, new ObjectMapper());
+        recorders = new LatencyRecorder[consumerCount];
+        for(int i = 0; i < consumerCount; i++) {
+            recorders[i] = new LatencyRecorder();
+            bus.subscribe(recorders[i]);
+        }
+    }
+
+    /**
+     * stop the consumers
+     */
+    @TearDown
+    public void tearDown() {
+        bus.close();
+    }
+
+    /**
+     * clear the latencies of the last iteration, on the next event of each consumer
+     */
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        this.awaitConsumers();
+        for(LatencyRecorder recorder : recorders) {
+            recorder.reset = true;
+        }
+    }
+
+    /**
+     * print the delivery latencies of the iteration
+     */
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        this.awaitConsumers();
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long max = 0;
+        for(LatencyRecorder recorder : recorders) {
+            for(int i = 0; i < BUCKETS; i++) {
+                buckets[i] += recorder.buckets[i];
+            }
+            count += recorder.count;
+            max = Math.max(max, recorder.max);
+        }
+        System.out.printf(Locale.US, "%n  delivery latency of %,d events: p50 %s, p99 %s, p99.9 %s, max %s%n", count,
+                format(percentile(buckets, count, 0.5)), format(percentile(buckets, count, 0.99)),
+                format(percentile(buckets, count, 0.999)), format(max));
+    }
+
+    /**
+     * publish events as fast as the consumers take them
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void publish() {
+        for(int i = 0; i < EVENTS; i++) {
+            bus.publish(records[next]);
+            next = next + 1 == SYMBOLS ? 0 : next + 1;
+        }
+    }
+
+    /**
+     * publish an event every microsecond
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void paced() {
+        long due = System.nanoTime();
+        for(int i = 0; i < EVENTS; i++) {
+            while(System.nanoTime() < due) {
+                Thread.onSpinWait();
+            }
+            bus.publish(records[next]);
+            next = next + 1 == SYMBOLS ? 0 : next + 1;
+            due += PACE_NANOS;
+        }
+    }
+
+    private void awaitConsumers() {
+        for(LatencyRecorder recorder : recorders) {
+            while(recorder.sequence < bus.getCursor()) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static long percentile(long[] buckets, long count, double percentile) {
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if(seen >= rank) {
+                return highestNanos(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static int bucket(long nanos) {
+        if(nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        return (exponent - 3) * SUB_BUCKETS + (int) (nanos >>> (exponent - 4)) - SUB_BUCKETS;
+    }
+
+    private static long highestNanos(int bucket) {
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return ((bucket % SUB_BUCKETS + SUB_BUCKETS + 1L) << (exponent - 4)) - 1;
+    }
+
+    private static String format(long nanos) {
+        return nanos < 10_000 ? nanos + " ns" : String.format(Locale.US, "%.1f us", nanos / 1000.0);
+    }
+
+    private static final class LatencyRecorder implements MarketDataEventHandler {
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long max;
+        private volatile boolean reset;
+        private volatile long sequence = -1L;
+
+        @Override
+        public void onEvent(MarketDataEvent event, boolean endOfBatch) {
+            long latency = System.nanoTime() - event.getPublishNanos();
+            if(reset) {
+                Arrays.fill(buckets, 0L);
+                count = 0;
+                max = 0;
+                reset = false;
+            }
+            buckets[bucket(latency)]++;
+            count++;
+            max = Math.max(max, latency);
+            if(endOfBatch) {
+                sequence = event.getSequence();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the price history post-processing that converted the datetime of every candle to a
+ * {@link LocalDateTime} in the host time zone with the lazy ISO8601 dates, which only set the
+ * exchange time zone, on a response of 100,000 one minute candles.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="PriceHistoryPostProcessingBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceHistoryPostProcessingBenchmark {
+
+    private static final int CANDLES = 100_000;
+    private static final ZoneId EXCHANGE_ZONE_ID = ZoneId.of("America/New_York");
+
+    private ObjectReader reader;
+    private byte[] body;
+    private PriceHistoryResponse response;
+
+    /**
+     * build and decode a response with 100,000 candles
+     * @throws IOException when the response cannot be decoded
+     */
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+        reader = objectMapper.readerFor(PriceHistoryResponse.class);
+
+        Random random = new Random(20240614);
+        StringBuilder json = new StringBuilder("{\"candles\":[");
+        long datetime = 1717412400000L;
+        double close = 528.39;
+        for(int index = 0; index < CANDLES; index++, datetime += 60000) {
+            double open = close;
+            close = Math.round((open + random.nextGaussian() * 0.05) * 100) / 100.0;
+            json.append(index == 0 ? "" : ",")
+                    .append("{\"open\":").append(open)
+                    .append(",\"high\":").append(Math.max(open, close) + 0.02)
+                    .append(",\"low\":").append(Math.min(open, close) - 0.02)
+                    .append(",\"close\":").append(close)
+                    .append(",\"volume\":").append(1000 + random.nextInt(20000))
+                    .append(",\"datetime\":").append(datetime).append('}');
+        }
+        json.append("],\"symbol\":\"SPY\",\"empty\":false,\"previousClose\":527.8,\"previousCloseDate\":1717390800000}");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+        response = reader.readValue(body);
+    }
+
+    /**
+     * convert every candle datetime, as the client did before
+     * @return {@link PriceHistoryResponse}
+     */
+    @Benchmark
+    public PriceHistoryResponse eagerPostProcessing() {
+        return eager(response);
+    }
+
+    /**
+     * set the exchange time zone and leave the conversion to the first read
+     * @return {@link PriceHistoryResponse}
+     */
+    @Benchmark
+    public PriceHistoryResponse lazyPostProcessing() {
+        response.setZoneId(EXCHANGE_ZONE_ID);
+        return response;
+    }
+
+    /**
+     * decode the response and convert every candle datetime
+     * @return {@link PriceHistoryResponse}
+     * @throws IOException when the response cannot be decoded
+     */
+    @Benchmark
+    public PriceHistoryResponse decodeEager() throws IOException {
+        return eager(reader.readValue(body));
+    }
+
+    /**
+     * decode the response and set the exchange time zone
+     * @return {@link PriceHistoryResponse}
+     * @throws IOException when the response cannot be decoded
+     */
+    @Benchmark
+    public PriceHistoryResponse decodeLazy() throws IOException {
+        PriceHistoryResponse priceHistoryResponse = reader.readValue(body);
+        priceHistoryResponse.setZoneId(EXCHANGE_ZONE_ID);
+        return priceHistoryResponse;
+    }
+
+    // the previous doOnSuccess of fetchPriceHistoryToMono, setting the values unconditionally
+    // since reading them now computes them
+    private static PriceHistoryResponse eager(PriceHistoryResponse priceHistoryResponse) {
+        if(priceHistoryResponse.getPreviousCloseDate() != null) {
+            LocalDate ld = Instant.ofEpochMilli(priceHistoryResponse.getPreviousCloseDate()).atZone(ZoneId.systemDefault()).toLocalDate();
+            priceHistoryResponse.setPreviousCloseDateISO8601(ld);
+        }
+        for(Candle candle : priceHistoryResponse.getCandles()) {
+            if(candle.getDatetime() != null) {
+                LocalDateTime ldt = Instant.ofEpochMilli(candle.getDatetime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
+                candle.setDatetimeISO8601(ldt);
+            }
+        }
+        return priceHistoryResponse;
+    }
+}
@@ -0,0 +1,190 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.pangility.schwab.api.client.accountsandtrading.model.account.Account;
+import com.pangility.schwab.api.client.accountsandtrading.model.transaction.Transaction;
+import com.pangility.schwab.api.client.common.SchwabResponseDecoder;
+import com.pangility.schwab.api.client.common.SchwabWebClient;
+import com.pangility.schwab.api.client.marketdata.SchwabOptionChainStreamDecoder;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainColumns;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainResponse;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionContract;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleSeries;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding the recorded {@link SchwabFixtures} into the model classes through the
+ * same {@link SchwabResponseDecoder} the API clients use.  Track the ops/s and the
+ * gc.alloc.rate.norm (bytes per operation) between releases.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SchwabDeserializationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchwabDeserializationBenchmark {
+
+    private static final ParameterizedTypeReference<Map<String, QuoteResponse>> QUOTE_RESPONSE_MAP_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<OptionChainResponse> OPTION_CHAIN_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<OptionChainColumns> OPTION_CHAIN_COLUMNS_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<PriceHistoryResponse> PRICE_HISTORY_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<CandleSeries> CANDLE_SERIES_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Account> ACCOUNT_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Transaction> TRANSACTION_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    // the size of the buffers reactor-netty typically hands to the decoder
+    private static final int CHUNK_SIZE = 8192;
+
+    private SchwabResponseDecoder responseDecoder;
+    private SchwabOptionChainStreamDecoder optionChainStreamDecoder;
+    private byte[] quotesBody;
+    private byte[] optionChainBody;
+    private byte[] priceHistoryBody;
+    private byte[] accountBody;
+    private byte[] transactionsBody;
+
+    /**
+     * load the fixtures and check that each one decodes completely
+     */
+    @Setup
+    public void setup() {
+        SchwabWebClient schwabWebClient = SchwabWebClientBenchmark.newSchwabWebClient();
+        responseDecoder = schwabWebClient.getResponseDecoder();
+        optionChainStreamDecoder = new SchwabOptionChainStreamDecoder(schwabWebClient.getObjectMapper());
+        quotesBody = SchwabFixtures.load(SchwabFixtures.QUOTES_500);
+        optionChainBody = SchwabFixtures.load(SchwabFixtures.OPTION_CHAIN_SPY);
+        priceHistoryBody = SchwabFixtures.load(SchwabFixtures.PRICE_HISTORY_1MIN_10DAYS);
+        accountBody = SchwabFixtures.load(SchwabFixtures.ACCOUNT_300_POSITIONS);
+        transactionsBody = SchwabFixtures.load(SchwabFixtures.TRANSACTIONS_90DAYS);
+
+        check(quotes().size() == 500, SchwabFixtures.QUOTES_500);
+        check(optionChain().getCallExpDateMap().size() > 0, SchwabFixtures.OPTION_CHAIN_SPY);
+        check(optionChainColumns().size() == optionChain().getNumberOfContracts(), SchwabFixtures.OPTION_CHAIN_SPY);
+        check(optionChainContracts() == optionChain().getNumberOfContracts(), SchwabFixtures.OPTION_CHAIN_SPY);
+        check(priceHistory().getCandles().size() == 7800, SchwabFixtures.PRICE_HISTORY_1MIN_10DAYS);
+        check(priceHistorySeries().size() == 7800, SchwabFixtures.PRICE_HISTORY_1MIN_10DAYS);
+        check(account().getSecuritiesAccount().getPositions().size() == 300, SchwabFixtures.ACCOUNT_300_POSITIONS);
+        check(!transactions().isEmpty(), SchwabFixtures.TRANSACTIONS_90DAYS);
+    }
+
+    /**
+     * decode quotes for 500 symbols
+     * @return {@link Map}
+     */
+    @Benchmark
+    public Map<String, QuoteResponse> quotes() {
+        return responseDecoder.decode(wrap(quotesBody), QUOTE_RESPONSE_MAP_TYPE);
+    }
+
+    /**
+     * decode the complete SPY option chain
+     * @return {@link OptionChainResponse}
+     */
+    @Benchmark
+    public OptionChainResponse optionChain() {
+        return responseDecoder.decode(wrap(optionChainBody), OPTION_CHAIN_TYPE);
+    }
+
+    /**
+     * decode the complete SPY option chain into primitive columns
+     * @return {@link OptionChainColumns}
+     */
+    @Benchmark
+    public OptionChainColumns optionChainColumns() {
+        return responseDecoder.decode(wrap(optionChainBody), OPTION_CHAIN_COLUMNS_TYPE);
+    }
+
+    /**
+     * stream the contracts of the complete SPY option chain from 8KB buffers
+     * @return the number of contracts
+     */
+    @Benchmark
+    public long optionChainContracts() {
+        return optionChainStreamDecoder.decode(Flux.fromIterable(chunks(optionChainBody))).count().block();
+    }
+
+    /**
+     * decode 10 days of 1 minute candles
+     * @return {@link PriceHistoryResponse}
+     */
+    @Benchmark
+    public PriceHistoryResponse priceHistory() {
+        return responseDecoder.decode(wrap(priceHistoryBody), PRICE_HISTORY_TYPE);
+    }
+
+    /**
+     * decode 10 days of 1 minute candles into primitive columns
+     * @return {@link CandleSeries}
+     */
+    @Benchmark
+    public CandleSeries priceHistorySeries() {
+        return responseDecoder.decode(wrap(priceHistoryBody), CANDLE_SERIES_TYPE);
+    }
+
+    /**
+     * decode an account with 300 positions
+     * @return {@link Account}
+     */
+    @Benchmark
+    public Account account() {
+        return responseDecoder.decode(wrap(accountBody), ACCOUNT_TYPE);
+    }
+
+    /**
+     * decode 90 days of transactions the way the transactions Flux is decoded
+     * @return {@link List}
+     */
+    @Benchmark
+    public List<Transaction> transactions() {
+        return responseDecoder.decodeToFlux(Flux.just(wrap(transactionsBody)), TRANSACTION_TYPE)
+                .collectList()
+                .block();
+    }
+
+    private static DataBuffer wrap(byte[] body) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(body);
+    }
+
+    private static List<DataBuffer> chunks(byte[] body) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for(int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            buffers.add(wrap(Arrays.copyOfRange(body, offset, Math.min(body.length, offset + CHUNK_SIZE))));
+        }
+        return buffers;
+    }
+
+    private static void check(boolean decoded, String fixture) {
+        if(!decoded) {
+            throw new IllegalStateException("Fixture " + fixture + " did not decode as expected");
+        }
+    }
+}
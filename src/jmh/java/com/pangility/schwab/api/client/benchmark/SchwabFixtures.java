@@ -0,0 +1,809 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Recorded response bodies used by the benchmarks.  The fixtures are stored gzipped in
+ * <i>src/jmh/resources/fixtures</i> so every release is measured against the same bytes.
+ * They follow the layout and field mix of the Schwab API responses and are generated from
+ * a fixed seed; run {@link #main(String[])} only to add or change a fixture.
+ */
+public final class SchwabFixtures {
+
+    /**
+     * quotes for 500 symbols with fields=all
+     */
+    public static final String QUOTES_500 = "quotes-500.json.gz";
+    /**
+     * the complete SPY option chain with all expirations and strikes
+     */
+    public static final String OPTION_CHAIN_SPY = "chains-spy.json.gz";
+    /**
+     * 10 days of 1 minute SPY candles including extended hours
+     */
+    public static final String PRICE_HISTORY_1MIN_10DAYS = "pricehistory-spy-1min-10days.json.gz";
+    /**
+     * a margin account with 300 positions
+     */
+    public static final String ACCOUNT_300_POSITIONS = "account-300-positions.json.gz";
+    /**
+     * 90 days of account transactions
+     */
+    public static final String TRANSACTIONS_90DAYS = "transactions-90days.json.gz";
+
+    private static final String FIXTURE_PATH = "/fixtures/";
+    private static final long SEED = 20240614L;
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+    private static final DateTimeFormatter TRANSACTION_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+    private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "NYSE Arca", "BATS"};
+    private static final String[] MIC_IDS = {"XNAS", "XNYS", "ARCX", "BATS", "EDGX", "MEMX"};
+
+    private SchwabFixtures() {
+    }
+
+    /**
+     * read a fixture from the classpath
+     * @param name String one of the fixture names
+     * @return byte[] the uncompressed response body
+     */
+    public static byte[] load(String name) {
+        try (InputStream inputStream = SchwabFixtures.class.getResourceAsStream(FIXTURE_PATH + name)) {
+            if(inputStream == null) {
+                throw new IllegalArgumentException("Unknown fixture " + name);
+            }
+            try (InputStream gzipInputStream = new GZIPInputStream(inputStream)) {
+                return gzipInputStream.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * regenerate the fixtures
+     * @param args the output directory, <i>src/jmh/resources/fixtures</i> when omitted
+     * @throws IOException when a fixture can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "src/jmh/resources/fixtures");
+        Files.createDirectories(directory);
+        write(directory.resolve(QUOTES_500), SchwabFixtures::writeQuotes);
+        write(directory.resolve(OPTION_CHAIN_SPY), SchwabFixtures::writeOptionChain);
+        write(directory.resolve(PRICE_HISTORY_1MIN_10DAYS), SchwabFixtures::writePriceHistory);
+        write(directory.resolve(ACCOUNT_300_POSITIONS), SchwabFixtures::writeAccount);
+        write(directory.resolve(TRANSACTIONS_90DAYS), SchwabFixtures::writeTransactions);
+    }
+
+    private interface FixtureWriter {
+        void write(JsonGenerator json, Random random) throws IOException;
+    }
+
+    private static void write(Path path, FixtureWriter fixtureWriter) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator json = new JsonFactory().createGenerator(body)) {
+            fixtureWriter.write(json, new Random(SEED));
+        }
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(path))) {
+            outputStream.write(body.toByteArray());
+        }
+        System.out.printf("%s: %,d bytes%n", path, body.size());
+    }
+
+    private static void writeQuotes(JsonGenerator json, Random random) throws IOException {
+        long quoteTime = ZonedDateTime.of(2024, 6, 14, 15, 59, 0, 0, EASTERN).toInstant().toEpochMilli();
+        json.writeStartObject();
+        for(int i = 0; i < 500; i++) {
+            if(i % 20 == 18) {
+                writeMutualFundQuote(json, random, "FUND" + i + "X", i, quoteTime);
+            } else if(i % 20 == 19) {
+                writeIndexQuote(json, random, "$IDX" + i, i, quoteTime);
+            } else {
+                writeEquityQuote(json, random, symbol(i), i, quoteTime);
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeEquityQuote(JsonGenerator json, Random random, String symbol, int i, long quoteTime) throws IOException {
+        double last = price(random, 5, 900);
+        double close = last * (1 + (random.nextDouble() - 0.5) * 0.04);
+        json.writeObjectFieldStart(symbol);
+        json.writeStringField("assetMainType", "EQUITY");
+        json.writeStringField("assetSubType", i % 10 == 3 ? "ETF" : "COE");
+        json.writeStringField("quoteType", "NBBO");
+        json.writeBooleanField("realtime", true);
+        json.writeNumberField("ssid", 1000000000L + i * 7919L);
+        json.writeStringField("symbol", symbol);
+        json.writeObjectFieldStart("extended");
+        writePrice(json, "askPrice", 0);
+        json.writeNumberField("askSize", 0);
+        writePrice(json, "bidPrice", 0);
+        json.writeNumberField("bidSize", 0);
+        writePrice(json, "lastPrice", last);
+        json.writeNumberField("lastSize", 100 * (1 + random.nextInt(5)));
+        writePrice(json, "mark", last);
+        json.writeNumberField("quoteTime", quoteTime - 86_400_000L);
+        json.writeNumberField("totalVolume", 0);
+        json.writeNumberField("tradeTime", quoteTime - 86_400_000L);
+        json.writeEndObject();
+        json.writeObjectFieldStart("fundamental");
+        json.writeNumberField("avg10DaysVolume", 100_000 + random.nextInt(50_000_000));
+        json.writeNumberField("avg1YearVolume", 100_000 + random.nextInt(50_000_000));
+        boolean dividend = random.nextInt(3) > 0;
+        if(dividend) {
+            json.writeStringField("declarationDate", "2024-04-25T04:00:00Z");
+            writePrice(json, "divAmount", last * 0.02);
+            json.writeStringField("divExDate", "2024-05-15T04:00:00Z");
+            json.writeNumberField("divFreq", 4);
+            writePrice(json, "divPayAmount", last * 0.005);
+            json.writeStringField("divPayDate", "2024-06-13T04:00:00Z");
+            writePrice(json, "divYield", 2.0);
+        } else {
+            json.writeNumberField("divAmount", 0.0);
+            json.writeNumberField("divFreq", 0);
+            json.writeNumberField("divPayAmount", 0.0);
+            json.writeNumberField("divYield", 0.0);
+        }
+        writePrice(json, "eps", last / (10 + random.nextInt(30)));
+        json.writeNumberField("fundLeverageFactor", 0.0);
+        if(dividend) {
+            json.writeStringField("lastEarningsDate", "2024-04-25T04:00:00Z");
+            json.writeStringField("nextDivExDate", "2024-08-15T04:00:00Z");
+            json.writeStringField("nextDivPayDate", "2024-09-12T04:00:00Z");
+        }
+        writeDecimal(json, "peRatio", 5 + random.nextDouble() * 60, 5);
+        json.writeEndObject();
+        json.writeObjectFieldStart("quote");
+        writePrice(json, "52WeekHigh", last * (1 + random.nextDouble() * 0.5));
+        writePrice(json, "52WeekLow", last * (1 - random.nextDouble() * 0.5));
+        json.writeStringField("askMICId", MIC_IDS[random.nextInt(MIC_IDS.length)]);
+        writePrice(json, "askPrice", last + 0.01);
+        json.writeNumberField("askSize", 1 + random.nextInt(20));
+        json.writeNumberField("askTime", quoteTime - random.nextInt(1000));
+        json.writeStringField("bidMICId", MIC_IDS[random.nextInt(MIC_IDS.length)]);
+        writePrice(json, "bidPrice", last - 0.01);
+        json.writeNumberField("bidSize", 1 + random.nextInt(20));
+        json.writeNumberField("bidTime", quoteTime - random.nextInt(1000));
+        writePrice(json, "closePrice", close);
+        writePrice(json, "highPrice", Math.max(last, close) * 1.01);
+        json.writeStringField("lastMICId", MIC_IDS[random.nextInt(MIC_IDS.length)]);
+        writePrice(json, "lastPrice", last);
+        json.writeNumberField("lastSize", 1 + random.nextInt(500));
+        writePrice(json, "lowPrice", Math.min(last, close) * 0.99);
+        writePrice(json, "mark", last);
+        writePrice(json, "markChange", last - close);
+        writeDecimal(json, "markPercentChange", (last - close) / close * 100, 6);
+        writePrice(json, "netChange", last - close);
+        writeDecimal(json, "netPercentChange", (last - close) / close * 100, 6);
+        writePrice(json, "openPrice", close * (1 + (random.nextDouble() - 0.5) * 0.01));
+        json.writeNumberField("postMarketChange", 0.0);
+        json.writeNumberField("postMarketPercentChange", 0.0);
+        json.writeNumberField("quoteTime", quoteTime);
+        json.writeStringField("securityStatus", "Normal");
+        json.writeNumberField("totalVolume", 10_000 + random.nextInt(80_000_000));
+        json.writeNumberField("tradeTime", quoteTime);
+        writeDecimal(json, "volatility", random.nextDouble() * 0.05, 4);
+        json.writeEndObject();
+        json.writeObjectFieldStart("reference");
+        json.writeStringField("cusip", cusip(i));
+        json.writeStringField("description", symbol + " INC");
+        json.writeStringField("exchange", "Q");
+        json.writeStringField("exchangeName", EXCHANGES[i % EXCHANGES.length]);
+        json.writeBooleanField("isHardToBorrow", false);
+        json.writeBooleanField("isShortable", true);
+        json.writeNumberField("htbRate", 0.0);
+        json.writeEndObject();
+        json.writeObjectFieldStart("regular");
+        writePrice(json, "regularMarketLastPrice", last);
+        json.writeNumberField("regularMarketLastSize", 1 + random.nextInt(500));
+        writePrice(json, "regularMarketNetChange", last - close);
+        writeDecimal(json, "regularMarketPercentChange", (last - close) / close * 100, 6);
+        json.writeNumberField("regularMarketTradeTime", quoteTime);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void writeMutualFundQuote(JsonGenerator json, Random random, String symbol, int i, long quoteTime) throws IOException {
+        double nav = price(random, 10, 300);
+        json.writeObjectFieldStart(symbol);
+        json.writeStringField("assetMainType", "MUTUAL_FUND");
+        json.writeStringField("assetSubType", "OEF");
+        json.writeBooleanField("realtime", true);
+        json.writeNumberField("ssid", 2000000000L + i);
+        json.writeStringField("symbol", symbol);
+        json.writeObjectFieldStart("fundamental");
+        json.writeNumberField("avg10DaysVolume", 0);
+        json.writeNumberField("avg1YearVolume", 0);
+        writePrice(json, "divAmount", nav * 0.015);
+        json.writeNumberField("divFreq", 4);
+        json.writeNumberField("divPayAmount", 0.0);
+        writePrice(json, "divYield", 1.5);
+        json.writeNumberField("eps", 0.0);
+        json.writeNumberField("fundLeverageFactor", 0.0);
+        json.writeStringField("fundStrategy", "A");
+        json.writeNumberField("peRatio", 0.0);
+        json.writeEndObject();
+        json.writeObjectFieldStart("quote");
+        writePrice(json, "52WkHigh", nav * 1.15);
+        writePrice(json, "52WkLow", nav * 0.85);
+        writePrice(json, "closePrice", nav);
+        writePrice(json, "nAV", nav);
+        writePrice(json, "netChange", 0.12);
+        writeDecimal(json, "netPercentChange", 0.12 / nav * 100, 6);
+        json.writeStringField("securityStatus", "Normal");
+        json.writeNumberField("totalVolume", 0);
+        json.writeNumberField("tradeTime", quoteTime - 86_400_000L);
+        json.writeEndObject();
+        json.writeObjectFieldStart("reference");
+        json.writeStringField("cusip", cusip(i));
+        json.writeStringField("description", symbol + " Fund");
+        json.writeStringField("exchange", "3");
+        json.writeStringField("exchangeName", "Mutual Fund");
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void writeIndexQuote(JsonGenerator json, Random random, String symbol, int i, long quoteTime) throws IOException {
+        double last = price(random, 500, 20000);
+        json.writeObjectFieldStart(symbol);
+        json.writeStringField("assetMainType", "INDEX");
+        json.writeBooleanField("realtime", true);
+        json.writeNumberField("ssid", 3000000000L + i);
+        json.writeStringField("symbol", symbol);
+        json.writeObjectFieldStart("quote");
+        writePrice(json, "52WkHigh", last * 1.1);
+        writePrice(json, "52WkLow", last * 0.8);
+        writePrice(json, "closePrice", last * 0.995);
+        writePrice(json, "highPrice", last * 1.004);
+        writePrice(json, "lastPrice", last);
+        writePrice(json, "lowPrice", last * 0.991);
+        writePrice(json, "netChange", last * 0.005);
+        writeDecimal(json, "netPercentChange", 0.5025, 6);
+        writePrice(json, "openPrice", last * 0.996);
+        json.writeStringField("securityStatus", "Unknown");
+        json.writeNumberField("totalVolume", random.nextInt(900_000_000));
+        json.writeNumberField("tradeTime", quoteTime);
+        json.writeEndObject();
+        json.writeObjectFieldStart("reference");
+        json.writeStringField("description", symbol.substring(1) + " Index");
+        json.writeStringField("exchange", "$");
+        json.writeStringField("exchangeName", "Index");
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void writeOptionChain(JsonGenerator json, Random random) throws IOException {
+        double underlyingPrice = 542.78;
+        LocalDate today = LocalDate.of(2024, 6, 14);
+        List<LocalDate> expirations = optionExpirations(today);
+        int strikeCount = 0;
+        json.writeStartObject();
+        json.writeStringField("symbol", "SPY");
+        json.writeStringField("status", "SUCCESS");
+        json.writeStringField("strategy", "SINGLE");
+        json.writeNumberField("interval", 0.0);
+        json.writeBooleanField("isDelayed", false);
+        json.writeBooleanField("isIndex", false);
+        json.writeNumberField("interestRate", 5.339);
+        json.writeNumberField("underlyingPrice", underlyingPrice);
+        json.writeNumberField("volatility", 29.0);
+        json.writeNumberField("daysToExpiration", 0.0);
+        for(LocalDate expiration : expirations) {
+            strikeCount += strikes(underlyingPrice, expiration, today).size();
+        }
+        json.writeNumberField("numberOfContracts", strikeCount * 2);
+        json.writeStringField("assetMainType", "EQUITY");
+        json.writeStringField("assetSubType", "ETF");
+        json.writeBooleanField("isChainTruncated", false);
+        writeExpDateMap(json, random, "callExpDateMap", "CALL", underlyingPrice, today, expirations);
+        writeExpDateMap(json, random, "putExpDateMap", "PUT", underlyingPrice, today, expirations);
+        json.writeEndObject();
+    }
+
+    private static void writeExpDateMap(JsonGenerator json, Random random, String fieldName, String putCall,
+                                        double underlyingPrice, LocalDate today, List<LocalDate> expirations) throws IOException {
+        long quoteTime = ZonedDateTime.of(today, LocalTime.of(15, 59, 59), EASTERN).toInstant().toEpochMilli();
+        json.writeObjectFieldStart(fieldName);
+        for(LocalDate expiration : expirations) {
+            int daysToExpiration = (int) (expiration.toEpochDay() - today.toEpochDay());
+            json.writeObjectFieldStart(expiration + ":" + daysToExpiration);
+            for(BigDecimal strike : strikes(underlyingPrice, expiration, today)) {
+                double strikePrice = strike.doubleValue();
+                boolean call = putCall.equals("CALL");
+                double intrinsic = Math.max(0, call ? underlyingPrice - strikePrice : strikePrice - underlyingPrice);
+                double timeValue = Math.max(0.01, underlyingPrice * 0.012 * Math.sqrt(daysToExpiration + 1)
+                        * Math.exp(-Math.abs(strikePrice - underlyingPrice) / (underlyingPrice * 0.05 * Math.sqrt(daysToExpiration + 1))));
+                double mark = intrinsic + timeValue;
+                boolean farOutOfTheMoney = timeValue < 0.02 && intrinsic == 0;
+                String optionSymbol = String.format("SPY   %s%s%08d", expiration.format(DateTimeFormatter.ofPattern("yyMMdd")),
+                        call ? "C" : "P", strike.movePointRight(3).intValue());
+                json.writeArrayFieldStart(strike.toPlainString());
+                json.writeStartObject();
+                json.writeStringField("putCall", putCall);
+                json.writeStringField("symbol", optionSymbol);
+                json.writeStringField("description", "SPY " + expiration.format(DateTimeFormatter.ofPattern("MM/dd/yyyy"))
+                        + " " + strike.stripTrailingZeros().toPlainString() + " " + (call ? "Call" : "Put"));
+                json.writeStringField("exchangeName", "OPR");
+                writePrice(json, "bidPrice", Math.max(0, mark - 0.02));
+                writePrice(json, "askPrice", mark + 0.02);
+                writePrice(json, "lastPrice", mark);
+                writePrice(json, "markPrice", mark);
+                int bidSize = 1 + random.nextInt(500);
+                int askSize = 1 + random.nextInt(500);
+                json.writeNumberField("bidSize", bidSize);
+                json.writeNumberField("askSize", askSize);
+                json.writeStringField("bidAskSize", bidSize + "X" + askSize);
+                json.writeNumberField("lastSize", random.nextInt(50));
+                writePrice(json, "highPrice", mark * 1.1);
+                writePrice(json, "lowPrice", mark * 0.9);
+                writePrice(json, "openPrice", farOutOfTheMoney ? 0 : mark * 0.95);
+                writePrice(json, "closePrice", mark * 0.97);
+                json.writeNumberField("totalVolume", random.nextInt(100_000));
+                json.writeNumberField("tradeTimeInLong", quoteTime - random.nextInt(3_600_000));
+                json.writeNumberField("quoteTimeInLong", quoteTime);
+                writePrice(json, "netChange", mark * 0.03);
+                if(farOutOfTheMoney) {
+                    // Schwab reports the greeks of contracts without a market as strings
+                    json.writeStringField("volatility", "NaN");
+                    json.writeStringField("delta", "NaN");
+                    json.writeStringField("gamma", "NaN");
+                    json.writeStringField("theta", "NaN");
+                    json.writeStringField("vega", "NaN");
+                    json.writeNumberField("rho", -999.0);
+                } else {
+                    writeDecimal(json, "volatility", 10 + random.nextDouble() * 30, 3);
+                    writeDecimal(json, "delta", call ? random.nextDouble() : -random.nextDouble(), 3);
+                    writeDecimal(json, "gamma", random.nextDouble() * 0.05, 3);
+                    writeDecimal(json, "theta", -random.nextDouble(), 3);
+                    writeDecimal(json, "vega", random.nextDouble(), 3);
+                    writeDecimal(json, "rho", (random.nextDouble() - 0.5) * 0.5, 3);
+                }
+                json.writeNumberField("openInterest", random.nextInt(80_000));
+                writePrice(json, "timeValue", timeValue);
+                writePrice(json, "theoreticalOptionValue", mark);
+                json.writeNumberField("theoreticalVolatility", 29.0);
+                json.writeArrayFieldStart("optionDeliverablesList");
+                json.writeStartObject();
+                json.writeStringField("symbol", "SPY");
+                json.writeStringField("assetType", "STOCK");
+                json.writeNumberField("deliverableUnits", 100.0);
+                json.writeEndObject();
+                json.writeEndArray();
+                json.writeNumberField("strikePrice", strike);
+                json.writeStringField("expirationDate", expiration + "T20:00:00.000+00:00");
+                json.writeNumberField("daysToExpiration", daysToExpiration);
+                json.writeStringField("expirationType", expiration.getDayOfWeek() == DayOfWeek.FRIDAY
+                        && expiration.getDayOfMonth() >= 15 && expiration.getDayOfMonth() <= 21 ? "S" : "W");
+                json.writeNumberField("lastTradingDay", ZonedDateTime.of(expiration, LocalTime.of(16, 0), EASTERN)
+                        .toInstant().toEpochMilli());
+                json.writeNumberField("multiplier", 100.0);
+                json.writeStringField("settlementType", "P");
+                json.writeStringField("deliverableNote", "100 SPY");
+                writeDecimal(json, "percentChange", 3.0, 2);
+                writePrice(json, "markChange", mark * 0.03);
+                writeDecimal(json, "markPercentChange", 3.0, 2);
+                writePrice(json, "intrinsicValue", intrinsic);
+                writePrice(json, "extrinsicValue", timeValue);
+                json.writeStringField("optionRoot", "SPY");
+                json.writeStringField("exerciseType", "A");
+                writePrice(json, "high52Week", mark * 3);
+                writePrice(json, "low52Week", mark * 0.2);
+                json.writeBooleanField("isInTheMoney", intrinsic > 0);
+                json.writeBooleanField("isMini", false);
+                json.writeBooleanField("isNonStandard", false);
+                json.writeBooleanField("isPennyPilot", true);
+                json.writeEndObject();
+                json.writeEndArray();
+            }
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    // daily expirations for three weeks, then Fridays for three months, then monthly and quarterly out to 2 years
+    private static List<LocalDate> optionExpirations(LocalDate today) {
+        List<LocalDate> expirations = new ArrayList<>();
+        for(LocalDate date = today; date.isBefore(today.plusYears(2)); date = date.plusDays(1)) {
+            boolean weekday = date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+            boolean friday = date.getDayOfWeek() == DayOfWeek.FRIDAY;
+            boolean monthly = friday && date.getDayOfMonth() >= 15 && date.getDayOfMonth() <= 21;
+            boolean quarterly = monthly && date.getMonthValue() % 3 == 0;
+            if((weekday && date.isBefore(today.plusWeeks(3)))
+                    || (friday && date.isBefore(today.plusMonths(3)))
+                    || (monthly && date.isBefore(today.plusYears(1)))
+                    || quarterly) {
+                expirations.add(date);
+            }
+        }
+        return expirations;
+    }
+
+    // 1 point strikes near the money, widening for the later expirations
+    private static List<BigDecimal> strikes(double underlyingPrice, LocalDate expiration, LocalDate today) {
+        long days = expiration.toEpochDay() - today.toEpochDay();
+        int range = days < 30 ? 60 : days < 120 ? 100 : 160;
+        int step = days < 120 ? 1 : 5;
+        List<BigDecimal> strikes = new ArrayList<>();
+        int atTheMoney = (int) Math.round(underlyingPrice / step) * step;
+        for(int strike = atTheMoney - range; strike <= atTheMoney + range; strike += step) {
+            strikes.add(BigDecimal.valueOf(strike).setScale(1, RoundingMode.UNNECESSARY));
+        }
+        return strikes;
+    }
+
+    private static void writePriceHistory(JsonGenerator json, Random random) throws IOException {
+        double close = 528.39;
+        double previousClose = close;
+        LocalDate day = LocalDate.of(2024, 6, 3);
+        json.writeStartObject();
+        json.writeArrayFieldStart("candles");
+        for(int tradingDays = 0; tradingDays < 10; day = day.plusDays(1)) {
+            if(day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            tradingDays++;
+            previousClose = close;
+            // extended hours from 7:00 until 20:00, the hours Schwab returns with needExtendedHoursData
+            for(ZonedDateTime minute = ZonedDateTime.of(day, LocalTime.of(7, 0), EASTERN);
+                minute.toLocalTime().isBefore(LocalTime.of(20, 0)); minute = minute.plusMinutes(1)) {
+                boolean regularHours = !minute.toLocalTime().isBefore(LocalTime.of(9, 30))
+                        && minute.toLocalTime().isBefore(LocalTime.of(16, 0));
+                double open = close;
+                close = open + random.nextGaussian() * (regularHours ? 0.12 : 0.04);
+                json.writeStartObject();
+                writePrice(json, "open", open);
+                writePrice(json, "high", Math.max(open, close) + random.nextDouble() * 0.08);
+                writePrice(json, "low", Math.min(open, close) - random.nextDouble() * 0.08);
+                writePrice(json, "close", close);
+                json.writeNumberField("volume", regularHours ? 20_000 + random.nextInt(400_000) : random.nextInt(20_000));
+                json.writeNumberField("datetime", minute.toInstant().toEpochMilli());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+        json.writeStringField("symbol", "SPY");
+        json.writeBooleanField("empty", false);
+        writePrice(json, "previousClose", previousClose);
+        json.writeNumberField("previousCloseDate", ZonedDateTime.of(LocalDate.of(2024, 5, 31), LocalTime.MIDNIGHT, EASTERN)
+                .toInstant().toEpochMilli());
+        json.writeEndObject();
+    }
+
+    private static void writeAccount(JsonGenerator json, Random random) throws IOException {
+        double longMarketValue = 0;
+        json.writeStartObject();
+        json.writeObjectFieldStart("securitiesAccount");
+        json.writeStringField("type", "MARGIN");
+        json.writeStringField("accountNumber", "12345678");
+        json.writeNumberField("roundTrips", 0);
+        json.writeBooleanField("isDayTrader", false);
+        json.writeBooleanField("isClosingOnlyRestricted", false);
+        json.writeBooleanField("pfcbFlag", false);
+        json.writeArrayFieldStart("positions");
+        for(int i = 0; i < 300; i++) {
+            double price = price(random, 5, 900);
+            double quantity = i % 5 == 4 ? 1 + random.nextInt(20) : 1 + random.nextInt(1000);
+            double averagePrice = price * (0.7 + random.nextDouble() * 0.6);
+            double multiplier = i % 5 == 4 ? 100 : 1;
+            double marketValue = price * quantity * multiplier;
+            longMarketValue += marketValue;
+            json.writeStartObject();
+            json.writeNumberField("shortQuantity", 0.0);
+            writePrice(json, "averagePrice", averagePrice);
+            writePrice(json, "currentDayProfitLoss", (random.nextDouble() - 0.5) * marketValue * 0.02);
+            writeDecimal(json, "currentDayProfitLossPercentage", (random.nextDouble() - 0.5) * 4, 2);
+            json.writeNumberField("longQuantity", quantity);
+            json.writeNumberField("settledLongQuantity", quantity);
+            json.writeNumberField("settledShortQuantity", 0.0);
+            json.writeObjectFieldStart("instrument");
+            if(i % 5 == 4) {
+                String underlying = symbol(i - 1);
+                json.writeStringField("assetType", "OPTION");
+                json.writeStringField("cusip", "0" + underlying + ".GF40" + (i % 90 + 10));
+                json.writeStringField("symbol", String.format("%-6s240719C%08d", underlying, (int) (price * 1000)));
+                json.writeStringField("description", underlying + " 07/19/2024 " + (int) price + ".00 C");
+                json.writeNumberField("instrumentId", 200_000_000L + i);
+                writePrice(json, "netChange", (random.nextDouble() - 0.5) * 2);
+                json.writeStringField("type", "VANILLA");
+                json.writeStringField("putCall", "CALL");
+                json.writeStringField("underlyingSymbol", underlying);
+            } else if(i % 25 == 7) {
+                json.writeStringField("assetType", "MUTUAL_FUND");
+                json.writeStringField("cusip", cusip(i));
+                json.writeStringField("symbol", "FUND" + i + "X");
+                json.writeStringField("description", "FUND" + i + " INDEX FUND");
+                json.writeNumberField("instrumentId", 300_000_000L + i);
+                json.writeStringField("type", "NOT_APPLICABLE");
+            } else if(i % 25 == 12) {
+                json.writeStringField("assetType", "COLLECTIVE_INVESTMENT");
+                json.writeStringField("cusip", cusip(i));
+                json.writeStringField("symbol", symbol(i));
+                json.writeStringField("description", symbol(i) + " ETF");
+                json.writeStringField("type", "EXCHANGE_TRADED_FUND");
+            } else {
+                json.writeStringField("assetType", "EQUITY");
+                json.writeStringField("cusip", cusip(i));
+                json.writeStringField("symbol", symbol(i));
+                json.writeNumberField("instrumentId", 100_000_000L + i);
+                writePrice(json, "netChange", (random.nextDouble() - 0.5) * 4);
+            }
+            json.writeEndObject();
+            writePrice(json, "marketValue", marketValue);
+            writePrice(json, "maintenanceRequirement", marketValue * 0.25);
+            writePrice(json, "averageLongPrice", averagePrice);
+            writePrice(json, "taxLotAverageLongPrice", averagePrice);
+            writePrice(json, "longOpenProfitLoss", (price - averagePrice) * quantity * multiplier);
+            json.writeNumberField("previousSessionLongQuantity", quantity);
+            json.writeNumberField("currentDayCost", 0.0);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        double cash = 48_211.37;
+        double equity = longMarketValue + cash;
+        json.writeObjectFieldStart("initialBalances");
+        json.writeNumberField("accruedInterest", 0.0);
+        writePrice(json, "availableFundsNonMarginableTrade", cash);
+        json.writeNumberField("bondValue", 0.0);
+        writePrice(json, "buyingPower", cash * 2);
+        writePrice(json, "cashBalance", cash);
+        json.writeNumberField("cashAvailableForTrading", 0.0);
+        json.writeNumberField("cashReceipts", 0.0);
+        writePrice(json, "dayTradingBuyingPower", cash * 4);
+        json.writeNumberField("dayTradingBuyingPowerCall", 0.0);
+        json.writeNumberField("dayTradingEquityCall", 0.0);
+        writePrice(json, "equity", equity);
+        json.writeNumberField("equityPercentage", 100.0);
+        writePrice(json, "liquidationValue", equity);
+        writePrice(json, "longMarginValue", longMarketValue);
+        json.writeNumberField("longOptionMarketValue", 0.0);
+        writePrice(json, "longStockValue", longMarketValue);
+        json.writeNumberField("maintenanceCall", 0.0);
+        writePrice(json, "maintenanceRequirement", longMarketValue * 0.25);
+        writePrice(json, "margin", cash);
+        writePrice(json, "marginEquity", equity);
+        json.writeNumberField("moneyMarketFund", 0.0);
+        json.writeNumberField("mutualFundValue", 0.0);
+        json.writeNumberField("regTCall", 0.0);
+        json.writeNumberField("shortMarginValue", 0.0);
+        json.writeNumberField("shortOptionMarketValue", 0.0);
+        json.writeNumberField("shortStockValue", 0.0);
+        json.writeNumberField("totalCash", 0.0);
+        json.writeBooleanField("isInCall", false);
+        json.writeNumberField("pendingDeposits", 0.0);
+        json.writeNumberField("marginBalance", 0.0);
+        json.writeNumberField("shortBalance", 0.0);
+        writePrice(json, "accountValue", equity);
+        json.writeEndObject();
+        json.writeObjectFieldStart("currentBalances");
+        json.writeNumberField("accruedInterest", 0.0);
+        writePrice(json, "cashBalance", cash);
+        json.writeNumberField("cashReceipts", 0.0);
+        json.writeNumberField("longOptionMarketValue", 0.0);
+        writePrice(json, "liquidationValue", equity);
+        writePrice(json, "longMarketValue", longMarketValue);
+        json.writeNumberField("moneyMarketFund", 0.0);
+        json.writeNumberField("savings", 0.0);
+        json.writeNumberField("shortMarketValue", 0.0);
+        json.writeNumberField("pendingDeposits", 0.0);
+        writePrice(json, "availableFunds", cash);
+        writePrice(json, "availableFundsNonMarginableTrade", cash);
+        writePrice(json, "buyingPower", cash * 2);
+        writePrice(json, "buyingPowerNonMarginableTrade", cash);
+        writePrice(json, "dayTradingBuyingPower", cash * 4);
+        writePrice(json, "equity", equity);
+        json.writeNumberField("equityPercentage", 100.0);
+        writePrice(json, "longMarginValue", longMarketValue);
+        json.writeNumberField("maintenanceCall", 0.0);
+        writePrice(json, "maintenanceRequirement", longMarketValue * 0.25);
+        json.writeNumberField("marginBalance", 0.0);
+        json.writeNumberField("regTCall", 0.0);
+        json.writeNumberField("shortBalance", 0.0);
+        json.writeNumberField("shortMarginValue", 0.0);
+        writePrice(json, "sma", cash * 1.5);
+        json.writeEndObject();
+        json.writeObjectFieldStart("projectedBalances");
+        writePrice(json, "availableFunds", cash);
+        writePrice(json, "availableFundsNonMarginableTrade", cash);
+        writePrice(json, "buyingPower", cash * 2);
+        writePrice(json, "dayTradingBuyingPower", cash * 4);
+        json.writeNumberField("dayTradingBuyingPowerCall", 0.0);
+        json.writeNumberField("maintenanceCall", 0.0);
+        json.writeNumberField("regTCall", 0.0);
+        json.writeBooleanField("isInCall", false);
+        writePrice(json, "stockBuyingPower", cash * 2);
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeObjectFieldStart("aggregatedBalance");
+        writePrice(json, "currentLiquidationValue", equity);
+        writePrice(json, "liquidationValue", equity);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void writeTransactions(JsonGenerator json, Random random) throws IOException {
+        long activityId = 80_000_000_000L;
+        long orderId = 1_000_200_000_000L;
+        json.writeStartArray();
+        for(LocalDate day = LocalDate.of(2024, 3, 17); day.isBefore(LocalDate.of(2024, 6, 15)); day = day.plusDays(1)) {
+            if(day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            int trades = 2 + random.nextInt(10);
+            for(int t = 0; t < trades; t++) {
+                ZonedDateTime time = ZonedDateTime.of(day, LocalTime.of(9, 30).plusSeconds(random.nextInt(23_400)), EASTERN);
+                writeTrade(json, random, ++activityId, ++orderId, time, random.nextInt(4) == 0);
+            }
+            if(day.getDayOfMonth() % 7 == 0) {
+                writeDividend(json, random, ++activityId, ZonedDateTime.of(day, LocalTime.of(2, 0), EASTERN));
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeTrade(JsonGenerator json, Random random, long activityId, long orderId,
+                                   ZonedDateTime time, boolean option) throws IOException {
+        int index = random.nextInt(400);
+        String underlying = symbol(index);
+        double price = option ? price(random, 0.5, 25) : price(random, 5, 900);
+        int quantity = option ? 1 + random.nextInt(10) : 1 + random.nextInt(500);
+        boolean buy = random.nextBoolean();
+        double multiplier = option ? 100 : 1;
+        double commission = option ? 0.65 * quantity : 0;
+        double regFee = option ? 0.02 * quantity : 0;
+        double secFee = buy ? 0 : Math.max(0.01, price * quantity * multiplier * 0.0000278);
+        double principal = price * quantity * multiplier * (buy ? -1 : 1);
+        json.writeStartObject();
+        json.writeNumberField("activityId", activityId);
+        json.writeStringField("time", formatTime(time));
+        json.writeStringField("description", "");
+        json.writeStringField("accountNumber", "12345678");
+        json.writeStringField("type", "TRADE");
+        json.writeStringField("status", "VALID");
+        json.writeStringField("subAccount", "MARGIN");
+        json.writeStringField("tradeDate", formatTime(time));
+        json.writeStringField("settlementDate", formatTime(time.plusDays(1).with(LocalTime.of(4, 0))));
+        json.writeNumberField("positionId", 2_000_000_000L + index);
+        json.writeNumberField("orderId", orderId);
+        writePrice(json, "netAmount", principal - commission - regFee - secFee);
+        json.writeStringField("activityType", "EXECUTION");
+        json.writeArrayFieldStart("transferItems");
+        writeFee(json, "COMMISSION", commission);
+        writeFee(json, "SEC_FEE", secFee);
+        writeFee(json, "OPT_REG_FEE", regFee);
+        writeFee(json, "TAF_FEE", option ? 0.01 : 0);
+        json.writeStartObject();
+        json.writeObjectFieldStart("instrument");
+        if(option) {
+            LocalDate expiration = time.toLocalDate().plusDays(7 + random.nextInt(60));
+            int strike = (int) price(random, 20, 900);
+            String putCall = random.nextBoolean() ? "CALL" : "PUT";
+            json.writeStringField("assetType", "OPTION");
+            json.writeStringField("status", "ACTIVE");
+            json.writeStringField("symbol", String.format("%-6s%s%s%08d", underlying,
+                    expiration.format(DateTimeFormatter.ofPattern("yyMMdd")), putCall.substring(0, 1), strike * 1000));
+            json.writeStringField("description", underlying + " " + expiration.format(DateTimeFormatter.ofPattern("MM/dd/yyyy"))
+                    + " " + strike + ".00 " + (putCall.equals("CALL") ? "Call" : "Put"));
+            json.writeNumberField("instrumentId", 200_000_000L + random.nextInt(1_000_000));
+            writePrice(json, "closingPrice", price);
+            json.writeStringField("expirationDate", formatTime(ZonedDateTime.of(expiration, LocalTime.of(16, 0), EASTERN)));
+            json.writeNumberField("optionPremiumMultiplier", 100);
+            json.writeStringField("putCall", putCall);
+            json.writeNumberField("strikePrice", strike);
+            json.writeStringField("type", "VANILLA");
+            json.writeStringField("underlyingSymbol", underlying);
+            json.writeStringField("underlyingCusip", cusip(index));
+        } else {
+            json.writeStringField("assetType", "EQUITY");
+            json.writeStringField("status", "ACTIVE");
+            json.writeStringField("symbol", underlying);
+            json.writeNumberField("instrumentId", 100_000_000L + index);
+            writePrice(json, "closingPrice", price);
+            json.writeStringField("type", "COMMON_STOCK");
+        }
+        json.writeEndObject();
+        json.writeNumberField("amount", buy ? quantity : -quantity);
+        writePrice(json, "cost", principal);
+        writePrice(json, "price", price);
+        json.writeStringField("positionEffect", buy ? "OPENING" : "CLOSING");
+        json.writeEndObject();
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeDividend(JsonGenerator json, Random random, long activityId, ZonedDateTime time) throws IOException {
+        int index = random.nextInt(400);
+        double amount = price(random, 1, 500);
+        json.writeStartObject();
+        json.writeNumberField("activityId", activityId);
+        json.writeStringField("time", formatTime(time));
+        json.writeStringField("description", "QUALIFIED DIVIDEND");
+        json.writeStringField("accountNumber", "12345678");
+        json.writeStringField("type", "DIVIDEND_OR_INTEREST");
+        json.writeStringField("status", "VALID");
+        json.writeStringField("subAccount", "CASH");
+        json.writeStringField("tradeDate", formatTime(time));
+        json.writeStringField("settlementDate", formatTime(time));
+        writePrice(json, "netAmount", amount);
+        json.writeStringField("activityType", "ACTIVITY_CORRECTION");
+        json.writeArrayFieldStart("transferItems");
+        json.writeStartObject();
+        json.writeObjectFieldStart("instrument");
+        json.writeStringField("assetType", "EQUITY");
+        json.writeStringField("status", "ACTIVE");
+        json.writeStringField("symbol", symbol(index));
+        json.writeStringField("cusip", cusip(index));
+        json.writeNumberField("instrumentId", 100_000_000L + index);
+        json.writeStringField("type", "COMMON_STOCK");
+        json.writeEndObject();
+        writePrice(json, "amount", amount);
+        json.writeNumberField("cost", 0.0);
+        json.writeEndObject();
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeFee(JsonGenerator json, String feeType, double amount) throws IOException {
+        json.writeStartObject();
+        json.writeObjectFieldStart("instrument");
+        json.writeStringField("assetType", "CURRENCY");
+        json.writeStringField("status", "ACTIVE");
+        json.writeStringField("symbol", "CURRENCY_USD");
+        json.writeStringField("description", "USD currency");
+        json.writeNumberField("instrumentId", 1);
+        json.writeNumberField("closingPrice", 0.0);
+        json.writeEndObject();
+        writePrice(json, "amount", -amount);
+        writePrice(json, "cost", -amount);
+        json.writeStringField("feeType", feeType);
+        json.writeEndObject();
+    }
+
+    private static String formatTime(ZonedDateTime time) {
+        return time.withZoneSameInstant(ZoneOffset.UTC).format(TRANSACTION_TIME);
+    }
+
+    // symbols AAA, AAB, ... so every fixture refers to the same securities
+    private static String symbol(int index) {
+        return "" + (char) ('A' + index / 676 % 26) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    private static String cusip(int index) {
+        return String.format("%09d", 100_000_000 + index * 1_013);
+    }
+
+    private static double price(Random random, double low, double high) {
+        return low + random.nextDouble() * (high - low);
+    }
+
+    private static void writePrice(JsonGenerator json, String fieldName, double value) throws IOException {
+        writeDecimal(json, fieldName, value, 2);
+    }
+
+    private static void writeDecimal(JsonGenerator json, String fieldName, double value, int scale) throws IOException {
+        json.writeNumberField(fieldName, BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP));
+    }
+}
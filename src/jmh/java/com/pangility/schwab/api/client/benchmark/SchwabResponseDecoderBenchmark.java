@@ -0,0 +1,181 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.pangility.schwab.api.client.accountsandtrading.model.account.Account;
+import com.pangility.schwab.api.client.common.SchwabResponseDecoder;
+import com.pangility.schwab.api.client.common.SchwabWebClient;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding quote and account responses through the WebClient's Jackson decoder, which
+ * creates a reader for the requested type on every response, with the {@link SchwabResponseDecoder}
+ * and its cached readers.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SchwabResponseDecoderBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchwabResponseDecoderBenchmark {
+
+    private static final ParameterizedTypeReference<Map<String, QuoteResponse>> QUOTE_RESPONSE_MAP_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Account> ACCOUNT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private Jackson2JsonDecoder jackson2JsonDecoder;
+    private SchwabResponseDecoder responseDecoder;
+    private byte[] quotesBody;
+    private byte[] accountBody;
+
+    /**
+     * create the decoders over the shared ObjectMapper and the response bodies
+     */
+    @Setup
+    public void setup() {
+        SchwabWebClient schwabWebClient = SchwabWebClientBenchmark.newSchwabWebClient();
+        jackson2JsonDecoder = new Jackson2JsonDecoder(schwabWebClient.getObjectMapper(), MediaType.APPLICATION_JSON);
+        jackson2JsonDecoder.setMaxInMemorySize(SchwabWebClient.MAX_IN_MEMORY_SIZE);
+        responseDecoder = schwabWebClient.getResponseDecoder();
+        quotesBody = quotesBody(100).getBytes(StandardCharsets.UTF_8);
+        accountBody = accountBody(100).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * decode 100 equity quotes the way {@code bodyToMono} did
+     * @return {@link Map}
+     */
+    @Benchmark
+    public Map<String, QuoteResponse> quotesJackson2JsonDecoder() {
+        return this.decodeWithJackson2JsonDecoder(quotesBody, new ParameterizedTypeReference<Map<String, QuoteResponse>>() {});
+    }
+
+    /**
+     * decode 100 equity quotes with the cached reader
+     * @return {@link Map}
+     */
+    @Benchmark
+    public Map<String, QuoteResponse> quotesResponseDecoder() {
+        return responseDecoder.decode(wrap(quotesBody), QUOTE_RESPONSE_MAP_TYPE);
+    }
+
+    /**
+     * decode a margin account with 100 positions the way {@code bodyToMono} did
+     * @return {@link Account}
+     */
+    @Benchmark
+    public Account accountJackson2JsonDecoder() {
+        return this.decodeWithJackson2JsonDecoder(accountBody, new ParameterizedTypeReference<Account>() {});
+    }
+
+    /**
+     * decode a margin account with 100 positions with the cached reader
+     * @return {@link Account}
+     */
+    @Benchmark
+    public Account accountResponseDecoder() {
+        return responseDecoder.decode(wrap(accountBody), ACCOUNT_TYPE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decodeWithJackson2JsonDecoder(byte[] body, ParameterizedTypeReference<T> bodyTypeReference) {
+        return (T) jackson2JsonDecoder
+                .decodeToMono(Flux.just(wrap(body)), ResolvableType.forType(bodyTypeReference), MediaType.APPLICATION_JSON, null)
+                .block();
+    }
+
+    private static DataBuffer wrap(byte[] body) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(body);
+    }
+
+    private static String quotesBody(int count) {
+        StringBuilder body = new StringBuilder("{");
+        for(int i = 0; i < count; i++) {
+            String symbol = "SYM" + i;
+            double price = 100 + i * 1.37;
+            if(i > 0) {
+                body.append(',');
+            }
+            body.append('"').append(symbol).append("\":{\"assetMainType\":\"EQUITY\",\"assetSubType\":\"COE\",")
+                    .append("\"quoteType\":\"NBBO\",\"realtime\":true,\"ssid\":").append(1000000 + i)
+                    .append(",\"symbol\":\"").append(symbol).append('"')
+                    .append(",\"extended\":{\"askPrice\":").append(price + 0.05).append(",\"askSize\":100,\"bidPrice\":")
+                    .append(price - 0.05).append(",\"bidSize\":200,\"lastPrice\":").append(price)
+                    .append(",\"lastSize\":10,\"mark\":").append(price).append(",\"quoteTime\":1717185600000,")
+                    .append("\"totalVolume\":0,\"tradeTime\":1717185600000}")
+                    .append(",\"fundamental\":{\"avg10DaysVolume\":21234567,\"avg1YearVolume\":19876543,")
+                    .append("\"declarationDate\":\"2024-04-25T00:00:00Z\",\"divAmount\":3.0,\"divExDate\":\"2024-05-15T00:00:00Z\",")
+                    .append("\"divFreq\":4,\"divPayAmount\":0.75,\"divPayDate\":\"2024-06-13T00:00:00Z\",\"divYield\":0.71,")
+                    .append("\"eps\":11.06,\"fundLeverageFactor\":0.0,\"lastEarningsDate\":\"2024-04-25T00:00:00Z\",")
+                    .append("\"nextDivExDate\":\"2024-08-15T00:00:00Z\",\"nextDivPayDate\":\"2024-09-12T00:00:00Z\",\"peRatio\":35.6}")
+                    .append(",\"quote\":{\"52WeekHigh\":").append(price * 1.2).append(",\"52WeekLow\":").append(price * 0.8)
+                    .append(",\"askMICId\":\"XNAS\",\"askPrice\":").append(price + 0.02).append(",\"askSize\":300,\"askTime\":1717185599000")
+                    .append(",\"bidMICId\":\"XNAS\",\"bidPrice\":").append(price - 0.02).append(",\"bidSize\":400,\"bidTime\":1717185599000")
+                    .append(",\"closePrice\":").append(price - 1).append(",\"highPrice\":").append(price + 2)
+                    .append(",\"lastMICId\":\"XNAS\",\"lastPrice\":").append(price).append(",\"lastSize\":100")
+                    .append(",\"lowPrice\":").append(price - 2).append(",\"mark\":").append(price)
+                    .append(",\"markChange\":1.0,\"markPercentChange\":0.99,\"netChange\":1.0,\"netPercentChange\":0.99")
+                    .append(",\"openPrice\":").append(price - 0.5).append(",\"postMarketChange\":0.0,\"postMarketPercentChange\":0.0")
+                    .append(",\"quoteTime\":1717185599000,\"securityStatus\":\"Normal\",\"totalVolume\":23456789")
+                    .append(",\"tradeTime\":1717185599000,\"volatility\":0.0125}")
+                    .append(",\"reference\":{\"cusip\":\"").append(String.format("%09d", i))
+                    .append("\",\"description\":\"").append(symbol).append(" Corp\",\"exchange\":\"Q\",\"exchangeName\":\"NASDAQ\",")
+                    .append("\"isHardToBorrow\":false,\"isShortable\":true,\"htbRate\":0.0}")
+                    .append(",\"regular\":{\"regularMarketLastPrice\":").append(price)
+                    .append(",\"regularMarketLastSize\":100,\"regularMarketNetChange\":1.0,\"regularMarketPercentChange\":0.99,")
+                    .append("\"regularMarketTradeTime\":1717185599000}}");
+        }
+        return body.append('}').toString();
+    }
+
+    private static String accountBody(int positions) {
+        StringBuilder body = new StringBuilder("{\"securitiesAccount\":{\"type\":\"MARGIN\",\"accountNumber\":\"12345678\",")
+                .append("\"roundTrips\":0,\"isDayTrader\":false,\"isClosingOnlyRestricted\":false,\"pfcbFlag\":false,\"positions\":[");
+        for(int i = 0; i < positions; i++) {
+            double price = 50 + i * 0.91;
+            if(i > 0) {
+                body.append(',');
+            }
+            body.append("{\"shortQuantity\":0.0,\"averagePrice\":").append(price)
+                    .append(",\"currentDayProfitLoss\":12.5,\"currentDayProfitLossPercentage\":0.25,\"longQuantity\":100.0")
+                    .append(",\"settledLongQuantity\":100.0,\"settledShortQuantity\":0.0")
+                    .append(",\"instrument\":{\"assetType\":\"EQUITY\",\"cusip\":\"").append(String.format("%09d", i))
+                    .append("\",\"symbol\":\"SYM").append(i).append("\",\"netChange\":0.125}")
+                    .append(",\"marketValue\":").append(price * 100).append(",\"maintenanceRequirement\":").append(price * 25)
+                    .append(",\"averageLongPrice\":").append(price).append(",\"taxLotAverageLongPrice\":").append(price)
+                    .append(",\"longOpenProfitLoss\":250.0,\"previousSessionLongQuantity\":100.0,\"currentDayCost\":0.0}");
+        }
+        return body.append("],\"initialBalances\":{\"accruedInterest\":0.0,\"availableFundsNonMarginableTrade\":25000.0,")
+                .append("\"bondValue\":0.0,\"buyingPower\":50000.0,\"cashBalance\":25000.0,\"cashAvailableForTrading\":0.0,")
+                .append("\"cashReceipts\":0.0,\"dayTradingBuyingPower\":100000.0,\"equity\":530000.0,\"equityPercentage\":100.0,")
+                .append("\"liquidationValue\":530000.0,\"longMarginValue\":505000.0,\"longOptionMarketValue\":0.0,")
+                .append("\"longStockValue\":505000.0,\"margin\":25000.0,\"marginBalance\":0.0,\"accountValue\":530000.0}")
+                .append(",\"currentBalances\":{\"accruedInterest\":0.0,\"cashBalance\":25000.0,\"longMarketValue\":505000.0,")
+                .append("\"buyingPower\":50000.0,\"equity\":530000.0,\"equityPercentage\":100.0,\"marginBalance\":0.0}")
+                .append(",\"projectedBalances\":{\"availableFunds\":25000.0,\"buyingPower\":50000.0,\"dayTradingBuyingPower\":100000.0}}")
+                .append(",\"aggregatedBalance\":{\"currentLiquidationValue\":530000.0,\"liquidationValue\":530000.0}}")
+                .toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.pangility.schwab.api.client.common.SchwabWebClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of obtaining the Schwab WebClient and preparing a request,
+ * and of a complete request/decode round trip against a local HTTP server.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SchwabWebClientBenchmark -prof gc"}
+ * and compare the gc.alloc.rate.norm (bytes per operation) between releases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchwabWebClientBenchmark {
+
+    private static final String ACCESS_TOKEN = "12345678".repeat(8);
+    private static final String QUOTE_BODY = "{\"MSFT\":{\"assetMainType\":\"EQUITY\",\"symbol\":\"MSFT\",\"realtime\":true,"
+            + "\"quote\":{\"bidPrice\":415.21,\"askPrice\":415.25,\"lastPrice\":415.23,\"totalVolume\":18734021}}}";
+
+    private SchwabWebClient schwabWebClient;
+    private DisposableServer server;
+    private URI quoteUri;
+
+    /**
+     * create the web client and a local server returning a quote
+     */
+    @Setup
+    public void setup() {
+        schwabWebClient = newSchwabWebClient();
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/marketdata/v1/MSFT/quotes", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(QUOTE_BODY))))
+                .bindNow();
+        quoteUri = URI.create("http://localhost:" + server.port() + "/marketdata/v1/MSFT/quotes");
+    }
+
+    /**
+     * shut down the local server and the connection pool
+     */
+    @TearDown
+    public void tearDown() {
+        server.disposeNow();
+        schwabWebClient.destroy();
+    }
+
+    /**
+     * obtain the web client and prepare a request the way the API clients do for every call
+     * @return {@link WebClient.RequestHeadersSpec}
+     */
+    @Benchmark
+    public WebClient.RequestHeadersSpec<?> prepareRequest() {
+        return schwabWebClient.getSchwabWebClient()
+                .get()
+                .uri(quoteUri)
+                .headers(h -> h.setBearerAuth(ACCESS_TOKEN));
+    }
+
+    /**
+     * execute a request and decode the response
+     * @return {@link Map}
+     */
+    @Benchmark
+    public Map<String, Object> roundTrip() {
+        return schwabWebClient.getSchwabWebClient()
+                .get()
+                .uri(quoteUri)
+                .headers(h -> h.setBearerAuth(ACCESS_TOKEN))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .block();
+    }
+
+    static SchwabWebClient newSchwabWebClient() {
+        SchwabWebClient schwabWebClient = new SchwabWebClient();
+        ReflectionTestUtils.setField(schwabWebClient, "schwabTargetUrl", "localhost");
+        ReflectionTestUtils.setField(schwabWebClient, "maxConnections", 50);
+        ReflectionTestUtils.setField(schwabWebClient, "pendingAcquireMaxCount", 1000);
+        ReflectionTestUtils.setField(schwabWebClient, "pendingAcquireTimeout", Duration.ofSeconds(45));
+        ReflectionTestUtils.setField(schwabWebClient, "maxIdleTime", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(schwabWebClient, "maxLifeTime", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(schwabWebClient, "evictInBackground", Duration.ofSeconds(60));
+        return schwabWebClient;
+    }
+}
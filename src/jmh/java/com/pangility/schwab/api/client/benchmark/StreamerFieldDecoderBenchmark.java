@@ -0,0 +1,122 @@
+package com.pangility.schwab.api.client.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.StreamerRecordListener;
+import com.pangility.schwab.api.client.streaming.StreamerSchema;
+import com.pangility.schwab.api.client.streaming.model.LevelOneEquity;
+import com.pangility.schwab.api.client.streaming.model.StreamerMessage;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding LEVELONE_EQUITIES messages for a 500 symbol watchlist, 10 updates of 4 to 12 fields per
+ * message, into reusable records with the {@link StreamerFieldDecoder} and into {@link LevelOneEquity}
+ * objects with Jackson.  One operation is one message; in steady state the {@code gc.alloc.rate.norm} of
+ * the records is 0 B/op.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="StreamerFieldDecoderBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamerFieldDecoderBenchmark {
+
+    private static final int SYMBOLS = 500;
+    private static final int MESSAGES = 100;
+    private static final int UPDATES_PER_MESSAGE = 10;
+    private static final int[] FIELDS = {1, 2, 3, 4, 5, 8, 9, 10, 11, 33, 34, 35, 37, 38};
+
+    private final StreamerFieldDecoder decoder = new StreamerFieldDecoder(StreamerService.LEVELONE_EQUITIES);
+    private final int bidPrice = StreamerSchema.of(StreamerService.LEVELONE_EQUITIES).field("bidPrice");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader messageReader = objectMapper.readerFor(StreamerMessage.class);
+    private final ObjectReader contentReader = objectMapper.readerFor(LevelOneEquity.class);
+    private final ByteBuf[] messages = new ByteBuf[MESSAGES];
+    private final byte[][] messageBytes = new byte[MESSAGES][];
+    private Blackhole blackhole;
+    private final StreamerRecordListener listener = record -> blackhole.consume(record.getDouble(bidPrice));
+
+    /**
+     * generate the messages and decode them once, so every symbol has its record
+     * @param blackhole {@link Blackhole}
+     */
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        Random random = new Random(20240719L);
+        for(int i = 0; i < MESSAGES; i++) {
+            StringBuilder message = new StringBuilder("{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"timestamp\":")
+                    .append(1721400000000L + i).append(",\"command\":\"SUBS\",\"content\":[");
+            for(int update = 0; update < UPDATES_PER_MESSAGE; update++) {
+                int symbol = (i * UPDATES_PER_MESSAGE + update) % SYMBOLS;
+                message.append(update == 0 ? "" : ",").append("{\"key\":\"SYM").append(symbol).append("\",\"delayed\":false");
+                int fieldCount = 4 + random.nextInt(9);
+                for(int field = 0; field < fieldCount; field++) {
+                    int number = FIELDS[(field + random.nextInt(FIELDS.length)) % FIELDS.length];
+                    message.append(",\"").append(number).append("\":");
+                    if(number == 4 || number == 5 || number == 8 || number == 9 || number >= 34) {
+                        message.append(number >= 34 ? 1721400000000L + random.nextInt(1_000_000) : random.nextInt(100_000));
+                    } else {
+                        message.append(String.format(Locale.US, "%.2f", 10 + random.nextDouble() * 500));
+                    }
+                }
+                message.append('}');
+            }
+            messageBytes[i] = message.append("]}]}").toString().getBytes(StandardCharsets.UTF_8);
+            messages[i] = Unpooled.wrappedBuffer(messageBytes[i]);
+        }
+        this.records();
+    }
+
+    /**
+     * decode the messages into reusable records
+     */
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void records() {
+        for(ByteBuf message : messages) {
+            decoder.decode(message, listener);
+        }
+    }
+
+    /**
+     * read the messages into {@link LevelOneEquity} objects
+     * @param blackhole {@link Blackhole}
+     * @throws IOException when a message cannot be read
+     */
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void jackson(Blackhole blackhole) throws IOException {
+        for(byte[] message : messageBytes) {
+            StreamerMessage streamerMessage = messageReader.readValue(message);
+            for(JsonNode content : streamerMessage.getData().get(0).getContent()) {
+                LevelOneEquity levelOneEquity = contentReader.readValue(content);
+                blackhole.consume(levelOneEquity.getBidPrice());
+            }
+        }
+    }
+}
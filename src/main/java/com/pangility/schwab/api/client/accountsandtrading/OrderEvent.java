@@ -0,0 +1,56 @@
+package com.pangility.schwab.api.client.accountsandtrading;
+
+import com.pangility.schwab.api.client.accountsandtrading.model.order.ActivityType;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Order;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.OrderActivity;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Status;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A change of an order tracked by a {@link SchwabOrderTracker}.  The order is the state after the change
+ * and is not modified afterwards; the tracker replaces it on the next change.
+ */
+@Getter
+@ToString
+public class OrderEvent {
+    private final Long accountNumber;
+    private final Long orderId;
+    private final String messageType;
+    private final Status previousStatus;
+    private final Status status;
+    private final OrderActivity activity;
+    private final Order order;
+
+    OrderEvent(Long accountNumber,
+               Long orderId,
+               String messageType,
+               Status previousStatus,
+               Status status,
+               OrderActivity activity,
+               Order order) {
+        this.accountNumber = accountNumber;
+        this.orderId = orderId;
+        this.messageType = messageType;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.activity = activity;
+        this.order = order;
+    }
+
+    /**
+     * check if the event is an execution, a partial or complete fill
+     * @return boolean
+     */
+    public boolean isFill() {
+        return activity != null && activity.getActivityType() == ActivityType.EXECUTION;
+    }
+
+    /**
+     * check if the status of the order changed
+     * @return boolean
+     */
+    public boolean isStatusChanged() {
+        return previousStatus != status;
+    }
+}
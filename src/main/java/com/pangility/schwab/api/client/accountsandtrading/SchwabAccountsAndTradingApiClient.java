@@ -8,6 +8,7 @@ import com.pangility.schwab.api.client.accountsandtrading.model.transaction.Tran
 import com.pangility.schwab.api.client.accountsandtrading.model.transaction.TransactionRequest;
 import com.pangility.schwab.api.client.accountsandtrading.model.userpreference.UserPreferenceResponse;
 import com.pangility.schwab.api.client.common.SchwabBaseApiClient;
+import jakarta.annotation.PostConstruct;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,6 +35,30 @@ public class SchwabAccountsAndTradingApiClient extends SchwabBaseApiClient {
 
     @Value("${schwab-api.traderPath}")
     private String schwabTraderPath;
+    @Value("${schwab-api.orders.tracker.enabled}")
+    private Boolean orderTrackerEnabled;
+    @Value("${schwab-api.orders.tracker.bufferSize}")
+    private Integer orderTrackerBufferSize;
+
+    private SchwabOrderTracker orderTracker = null;
+
+    /**
+     * create the order tracker if it is enabled
+     */
+    @PostConstruct
+    public void initOrderSupport() {
+        if(Boolean.TRUE.equals(orderTrackerEnabled)) {
+            orderTracker = new SchwabOrderTracker(this.getObjectMapper(), orderTrackerBufferSize);
+        }
+    }
+
+    /**
+     * get the tracker of the orders fetched and of the order activity of the streamer sessions attached to it
+     * @return {@link SchwabOrderTracker} or null if the tracker is disabled
+     */
+    public SchwabOrderTracker getOrderTracker() {
+        return orderTracker;
+    }
 
     /**
      * fetch the list of accounts and encrypted account numbers to be
@@ -232,6 +257,11 @@ public class SchwabAccountsAndTradingApiClient extends SchwabBaseApiClient {
                     } else {
                         return Mono.error(new OrderNotFoundException("Order [" + orderId + "] on Encrypted Account [" + encryptedAccount + "] not found"));
                     }
+                })
+                .doOnNext(orderResponse -> {
+                    if(orderTracker != null) {
+                        orderTracker.update(orderResponse);
+                    }
                 });
     }
 
@@ -301,7 +331,12 @@ public class SchwabAccountsAndTradingApiClient extends SchwabBaseApiClient {
         if(orderRequest.getStatus() != null) {
             uriBuilder.queryParam("status", orderRequest.getStatus());
         }
-        return this.callGetApiToFlux(schwabUserId, uriBuilder, Order.class);
+        return this.callGetApiToFlux(schwabUserId, uriBuilder, Order.class)
+                .doOnNext(order -> {
+                    if(orderTracker != null) {
+                        orderTracker.update(order);
+                    }
+                });
     }
 
     /**
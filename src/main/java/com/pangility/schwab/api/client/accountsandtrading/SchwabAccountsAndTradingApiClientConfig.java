@@ -2,13 +2,14 @@ package com.pangility.schwab.api.client.accountsandtrading;
 
 import com.pangility.schwab.api.client.common.SchwabWebClient;
 import com.pangility.schwab.api.client.oauth2.SchwabOauth2Controller;
+import com.pangility.schwab.api.client.streaming.SchwabStreamerClient;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.PropertySource;
 
 /**
  * Configuration used for enabling the Accounts and Trading API
  */
-@ComponentScan(basePackageClasses = {SchwabAccountsAndTradingApiClient.class, SchwabOauth2Controller.class, SchwabWebClient.class})
+@ComponentScan(basePackageClasses = {SchwabAccountsAndTradingApiClient.class, SchwabOauth2Controller.class, SchwabWebClient.class, SchwabStreamerClient.class})
 @PropertySource(value = "classpath:schwabapiclient.properties")
 public class SchwabAccountsAndTradingApiClientConfig {
 }
\ No newline at end of file
@@ -0,0 +1,487 @@
+package com.pangility.schwab.api.client.accountsandtrading;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.ActivityType;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.ExecutionLeg;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Order;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.OrderActivity;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Status;
+import com.pangility.schwab.api.client.streaming.SchwabStreamerSession;
+import com.pangility.schwab.api.client.streaming.model.AccountActivity;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * The current state of the orders of each account, kept up to date by the ACCT_ACTIVITY messages of the
+ * streamer sessions attached to it, so fills are seen when they are pushed instead of by polling the
+ * orders endpoint.  The orders fetched from the orders endpoints seed the tracker.
+ * </p>
+ * <p>
+ * Each message moves its order to the {@link Status} of its message type, but only forward: new and
+ * awaiting orders, then accepted and queued, then working, then pending a cancel, replace or recall, then
+ * a final status, {@code FILLED}, {@code CANCELED}, {@code REJECTED}, {@code EXPIRED} or {@code REPLACED},
+ * which does not change again.  A late or replayed message and a fetched order behind the streamed state
+ * are ignored.  An execution is added to the order as an {@link OrderActivity} with its {@link ExecutionLeg}
+ * and updates the filled and remaining quantity; a partial fill makes a new or awaiting order working and
+ * leaves any other status as it is.
+ * </p>
+ * <p>
+ * Schwab does not document the message data of ACCT_ACTIVITY, so its fields are looked up by the names it
+ * has been seen to use; the fill quantity and price are only read from the execution, and an execution
+ * without them is logged and not recorded.  The message type and data are kept in the other fields of the
+ * activity.
+ * </p>
+ * <p>
+ * Every subscriber of {@link #events()} and {@link #fills()} has its own buffer, so a subscriber without
+ * demand does not lose events until it is a full buffer behind; then its oldest events are dropped and
+ * counted by {@link #getDroppedCount()}.
+ * </p>
+ */
+@Slf4j
+public class SchwabOrderTracker {
+
+    private static final Map<String, Status> STATUS_BY_MESSAGE_TYPE = Map.ofEntries(
+            Map.entry("OrderCreated", Status.NEW),
+            Map.entry("OrderAccepted", Status.WORKING),
+            Map.entry("OrderRejected", Status.REJECTED),
+            Map.entry("CancelRequested", Status.PENDING_CANCEL),
+            Map.entry("CancelAccepted", Status.CANCELED),
+            Map.entry("OrderUROutCompleted", Status.CANCELED),
+            Map.entry("OrderExpired", Status.EXPIRED),
+            Map.entry("ChangeCreated", Status.PENDING_REPLACE),
+            Map.entry("ChangeAccepted", Status.REPLACED),
+            Map.entry("ExecutionCreated", Status.WORKING),
+            Map.entry("OrderFillCompleted", Status.FILLED));
+    private static final Set<String> CANCEL_MESSAGE_TYPES = Set.of("CancelAccepted", "OrderUROutCompleted", "OrderExpired");
+    private static final String EXECUTION_CREATED = "ExecutionCreated";
+    private static final String[] EXECUTION_OBJECTS = {"ExecutionLeg", "ExecutionLegs", "Execution"};
+    private static final String[] EXECUTION_QUANTITY = {"ExecutionQuantity", "LastFillQuantity", "FillQuantity"};
+    private static final String[] EXECUTION_PRICE = {"ExecutionPrice", "LastFillPrice", "FillPrice"};
+    private static final String[] REMAINING_QUANTITY = {"LeavesQuantity", "RemainingQuantity"};
+    private static final Set<Status> FINAL_STATUSES = EnumSet.of(Status.FILLED, Status.CANCELED, Status.REJECTED,
+            Status.EXPIRED, Status.REPLACED);
+    // the statuses a partial fill moves to WORKING, along with a missing status; AWAITING_UR_OUT waits on a
+    // cancel, so it is past WORKING
+    private static final Set<Status> BEFORE_WORKING_STATUSES = EnumSet.of(Status.NEW, Status.AWAITING_PARENT_ORDER,
+            Status.AWAITING_CONDITION, Status.AWAITING_STOP_CONDITION, Status.AWAITING_MANUAL_REVIEW,
+            Status.AWAITING_RELEASE_TIME);
+    // an order only moves to a status of the same or a higher step
+    private static final Map<Status, Integer> STATUS_STEPS = Map.ofEntries(
+            Map.entry(Status.UNKNOWN, -1),
+            Map.entry(Status.NEW, 0),
+            Map.entry(Status.PENDING_ACKNOWLEDGEMENT, 0),
+            Map.entry(Status.AWAITING_PARENT_ORDER, 0),
+            Map.entry(Status.AWAITING_CONDITION, 0),
+            Map.entry(Status.AWAITING_STOP_CONDITION, 0),
+            Map.entry(Status.AWAITING_MANUAL_REVIEW, 0),
+            Map.entry(Status.AWAITING_RELEASE_TIME, 0),
+            Map.entry(Status.PENDING_ACTIVATION, 0),
+            Map.entry(Status.ACCEPTED, 1),
+            Map.entry(Status.QUEUED, 1),
+            Map.entry(Status.WORKING, 2),
+            Map.entry(Status.PENDING_CANCEL, 3),
+            Map.entry(Status.PENDING_REPLACE, 3),
+            Map.entry(Status.PENDING_RECALL, 3),
+            Map.entry(Status.AWAITING_UR_OUT, 3),
+            Map.entry(Status.FILLED, 4),
+            Map.entry(Status.CANCELED, 4),
+            Map.entry(Status.REJECTED, 4),
+            Map.entry(Status.EXPIRED, 4),
+            Map.entry(Status.REPLACED, 4));
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Map<Long, Map<Long, Order>> orders = new ConcurrentHashMap<>();
+    private final Sinks.Many<OrderEvent> events = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * create an empty tracker
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read the message data
+     * @param bufferSize int the most events buffered for a subscriber without demand
+     */
+    public SchwabOrderTracker(@NonNull ObjectMapper objectMapper, int bufferSize) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    /**
+     * check if an order can move from one status to another
+     * @param from {@link Status} or null for a new order
+     * @param to {@literal @}NotNull {@link Status}
+     * @return boolean false for a move back to an earlier status or out of a final status
+     */
+    public static boolean isTransitionAllowed(Status from, @NonNull Status to) {
+        if(from == null || from == to) {
+            return true;
+        }
+        return !FINAL_STATUSES.contains(from) && STATUS_STEPS.get(to) >= STATUS_STEPS.get(from);
+    }
+
+    /**
+     * get the current state of an order
+     * @param accountNumber {@literal @}NotNull Long account number, not encrypted
+     * @param orderId {@literal @}NotNull Long
+     * @return {@link Optional}{@literal <}{@link Order}{@literal >}
+     */
+    public Optional<Order> getOrder(@NonNull Long accountNumber, @NonNull Long orderId) {
+        return Optional.ofNullable(orders.getOrDefault(accountNumber, Collections.emptyMap()).get(orderId));
+    }
+
+    /**
+     * get the current state of the orders of an account
+     * @param accountNumber {@literal @}NotNull Long account number, not encrypted
+     * @return {@link List}{@literal <}{@link Order}{@literal >}
+     */
+    public List<Order> getOrders(@NonNull Long accountNumber) {
+        return List.copyOf(orders.getOrDefault(accountNumber, Collections.emptyMap()).values());
+    }
+
+    /**
+     * get the orders of an account that are not in a final status
+     * @param accountNumber {@literal @}NotNull Long account number, not encrypted
+     * @return {@link List}{@literal <}{@link Order}{@literal >}
+     */
+    public List<Order> getOpenOrders(@NonNull Long accountNumber) {
+        return this.getOrders(accountNumber).stream()
+                .filter(order -> order.getStatus() == null || !FINAL_STATUSES.contains(order.getStatus()))
+                .toList();
+    }
+
+    /**
+     * stream the changes of the tracked orders
+     * @return {@link Flux}{@literal <}{@link OrderEvent}{@literal >}
+     */
+    public Flux<OrderEvent> events() {
+        return this.buffered(events.asFlux());
+    }
+
+    /**
+     * stream the executions of the tracked orders
+     * @return {@link Flux}{@literal <}{@link OrderEvent}{@literal >}
+     */
+    public Flux<OrderEvent> fills() {
+        return this.buffered(events.asFlux().filter(OrderEvent::isFill));
+    }
+
+    /**
+     * get the number of events dropped because a subscriber was a full buffer behind
+     * @return long
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * track the order activity of a streamer session, subscribing it to ACCT_ACTIVITY
+     * @param session {@literal @}NotNull {@link SchwabStreamerSession}
+     * @return {@link Disposable} to stop tracking the session
+     */
+    public Disposable attach(@NonNull SchwabStreamerSession session) {
+        Disposable listener = session.accountActivities()
+                .subscribe(this::update, throwable -> log.warn("Order tracker -> account activity failed: {}", throwable.toString()));
+        session.subscribe(StreamerService.ACCT_ACTIVITY, List.of(AccountActivity.SUBSCRIPTION_KEY), AccountActivity.ALL_FIELDS)
+                .subscribe(response -> log.info("Order tracker -> subscribed to account activity"),
+                        throwable -> log.warn("Order tracker -> unable to subscribe to account activity: {}", throwable.toString()));
+        return listener;
+    }
+
+    /**
+     * track an order fetched from the orders endpoints, unless the tracked state is more recent
+     * @param order {@literal @}NotNull {@link Order}
+     */
+    public synchronized void update(@NonNull Order order) {
+        if(order.getAccountNumber() == null || order.getOrderId() == null) {
+            return;
+        }
+        Map<Long, Order> accountOrders = orders.computeIfAbsent(order.getAccountNumber(), accountNumber -> new ConcurrentHashMap<>());
+        Order previous = accountOrders.get(order.getOrderId());
+        Status previousStatus = previous == null ? null : previous.getStatus();
+        if(previous != null) {
+            if(order.getStatus() != null && !isTransitionAllowed(previousStatus, order.getStatus())) {
+                return;
+            }
+            if(previous.getFilledQuantity() != null
+                    && (order.getFilledQuantity() == null || order.getFilledQuantity().compareTo(previous.getFilledQuantity()) < 0)) {
+                return;
+            }
+        }
+        accountOrders.put(order.getOrderId(), order);
+        if(previous == null || previousStatus != order.getStatus()) {
+            this.emit(new OrderEvent(order.getAccountNumber(), order.getOrderId(), null,
+                    previousStatus, order.getStatus(), null, order));
+        }
+    }
+
+    /**
+     * apply an ACCT_ACTIVITY message to its order
+     * @param activity {@literal @}NotNull {@link AccountActivity}
+     */
+    public void update(@NonNull AccountActivity activity) {
+        String messageType = activity.getMessageType();
+        if(messageType == null || AccountActivity.SUBSCRIBED.equals(messageType)
+                || activity.getMessageData() == null || activity.getMessageData().isBlank()) {
+            return;
+        }
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(activity.getMessageData());
+        } catch (JsonProcessingException e) {
+            log.warn("Order tracker -> unable to read {} message data: {}", messageType, e.getMessage());
+            return;
+        }
+        Long orderId = longValue(data.findValue("SchwabOrderID"));
+        Long accountNumber = longValue(activity.getAccountNumber() == null ? data.findValue("AccountNumber")
+                : objectMapper.getNodeFactory().textNode(activity.getAccountNumber()));
+        if(orderId == null || accountNumber == null) {
+            log.debug("Order tracker -> ignoring {} without an order", messageType);
+            return;
+        }
+
+        synchronized (this) {
+            Map<Long, Order> accountOrders = orders.computeIfAbsent(accountNumber, number -> new ConcurrentHashMap<>());
+            Order previous = accountOrders.get(orderId);
+            Status previousStatus = previous == null ? null : previous.getStatus();
+            Order order = previous == null ? new Order() : copyOf(previous);
+            order.setAccountNumber(accountNumber);
+            order.setOrderId(orderId);
+            if(order.getQuantity() == null && !EXECUTION_CREATED.equals(messageType)) {
+                order.setQuantity(decimal(data, "OrderQuantity", "Quantity"));
+            }
+
+            Status status = STATUS_BY_MESSAGE_TYPE.get(messageType);
+            OrderActivity orderActivity = null;
+            if(EXECUTION_CREATED.equals(messageType)) {
+                orderActivity = this.execution(order, data);
+                if(orderActivity == null) {
+                    log.warn("Order tracker -> ignoring {} of order {} without the fill quantity and price", messageType, orderId);
+                    return;
+                }
+                if(orderActivity.getOrderRemainingQuantity() != null && orderActivity.getOrderRemainingQuantity().signum() == 0) {
+                    status = Status.FILLED;
+                } else if(previousStatus != null && !BEFORE_WORKING_STATUSES.contains(previousStatus)) {
+                    status = null;
+                }
+            } else if(CANCEL_MESSAGE_TYPES.contains(messageType)) {
+                orderActivity = new OrderActivity();
+                orderActivity.setActivityType(ActivityType.ORDER_ACTION);
+                orderActivity.setExecutionType(OrderActivity.ExecutionType.CANCELED);
+                orderActivity.setQuantity(order.getRemainingQuantity());
+                orderActivity.setOrderRemainingQuantity(BigDecimal.ZERO);
+            }
+            if(orderActivity != null) {
+                orderActivity.getOtherFields().put("messageType", messageType);
+                orderActivity.getOtherFields().put("messageData", activity.getMessageData());
+                order.getOrderActivityCollection().add(orderActivity);
+            }
+
+            if(status != null) {
+                if(isTransitionAllowed(previousStatus, status)) {
+                    order.setStatus(status);
+                } else {
+                    log.debug("Order tracker -> ignoring {} of order {} in status {}", messageType, orderId, previousStatus);
+                }
+            }
+            accountOrders.put(orderId, order);
+            this.emit(new OrderEvent(accountNumber, orderId, messageType, previousStatus, order.getStatus(),
+                    orderActivity, order));
+        }
+    }
+
+    // the buffer of each subscriber always has demand for the sink, so the sink only fails without a subscriber
+    private Flux<OrderEvent> buffered(Flux<OrderEvent> flux) {
+        return flux.onBackpressureBuffer(bufferSize, this::dropped, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private void emit(OrderEvent event) {
+        Sinks.EmitResult result = events.tryEmitNext(event);
+        if(result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            this.dropped(event);
+        }
+    }
+
+    private void dropped(OrderEvent event) {
+        if(droppedCount.getAndIncrement() == 0) {
+            log.warn("Order tracker -> a subscriber is {} events behind, dropping events", bufferSize);
+        } else {
+            log.debug("Order tracker -> dropped {} of order {}", event.getMessageType(), event.getOrderId());
+        }
+    }
+
+    // an execution adds its leg to the order and moves the filled and remaining quantity; the fill is only read
+    // from the execution itself, as the order carries its own quantity and price under the same names
+    private OrderActivity execution(Order order, JsonNode data) {
+        JsonNode execution = executionNode(data);
+        if(execution == null) {
+            return null;
+        }
+        ExecutionLeg executionLeg = new ExecutionLeg();
+        executionLeg.setQuantity(decimal(field(execution, EXECUTION_QUANTITY)));
+        executionLeg.setPrice(decimal(field(execution, EXECUTION_PRICE)));
+        if(executionLeg.getQuantity() == null || executionLeg.getPrice() == null) {
+            return null;
+        }
+        executionLeg.setLegId(longValue(field(execution, "LegId", "LegID", "ExecutionLegId")));
+        executionLeg.setTime(time(field(execution, "ExecutionTimeStamp", "ExecutionTimestamp", "ExecutionTime")));
+
+        BigDecimal filledQuantity = order.getFilledQuantity() == null ? BigDecimal.ZERO : order.getFilledQuantity();
+        filledQuantity = filledQuantity.add(executionLeg.getQuantity());
+        BigDecimal remainingQuantity = decimal(field(execution, REMAINING_QUANTITY));
+        if(remainingQuantity == null) {
+            remainingQuantity = decimal(data, REMAINING_QUANTITY);
+        }
+        if(remainingQuantity == null && order.getQuantity() != null) {
+            remainingQuantity = order.getQuantity().subtract(filledQuantity).max(BigDecimal.ZERO);
+        }
+        order.setFilledQuantity(filledQuantity);
+        order.setRemainingQuantity(remainingQuantity);
+
+        OrderActivity orderActivity = new OrderActivity();
+        orderActivity.setActivityType(ActivityType.EXECUTION);
+        orderActivity.setExecutionType(OrderActivity.ExecutionType.FILL);
+        orderActivity.setQuantity(executionLeg.getQuantity());
+        orderActivity.setOrderRemainingQuantity(remainingQuantity);
+        orderActivity.getExecutionLegs().add(executionLeg);
+        return orderActivity;
+    }
+
+    // the execution object of the message, or the object holding the fill quantity
+    private static JsonNode executionNode(JsonNode data) {
+        for(String name : EXECUTION_OBJECTS) {
+            JsonNode execution = data.findValue(name);
+            if(execution != null && execution.isArray()) {
+                execution = execution.path(0);
+            }
+            if(execution != null && execution.isObject()) {
+                return execution;
+            }
+        }
+        for(String name : EXECUTION_QUANTITY) {
+            JsonNode execution = data.findParent(name);
+            if(execution != null) {
+                return execution;
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode field(JsonNode node, String... names) {
+        for(String name : names) {
+            JsonNode value = node.get(name);
+            if(value != null && !value.isNull()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Long longValue(JsonNode value) {
+        if(value == null || value.isNull()) {
+            return null;
+        }
+        if(value.isNumber()) {
+            return value.asLong();
+        }
+        try {
+            return Long.parseLong(value.asText().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal decimal(JsonNode data, String... names) {
+        for(String name : names) {
+            BigDecimal value = decimal(data.findValue(name));
+            if(value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(JsonNode value) {
+        if(value == null || value.isNull()) {
+            return null;
+        }
+        if(value.isNumber()) {
+            return value.decimalValue();
+        }
+        if(value.isObject() && value.has("lo")) {
+            // an unscaled amount, with the sign in the lowest bit of signScale and the scale in the others
+            BigDecimal unscaled = decimal(value.get("lo"));
+            if(unscaled == null) {
+                return null;
+            }
+            int signScale = value.path("signScale").asInt(0);
+            BigDecimal amount = unscaled.movePointLeft(signScale >> 1);
+            return (signScale & 1) == 1 ? amount.negate() : amount;
+        }
+        if(value.isTextual()) {
+            try {
+                return new BigDecimal(value.asText().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static ZonedDateTime time(JsonNode value) {
+        if(value == null || value.isNull()) {
+            return null;
+        }
+        if(value.isNumber()) {
+            return Instant.ofEpochMilli(value.asLong()).atZone(ZoneOffset.UTC);
+        }
+        if(value.isObject()) {
+            if(value.has("Seconds")) {
+                return Instant.ofEpochSecond(value.get("Seconds").asLong(), value.path("Nanos").asLong(0))
+                        .atZone(ZoneOffset.UTC);
+            }
+            return time(value.get("DateTimeString"));
+        }
+        try {
+            return ZonedDateTime.parse(value.asText().trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // orders are replaced rather than changed, so an order handed out is never modified; every property is
+    // copied, then the collections are copied so the new order can add to them
+    private static Order copyOf(Order order) {
+        Order copy = new Order();
+        BeanUtils.copyProperties(order, copy);
+        copy.setOrderLegCollection(new ArrayList<>(order.getOrderLegCollection()));
+        copy.setOrderActivityCollection(new ArrayList<>(order.getOrderActivityCollection()));
+        copy.setReplacingOrderCollection(new ArrayList<>(order.getReplacingOrderCollection()));
+        copy.setChildOrderStrategies(new ArrayList<>(order.getChildOrderStrategies()));
+        copy.setOtherFields(new HashMap<>(order.getOtherFields()));
+        return copy;
+    }
+}
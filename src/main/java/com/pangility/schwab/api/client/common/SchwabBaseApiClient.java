@@ -1,5 +1,6 @@
 package com.pangility.schwab.api.client.common;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pangility.schwab.api.client.common.deserializers.ApiTooManyRequestsException;
 import com.pangility.schwab.api.client.oauth2.SchwabAccount;
 import com.pangility.schwab.api.client.oauth2.SchwabOauth2Controller;
@@ -9,22 +10,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Base class for the client Api classes to extend.  Contains the helper
@@ -35,6 +44,8 @@ public class SchwabBaseApiClient {
 
     @Value("${schwab-api.targetUrl}")
     private String schwabTargetUrl;
+    @Value("${schwab-api.marketDataPath}")
+    private String schwabMarketDataPath;
     /**
      * The version of the Schwab API
      */
@@ -45,6 +56,8 @@ public class SchwabBaseApiClient {
     private SchwabOauth2Controller schwabOauth2Controller;
     @Autowired
     private SchwabWebClient schwabWebClient;
+    @Autowired
+    private SchwabRateLimiter schwabRateLimiter;
 
     /**
      * Initialize the client controller
@@ -197,6 +210,23 @@ public class SchwabBaseApiClient {
         return this.callApiToFlux(schwabUserId, HttpMethod.GET, uriComponentsBuilder, null, bodyTypeReference);
     }
 
+    /**
+     * Call a Schwab Api using the get http method and decode the response body while it is received
+     * instead of buffering it, which is not limited by the maximum in memory size
+     * @param schwabUserId the Charles Schwab user id of the account to be used for API authentication
+     * @param uriComponentsBuilder the path and query params of the API
+     * @param bodyDecoder a function decoding the {@link DataBuffer}s of the response body, it must release the buffers
+     * @return {@link Flux}{@literal <}T{@literal >}
+     * @param <T> the return type of the method
+     */
+    protected <T> Flux<T> callGetApiToFlux(@NonNull String schwabUserId,
+                                           @NonNull UriComponentsBuilder uriComponentsBuilder,
+                                           @NonNull Function<Flux<DataBuffer>, Flux<T>> bodyDecoder) {
+
+        return this.callApiToFlux(schwabUserId, HttpMethod.GET, uriComponentsBuilder, null,
+                response -> bodyDecoder.apply(response.body(BodyExtractors.toDataBuffers())), false);
+    }
+
     /**
      * Call a Schwab Api using the get http method
      * @param schwabUserId the Charles Schwab user id of the account to be used for API authentication
@@ -673,17 +703,23 @@ public class SchwabBaseApiClient {
                                         @NonNull ParameterizedTypeReference<T> bodyTypeReference,
                                         @NonNull Boolean hasRetried401WithNewAccessToken) {
 
+        SchwabRateLimiter.Lane lane = this.getRateLimiterLane(uriComponentsBuilder);
         return schwabOauth2Controller.getAccessToken(schwabUserId)
                 .flatMap(tokenInfo -> this.callApiPreProcessToMono(schwabUserId, httpMethod, uriComponentsBuilder, body, tokenInfo)
-                        .flatMap(requestBodySpec -> requestBodySpec.exchangeToMono(response -> {
+                        .flatMap(requestBodySpec -> schwabRateLimiter.acquire(schwabUserId, lane)
+                                .then(requestBodySpec.exchangeToMono(response -> {
                             Mono<T> mono;
                             if (response.statusCode().is2xxSuccessful()) {
-                                mono = response.bodyToMono(bodyTypeReference);
+                                schwabRateLimiter.onSuccess(schwabUserId, lane);
+                                mono = this.decodeToMono(response, bodyTypeReference);
                             } else if (response.statusCode().is4xxClientError() || response.statusCode().is5xxServerError()) {
                                 if (response.statusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)) {
                                     mono = Mono.error(new ApiUnauthorizedException());
                                 } else if (response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
-                                    mono = Mono.error(new ApiTooManyRequestsException());
+                                    Duration retryAfter = this.getRetryAfter(response.headers().asHttpHeaders());
+                                    schwabRateLimiter.pause(schwabUserId, lane, retryAfter);
+                                    mono = response.releaseBody()
+                                            .then(Mono.error(new ApiTooManyRequestsException(retryAfter)));
                                 } else {
                                     mono = response.createException()
                                             .flatMap(Mono::error);
@@ -694,10 +730,9 @@ public class SchwabBaseApiClient {
                             }
                             return mono;
 
-                }))
-                .retryWhen(Retry.backoff(10, Duration.ofSeconds(1)).jitter(0.25)
-                        .filter(throwable -> throwable instanceof ApiTooManyRequestsException)
-                )
+                })))
+                // the rate limiter holds the retry until the lane's 429 pause is over
+                .retryWhen(schwabRateLimiter.retrySpec())
                 .onErrorResume(throwable -> {
                     if(throwable instanceof ApiUnauthorizedException && !hasRetried401WithNewAccessToken) {
                         // Invalidate the access token and try again
@@ -722,26 +757,33 @@ public class SchwabBaseApiClient {
                                       @NonNull UriComponentsBuilder uriComponentsBuilder,
                                       Object body,
                                       @NonNull ParameterizedTypeReference<T> bodyTypeReference) {
-        return this.callApiToFlux(schwabUserId, httpMethod, uriComponentsBuilder, body, bodyTypeReference, false);
+        return this.callApiToFlux(schwabUserId, httpMethod, uriComponentsBuilder, body,
+                response -> this.decodeToFlux(response, bodyTypeReference), false);
     }
 
     private <T> Flux<T> callApiToFlux(@NonNull String schwabUserId,
                                       @NonNull HttpMethod httpMethod,
                                       @NonNull UriComponentsBuilder uriComponentsBuilder,
                                       Object body,
-                                      @NonNull ParameterizedTypeReference<T> bodyTypeReference,
+                                      @NonNull Function<ClientResponse, Flux<T>> bodyExtractor,
                                       @NonNull Boolean hasRetried401WithNewAccessToken) {
+        SchwabRateLimiter.Lane lane = this.getRateLimiterLane(uriComponentsBuilder);
         return schwabOauth2Controller.getAccessToken(schwabUserId)
                 .flatMapMany(tokenInfo -> this.callApiPreProcessToMono(schwabUserId, httpMethod, uriComponentsBuilder, body, tokenInfo)
-                        .flatMapMany(requestBodySpec -> requestBodySpec.exchangeToFlux(response -> {
+                        .flatMapMany(requestBodySpec -> schwabRateLimiter.acquire(schwabUserId, lane)
+                                .thenMany(requestBodySpec.exchangeToFlux(response -> {
                             Flux<T> flux;
                             if (response.statusCode().equals(HttpStatus.OK)) {
-                                flux = response.bodyToFlux(bodyTypeReference);
+                                schwabRateLimiter.onSuccess(schwabUserId, lane);
+                                flux = bodyExtractor.apply(response);
                             } else if (response.statusCode().is4xxClientError() || response.statusCode().is5xxServerError()) {
                                 if (response.statusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)) {
                                     flux = Flux.error(new ApiUnauthorizedException());
                                 } else if (response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
-                                    flux = Flux.error(new ApiTooManyRequestsException());
+                                    Duration retryAfter = this.getRetryAfter(response.headers().asHttpHeaders());
+                                    schwabRateLimiter.pause(schwabUserId, lane, retryAfter);
+                                    flux = response.releaseBody()
+                                            .thenMany(Flux.error(new ApiTooManyRequestsException(retryAfter)));
                                 } else {
                                     flux = response.createException()
                                             .flatMapMany(Flux::error);
@@ -751,15 +793,14 @@ public class SchwabBaseApiClient {
                                         .flatMapMany(Flux::error);
                             }
                             return flux;
-                }))
-                .retryWhen(Retry.backoff(10, Duration.ofSeconds(1)).jitter(0.25)
-                        .filter(throwable -> throwable instanceof ApiTooManyRequestsException)
-                )
+                })))
+                // the rate limiter holds the retry until the lane's 429 pause is over
+                .retryWhen(schwabRateLimiter.retrySpec())
                 .onErrorResume(throwable -> {
                     if(throwable instanceof ApiUnauthorizedException && !hasRetried401WithNewAccessToken) {
                         // Invalidate the access token and try again
                         schwabOauth2Controller.getSchwabAccount(schwabUserId).setAccessToken(null);
-                        return this.callApiToFlux(schwabUserId, httpMethod, uriComponentsBuilder, body, bodyTypeReference, true);
+                        return this.callApiToFlux(schwabUserId, httpMethod, uriComponentsBuilder, body, bodyExtractor, true);
                     } else {
                         return Flux.error(throwable);
                     }
@@ -797,6 +838,85 @@ public class SchwabBaseApiClient {
                 });
     }
 
+    private SchwabRateLimiter.Lane getRateLimiterLane(@NonNull UriComponentsBuilder uriComponentsBuilder) {
+        List<String> pathSegments = uriComponentsBuilder.build().getPathSegments();
+        if(!pathSegments.isEmpty() && pathSegments.get(0).equals(schwabMarketDataPath)) {
+            return SchwabRateLimiter.Lane.MARKET_DATA;
+        }
+        return SchwabRateLimiter.Lane.TRADER;
+    }
+
+    private Duration getRetryAfter(@NonNull HttpHeaders headers) {
+        Duration retryAfter = null;
+        String retryAfterHeader = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if(retryAfterHeader != null) {
+            try {
+                retryAfter = Duration.ofSeconds(Long.parseLong(retryAfterHeader.trim()));
+            } catch (NumberFormatException nfe) {
+                try {
+                    retryAfter = Duration.between(Instant.now(),
+                            ZonedDateTime.parse(retryAfterHeader.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                } catch (DateTimeParseException dtpe) {
+                    log.warn("Unable to parse Retry-After header: {}", retryAfterHeader);
+                }
+            }
+        } else {
+            String resetHeader = headers.getFirst("RateLimit-Reset");
+            if(resetHeader == null) {
+                resetHeader = headers.getFirst("X-RateLimit-Reset");
+            }
+            if(resetHeader != null) {
+                try {
+                    long reset = Long.parseLong(resetHeader.trim());
+                    // small values are seconds to wait, large values are an epoch second
+                    retryAfter = reset > 86400
+                            ? Duration.between(Instant.now(), Instant.ofEpochSecond(reset))
+                            : Duration.ofSeconds(reset);
+                } catch (NumberFormatException nfe) {
+                    log.warn("Unable to parse rate limit reset header: {}", resetHeader);
+                }
+            }
+        }
+        return retryAfter != null && retryAfter.isNegative() ? Duration.ZERO : retryAfter;
+    }
+
+    /**
+     * get the ObjectMapper used to deserialize the Schwab API responses
+     * @return {@link ObjectMapper}
+     */
+    protected ObjectMapper getObjectMapper() {
+        return schwabWebClient.getObjectMapper();
+    }
+
+    /**
+     * get a valid access token for the user, refreshing it when it is about to expire
+     * @param schwabUserId {@literal @}NotNull String
+     * @return {@link Mono}{@literal <}String{@literal >} empty when the user is unknown
+     */
+    protected Mono<String> getAccessTokenToMono(@NonNull String schwabUserId) {
+        return schwabOauth2Controller.getAccessToken(schwabUserId)
+                .map(SchwabAccount::getAccessToken);
+    }
+
+    // plain text bodies (order placement) keep the WebClient codecs, JSON bodies use the cached readers
+    private <T> Mono<T> decodeToMono(@NonNull ClientResponse response,
+                                     @NonNull ParameterizedTypeReference<T> bodyTypeReference) {
+        if(bodyTypeReference.getType() == String.class) {
+            return response.bodyToMono(bodyTypeReference);
+        }
+        return schwabWebClient.getResponseDecoder()
+                .decodeToMono(response.body(BodyExtractors.toDataBuffers()), bodyTypeReference);
+    }
+
+    private <T> Flux<T> decodeToFlux(@NonNull ClientResponse response,
+                                     @NonNull ParameterizedTypeReference<T> bodyTypeReference) {
+        if(bodyTypeReference.getType() == String.class) {
+            return response.bodyToFlux(bodyTypeReference);
+        }
+        return schwabWebClient.getResponseDecoder()
+                .decodeToFlux(response.body(BodyExtractors.toDataBuffers()), bodyTypeReference);
+    }
+
     private <T> ParameterizedTypeReference<T> classToTypeReference(Class<T> clazz) {
         return new ParameterizedTypeReference<T>() {
             @Override
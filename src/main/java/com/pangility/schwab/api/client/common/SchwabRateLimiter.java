@@ -0,0 +1,224 @@
+package com.pangility.schwab.api.client.common;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import com.pangility.schwab.api.client.common.deserializers.ApiTooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Client side rate limiter used by {@link SchwabBaseApiClient} to keep each Schwab user
+ * within the API request quota.  Every user has a separate token bucket for the market data
+ * and trader lanes.  A bucket holds up to {@code burst} requests and refills so that no
+ * window of {@code period} ever sees more than {@code requestsPerPeriod} requests.
+ * Requests over the budget are delayed (without blocking a thread) until a token is available
+ * instead of being sent and bounced with a 429.
+ * When the API does return a 429 the whole lane is paused, either for the time requested by
+ * the API (but never less than the initial backoff) or for an exponentially growing backoff,
+ * and the waiting requests resume together.
+ */
+@Slf4j
+@Component
+@Conditional(OnApiEnabledCondition.class)
+public class SchwabRateLimiter {
+
+    /**
+     * The request quota lanes of the Schwab API
+     */
+    public enum Lane {
+        /**
+         * the market data API
+         */
+        MARKET_DATA,
+        /**
+         * the accounts and trading API
+         */
+        TRADER
+    }
+
+    private static final int MAX_RETRIES = 10;
+
+    @Value("${schwab-api.rateLimit.enabled}")
+    private Boolean enabled;
+    @Value("${schwab-api.rateLimit.period}")
+    private Duration period;
+    @Value("${schwab-api.rateLimit.burst}")
+    private Integer burst;
+    @Value("${schwab-api.rateLimit.marketData.requestsPerPeriod}")
+    private Integer marketDataRequestsPerPeriod;
+    @Value("${schwab-api.rateLimit.trader.requestsPerPeriod}")
+    private Integer traderRequestsPerPeriod;
+    @Value("${schwab-api.rateLimit.backoff.initial}")
+    private Duration initialBackoff;
+    @Value("${schwab-api.rateLimit.backoff.max}")
+    private Duration maxBackoff;
+
+    private final Map<String, Bucket> bucketsByUserId = new ConcurrentHashMap<>();
+    private final AtomicLong delayedCount = new AtomicLong();
+    private final AtomicLong pauseCount = new AtomicLong();
+    private LongSupplier nanoClock = System::nanoTime;
+
+    /**
+     * reserve a request for the user in the lane.  The returned Mono completes
+     * when the request may be sent.
+     * @param schwabUserId {@literal @}NotNull String
+     * @param lane {@literal @}NotNull {@link Lane}
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> acquire(@NonNull String schwabUserId, @NonNull Lane lane) {
+        return Mono.defer(() -> {
+            long delayNanos = this.getBucket(schwabUserId, lane).reserve(nanoClock.getAsLong(), Boolean.TRUE.equals(enabled));
+            if(delayNanos <= 0) {
+                return Mono.empty();
+            }
+            delayedCount.incrementAndGet();
+            return Mono.delay(Duration.ofNanos(delayNanos)).then();
+        });
+    }
+
+    /**
+     * the retry of a request rejected with a 429.  Each retry waits for a backoff that grows
+     * from the initial backoff up to the max backoff, and then for the end of the lane's pause.
+     * @return {@link RetryBackoffSpec}
+     */
+    public RetryBackoffSpec retrySpec() {
+        return Retry.backoff(MAX_RETRIES, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .filter(throwable -> throwable instanceof ApiTooManyRequestsException);
+    }
+
+    /**
+     * pause every request of the user in the lane after the API returned a 429.  The pause
+     * lasts at least the initial backoff, even if the API asked for less.  If the
+     * API didn't say how long to wait, the pause doubles on each 429 in a row (with jitter)
+     * up to the max backoff.  A 429 received while the lane is already paused only extends
+     * the current pause.
+     * @param schwabUserId {@literal @}NotNull String
+     * @param lane {@literal @}NotNull {@link Lane}
+     * @param retryAfter {@link Duration} the wait time returned by the API or null
+     * @return {@link Duration} the time until the lane resumes
+     */
+    public Duration pause(@NonNull String schwabUserId, @NonNull Lane lane, Duration retryAfter) {
+        Duration pause = this.getBucket(schwabUserId, lane).pause(nanoClock.getAsLong(), retryAfter);
+        pauseCount.incrementAndGet();
+        log.debug("Too many requests for {} on {}, pausing for {}", schwabUserId, lane, pause);
+        return pause;
+    }
+
+    /**
+     * record a request that was not rejected with a 429, which resets the backoff
+     * @param schwabUserId {@literal @}NotNull String
+     * @param lane {@literal @}NotNull {@link Lane}
+     */
+    public void onSuccess(@NonNull String schwabUserId, @NonNull Lane lane) {
+        Bucket bucket = bucketsByUserId.get(this.bucketKey(schwabUserId, lane));
+        if(bucket != null) {
+            bucket.resetBackoff();
+        }
+    }
+
+    /**
+     * number of requests that had to wait for a token or a pause
+     * @return long
+     */
+    public long getDelayedCount() {
+        return delayedCount.get();
+    }
+
+    /**
+     * number of 429 responses that paused a lane
+     * @return long
+     */
+    public long getPauseCount() {
+        return pauseCount.get();
+    }
+
+    private String bucketKey(@NonNull String schwabUserId, @NonNull Lane lane) {
+        return schwabUserId + "|" + lane.name();
+    }
+
+    private Bucket getBucket(@NonNull String schwabUserId, @NonNull Lane lane) {
+        return bucketsByUserId.computeIfAbsent(this.bucketKey(schwabUserId, lane), key -> {
+            int requestsPerPeriod = lane == Lane.MARKET_DATA ? marketDataRequestsPerPeriod : traderRequestsPerPeriod;
+            return new Bucket(requestsPerPeriod, burst, period, initialBackoff, maxBackoff, nanoClock.getAsLong());
+        });
+    }
+
+    /**
+     * Token bucket kept as the theoretical arrival time of the next request (GCRA)
+     * along with the end of the current 429 pause
+     */
+    private static class Bucket {
+        private final long emissionIntervalNanos;
+        private final long toleranceNanos;
+        private final long initialBackoffNanos;
+        private final long maxBackoffNanos;
+        private long theoreticalArrivalNanos;
+        private long pausedUntilNanos;
+        private int consecutivePauses = 0;
+
+        Bucket(int requestsPerPeriod, int burst, @NonNull Duration period,
+               @NonNull Duration initialBackoff, @NonNull Duration maxBackoff, long nowNanos) {
+            int size = Math.max(1, Math.min(burst, requestsPerPeriod - 1));
+            this.emissionIntervalNanos = period.toNanos() / Math.max(1, requestsPerPeriod - size);
+            this.toleranceNanos = emissionIntervalNanos * (size - 1);
+            this.initialBackoffNanos = initialBackoff.toNanos();
+            this.maxBackoffNanos = maxBackoff.toNanos();
+            this.theoreticalArrivalNanos = nowNanos;
+            this.pausedUntilNanos = nowNanos;
+        }
+
+        synchronized long reserve(long nowNanos, boolean limited) {
+            long startNanos = pausedUntilNanos - nowNanos > 0 ? pausedUntilNanos : nowNanos;
+            if(!limited) {
+                return startNanos - nowNanos;
+            }
+            long tat = theoreticalArrivalNanos - startNanos > 0 ? theoreticalArrivalNanos : startNanos;
+            long allowedNanos = tat - toleranceNanos;
+            if(allowedNanos - startNanos < 0) {
+                allowedNanos = startNanos;
+            }
+            theoreticalArrivalNanos = tat + emissionIntervalNanos;
+            return allowedNanos - nowNanos;
+        }
+
+        synchronized Duration pause(long nowNanos, Duration retryAfter) {
+            boolean alreadyPaused = pausedUntilNanos - nowNanos > 0;
+            long pauseNanos;
+            if(retryAfter != null && !retryAfter.isNegative()) {
+                pauseNanos = Math.max(retryAfter.toNanos(), initialBackoffNanos);
+            } else if(alreadyPaused) {
+                pauseNanos = 0;
+            } else {
+                long backoffNanos = initialBackoffNanos << Math.min(consecutivePauses, 30);
+                if(backoffNanos <= 0 || backoffNanos > maxBackoffNanos) {
+                    backoffNanos = maxBackoffNanos;
+                }
+                pauseNanos = backoffNanos + (long) (backoffNanos * 0.25 * ThreadLocalRandom.current().nextDouble());
+            }
+            if(!alreadyPaused) {
+                consecutivePauses++;
+            }
+            long untilNanos = nowNanos + pauseNanos;
+            if(untilNanos - pausedUntilNanos > 0) {
+                pausedUntilNanos = untilNanos;
+            }
+            return Duration.ofNanos(Math.max(0, pausedUntilNanos - nowNanos));
+        }
+
+        synchronized void resetBackoff() {
+            consecutivePauses = 0;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.pangility.schwab.api.client.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.NonNull;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes the Schwab API response bodies with an {@link ObjectReader} that is created once for
+ * every response type and reused for each response, so the type and its polymorphic subtypes
+ * are only resolved the first time a type is decoded.
+ * Array bodies are decoded while they are received: the body is fed to Jackson's non-blocking
+ * parser buffer by buffer and each element is emitted as soon as it is complete, so only one
+ * element at a time is held in memory.
+ */
+public class SchwabResponseDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final int maxInMemorySize;
+    private final Map<Type, ObjectReader> readersByType = new ConcurrentHashMap<>();
+
+    /**
+     * create a decoder
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to create the readers
+     * @param maxInMemorySize int maximum size of a response body
+     */
+    public SchwabResponseDecoder(@NonNull ObjectMapper objectMapper, int maxInMemorySize) {
+        this.objectMapper = objectMapper;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    /**
+     * decode a response body
+     * @param body {@literal @}NotNull {@link Flux}{@literal <}{@link DataBuffer}{@literal >}
+     * @param bodyTypeReference {@literal @}NotNull {@link ParameterizedTypeReference} of the body
+     * @return {@link Mono}{@literal <}T{@literal >}
+     * @param <T> the type of the body
+     */
+    public <T> Mono<T> decodeToMono(@NonNull Flux<DataBuffer> body,
+                                    @NonNull ParameterizedTypeReference<T> bodyTypeReference) {
+        ObjectReader reader = this.getReader(bodyTypeReference.getType());
+        return DataBufferUtils.join(body, maxInMemorySize)
+                .map(dataBuffer -> this.<T>read(reader, dataBuffer));
+    }
+
+    /**
+     * decode a response body holding a JSON array into its elements, emitting each element as soon
+     * as it has been received.  A body holding a single object is decoded as one element.
+     * @param body {@literal @}NotNull {@link Flux}{@literal <}{@link DataBuffer}{@literal >} which is released by this method
+     * @param elementTypeReference {@literal @}NotNull {@link ParameterizedTypeReference} of the elements
+     * @return {@link Flux}{@literal <}T{@literal >}
+     * @param <T> the type of the elements
+     */
+    public <T> Flux<T> decodeToFlux(@NonNull Flux<DataBuffer> body,
+                                    @NonNull ParameterizedTypeReference<T> elementTypeReference) {
+        ObjectReader reader = this.getReader(elementTypeReference.getType());
+        return Flux.defer(() -> {
+            ElementParser<T> elementParser;
+            try {
+                elementParser = new ElementParser<>(reader);
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("Unable to create the JSON parser", e));
+            }
+            return body
+                    .concatMapIterable(elementParser::parse)
+                    .concatWith(Flux.defer(elementParser::endOfInput))
+                    .doFinally(signalType -> elementParser.close());
+        });
+    }
+
+    /**
+     * decode a complete response body
+     * @param dataBuffer {@literal @}NotNull {@link DataBuffer} which is released by this method
+     * @param bodyTypeReference {@literal @}NotNull {@link ParameterizedTypeReference} of the body
+     * @return T
+     * @param <T> the type of the body
+     */
+    public <T> T decode(@NonNull DataBuffer dataBuffer,
+                        @NonNull ParameterizedTypeReference<T> bodyTypeReference) {
+        return this.read(this.getReader(bodyTypeReference.getType()), dataBuffer);
+    }
+
+    /**
+     * get the cached reader for a type
+     * @param type {@literal @}NotNull {@link Type}
+     * @return {@link ObjectReader}
+     */
+    public ObjectReader getReader(@NonNull Type type) {
+        return readersByType.computeIfAbsent(type, key -> objectMapper.readerFor(objectMapper.constructType(key)));
+    }
+
+    private <T> T read(@NonNull ObjectReader reader, @NonNull DataBuffer dataBuffer) {
+        try (InputStream inputStream = dataBuffer.asInputStream(true)) {
+            return reader.readValue(inputStream);
+        } catch (IOException e) {
+            throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+        }
+    }
+
+    private class ElementParser<T> {
+        private final ObjectReader reader;
+        private final JsonParser parser;
+        private int depth = 0;
+        private boolean rootArray = false;
+        private TokenBuffer elementTokens = null;
+        private long elementStartOffset = 0;
+
+        ElementParser(ObjectReader reader) throws IOException {
+            this.reader = reader;
+            this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+        }
+
+        List<T> parse(DataBuffer dataBuffer) {
+            // the parser reads straight from the buffer, which is drained before it is released
+            List<T> elements = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator byteBuffers = dataBuffer.readableByteBuffers()) {
+                while(byteBuffers.hasNext()) {
+                    ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(byteBuffers.next());
+                    this.readAvailableTokens(elements);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(dataBuffer);
+            }
+            return elements;
+        }
+
+        Flux<T> endOfInput() {
+            List<T> elements = new ArrayList<>();
+            try {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                this.readAvailableTokens(elements);
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("JSON decoding error: " + e.getMessage(), e));
+            }
+            if(depth != 0) {
+                return Flux.error(new DecodingException("Incomplete JSON response"));
+            }
+            return Flux.fromIterable(elements);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {}
+        }
+
+        // the elements of a root array are read one by one, any other root value is one element
+        private void readAvailableTokens(List<T> elements) throws IOException {
+            JsonToken token;
+            while((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if(elementTokens == null) {
+                    if(depth == 0 && token == JsonToken.START_ARRAY) {
+                        rootArray = true;
+                        depth++;
+                        continue;
+                    }
+                    if(rootArray && depth == 1 && token == JsonToken.END_ARRAY) {
+                        rootArray = false;
+                        depth--;
+                        continue;
+                    }
+                    elementTokens = new TokenBuffer(parser);
+                    elementTokens.forceUseOfBigDecimal(true);
+                    elementStartOffset = parser.currentTokenLocation().getByteOffset();
+                }
+                elementTokens.copyCurrentEvent(parser);
+                if(token.isStructStart()) {
+                    depth++;
+                } else if(token.isStructEnd()) {
+                    depth--;
+                }
+                if(depth == (rootArray ? 1 : 0)) {
+                    elements.add(this.readElement());
+                } else if(parser.currentLocation().getByteOffset() - elementStartOffset > maxInMemorySize) {
+                    throw new DataBufferLimitException("Exceeded limit on max bytes per JSON element: " + maxInMemorySize);
+                }
+            }
+        }
+
+        private T readElement() throws IOException {
+            try (JsonParser elementParser = elementTokens.asParser(objectMapper)) {
+                return reader.readValue(elementParser);
+            } finally {
+                elementTokens = null;
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.pangility.schwab.api.client.common;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import jakarta.annotation.PreDestroy;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
@@ -11,6 +12,7 @@ import org.springframework.context.annotation.Conditional;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientRequest;
@@ -19,48 +21,127 @@ import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.math.BigDecimal;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 /**
  * A wrapper for the WebClient interface to avoid Spring bean collisions when the client
  * {@literal @}Autowire a WebClient bean. This class wraps the WebClient along with
  * any settings and deserializers that it needs to interact with the Schwab API.
+ * The WebClient, its ObjectMapper and the underlying connection pool are created once
+ * and shared by every API call.
  */
 @Slf4j
 @Component
 @Conditional(OnApiEnabledCondition.class)
 public class SchwabWebClient {
 
+    /**
+     * Maximum size of a response body that will be buffered in memory
+     */
+    public static final int MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+
     @Value("${schwab-api.targetUrl}")
     private String schwabTargetUrl;
+    @Value("${schwab-api.http.maxConnections}")
+    private Integer maxConnections;
+    @Value("${schwab-api.http.pendingAcquireMaxCount}")
+    private Integer pendingAcquireMaxCount;
+    @Value("${schwab-api.http.pendingAcquireTimeout}")
+    private Duration pendingAcquireTimeout;
+    @Value("${schwab-api.http.maxIdleTime}")
+    private Duration maxIdleTime;
+    @Value("${schwab-api.http.maxLifeTime}")
+    private Duration maxLifeTime;
+    @Value("${schwab-api.http.evictInBackground}")
+    private Duration evictInBackground;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+    private final SchwabResponseDecoder responseDecoder = new SchwabResponseDecoder(objectMapper, MAX_IN_MEMORY_SIZE);
+
+    private volatile WebClient webClient = null;
+    private ConnectionProvider connectionProvider = null;
 
     /**
-     * get a web client initialized with defaults for the Schwab API
+     * get the shared web client initialized with defaults for the Schwab API
      * @return {@link WebClient}
      */
     public WebClient getSchwabWebClient() {
+        WebClient client = this.webClient;
+        if(client == null) {
+            synchronized (this) {
+                client = this.webClient;
+                if(client == null) {
+                    client = this.buildSchwabWebClient();
+                    this.webClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * get the ObjectMapper used to deserialize the Schwab API responses
+     * @return {@link ObjectMapper}
+     */
+    public ObjectMapper getObjectMapper() {
+        return this.objectMapper;
+    }
+
+    /**
+     * get the decoder holding a reusable ObjectReader for each Schwab API response type
+     * @return {@link SchwabResponseDecoder}
+     */
+    public SchwabResponseDecoder getResponseDecoder() {
+        return this.responseDecoder;
+    }
+
+    /**
+     * release the pooled connections when the context is closed
+     */
+    @PreDestroy
+    public void destroy() {
+        if(connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    private WebClient buildSchwabWebClient() {
         URI schwabUri = UriComponentsBuilder.newInstance()
                 .scheme("https")
                 .host(schwabTargetUrl)
                 .build()
                 .toUri();
 
-        final int size = 16 * 1024 * 1024;
-        final ObjectMapper objectMapper = new ObjectMapper()
-                .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+        this.connectionProvider = ConnectionProvider.builder("schwab-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider);
 
         final ExchangeStrategies strategies = ExchangeStrategies.builder()
                 .codecs(codecs -> {
-                    codecs.defaultCodecs().maxInMemorySize(size);
+                    codecs.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE);
                     codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON));
                 })
                 .build();
 
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .filter((request, next) -> {
+                    if(!log.isDebugEnabled()) {
+                        return next.exchange(request);
+                    }
                     logRequest(request);
                     return next
                             .exchange(interceptBody(request))
@@ -1,7 +1,33 @@
 package com.pangility.schwab.api.client.common.deserializers;
 
+import lombok.Getter;
+
+import java.time.Duration;
+
 /**
  * Exception thrown when a 429 - TOO MANY REQUESTS is returned from the API
  * To be used to slow down and throttle API calls.
  */
-public class ApiTooManyRequestsException extends Exception { }
+@Getter
+public class ApiTooManyRequestsException extends Exception {
+
+    /**
+     * how long the API asked the client to wait (null if it didn't say)
+     */
+    private final Duration retryAfter;
+
+    /**
+     * create the exception without a retry hint from the API
+     */
+    public ApiTooManyRequestsException() {
+        this(null);
+    }
+
+    /**
+     * create the exception with the wait time returned by the API
+     * @param retryAfter {@link Duration}
+     */
+    public ApiTooManyRequestsException(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
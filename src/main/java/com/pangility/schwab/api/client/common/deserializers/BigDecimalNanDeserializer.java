@@ -11,20 +11,52 @@ import java.math.BigDecimal;
  * Schwab sometimes returns invalid numeric data in it's JSON responses. When it gets very close to
  * 0, the JSON returns '{theta: "NAN"}'.  This class deserializes all BigDecimal model types as well as ignoring
  * (by returning null) "null" or "nan" values when passed as a numeric value.
+ * JSON numbers are read with the parser's own decimal accessor and only quoted values are
+ * handled as text.  Any other value that is not a number, like "12.5x", true or an object, is also
+ * deserialized as null so one odd field never fails the whole response.
  */
 public class BigDecimalNanDeserializer extends JsonDeserializer<BigDecimal> {
   @Override
   public BigDecimal deserialize(JsonParser jsonParser, DeserializationContext context)
       throws IOException {
-    BigDecimal ret = null;
-    final String valueAsString = jsonParser.getValueAsString();
-    if(valueAsString != null && !valueAsString.isEmpty()) {
-      if ((!valueAsString.equalsIgnoreCase("null")) && (!valueAsString.equalsIgnoreCase("nan"))) {
-        try {
-          ret = new BigDecimal(valueAsString);
-        } catch (NumberFormatException ignored) {}
-      }
+    switch (jsonParser.currentToken()) {
+      case VALUE_NUMBER_INT:
+        return jsonParser.getDecimalValue();
+      case VALUE_NUMBER_FLOAT:
+        // a bare NaN is only possible when the parser allows non numeric numbers
+        return jsonParser.isNaN() ? null : jsonParser.getDecimalValue();
+      case VALUE_STRING:
+        return this.fromString(jsonParser.getText());
+      default:
+        jsonParser.skipChildren();
+        return null;
     }
-    return ret;
   }
-}
\ No newline at end of file
+
+  private BigDecimal fromString(String valueAsString) {
+    String value = valueAsString.trim();
+    if(value.isEmpty() || this.isNotANumber(value)) {
+      return null;
+    }
+    try {
+      return new BigDecimal(value);
+    } catch (NumberFormatException nfe) {
+      return null;
+    }
+  }
+
+  private boolean isNotANumber(String value) {
+    switch (value.length()) {
+      case 3:
+        return value.equalsIgnoreCase("nan");
+      case 4:
+        return value.equalsIgnoreCase("null");
+      case 8:
+        return value.equalsIgnoreCase("infinity");
+      case 9:
+        return value.equalsIgnoreCase("+infinity") || value.equalsIgnoreCase("-infinity");
+      default:
+        return false;
+    }
+  }
+}
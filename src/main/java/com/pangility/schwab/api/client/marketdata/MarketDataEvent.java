@@ -0,0 +1,63 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.Getter;
+
+/**
+ * A quote update in the ring of a {@link SchwabMarketDataEventBus}.  The quote only has the fields in
+ * the update as received.  Events are pre-allocated and written again once every consumer has passed
+ * them, so a {@link MarketDataEventHandler} has to {@link #copy()} what it keeps.
+ */
+@Getter
+public final class MarketDataEvent {
+
+    /**
+     * where an event came from
+     */
+    public enum Source {
+        /**
+         * the quote endpoints
+         */
+        QUOTES,
+        /**
+         * a streamer session
+         */
+        STREAMER
+    }
+
+    private long sequence = -1L;
+    private Source source;
+    private StreamerService service;
+    private long publishNanos;
+    private final QuoteSnapshot quote = new QuoteSnapshot();
+
+    /**
+     * create an empty event
+     */
+    public MarketDataEvent() {
+    }
+
+    /**
+     * copy the event
+     * @return {@link MarketDataEvent}
+     */
+    public MarketDataEvent copy() {
+        MarketDataEvent copy = new MarketDataEvent();
+        copy.set(sequence, source, service, publishNanos);
+        copy.quote.copyFrom(quote);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDataEvent(sequence=" + sequence + ", source=" + source + ", service=" + service
+                + ", publishNanos=" + publishNanos + ", quote=" + quote + ")";
+    }
+
+    void set(long sequence, Source source, StreamerService service, long publishNanos) {
+        this.sequence = sequence;
+        this.source = source;
+        this.service = service;
+        this.publishNanos = publishNanos;
+    }
+}
@@ -0,0 +1,15 @@
+package com.pangility.schwab.api.client.marketdata;
+
+/**
+ * Receives the events of a {@link SchwabMarketDataEventBus} on the thread of its consumer.
+ */
+@FunctionalInterface
+public interface MarketDataEventHandler {
+
+    /**
+     * handle an event.  The event is only valid until the handler returns.
+     * @param event {@link MarketDataEvent}
+     * @param endOfBatch boolean true for the last event available when the batch was read
+     */
+    void onEvent(MarketDataEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,337 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import com.pangility.schwab.api.client.streaming.StreamerSchema;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The latest top of book of a symbol in a {@link SchwabQuoteSnapshotTable}, merged from REST quotes and
+ * streamer updates.  Prices are NaN and sizes, volume and times are 0 until they have been received.
+ * A snapshot can be reused with {@link SchwabQuoteSnapshotTable#read(String, QuoteSnapshot)} to read
+ * quotes without allocating.
+ */
+public final class QuoteSnapshot {
+
+    /**
+     * the fields of a snapshot, with the names used by the quote and streamer content classes
+     */
+    public enum Field {
+        /**
+         * bid price
+         */
+        BID_PRICE(true, "bidPrice"),
+        /**
+         * ask price
+         */
+        ASK_PRICE(true, "askPrice"),
+        /**
+         * last trade price
+         */
+        LAST_PRICE(true, "lastPrice"),
+        /**
+         * mark price
+         */
+        MARK(true, "mark", "markPrice"),
+        /**
+         * opening price of the day
+         */
+        OPEN_PRICE(true, "openPrice"),
+        /**
+         * high price of the day
+         */
+        HIGH_PRICE(true, "highPrice"),
+        /**
+         * low price of the day
+         */
+        LOW_PRICE(true, "lowPrice"),
+        /**
+         * closing price of the previous day
+         */
+        CLOSE_PRICE(true, "closePrice"),
+        /**
+         * change of the last price from the close
+         */
+        NET_CHANGE(true, "netChange"),
+        /**
+         * bid size
+         */
+        BID_SIZE(false, "bidSize"),
+        /**
+         * ask size
+         */
+        ASK_SIZE(false, "askSize"),
+        /**
+         * last trade size
+         */
+        LAST_SIZE(false, "lastSize"),
+        /**
+         * volume of the day
+         */
+        TOTAL_VOLUME(false, "totalVolume"),
+        /**
+         * time of the last quote in epoch milliseconds
+         */
+        QUOTE_TIME(false, "quoteTime"),
+        /**
+         * time of the last trade in epoch milliseconds
+         */
+        TRADE_TIME(false, "tradeTime");
+
+        @Getter
+        private final boolean price;
+        private final String[] names;
+
+        Field(boolean price, String... names) {
+            this.price = price;
+            this.names = names;
+        }
+
+        String[] names() {
+            return names;
+        }
+    }
+
+    static final Field[] FIELDS = Field.values();
+    static final List<StreamerService> STREAMER_SERVICES = List.of(StreamerService.LEVELONE_EQUITIES,
+            StreamerService.LEVELONE_OPTIONS, StreamerService.LEVELONE_FUTURES);
+    private static final long EMPTY_PRICE = Double.doubleToRawLongBits(Double.NaN);
+    // the streamer field number of each snapshot field, -1 when the service does not have it
+    private static final Map<StreamerService, int[]> STREAMER_FIELDS = new EnumMap<>(StreamerService.class);
+
+    static {
+        for(StreamerService service : STREAMER_SERVICES) {
+            StreamerSchema schema = StreamerSchema.of(service);
+            int[] fieldNumbers = new int[FIELDS.length];
+            for(Field field : FIELDS) {
+                fieldNumbers[field.ordinal()] = -1;
+                for(String name : field.names) {
+                    try {
+                        fieldNumbers[field.ordinal()] = schema.field(name);
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        // the service names the field differently
+                    }
+                }
+            }
+            STREAMER_FIELDS.put(service, fieldNumbers);
+        }
+    }
+
+    @Getter
+    private String symbol;
+    @Getter
+    private long version;
+    private long received;
+    private final long[] values = new long[FIELDS.length];
+
+    /**
+     * create an empty snapshot to read into
+     */
+    public QuoteSnapshot() {
+        this(null);
+    }
+
+    QuoteSnapshot(String symbol) {
+        this.symbol = symbol;
+        for(Field field : FIELDS) {
+            values[field.ordinal()] = field.price ? EMPTY_PRICE : 0L;
+        }
+    }
+
+    /**
+     * get a price field
+     * @param field {@link Field} with {@link Field#isPrice()}
+     * @return double, NaN until received
+     */
+    public double getPrice(Field field) {
+        return Double.longBitsToDouble(values[field.ordinal()]);
+    }
+
+    /**
+     * get a size, volume or time field
+     * @param field {@link Field} without {@link Field#isPrice()}
+     * @return long, 0 until received
+     */
+    public long getLong(Field field) {
+        return values[field.ordinal()];
+    }
+
+    /**
+     * check if a field has been received
+     * @param field {@link Field}
+     * @return boolean
+     */
+    public boolean isReceived(Field field) {
+        return (received & (1L << field.ordinal())) != 0;
+    }
+
+    /**
+     * get the bid price
+     * @return double
+     */
+    public double getBidPrice() {
+        return this.getPrice(Field.BID_PRICE);
+    }
+
+    /**
+     * get the ask price
+     * @return double
+     */
+    public double getAskPrice() {
+        return this.getPrice(Field.ASK_PRICE);
+    }
+
+    /**
+     * get the last trade price
+     * @return double
+     */
+    public double getLastPrice() {
+        return this.getPrice(Field.LAST_PRICE);
+    }
+
+    /**
+     * get the mark price
+     * @return double
+     */
+    public double getMark() {
+        return this.getPrice(Field.MARK);
+    }
+
+    /**
+     * get the bid size
+     * @return long
+     */
+    public long getBidSize() {
+        return this.getLong(Field.BID_SIZE);
+    }
+
+    /**
+     * get the ask size
+     * @return long
+     */
+    public long getAskSize() {
+        return this.getLong(Field.ASK_SIZE);
+    }
+
+    /**
+     * get the volume of the day
+     * @return long
+     */
+    public long getTotalVolume() {
+        return this.getLong(Field.TOTAL_VOLUME);
+    }
+
+    /**
+     * get the time of the last quote
+     * @return long epoch milliseconds
+     */
+    public long getQuoteTime() {
+        return this.getLong(Field.QUOTE_TIME);
+    }
+
+    /**
+     * copy the snapshot
+     * @return {@link QuoteSnapshot}
+     */
+    public QuoteSnapshot copy() {
+        QuoteSnapshot copy = new QuoteSnapshot();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("QuoteSnapshot(symbol=").append(symbol).append(", version=").append(version);
+        for(Field field : FIELDS) {
+            if(this.isReceived(field)) {
+                stringBuilder.append(", ").append(field.names[0]).append('=');
+                if(field.price) {
+                    stringBuilder.append(this.getPrice(field));
+                } else {
+                    stringBuilder.append(this.getLong(field));
+                }
+            }
+        }
+        return stringBuilder.append(')').toString();
+    }
+
+    void copyFrom(QuoteSnapshot other) {
+        this.symbol = other.symbol;
+        this.version = other.version;
+        this.received = other.received;
+        System.arraycopy(other.values, 0, values, 0, values.length);
+    }
+
+    void setPrice(Field field, double value) {
+        values[field.ordinal()] = Double.doubleToRawLongBits(value);
+        received |= 1L << field.ordinal();
+    }
+
+    void setLong(Field field, long value) {
+        values[field.ordinal()] = value;
+        received |= 1L << field.ordinal();
+    }
+
+    void clear(Field field) {
+        values[field.ordinal()] = field.price ? EMPTY_PRICE : 0L;
+        received &= ~(1L << field.ordinal());
+    }
+
+    void clear() {
+        for(Field field : FIELDS) {
+            this.clear(field);
+        }
+    }
+
+    void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    // set the numeric fields of the quote object of a REST quote
+    void merge(JsonNode quote) {
+        for(Field field : FIELDS) {
+            for(String name : field.names) {
+                JsonNode value = quote.get(name);
+                if(value != null && value.isNumber()) {
+                    if(field.price) {
+                        this.setPrice(field, value.asDouble());
+                    } else {
+                        this.setLong(field, value.asLong());
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    // set the fields in the last update of a level one record, clearing the fields it set to null
+    boolean merge(StreamerRecord record) {
+        int[] fieldNumbers = STREAMER_FIELDS.get(record.getSchema().getService());
+        if(fieldNumbers == null) {
+            return false;
+        }
+        for(Field field : FIELDS) {
+            int number = fieldNumbers[field.ordinal()];
+            if(number >= 0 && record.isChanged(number)) {
+                if(!record.isReceived(number)) {
+                    this.clear(field);
+                } else if(field.price) {
+                    this.setPrice(field, record.getDouble(number));
+                } else {
+                    this.setLong(field, record.getLong(number));
+                }
+            }
+        }
+        return true;
+    }
+
+    void incrementVersion() {
+        version++;
+    }
+}
@@ -0,0 +1,250 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.model.instruments.Instrument;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * In-memory index of instruments by symbol and by CUSIP.  Lookups for instruments that are not indexed
+ * yet are resolved through the instruments endpoint in batches, several symbols or CUSIPs per
+ * {@code symbol-search} request with a bounded number of requests at once, and the instruments
+ * found are added to the index.  Symbols are kept sorted, so the indexed symbols starting with a
+ * prefix are found without a request.
+ * </p>
+ * <p>
+ * With a file, the index is loaded from it when it is created and saved to it whenever a resolve adds
+ * instruments, so a restart does not resolve the same instruments again.  The fundamentals of the
+ * instruments are not saved.
+ * </p>
+ */
+@Slf4j
+public class SchwabInstrumentIndex {
+
+    private static final TypeReference<List<Instrument>> INSTRUMENT_LIST_TYPE = new TypeReference<>() {};
+
+    private final int batchSize;
+    private final int maxConcurrentRequests;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Function<List<String>, Flux<Instrument>> batchFetcher;
+
+    private final NavigableMap<String, Instrument> bySymbol = new ConcurrentSkipListMap<>();
+    private final Map<String, Instrument> byCusip = new ConcurrentHashMap<>();
+    private final AtomicBoolean modified = new AtomicBoolean();
+
+    /**
+     * create an index, loading the file if it exists
+     * @param batchSize int the most symbols or CUSIPs resolved in one request
+     * @param maxConcurrentRequests int the most requests made at once to resolve a lookup
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read and write the file
+     * @param file {@link Path} of the file the index is kept in, or null to keep it in memory only
+     * @param batchFetcher {@literal @}NotNull function fetching the instruments of a batch of symbols or
+     *                     CUSIPs with a {@code symbol-search}, leaving out the ones not found
+     */
+    public SchwabInstrumentIndex(int batchSize,
+                                 int maxConcurrentRequests,
+                                 @NonNull ObjectMapper objectMapper,
+                                 Path file,
+                                 @NonNull Function<List<String>, Flux<Instrument>> batchFetcher) {
+        this.batchSize = Math.max(1, batchSize);
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.objectMapper = objectMapper.copy().addMixIn(Instrument.class, IndexedInstrument.class);
+        this.file = file;
+        this.batchFetcher = batchFetcher;
+        if(file != null) {
+            this.load();
+        }
+    }
+
+    /**
+     * get the number of instruments indexed by symbol
+     * @return int
+     */
+    public int size() {
+        return bySymbol.size();
+    }
+
+    /**
+     * add an instrument to the index
+     * @param instrument {@literal @}NotNull {@link Instrument}
+     */
+    public void put(@NonNull Instrument instrument) {
+        if(instrument.getSymbol() != null && !instrument.getSymbol().isEmpty()) {
+            bySymbol.put(instrument.getSymbol().toUpperCase(), instrument);
+            modified.set(true);
+        }
+        if(instrument.getCusip() != null && !instrument.getCusip().isEmpty()) {
+            byCusip.put(instrument.getCusip().toUpperCase(), instrument);
+            modified.set(true);
+        }
+    }
+
+    /**
+     * add instruments to the index
+     * @param instruments {@literal @}NotNull {@link Collection}{@literal <}{@link Instrument}{@literal >}
+     */
+    public void putAll(@NonNull Collection<Instrument> instruments) {
+        instruments.forEach(this::put);
+    }
+
+    /**
+     * get an indexed instrument by symbol
+     * @param symbol {@literal @}NotNull String
+     * @return {@link Optional}{@literal <}{@link Instrument}{@literal >}
+     */
+    public Optional<Instrument> getBySymbol(@NonNull String symbol) {
+        return Optional.ofNullable(bySymbol.get(symbol.toUpperCase()));
+    }
+
+    /**
+     * get an indexed instrument by CUSIP
+     * @param cusip {@literal @}NotNull String
+     * @return {@link Optional}{@literal <}{@link Instrument}{@literal >}
+     */
+    public Optional<Instrument> getByCusip(@NonNull String cusip) {
+        return Optional.ofNullable(byCusip.get(cusip.toUpperCase()));
+    }
+
+    /**
+     * find the indexed instruments whose symbol starts with a prefix, in symbol order
+     * @param prefix {@literal @}NotNull String
+     * @param limit int the most instruments returned
+     * @return {@link List}{@literal <}{@link Instrument}{@literal >}
+     */
+    public List<Instrument> search(@NonNull String prefix, int limit) {
+        String upperCasePrefix = prefix.toUpperCase();
+        return bySymbol.tailMap(upperCasePrefix, true).entrySet().stream()
+                .takeWhile(entry -> entry.getKey().startsWith(upperCasePrefix))
+                .limit(Math.max(0, limit))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+    /**
+     * get the instruments of symbols, resolving the ones not indexed yet
+     * @param symbols {@literal @}NotNull {@link Collection}{@literal <}String{@literal >}
+     * @return {@link Mono}{@literal <}{@link Map}{@literal <}String, {@link Instrument}{@literal >}{@literal >}
+     * by upper case symbol, without the symbols that were not found
+     */
+    public Mono<Map<String, Instrument>> resolveSymbols(@NonNull Collection<String> symbols) {
+        return this.resolve(symbols, bySymbol, Instrument::getSymbol);
+    }
+
+    /**
+     * get the instruments of CUSIPs, resolving the ones not indexed yet
+     * @param cusips {@literal @}NotNull {@link Collection}{@literal <}String{@literal >}
+     * @return {@link Mono}{@literal <}{@link Map}{@literal <}String, {@link Instrument}{@literal >}{@literal >}
+     * by upper case CUSIP, without the CUSIPs that were not found
+     */
+    public Mono<Map<String, Instrument>> resolveCusips(@NonNull Collection<String> cusips) {
+        return this.resolve(cusips, byCusip, Instrument::getCusip);
+    }
+
+    /**
+     * load the index from its file, keeping the instruments already indexed
+     */
+    public void load() {
+        if(file != null && Files.exists(file)) {
+            try {
+                List<Instrument> instruments = objectMapper.readValue(file.toFile(), INSTRUMENT_LIST_TYPE);
+                this.putAll(instruments);
+                modified.set(false);
+                log.info("Instrument Index -> loaded {} instruments from {}", instruments.size(), file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * save the index to its file if instruments were added since it was loaded or saved
+     */
+    public synchronized void save() {
+        if(file != null && modified.getAndSet(false)) {
+            // every instrument once, including the ones only known by CUSIP
+            Set<Instrument> instruments = new LinkedHashSet<>(bySymbol.values());
+            instruments.addAll(byCusip.values());
+            Path tempPath = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                if(file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                objectMapper.writeValue(tempPath.toFile(), new ArrayList<>(instruments));
+                Files.move(tempPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                modified.set(true);
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Mono<Map<String, Instrument>> resolve(Collection<String> keys,
+                                                  Map<String, Instrument> index,
+                                                  Function<Instrument, String> keyOf) {
+        return Mono.defer(() -> this.resolveMissing(keys, index, keyOf));
+    }
+
+    private Mono<Map<String, Instrument>> resolveMissing(Collection<String> keys,
+                                                         Map<String, Instrument> index,
+                                                         Function<Instrument, String> keyOf) {
+        Map<String, Instrument> resolved = new HashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+        keys.stream()
+                .map(String::toUpperCase)
+                .distinct()
+                .forEach(key -> {
+                    Instrument instrument = index.get(key);
+                    if(instrument != null) {
+                        resolved.put(key, instrument);
+                    } else {
+                        missingKeys.add(key);
+                    }
+                });
+        if(missingKeys.isEmpty()) {
+            return Mono.just(resolved);
+        }
+        log.info("Instrument Index -> resolving {} of {} instruments", missingKeys.size(), resolved.size() + missingKeys.size());
+        Set<String> requestedKeys = Set.copyOf(missingKeys);
+        return Flux.range(0, (missingKeys.size() + batchSize - 1) / batchSize)
+                .map(batch -> missingKeys.subList(batch * batchSize, Math.min(missingKeys.size(), (batch + 1) * batchSize)))
+                .flatMap(batchFetcher, maxConcurrentRequests)
+                .doOnNext(this::put)
+                .filter(instrument -> keyOf.apply(instrument) != null && requestedKeys.contains(keyOf.apply(instrument).toUpperCase()))
+                .collect(() -> resolved, (found, instrument) -> found.put(keyOf.apply(instrument).toUpperCase(), instrument))
+                .flatMap(found -> file == null ? Mono.just(found)
+                        : Mono.fromCallable(() -> {
+                            this.save();
+                            return found;
+                        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    // the fundamentals go stale and are not needed to resolve a symbol or a CUSIP
+    @JsonIgnoreProperties("fundamental")
+    private abstract static class IndexedInstrument {}
+}
@@ -0,0 +1,382 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.marketdata.SchwabMarketDataApiClient.Market;
+import com.pangility.schwab.api.client.marketdata.model.markets.Hours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionStartEnd;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * In-memory calendar of the market sessions, loaded from the market hours endpoint one day at a time
+ * for the markets that are asked for.  Once a day is loaded, {@link #isOpen} and {@link #nextSessionStart}
+ * are answered from sorted arrays of the session windows by binary search, without calling the API.
+ * Days before yesterday are dropped whenever new days are loaded.
+ * </p>
+ * <p>
+ * {@link #poll} uses the calendar to run a poller, like a quote or option chain request, at a fixed
+ * interval while the market is open and to sleep until the next session while it is closed.
+ * </p>
+ */
+@Slf4j
+public class SchwabMarketCalendar {
+
+    private static final Duration LOAD_RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration LOAD_RETRY_MAX_BACKOFF = Duration.ofMinutes(5);
+
+    @Getter
+    private final ZoneId zoneId;
+    @Getter
+    private final int prefetchDays;
+    private final Clock clock;
+    private final BiFunction<List<Market>, LocalDate, Mono<Map<String, Map<String, Hours>>>> hoursFetcher;
+
+    private final Map<Market, MarketDays> marketDays = Collections.synchronizedMap(new EnumMap<>(Market.class));
+
+    /**
+     * create a calendar
+     * @param zoneId {@literal @}NotNull {@link ZoneId} of the exchange, the time zone of the session hours
+     * @param prefetchDays int the days loaded ahead of today, including today
+     * @param hoursFetcher {@literal @}NotNull function fetching the market hours of the markets for a day
+     */
+    public SchwabMarketCalendar(@NonNull ZoneId zoneId,
+                                int prefetchDays,
+                                @NonNull BiFunction<List<Market>, LocalDate, Mono<Map<String, Map<String, Hours>>>> hoursFetcher) {
+        this(zoneId, prefetchDays, hoursFetcher, Clock.systemUTC());
+    }
+
+    /**
+     * create a calendar
+     * @param zoneId {@literal @}NotNull {@link ZoneId} of the exchange, the time zone of the session hours
+     * @param prefetchDays int the days loaded ahead of today, including today
+     * @param hoursFetcher {@literal @}NotNull function fetching the market hours of the markets for a day
+     * @param clock {@literal @}NotNull {@link Clock} used to find today and the current time
+     */
+    public SchwabMarketCalendar(@NonNull ZoneId zoneId,
+                                int prefetchDays,
+                                @NonNull BiFunction<List<Market>, LocalDate, Mono<Map<String, Map<String, Hours>>>> hoursFetcher,
+                                @NonNull Clock clock) {
+        this.zoneId = zoneId;
+        this.prefetchDays = Math.max(1, prefetchDays);
+        this.hoursFetcher = hoursFetcher;
+        this.clock = clock;
+    }
+
+    /**
+     * load the market hours from today through the prefetch days, skipping the days already loaded
+     * @param markets {@literal @}NotNull {@link List}{@literal <}{@link Market}{@literal >}
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> load(@NonNull List<Market> markets) {
+        return this.load(markets, this.today(), prefetchDays);
+    }
+
+    /**
+     * load the market hours of a range of days, skipping the days already loaded.  Each missing day is
+     * one request for all the markets that miss it.
+     * @param markets {@literal @}NotNull {@link List}{@literal <}{@link Market}{@literal >}
+     * @param startDate {@literal @}NotNull {@link LocalDate} first day
+     * @param days int the number of days
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> load(@NonNull List<Market> markets, @NonNull LocalDate startDate, int days) {
+        if(markets.isEmpty()) {
+            throw new IllegalArgumentException("At least one market is required to load the Market Calendar.");
+        }
+        return Flux.range(0, Math.max(0, days))
+                .map(startDate::plusDays)
+                .concatMap(date -> {
+                    List<Market> missingMarkets = markets.stream()
+                            .distinct()
+                            .filter(market -> !this.isLoaded(market, date))
+                            .toList();
+                    if(missingMarkets.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    log.info("Load Market Calendar -> {} for {}", missingMarkets, date);
+                    return hoursFetcher.apply(missingMarkets, date)
+                            .onErrorResume(MarketNotFoundException.class, e -> Mono.just(Collections.emptyMap()))
+                            .doOnNext(hours -> missingMarkets.forEach(market ->
+                                    this.getMarketDays(market).add(date, this.findHours(hours, market), this.today().minusDays(1))));
+                })
+                .then();
+    }
+
+    /**
+     * check if the market hours of a day are loaded
+     * @param market {@literal @}NotNull {@link Market}
+     * @param date {@literal @}NotNull {@link LocalDate}
+     * @return boolean
+     */
+    public boolean isLoaded(@NonNull Market market, @NonNull LocalDate date) {
+        MarketDays days = marketDays.get(market);
+        return days != null && days.isLoaded(date);
+    }
+
+    /**
+     * check if the regular session of a market is open
+     * @param market {@literal @}NotNull {@link Market}
+     * @param instant {@literal @}NotNull {@link Instant}
+     * @return boolean
+     * @throws IllegalStateException when the day of the instant is not loaded
+     */
+    public boolean isOpen(@NonNull Market market, @NonNull Instant instant) {
+        return this.isOpen(market, instant, false);
+    }
+
+    /**
+     * check if a market is open
+     * @param market {@literal @}NotNull {@link Market}
+     * @param instant {@literal @}NotNull {@link Instant}
+     * @param extendedHours boolean include the pre-market and post-market sessions
+     * @return boolean
+     * @throws IllegalStateException when the day of the instant is not loaded
+     */
+    public boolean isOpen(@NonNull Market market, @NonNull Instant instant, boolean extendedHours) {
+        this.checkLoaded(market, instant);
+        return this.getSessions(market, extendedHours).sessionEnd(instant.toEpochMilli()) != null;
+    }
+
+    /**
+     * find the end of the session a market is in
+     * @param market {@literal @}NotNull {@link Market}
+     * @param instant {@literal @}NotNull {@link Instant}
+     * @param extendedHours boolean include the pre-market and post-market sessions
+     * @return {@link Optional}{@literal <}{@link Instant}{@literal >} empty when the market is closed
+     * @throws IllegalStateException when the day of the instant is not loaded
+     */
+    public Optional<Instant> sessionEnd(@NonNull Market market, @NonNull Instant instant, boolean extendedHours) {
+        this.checkLoaded(market, instant);
+        return Optional.ofNullable(this.getSessions(market, extendedHours).sessionEnd(instant.toEpochMilli()))
+                .map(Instant::ofEpochMilli);
+    }
+
+    /**
+     * find the start of the next regular session of a market after an instant
+     * @param market {@literal @}NotNull {@link Market}
+     * @param instant {@literal @}NotNull {@link Instant}
+     * @return {@link Optional}{@literal <}{@link Instant}{@literal >} empty when no loaded day has a later session
+     */
+    public Optional<Instant> nextSessionStart(@NonNull Market market, @NonNull Instant instant) {
+        return this.nextSessionStart(market, instant, false);
+    }
+
+    /**
+     * find the start of the next session of a market after an instant
+     * @param market {@literal @}NotNull {@link Market}
+     * @param instant {@literal @}NotNull {@link Instant}
+     * @param extendedHours boolean include the pre-market and post-market sessions
+     * @return {@link Optional}{@literal <}{@link Instant}{@literal >} empty when no loaded day has a later session
+     */
+    public Optional<Instant> nextSessionStart(@NonNull Market market, @NonNull Instant instant, boolean extendedHours) {
+        return Optional.ofNullable(this.getSessions(market, extendedHours).nextSessionStart(instant.toEpochMilli()))
+                .map(Instant::ofEpochMilli);
+    }
+
+    /**
+     * run a poller at a fixed interval while a market is open, and sleep until the next session while it
+     * is closed.  The market hours are loaded ahead as the days go by.  A poll that is still running when
+     * the next one is due skips that poll.  A failed poll is logged and skipped, and a failure to load the
+     * market hours is retried with a backoff, so the {@link Flux} keeps polling.
+     * @param market {@literal @}NotNull {@link Market}
+     * @param extendedHours boolean include the pre-market and post-market sessions
+     * @param interval {@literal @}NotNull {@link Duration} between the polls
+     * @param poller {@literal @}NotNull {@link Supplier} of the {@link Publisher} making one poll
+     * @param <T> the type of the poll results
+     * @return {@link Flux}{@literal <}T{@literal >} of the poll results, which never completes
+     */
+    public <T> Flux<T> poll(@NonNull Market market,
+                            boolean extendedHours,
+                            @NonNull Duration interval,
+                            @NonNull Supplier<? extends Publisher<T>> poller) {
+        return Mono.defer(() -> this.awaitSession(market, extendedHours))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, LOAD_RETRY_BACKOFF)
+                        .maxBackoff(LOAD_RETRY_MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Market Calendar -> unable to load {}, retrying: {}",
+                                market, signal.failure().getMessage())))
+                .flatMapMany(sessionEnd -> {
+                    log.info("Market Calendar -> {} open until {}, polling every {}", market, sessionEnd, interval);
+                    return Flux.interval(Duration.ZERO, interval)
+                            .take(maxDuration(Duration.ZERO, Duration.between(clock.instant(), sessionEnd)))
+                            .onBackpressureDrop()
+                            .concatMap(tick -> Flux.defer(poller)
+                                    .onErrorResume(e -> {
+                                        log.warn("Market Calendar -> {} poll failed: {}", market, e.getMessage());
+                                        return Flux.empty();
+                                    }), 0);
+                })
+                .repeat();
+    }
+
+    // completes with the end of the session once the market is open
+    private Mono<Instant> awaitSession(Market market, boolean extendedHours) {
+        return this.load(List.of(market))
+                .then(Mono.defer(() -> {
+                    Instant now = clock.instant();
+                    Optional<Instant> sessionEnd = this.sessionEnd(market, now, extendedHours);
+                    if(sessionEnd.isPresent()) {
+                        return Mono.just(sessionEnd.get());
+                    }
+                    // without a session in the loaded days, wake up on the next day that is not loaded yet
+                    Instant wakeUp = this.nextSessionStart(market, now, extendedHours)
+                            .orElseGet(() -> this.today().plusDays(prefetchDays).atStartOfDay(zoneId).toInstant());
+                    log.info("Market Calendar -> {} closed, sleeping until {}", market, wakeUp);
+                    return Mono.delay(Duration.between(now, wakeUp))
+                            .then(Mono.defer(() -> this.awaitSession(market, extendedHours)));
+                }));
+    }
+
+    private void checkLoaded(Market market, Instant instant) {
+        LocalDate date = instant.atZone(zoneId).toLocalDate();
+        if(!this.isLoaded(market, date)) {
+            throw new IllegalStateException("Market Calendar for " + market + " on " + date + " is not loaded.");
+        }
+    }
+
+    private static Duration maxDuration(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock.withZone(zoneId));
+    }
+
+    private MarketDays getMarketDays(Market market) {
+        return marketDays.computeIfAbsent(market, key -> new MarketDays());
+    }
+
+    private Sessions getSessions(Market market, boolean extendedHours) {
+        MarketDays days = marketDays.get(market);
+        if(days == null) {
+            return Sessions.EMPTY;
+        }
+        return extendedHours ? days.extendedSessions : days.regularSessions;
+    }
+
+    // the hours of every product of the market, like the EQO and IND products of the option market
+    private List<Hours> findHours(Map<String, Map<String, Hours>> hours, Market market) {
+        Map<String, Hours> productHours = hours.get(market.value());
+        return productHours == null ? Collections.emptyList() : new ArrayList<>(productHours.values());
+    }
+
+    private class MarketDays {
+        // the session windows of each loaded day, as start and end epoch milliseconds
+        private final TreeMap<LocalDate, List<long[]>> regularWindows = new TreeMap<>();
+        private final TreeMap<LocalDate, List<long[]>> extendedWindows = new TreeMap<>();
+        private volatile Sessions regularSessions = Sessions.EMPTY;
+        private volatile Sessions extendedSessions = Sessions.EMPTY;
+
+        synchronized boolean isLoaded(LocalDate date) {
+            return regularWindows.containsKey(date);
+        }
+
+        synchronized void add(LocalDate date, List<Hours> hours, LocalDate firstDateKept) {
+            List<long[]> regular = new ArrayList<>();
+            List<long[]> extended = new ArrayList<>();
+            hours.stream()
+                    .filter(productHours -> Boolean.TRUE.equals(productHours.getIsOpen()) && productHours.getSessionHours() != null)
+                    .map(Hours::getSessionHours)
+                    .forEach(sessionHours -> {
+                        addWindows(regular, sessionHours.getRegularMarket());
+                        addWindows(extended, sessionHours.getPreMarket());
+                        addWindows(extended, sessionHours.getRegularMarket());
+                        addWindows(extended, sessionHours.getPostMarket());
+                    });
+            regularWindows.put(date, regular);
+            extendedWindows.put(date, extended);
+            regularWindows.headMap(firstDateKept).clear();
+            extendedWindows.headMap(firstDateKept).clear();
+            regularSessions = Sessions.of(regularWindows);
+            extendedSessions = Sessions.of(extendedWindows);
+        }
+
+        private void addWindows(List<long[]> windows, List<SessionStartEnd> sessionWindows) {
+            if(sessionWindows != null) {
+                for(SessionStartEnd sessionWindow : sessionWindows) {
+                    if(sessionWindow.getStart() != null && sessionWindow.getEnd() != null
+                            && sessionWindow.getStart().isBefore(sessionWindow.getEnd())) {
+                        windows.add(new long[] {toEpochMilli(sessionWindow.getStart()), toEpochMilli(sessionWindow.getEnd())});
+                    }
+                }
+            }
+        }
+
+        private long toEpochMilli(LocalDateTime localDateTime) {
+            return localDateTime.atZone(zoneId).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * The session windows of a market sorted by start, with the overlapping and touching windows merged,
+     * so the pre-market, regular and post-market sessions of a day make one extended session.
+     */
+    private static final class Sessions {
+        static final Sessions EMPTY = new Sessions(new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+
+        private Sessions(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        static Sessions of(Map<LocalDate, List<long[]>> windowsByDate) {
+            List<long[]> windows = new ArrayList<>();
+            windowsByDate.values().forEach(windows::addAll);
+            windows.sort((first, second) -> Long.compare(first[0], second[0]));
+            long[] starts = new long[windows.size()];
+            long[] ends = new long[windows.size()];
+            int size = 0;
+            for(long[] window : windows) {
+                if(size > 0 && window[0] <= ends[size - 1]) {
+                    ends[size - 1] = Math.max(ends[size - 1], window[1]);
+                } else {
+                    starts[size] = window[0];
+                    ends[size] = window[1];
+                    size++;
+                }
+            }
+            return new Sessions(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+        }
+
+        // the end of the session containing the time, or null
+        Long sessionEnd(long time) {
+            int index = this.lastStartAtOrBefore(time);
+            return index >= 0 && time < ends[index] ? ends[index] : null;
+        }
+
+        // the first session start after the time, or null
+        Long nextSessionStart(long time) {
+            int index = this.lastStartAtOrBefore(time) + 1;
+            return index < starts.length ? starts[index] : null;
+        }
+
+        private int lastStartAtOrBefore(long time) {
+            int index = Arrays.binarySearch(starts, time);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.pangility.schwab.api.client.marketdata;
 
 import com.pangility.schwab.api.client.common.SchwabBaseApiClient;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainColumns;
 import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainRequest;
 import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainResponse;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionContract;
 import com.pangility.schwab.api.client.marketdata.model.expirationchain.ExpirationChainResponse;
 import com.pangility.schwab.api.client.marketdata.model.instruments.Instrument;
 import com.pangility.schwab.api.client.marketdata.model.instruments.InstrumentsRequest;
@@ -11,11 +13,14 @@ import com.pangility.schwab.api.client.marketdata.model.markets.Hours;
 import com.pangility.schwab.api.client.marketdata.model.movers.MoversRequest;
 import com.pangility.schwab.api.client.marketdata.model.movers.MoversResponse;
 import com.pangility.schwab.api.client.marketdata.model.movers.Screener;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleSeries;
 import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryRequest;
 import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
 import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
 import com.pangility.schwab.api.client.oauth2.SchwabAccount;
 import com.pangility.schwab.api.client.oauth2.SchwabTokenHandler;
+import jakarta.annotation.PostConstruct;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,16 +32,21 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.Instant;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Main client for interacting with the Schwab Market Data API.
@@ -49,10 +59,179 @@ import java.util.Map;
 @Slf4j
 public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
 
+    // created once so the response decoder resolves these types a single time
+    private static final ParameterizedTypeReference<Map<String, QuoteResponse>> QUOTE_RESPONSE_MAP_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<String, Map<String, Hours>>> MARKET_HOURS_MAP_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     @Value("${schwab-api.marketDataPath}")
     private String schwabMarketDataPath;
+    @Value("${schwab-api.quotes.maxSymbolsPerRequest}")
+    private Integer quotesMaxSymbolsPerRequest;
+    @Value("${schwab-api.quotes.maxConcurrentRequests}")
+    private Integer quotesMaxConcurrentRequests;
+    @Value("${schwab-api.quotes.coalesce.enabled}")
+    private Boolean quoteCoalesceEnabled;
+    @Value("${schwab-api.quotes.coalesce.window}")
+    private Duration quoteCoalesceWindow;
+    @Value("${schwab-api.quotes.coalesce.maxBatch}")
+    private Integer quoteCoalesceMaxBatch;
+
+    @Value("${schwab-api.quotes.cache.enabled}")
+    private Boolean quoteCacheEnabled;
+    @Value("${schwab-api.quotes.cache.maxSize}")
+    private Integer quoteCacheMaxSize;
+    @Value("${schwab-api.quotes.cache.defaultTtl}")
+    private Duration quoteCacheDefaultTtl;
+    @Value("${schwab-api.quotes.cache.ttl}")
+    private String quoteCacheTtl;
+    @Value("${schwab-api.quotes.cache.staleWhileRevalidate}")
+    private Boolean quoteCacheStaleWhileRevalidate;
+    @Value("${schwab-api.quotes.snapshots.enabled}")
+    private Boolean quoteSnapshotsEnabled;
+    @Value("${schwab-api.quotes.bus.enabled}")
+    private Boolean marketDataBusEnabled;
+    @Value("${schwab-api.quotes.bus.bufferSize}")
+    private Integer marketDataBusBufferSize;
+    @Value("${schwab-api.quotes.bus.waitStrategy}")
+    private WaitStrategy marketDataBusWaitStrategy;
+
+    @Value("${schwab-api.priceHistory.timeZone}")
+    private ZoneId priceHistoryTimeZone;
+    @Value("${schwab-api.priceHistory.download.minuteWindowDays}")
+    private Integer priceHistoryDownloadMinuteWindowDays;
+    @Value("${schwab-api.priceHistory.download.windowDays}")
+    private Integer priceHistoryDownloadWindowDays;
+    @Value("${schwab-api.priceHistory.download.maxConcurrentSymbols}")
+    private Integer priceHistoryDownloadMaxConcurrentSymbols;
+    @Value("${schwab-api.priceHistory.download.maxConcurrentWindows}")
+    private Integer priceHistoryDownloadMaxConcurrentWindows;
+    @Value("${schwab-api.priceHistory.store.enabled}")
+    private Boolean priceHistoryStoreEnabled;
+    @Value("${schwab-api.priceHistory.store.directory}")
+    private String priceHistoryStoreDirectory;
+
+    @Value("${schwab-api.instruments.index.batchSize}")
+    private Integer instrumentIndexBatchSize;
+    @Value("${schwab-api.instruments.index.maxConcurrentRequests}")
+    private Integer instrumentIndexMaxConcurrentRequests;
+    @Value("${schwab-api.instruments.index.persistence.enabled}")
+    private Boolean instrumentIndexPersistenceEnabled;
+    @Value("${schwab-api.instruments.index.persistence.file}")
+    private String instrumentIndexPersistenceFile;
+
+    @Value("${schwab-api.markets.calendar.timeZone}")
+    private ZoneId marketCalendarTimeZone;
+    @Value("${schwab-api.markets.calendar.prefetchDays}")
+    private Integer marketCalendarPrefetchDays;
 
     private String defaultUserId = null;
+    private SchwabQuoteCoalescer quoteCoalescer = null;
+    private SchwabQuoteCache quoteCache = null;
+    private SchwabQuoteSnapshotTable quoteSnapshots = null;
+    private SchwabMarketDataEventBus marketDataBus = null;
+    private SchwabPriceHistoryStore priceHistoryStore = null;
+    private SchwabPriceHistoryDownloader priceHistoryDownloader = null;
+    private SchwabOptionChainStreamDecoder optionChainStreamDecoder = null;
+    private SchwabMarketCalendar marketCalendar = null;
+    private SchwabInstrumentIndex instrumentIndex = null;
+
+    /**
+     * create the market data support components, the optional ones only if they are enabled
+     */
+    @PostConstruct
+    public void initQuoteSupport() {
+        if(Boolean.TRUE.equals(quoteCoalesceEnabled)) {
+            quoteCoalescer = new SchwabQuoteCoalescer(quoteCoalesceWindow, quoteCoalesceMaxBatch,
+                    (symbols, fields) -> this.fetchQuoteMapToMono(symbols, fields, null));
+        }
+        if(Boolean.TRUE.equals(quoteCacheEnabled)) {
+            quoteCache = new SchwabQuoteCache(quoteCacheMaxSize, quoteCacheDefaultTtl,
+                    SchwabQuoteCache.parseTtls(quoteCacheTtl), quoteCacheStaleWhileRevalidate);
+        }
+        if(Boolean.TRUE.equals(quoteSnapshotsEnabled)) {
+            quoteSnapshots = new SchwabQuoteSnapshotTable(this.getObjectMapper(), Schedulers.parallel());
+        }
+        if(Boolean.TRUE.equals(marketDataBusEnabled)) {
+            marketDataBus = new SchwabMarketDataEventBus(marketDataBusBufferSize, marketDataBusWaitStrategy,
+                    this.getObjectMapper());
+        }
+        if(Boolean.TRUE.equals(priceHistoryStoreEnabled)) {
+            priceHistoryStore = new SchwabPriceHistoryStore(Path.of(priceHistoryStoreDirectory));
+        }
+        priceHistoryDownloader = new SchwabPriceHistoryDownloader(priceHistoryDownloadMinuteWindowDays,
+                priceHistoryDownloadWindowDays, priceHistoryDownloadMaxConcurrentSymbols,
+                priceHistoryDownloadMaxConcurrentWindows,
+                priceHistReq -> this.fetchPriceHistoryFromApiToMono(priceHistReq, PriceHistoryResponse.class));
+        optionChainStreamDecoder = new SchwabOptionChainStreamDecoder(this.getObjectMapper());
+        marketCalendar = new SchwabMarketCalendar(marketCalendarTimeZone, marketCalendarPrefetchDays,
+                this::fetchMarketsToMono);
+        instrumentIndex = new SchwabInstrumentIndex(instrumentIndexBatchSize, instrumentIndexMaxConcurrentRequests,
+                this.getObjectMapper(),
+                Boolean.TRUE.equals(instrumentIndexPersistenceEnabled) ? Path.of(instrumentIndexPersistenceFile) : null,
+                keys -> this.fetchInstrumentsToFlux(InstrumentsRequest.builder()
+                                .withSymbol(String.join(",", keys))
+                                .withProjection(InstrumentsRequest.Projection.SYMBOL_SEARCH)
+                                .build())
+                        .onErrorResume(SymbolNotFoundException.class, e -> Flux.empty()));
+    }
+
+    /**
+     * get the coalescer merging single symbol quote requests
+     * @return {@link SchwabQuoteCoalescer} or null if coalescing is disabled
+     */
+    public SchwabQuoteCoalescer getQuoteCoalescer() {
+        return quoteCoalescer;
+    }
+
+    /**
+     * get the cache in front of the quote endpoints
+     * @return {@link SchwabQuoteCache} or null if the cache is disabled
+     */
+    public SchwabQuoteCache getQuoteCache() {
+        return quoteCache;
+    }
+
+    /**
+     * get the table of the latest quote of each symbol, fed by the quote endpoints and the streamer sessions attached to it
+     * @return {@link SchwabQuoteSnapshotTable} or null if the snapshot table is disabled
+     */
+    public SchwabQuoteSnapshotTable getQuoteSnapshots() {
+        return quoteSnapshots;
+    }
+
+    /**
+     * get the bus fanning the quotes of the quote endpoints and of the streamer sessions attached to it out to in-process consumers
+     * @return {@link SchwabMarketDataEventBus} or null if the bus is disabled
+     */
+    public SchwabMarketDataEventBus getMarketDataBus() {
+        return marketDataBus;
+    }
+
+    /**
+     * get the local store in front of the price history endpoint
+     * @return {@link SchwabPriceHistoryStore} or null if the store is disabled
+     */
+    public SchwabPriceHistoryStore getPriceHistoryStore() {
+        return priceHistoryStore;
+    }
+
+    /**
+     * get the calendar of the market sessions, loaded from the market hours endpoint
+     * @return {@link SchwabMarketCalendar}
+     */
+    public SchwabMarketCalendar getMarketCalendar() {
+        return marketCalendar;
+    }
+
+    /**
+     * get the index of the instruments by symbol and CUSIP, resolving misses through the instruments endpoint
+     * @return {@link SchwabInstrumentIndex}
+     */
+    public SchwabInstrumentIndex getInstrumentIndex() {
+        return instrumentIndex;
+    }
 
     /**
      * Initialize the client controller
@@ -147,17 +326,30 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
     public Mono<QuoteResponse> fetchQuoteToMono(@NonNull String symbol,
                                                  String fields) {
         log.info("Fetch Quote [{}]", symbol);
-        Mono<QuoteResponse> quoteResponseMono;
 
         if(fields == null || fields.isEmpty()) {
             fields = "all";
         }
+        if (symbol.isEmpty()) {
+            throw new IllegalArgumentException("A Quote must include a symbol.");
+        }
+
+        if(quoteCache != null) {
+            return quoteCache.getQuote(symbol, fields, this::fetchQuoteFromApiToMono);
+        }
+        return this.fetchQuoteFromApiToMono(symbol, fields);
+    }
 
-        if (!symbol.isEmpty()) {
+    private Mono<QuoteResponse> fetchQuoteFromApiToMono(@NonNull String symbol,
+                                                        @NonNull String fields) {
+        Mono<QuoteResponse> quoteResponseMono;
+        if (quoteCoalescer != null) {
+            quoteResponseMono = quoteCoalescer.fetchQuoteToMono(symbol, fields);
+        } else {
             UriComponentsBuilder uriBuilder = this.getUriBuilder()
                     .pathSegment(symbol.toUpperCase(), "quotes")
                     .queryParam("fields", fields);
-            quoteResponseMono = this.callGetApiToMono(defaultUserId, uriBuilder, new ParameterizedTypeReference<Map<String, QuoteResponse>>() {})
+            quoteResponseMono = this.callGetApiToMono(defaultUserId, uriBuilder, QUOTE_RESPONSE_MAP_TYPE)
                     .onErrorResume(throwable -> {
                         if(throwable instanceof WebClientResponseException) {
                             if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
@@ -172,9 +364,15 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
                         } else {
                             return Mono.error(new SymbolNotFoundException("'" + symbol + "' not found"));
                         }
+                    })
+                    .doOnNext(quoteResponse -> {
+                        if(quoteSnapshots != null) {
+                            quoteSnapshots.update(quoteResponse);
+                        }
+                        if(marketDataBus != null) {
+                            marketDataBus.tryPublish(quoteResponse);
+                        }
                     });
-        } else {
-            throw new IllegalArgumentException("A Quote must include a symbol.");
         }
         return quoteResponseMono;
     }
@@ -247,13 +445,86 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
                                                               Boolean indicative) {
         log.info("Fetch Quotes -> [{}]", symbols);
 
-        if(fields == null || fields.isEmpty()) {
-            fields = "all";
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("Quotes must include one or more symbols.");
         }
+
+        List<String> distinctSymbols = this.toDistinctSymbols(symbols);
+        Mono<Map<String, QuoteResponse>> quoteResponseMapMono;
+        if(quoteCache != null && indicative == null) {
+            quoteResponseMapMono = quoteCache.getQuotes(distinctSymbols, fields == null || fields.isEmpty() ? "all" : fields,
+                    (missingSymbols, quoteFields) -> this.fetchQuoteMapsToFlux(missingSymbols, quoteFields, null)
+                            .collect(LinkedHashMap::new, Map::putAll));
+        } else {
+            quoteResponseMapMono = this.fetchQuoteMapsToFlux(distinctSymbols, fields, indicative)
+                    .collect(LinkedHashMap::new, Map::putAll);
+        }
+        return quoteResponseMapMono
+                .flatMap(quoteResponseMap -> {
+                    if(!quoteResponseMap.isEmpty() && quoteResponseMap.size() == distinctSymbols.size()) {
+                        return Mono.just(quoteResponseMap);
+                    } else {
+                        return Mono.error(new SymbolNotFoundException("One or more '" + symbols + "' symbols not found"));
+                    }
+                });
+    }
+
+    /**
+     * reactively fetch quotes for any number of symbols from the Schwab API.  The symbols are split
+     * into requests of at most {@code schwab-api.quotes.maxSymbolsPerRequest} symbols which run with
+     * bounded concurrency, and the quotes are emitted as each request completes.  Symbols that
+     * are not found are skipped rather than failing the whole Flux.
+     * @param symbols {@literal @}NotNull List{@literal <}String{@literal >}
+     * @return {@link Flux}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public Flux<QuoteResponse> fetchQuotesToFlux(@NonNull List<String> symbols) {
+        return this.fetchQuotesToFlux(symbols, null, null);
+    }
+
+    /**
+     * reactively fetch quotes for any number of symbols from the Schwab API.  The symbols are split
+     * into requests of at most {@code schwab-api.quotes.maxSymbolsPerRequest} symbols which run with
+     * bounded concurrency, and the quotes are emitted as each request completes.  Symbols that
+     * are not found are skipped rather than failing the whole Flux.
+     * @param symbols {@literal @}NotNull List{@literal <}String{@literal >}
+     * @param fields String (quote, fundamental or all)
+     * @param indicative Boolean (include indicative symbol quotes for all ETF symbols in request)
+     * @return {@link Flux}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public Flux<QuoteResponse> fetchQuotesToFlux(@NonNull List<String> symbols,
+                                                 String fields,
+                                                 Boolean indicative) {
+        log.info("Fetch Quotes -> {} symbols", symbols.size());
+
         if (symbols.isEmpty()) {
             throw new IllegalArgumentException("Quotes must include one or more symbols.");
         }
 
+        return this.fetchQuoteMapsToFlux(this.toDistinctSymbols(symbols), fields, indicative)
+                .flatMapIterable(Map::values);
+    }
+
+    private Flux<Map<String, QuoteResponse>> fetchQuoteMapsToFlux(@NonNull List<String> distinctSymbols,
+                                                                  String fields,
+                                                                  Boolean indicative) {
+        String quoteFields = fields == null || fields.isEmpty() ? "all" : fields;
+        return Flux.fromIterable(distinctSymbols)
+                .buffer(Math.max(1, quotesMaxSymbolsPerRequest))
+                .flatMap(chunk -> this.fetchQuoteMapToMono(chunk, quoteFields, indicative)
+                        .onErrorResume(SymbolNotFoundException.class, e -> Mono.just(Collections.emptyMap())),
+                        Math.max(1, quotesMaxConcurrentRequests));
+    }
+
+    private List<String> toDistinctSymbols(@NonNull List<String> symbols) {
+        return symbols.stream()
+                .map(String::toUpperCase)
+                .distinct()
+                .toList();
+    }
+
+    private Mono<Map<String, QuoteResponse>> fetchQuoteMapToMono(@NonNull List<String> symbols,
+                                                                 @NonNull String fields,
+                                                                 Boolean indicative) {
         String symbolsParam = String.join(",", symbols).toUpperCase();
         UriComponentsBuilder uriBuilder = this.getUriBuilder()
                 .pathSegment("quotes")
@@ -262,7 +533,7 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
         if(indicative != null) {
             uriBuilder.queryParam("indicative", indicative);
         }
-        return this.callGetApiToMono(defaultUserId, uriBuilder, new ParameterizedTypeReference<Map<String, QuoteResponse>>() {})
+        return this.callGetApiToMono(defaultUserId, uriBuilder, QUOTE_RESPONSE_MAP_TYPE)
                 .onErrorResume(throwable -> {
                     if(throwable instanceof WebClientResponseException) {
                         if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
@@ -271,12 +542,19 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
                     }
                     return Mono.error(throwable);
                 })
-                .flatMap(quoteResponseMap -> {
-                    if(!quoteResponseMap.isEmpty() && quoteResponseMap.size() == symbols.size()) {
-                        return Mono.just(quoteResponseMap);
-                    } else {
-                        return Mono.error(new SymbolNotFoundException("One or more '" + symbols + "' symbols not found"));
+                .map(quoteResponseMap -> {
+                    // invalid symbols are reported in an "errors" entry rather than as a quote
+                    QuoteResponse errors = quoteResponseMap.remove("errors");
+                    if(errors != null) {
+                        log.debug("Quote errors -> {}", errors.getOtherFields());
+                    }
+                    if(quoteSnapshots != null) {
+                        quoteSnapshots.updateAll(quoteResponseMap.values());
+                    }
+                    if(marketDataBus != null) {
+                        marketDataBus.tryPublishAll(quoteResponseMap.values());
                     }
+                    return quoteResponseMap;
                 });
     }
 
@@ -298,6 +576,60 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
     public Mono<OptionChainResponse> fetchOptionChainToMono(@NonNull OptionChainRequest chainRequest) {
         log.info("Fetch Option Chain -> {}", chainRequest);
 
+        UriComponentsBuilder uriBuilder = this.getOptionChainUriBuilder(chainRequest);
+        return this.callGetApiToMono(defaultUserId, uriBuilder, OptionChainResponse.class)
+                .onErrorResume(throwable -> this.mapOptionChainError(throwable, chainRequest))
+                .flatMap(response -> {
+                    if(response.getSymbol() != null && !response.getSymbol().isEmpty()) {
+                        return Mono.just(response);
+                    } else {
+                        return Mono.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
+                    }
+                });
+    }
+
+    /**
+     * fetch an option chain from the Schwab API into primitive columns instead of an
+     * {@link OptionChainResponse}, which keeps the allocation of large chains low
+     * @param chainRequest {@literal @}NotNull {@link OptionChainRequest}
+     * @return {@link Mono}{@literal <}{@link OptionChainColumns}{@literal >}
+     */
+    public Mono<OptionChainColumns> fetchOptionChainColumnsToMono(@NonNull OptionChainRequest chainRequest) {
+        log.info("Fetch Option Chain Columns -> {}", chainRequest);
+
+        UriComponentsBuilder uriBuilder = this.getOptionChainUriBuilder(chainRequest);
+        return this.callGetApiToMono(defaultUserId, uriBuilder, OptionChainColumns.class)
+                .onErrorResume(throwable -> this.mapOptionChainError(throwable, chainRequest))
+                .flatMap(response -> {
+                    if(response.getSymbol() != null && !response.getSymbol().isEmpty()) {
+                        return Mono.just(response);
+                    } else {
+                        return Mono.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
+                    }
+                });
+    }
+
+    /**
+     * stream the contracts of an option chain from the Schwab API as they are received, calls before puts.
+     * The response is never buffered, so the first contracts arrive early and large chains are not
+     * limited by the maximum in memory size
+     * @param chainRequest {@literal @}NotNull {@link OptionChainRequest}
+     * @return {@link Flux}{@literal <}{@link OptionContract}{@literal >}
+     */
+    public Flux<OptionContract> fetchOptionChainContractsToFlux(@NonNull OptionChainRequest chainRequest) {
+        log.info("Fetch Option Chain Contracts -> {}", chainRequest);
+
+        UriComponentsBuilder uriBuilder = this.getOptionChainUriBuilder(chainRequest);
+        return this.callGetApiToFlux(defaultUserId, uriBuilder, optionChainStreamDecoder::decode)
+                .onErrorResume(throwable -> {
+                    if(throwable instanceof SymbolNotFoundException) {
+                        return Flux.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
+                    }
+                    return this.<OptionContract>mapOptionChainError(throwable, chainRequest).flux();
+                });
+    }
+
+    private UriComponentsBuilder getOptionChainUriBuilder(@NonNull OptionChainRequest chainRequest) {
         if (chainRequest.getSymbol() == null || chainRequest.getSymbol().isEmpty()) {
             throw new IllegalArgumentException("Symbol cannot be blank.");
         }
@@ -350,22 +682,17 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
         if(chainRequest.getMonth() != null) {
             uriBuilder.queryParam("month", chainRequest.getMonth().toString().substring(0, 3).toUpperCase());
         }
-        return this.callGetApiToMono(defaultUserId, uriBuilder, OptionChainResponse.class)
-                .onErrorResume(throwable -> {
-                    if(throwable instanceof WebClientResponseException) {
-                        if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
-                            return Mono.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
-                        }
-                    }
-                    return Mono.error(throwable);
-                })
-                .flatMap(response -> {
-                    if(response.getSymbol() != null && !response.getSymbol().isEmpty()) {
-                        return Mono.just(response);
-                    } else {
-                        return Mono.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
-                    }
-                });
+        return uriBuilder;
+    }
+
+    private <T> Mono<T> mapOptionChainError(@NonNull Throwable throwable,
+                                            @NonNull OptionChainRequest chainRequest) {
+        if(throwable instanceof WebClientResponseException) {
+            if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                return Mono.error(new SymbolNotFoundException("'" + chainRequest.getSymbol() + "' not found"));
+            }
+        }
+        return Mono.error(throwable);
     }
 
     /**
@@ -433,6 +760,158 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
             throw new IllegalArgumentException("Symbol cannot be blank.");
         }
 
+        Mono<PriceHistoryResponse> priceHistoryResponseMono;
+        if(priceHistoryStore != null && SchwabPriceHistoryStore.isStorable(priceHistReq)) {
+            priceHistoryResponseMono = this.fetchStoredPriceHistoryToMono(priceHistReq);
+        } else {
+            priceHistoryResponseMono = this.fetchPriceHistoryFromApiToMono(priceHistReq, PriceHistoryResponse.class);
+        }
+        return priceHistoryResponseMono
+                // the ISO8601 dates are only computed when they are read
+                .doOnSuccess(priceHistoryResponse -> priceHistoryResponse.setZoneId(priceHistoryTimeZone))
+                .flatMap(response -> {
+                    if(!response.getEmpty() && response.getSymbol() != null && !response.getSymbol().isEmpty() && response.getSymbol().equalsIgnoreCase(priceHistReq.getSymbol())) {
+                        return Mono.just(response);
+                    } else {
+                        return Mono.error(new SymbolNotFoundException("'" + priceHistReq.getSymbol() + "' not found"));
+                    }
+                });
+    }
+
+
+    /**
+     * download the price history of many symbols, splitting the date range of the request into windows
+     * and fetching the windows and symbols in parallel
+     * @param symbols {@literal @}NotNull {@link List}{@literal <}String{@literal >}
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest} with the startDate, endDate and
+     *                     frequency to use for every symbol, its symbol is ignored
+     * @return {@link Flux}{@literal <}{@link PriceHistoryResponse}{@literal >} emitting each symbol as it finishes
+     */
+    public Flux<PriceHistoryResponse> downloadPriceHistoryToFlux(@NonNull List<String> symbols,
+                                                                 @NonNull PriceHistoryRequest priceHistReq) {
+        return this.downloadPriceHistoryToFlux(symbols, priceHistReq, null, priceHistoryResponse -> Mono.empty());
+    }
+
+    /**
+     * download the price history of many symbols, splitting the date range of the request into windows
+     * and fetching the windows and symbols in parallel.  Each symbol is recorded in the checkpoint file
+     * once the persister has saved it, and the symbols recorded by a previous run of the same download are
+     * skipped.  A crash between the persister and the checkpoint delivers the symbol again on the next run.
+     * @param symbols {@literal @}NotNull {@link List}{@literal <}String{@literal >}
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest} with the startDate, endDate and
+     *                     frequency to use for every symbol, its symbol is ignored
+     * @param checkpointFile {@link Path} recording the saved symbols, or null for no checkpoint
+     * @param persister {@literal @}NotNull function saving the price history of one symbol, completing when
+     *                  it is durable
+     * @return {@link Flux}{@literal <}{@link PriceHistoryResponse}{@literal >} emitting each symbol once it is saved
+     */
+    public Flux<PriceHistoryResponse> downloadPriceHistoryToFlux(@NonNull List<String> symbols,
+                                                                 @NonNull PriceHistoryRequest priceHistReq,
+                                                                 Path checkpointFile,
+                                                                 @NonNull Function<PriceHistoryResponse, Mono<Void>> persister) {
+        log.info("Download Price History -> {} symbols, {}", symbols.size(), priceHistReq);
+
+        return priceHistoryDownloader.download(symbols, priceHistReq, checkpointFile, priceHistoryResponse -> {
+            priceHistoryResponse.setZoneId(priceHistoryTimeZone);
+            return persister.apply(priceHistoryResponse);
+        });
+    }
+
+    /**
+     * fetch the price history from the Schwab API into primitive columns instead of a
+     * list of {@link Candle}s, which keeps long series compact
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest}
+     * @return {@link Mono}{@literal <}{@link CandleSeries}{@literal >}
+     */
+    public Mono<CandleSeries> fetchPriceHistorySeriesToMono(@NonNull PriceHistoryRequest priceHistReq) {
+        log.info("Fetch Price History Series -> {}", priceHistReq);
+
+        if (priceHistReq.getSymbol() == null || priceHistReq.getSymbol().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be blank.");
+        }
+
+        Mono<CandleSeries> candleSeriesMono;
+        if(priceHistoryStore != null && SchwabPriceHistoryStore.isStorable(priceHistReq)) {
+            candleSeriesMono = this.fetchStoredPriceHistoryToMono(priceHistReq).map(CandleSeries::of);
+        } else {
+            candleSeriesMono = this.fetchPriceHistoryFromApiToMono(priceHistReq, CandleSeries.class);
+        }
+        return candleSeriesMono
+                .flatMap(response -> {
+                    if(!Boolean.TRUE.equals(response.getEmpty()) && response.getSymbol() != null && response.getSymbol().equalsIgnoreCase(priceHistReq.getSymbol())) {
+                        return Mono.just(response);
+                    } else {
+                        return Mono.error(new SymbolNotFoundException("'" + priceHistReq.getSymbol() + "' not found"));
+                    }
+                });
+    }
+
+    // only the days missing before or after the stored range are downloaded, the rest is read from the store
+    private Mono<PriceHistoryResponse> fetchStoredPriceHistoryToMono(@NonNull PriceHistoryRequest priceHistReq) {
+        SchwabPriceHistoryStore.Key key = SchwabPriceHistoryStore.Key.of(priceHistReq);
+        LocalDate startDate = priceHistReq.getStartDate();
+        LocalDate endDate = priceHistReq.getEndDate();
+        return Mono.fromCallable(() -> Optional.ofNullable(priceHistoryStore.getCoverage(key)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(coverage -> {
+                    List<LocalDate[]> missingRanges = new ArrayList<>();
+                    if(coverage.isEmpty()) {
+                        missingRanges.add(new LocalDate[] {startDate, endDate});
+                    } else {
+                        // ranges reach the stored days so the store keeps a single range without gaps
+                        if(startDate.isBefore(coverage.get().getStart())) {
+                            missingRanges.add(new LocalDate[] {startDate, coverage.get().getStart().minusDays(1)});
+                        }
+                        if(endDate.isAfter(coverage.get().getEnd())) {
+                            missingRanges.add(new LocalDate[] {coverage.get().getEnd().plusDays(1), endDate});
+                        }
+                    }
+                    log.debug("Price History Store {} -> covered {}, downloading {} range(s)",
+                            key, coverage.orElse(null), missingRanges.size());
+
+                    LocalDate lastCompleteDay = priceHistoryStore.getLastCompleteDay();
+                    long liveFrom = lastCompleteDay.plusDays(1).toEpochDay() * 86400 * 1000;
+                    long liveTo = endDate.plusDays(1).toEpochDay() * 86400 * 1000;
+                    List<Candle> liveCandles = new ArrayList<>();
+                    return Flux.fromIterable(missingRanges)
+                            .concatMap(range -> this.fetchPriceHistoryFromApiToMono(PriceHistoryRequest.builder()
+                                            .withSymbol(priceHistReq.getSymbol())
+                                            .withPeriodType(priceHistReq.getPeriodType())
+                                            .withPeriod(priceHistReq.getPeriod())
+                                            .withFrequencyType(priceHistReq.getFrequencyType())
+                                            .withFrequency(priceHistReq.getFrequency())
+                                            .withStartDate(range[0])
+                                            .withEndDate(range[1])
+                                            .withNeedExtendedHoursData(priceHistReq.getNeedExtendedHoursData())
+                                            .build(), PriceHistoryResponse.class)
+                                    .publishOn(Schedulers.boundedElastic())
+                                    .doOnNext(response -> {
+                                        List<Candle> candles = response.getCandles() == null ? Collections.emptyList() : response.getCandles();
+                                        // an unknown symbol returns no candles, do not create a store for it
+                                        if(!candles.isEmpty() || coverage.isPresent()) {
+                                            priceHistoryStore.write(key, range[0], range[1], candles);
+                                        }
+                                        candles.stream()
+                                                .filter(candle -> candle.getDatetime() != null
+                                                        && candle.getDatetime() >= liveFrom && candle.getDatetime() < liveTo)
+                                                .forEach(liveCandles::add);
+                                    }))
+                            .then(Mono.fromCallable(() -> {
+                                PriceHistoryResponse priceHistoryResponse = new PriceHistoryResponse();
+                                priceHistoryResponse.setSymbol(priceHistReq.getSymbol().toUpperCase());
+                                if(!startDate.isAfter(lastCompleteDay)) {
+                                    priceHistoryResponse.getCandles().addAll(priceHistoryStore.read(key, startDate,
+                                            endDate.isAfter(lastCompleteDay) ? lastCompleteDay : endDate));
+                                }
+                                priceHistoryResponse.getCandles().addAll(liveCandles);
+                                priceHistoryResponse.setEmpty(priceHistoryResponse.getCandles().isEmpty());
+                                return priceHistoryResponse;
+                            }).subscribeOn(Schedulers.boundedElastic()));
+                });
+    }
+
+    private <T> Mono<T> fetchPriceHistoryFromApiToMono(@NonNull PriceHistoryRequest priceHistReq,
+                                                       @NonNull Class<T> responseClass) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.newInstance()
                 .pathSegment(schwabMarketDataPath, schwabApiVersion, "pricehistory")
                 .queryParam("symbol", priceHistReq.getSymbol().toUpperCase());
@@ -464,7 +943,7 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
             uriBuilder.queryParam("needPreviousClose",
                     String.valueOf(priceHistReq.getNeedPreviousClose()));
         }
-        return this.callGetApiToMono(defaultUserId, uriBuilder, PriceHistoryResponse.class)
+        return this.callGetApiToMono(defaultUserId, uriBuilder, responseClass)
                 .onErrorResume(throwable -> {
                     if(throwable instanceof WebClientResponseException) {
                         if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
@@ -472,27 +951,6 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
                         }
                     }
                     return Mono.error(throwable);
-                })
-                .doOnSuccess(priceHistoryResponse -> {
-                    if(priceHistoryResponse.getPreviousCloseDate() != null && priceHistoryResponse.getPreviousCloseDateISO8601() == null) {
-                        LocalDate ld = Instant.ofEpochMilli(priceHistoryResponse.getPreviousCloseDate()).atZone(ZoneId.systemDefault()).toLocalDate();
-                        priceHistoryResponse.setPreviousCloseDateISO8601(ld);
-                    }
-                    if(priceHistoryResponse.getCandles() != null) {
-                        priceHistoryResponse.getCandles().forEach(candle -> {
-                            if(candle.getDatetime() != null && candle.getDatetimeISO8601() == null) {
-                                LocalDateTime ldt = Instant.ofEpochMilli(candle.getDatetime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
-                                candle.setDatetimeISO8601(ldt);
-                            }
-                        });
-                    }
-                })
-                .flatMap(response -> {
-                    if(!response.getEmpty() && response.getSymbol() != null && !response.getSymbol().isEmpty() && response.getSymbol().equalsIgnoreCase(priceHistReq.getSymbol())) {
-                        return Mono.just(response);
-                    } else {
-                        return Mono.error(new SymbolNotFoundException("'" + priceHistReq.getSymbol() + "' not found"));
-                    }
                 });
     }
 
@@ -631,7 +1089,7 @@ public class SchwabMarketDataApiClient extends SchwabBaseApiClient {
         if (date != null) {
             uriBuilder.queryParam("date", date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
         }
-        return this.callGetApiToMono(defaultUserId, uriBuilder, new ParameterizedTypeReference<Map<String, Map<String, Hours>>>() {})
+        return this.callGetApiToMono(defaultUserId, uriBuilder, MARKET_HOURS_MAP_TYPE)
                 .onErrorResume(throwable -> {
                     if(throwable instanceof WebClientResponseException) {
                         if(((WebClientResponseException) throwable).getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
@@ -0,0 +1,377 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import com.pangility.schwab.api.client.streaming.SchwabStreamerSession;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Fans the quote updates of the quote endpoints and of the streamer sessions attached to it out to many
+ * in-process consumers through one pre-allocated ring of {@link MarketDataEvent}s, instead of a Reactor
+ * pipeline per consumer.
+ * </p>
+ * <p>
+ * Publishing threads are serialized, so the ring has a single writer that advances the cursor.  Each
+ * consumer runs on its own thread with its own sequence, reads every event in order and waits for the
+ * next one with the {@link WaitStrategy} of the bus.  The producer never overwrites an event a consumer
+ * has not read: when the slowest consumer is a full ring behind, {@code publish} waits for it, without
+ * holding up other publishers, and {@code tryPublish} drops the event.  The quote endpoints and attached
+ * streamer sessions publish from I/O threads, so they use {@code tryPublish} and never wait; the dropped
+ * events are counted by {@link #getDroppedCount()}.
+ * </p>
+ */
+@Slf4j
+public class SchwabMarketDataEventBus {
+
+    private static final AtomicInteger CONSUMER_COUNT = new AtomicInteger();
+
+    private final ObjectMapper objectMapper;
+    @Getter
+    private final WaitStrategy waitStrategy;
+    private final MarketDataEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1L);
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // the lowest consumer sequence seen by the producer, only read and written while publishing
+    private long gatingSequence = -1L;
+
+    /**
+     * create a bus
+     * @param bufferSize int number of events in the ring, a power of 2
+     * @param waitStrategy {@literal @}NotNull {@link WaitStrategy} of the consumers
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read the fields of the REST quotes
+     */
+    public SchwabMarketDataEventBus(int bufferSize,
+                                    @NonNull WaitStrategy waitStrategy,
+                                    @NonNull ObjectMapper objectMapper) {
+        if(bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("The buffer size must be a power of 2.");
+        }
+        this.objectMapper = objectMapper;
+        this.waitStrategy = waitStrategy;
+        this.ring = new MarketDataEvent[bufferSize];
+        this.mask = bufferSize - 1;
+        for(int i = 0; i < bufferSize; i++) {
+            ring[i] = new MarketDataEvent();
+        }
+    }
+
+    /**
+     * get the number of events in the ring
+     * @return int
+     */
+    public int getBufferSize() {
+        return ring.length;
+    }
+
+    /**
+     * get the sequence of the last published event
+     * @return long, -1 before the first event
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * get the number of consumers
+     * @return int
+     */
+    public int getConsumerCount() {
+        return consumers.size();
+    }
+
+    /**
+     * get the number of events dropped by {@code tryPublish} because the slowest consumer was a full ring behind
+     * @return long
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * publish a REST quote, waiting for the slowest consumer if it is a full ring behind.  Not to be called
+     * from an I/O thread, see {@link #tryPublish(QuoteResponse)}.
+     * @param quoteResponse {@literal @}NotNull {@link QuoteResponse}
+     */
+    public void publish(@NonNull QuoteResponse quoteResponse) {
+        JsonNode quote = this.quoteNode(quoteResponse);
+        for(int tries = 0; quote != null && !this.offer(quoteResponse.getSymbol(), quote); tries++) {
+            WaitStrategy.backOff(tries);
+        }
+    }
+
+    /**
+     * publish REST quotes, waiting for the slowest consumer if it is a full ring behind
+     * @param quoteResponses {@literal @}NotNull {@link Collection}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public void publishAll(@NonNull Collection<QuoteResponse> quoteResponses) {
+        quoteResponses.forEach(this::publish);
+    }
+
+    /**
+     * publish a REST quote unless the slowest consumer is a full ring behind; never waits
+     * @param quoteResponse {@literal @}NotNull {@link QuoteResponse}
+     * @return boolean false if the quote was dropped
+     */
+    public boolean tryPublish(@NonNull QuoteResponse quoteResponse) {
+        JsonNode quote = this.quoteNode(quoteResponse);
+        return quote == null || this.offer(quoteResponse.getSymbol(), quote) || this.drop();
+    }
+
+    /**
+     * publish REST quotes unless the slowest consumer is a full ring behind; never waits
+     * @param quoteResponses {@literal @}NotNull {@link Collection}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public void tryPublishAll(@NonNull Collection<QuoteResponse> quoteResponses) {
+        quoteResponses.forEach(this::tryPublish);
+    }
+
+    /**
+     * publish the changed fields of a level one streamer record, without allocating, waiting for the
+     * slowest consumer if it is a full ring behind.  Not to be called from an I/O thread, see
+     * {@link #tryPublish(StreamerRecord)}.
+     * @param record {@literal @}NotNull {@link StreamerRecord} of LEVELONE_EQUITIES, LEVELONE_OPTIONS or LEVELONE_FUTURES
+     */
+    public void publish(@NonNull StreamerRecord record) {
+        if(!QuoteSnapshot.STREAMER_SERVICES.contains(record.getSchema().getService())) {
+            return;
+        }
+        for(int tries = 0; !this.offer(record); tries++) {
+            WaitStrategy.backOff(tries);
+        }
+    }
+
+    /**
+     * publish the changed fields of a level one streamer record, without allocating, unless the slowest
+     * consumer is a full ring behind; never waits.  Matches
+     * {@link com.pangility.schwab.api.client.streaming.StreamerRecordListener}, so the bus can listen to
+     * {@link SchwabStreamerSession#records} directly.
+     * @param record {@literal @}NotNull {@link StreamerRecord} of LEVELONE_EQUITIES, LEVELONE_OPTIONS or LEVELONE_FUTURES
+     * @return boolean false if the record was dropped
+     */
+    public boolean tryPublish(@NonNull StreamerRecord record) {
+        return !QuoteSnapshot.STREAMER_SERVICES.contains(record.getSchema().getService())
+                || this.offer(record) || this.drop();
+    }
+
+    /**
+     * publish the level one equity, option and future updates of a streamer session with
+     * {@link #tryPublish(StreamerRecord)}, so the session never waits for a consumer
+     * @param session {@literal @}NotNull {@link SchwabStreamerSession}
+     * @return {@link Disposable} to stop listening to the session
+     */
+    public Disposable attach(@NonNull SchwabStreamerSession session) {
+        Disposable.Composite listeners = Disposables.composite();
+        QuoteSnapshot.STREAMER_SERVICES.forEach(service -> listeners.add(session.records(service, this::tryPublish)));
+        return listeners;
+    }
+
+    /**
+     * start a consumer receiving the events published from now on, on its own thread
+     * @param handler {@literal @}NotNull {@link MarketDataEventHandler}
+     * @return {@link Disposable} to stop the consumer
+     */
+    public Disposable subscribe(@NonNull MarketDataEventHandler handler) {
+        return this.start(new Consumer(handler));
+    }
+
+    /**
+     * stream copies of the events published from now on.  The consumer behind the {@link Flux} never waits
+     * for demand: up to a ring of copies are buffered for a slow subscriber, then the oldest are dropped.
+     * @return {@link Flux}{@literal <}{@link MarketDataEvent}{@literal >}
+     */
+    public Flux<MarketDataEvent> flux() {
+        return this.flux(null);
+    }
+
+    /**
+     * stream copies of the events of symbols published from now on
+     * @param symbols {@link Collection}{@literal <}String{@literal >} or null for every symbol
+     * @return {@link Flux}{@literal <}{@link MarketDataEvent}{@literal >}
+     */
+    public Flux<MarketDataEvent> flux(Collection<String> symbols) {
+        Set<String> filter = symbols == null ? null
+                : symbols.stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+        return Flux.<MarketDataEvent>create(sink -> {
+                    Consumer consumer = new Consumer((event, endOfBatch) -> {
+                        if(filter == null || filter.contains(event.getQuote().getSymbol())) {
+                            sink.next(event.copy());
+                        }
+                    });
+                    sink.onDispose(consumer);
+                    this.start(consumer);
+                })
+                .onBackpressureBuffer(ring.length,
+                        event -> log.debug("Market data event bus -> dropped {} for a slow subscriber", event.getSequence()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * stop every consumer
+     */
+    public void close() {
+        consumers.forEach(Consumer::dispose);
+    }
+
+    private Disposable start(Consumer consumer) {
+        synchronized (this) {
+            consumer.sequence.set(cursor.get());
+            consumers.add(consumer);
+        }
+        consumer.thread.start();
+        return consumer;
+    }
+
+    private JsonNode quoteNode(QuoteResponse quoteResponse) {
+        if(quoteResponse.getSymbol() == null) {
+            return null;
+        }
+        JsonNode quote = objectMapper.valueToTree(quoteResponse).get("quote");
+        return quote != null && quote.isObject() ? quote : null;
+    }
+
+    private synchronized boolean offer(String symbol, JsonNode quote) {
+        MarketDataEvent event = this.claim();
+        if(event == null) {
+            return false;
+        }
+        event.getQuote().clear();
+        event.getQuote().setSymbol(symbol);
+        event.getQuote().merge(quote);
+        this.commit(event, MarketDataEvent.Source.QUOTES, null);
+        return true;
+    }
+
+    private synchronized boolean offer(StreamerRecord record) {
+        MarketDataEvent event = this.claim();
+        if(event == null) {
+            return false;
+        }
+        event.getQuote().clear();
+        event.getQuote().setSymbol(record.getKey());
+        event.getQuote().merge(record);
+        this.commit(event, MarketDataEvent.Source.STREAMER, record.getSchema().getService());
+        return true;
+    }
+
+    private boolean drop() {
+        if(droppedCount.getAndIncrement() == 0) {
+            log.warn("Market data event bus -> a consumer is a full ring behind, dropping events");
+        }
+        return false;
+    }
+
+    // the next event to write, or null while the slowest consumer has not read the event in its slot
+    private MarketDataEvent claim() {
+        long next = cursor.get() + 1;
+        long wrapPoint = next - ring.length;
+        if(wrapPoint > gatingSequence) {
+            long minimum = this.minimumSequence(next - 1);
+            if(wrapPoint > minimum) {
+                return null;
+            }
+            gatingSequence = minimum;
+        }
+        return ring[(int) next & mask];
+    }
+
+    private void commit(MarketDataEvent event, MarketDataEvent.Source source, StreamerService service) {
+        long sequence = cursor.get() + 1;
+        event.set(sequence, source, service, System.nanoTime());
+        // a volatile write, ordered before reading the parked flags below
+        cursor.set(sequence);
+        if(waitStrategy == WaitStrategy.PARK) {
+            for(Consumer consumer : consumers) {
+                if(consumer.parked) {
+                    LockSupport.unpark(consumer.thread);
+                }
+            }
+        }
+    }
+
+    private long minimumSequence(long minimum) {
+        for(Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    private final class Consumer implements Runnable, Disposable {
+        private final MarketDataEventHandler handler;
+        private final AtomicLong sequence = new AtomicLong(-1L);
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean parked = false;
+
+        private Consumer(MarketDataEventHandler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, "schwab-marketdata-bus-" + CONSUMER_COUNT.incrementAndGet());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int tries = 0;
+            while(running) {
+                long available = cursor.get();
+                if(available >= next) {
+                    for(long s = next; s <= available && running; s++) {
+                        try {
+                            handler.onEvent(ring[(int) s & mask], s == available);
+                        } catch (Throwable throwable) {
+                            log.warn("Market data event handler failed -> {}", throwable.getMessage());
+                        }
+                    }
+                    sequence.lazySet(available);
+                    next = available + 1;
+                    tries = 0;
+                } else {
+                    if(tries < WaitStrategy.PARK_TRIES) {
+                        tries++;
+                    }
+                    if(waitStrategy.idle(tries)) {
+                        // the producer reads the flag after publishing, so either it unparks us or we see the event
+                        parked = true;
+                        if(running && cursor.get() < next) {
+                            LockSupport.park(this);
+                        }
+                        parked = false;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            running = false;
+            consumers.remove(this);
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return !running;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionContract;
+import lombok.NonNull;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the contracts of an option chain response while it is being received.  The body is fed to
+ * Jackson's non-blocking parser buffer by buffer, and each contract of the {@code callExpDateMap} and
+ * {@code putExpDateMap} is emitted as soon as its closing brace has been read, so the first contracts
+ * are available before the last byte arrives and the complete chain is never held in memory.
+ * Contracts are emitted in the order of the response: every call expiration, then every put expiration.
+ */
+public class SchwabOptionChainStreamDecoder {
+
+    // root object, expiration date map, expiration, strike array, contract
+    private static final int CONTRACT_DEPTH = 5;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader contractReader;
+
+    /**
+     * create a decoder
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read the contracts
+     */
+    public SchwabOptionChainStreamDecoder(@NonNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.contractReader = objectMapper.readerFor(OptionContract.class);
+    }
+
+    /**
+     * decode the contracts of an option chain response body
+     * @param body {@literal @}NotNull {@link Flux}{@literal <}{@link DataBuffer}{@literal >} which is released by this method
+     * @return {@link Flux}{@literal <}{@link OptionContract}{@literal >} erroring with a {@link SymbolNotFoundException}
+     * when the response has no symbol
+     */
+    public Flux<OptionContract> decode(@NonNull Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            ChainParser chainParser;
+            try {
+                chainParser = new ChainParser();
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("Unable to create the option chain parser", e));
+            }
+            return body
+                    .concatMapIterable(chainParser::parse)
+                    .concatWith(Flux.defer(chainParser::endOfInput))
+                    .doFinally(signalType -> chainParser.close());
+        });
+    }
+
+    private class ChainParser {
+        private final JsonParser parser;
+        private int depth = 0;
+        private String rootFieldName = null;
+        private String symbol = null;
+        private TokenBuffer contractTokens = null;
+
+        ChainParser() throws IOException {
+            this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+        }
+
+        List<OptionContract> parse(DataBuffer dataBuffer) {
+            // the parser reads straight from the buffer, which is drained before it is released
+            List<OptionContract> contracts = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator byteBuffers = dataBuffer.readableByteBuffers()) {
+                while(byteBuffers.hasNext()) {
+                    ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(byteBuffers.next());
+                    this.readAvailableTokens(contracts);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(dataBuffer);
+            }
+            return contracts;
+        }
+
+        Flux<OptionContract> endOfInput() {
+            List<OptionContract> contracts;
+            try {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                contracts = new ArrayList<>();
+                this.readAvailableTokens(contracts);
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("JSON decoding error: " + e.getMessage(), e));
+            }
+            if(depth != 0) {
+                return Flux.error(new DecodingException("Incomplete option chain response"));
+            }
+            if(symbol == null || symbol.isEmpty()) {
+                return Flux.error(new SymbolNotFoundException("Option chain response has no symbol"));
+            }
+            return Flux.fromIterable(contracts);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {}
+        }
+
+        private void readAvailableTokens(List<OptionContract> contracts) throws IOException {
+            JsonToken token;
+            while((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if(token.isStructStart()) {
+                    depth++;
+                    if(depth == CONTRACT_DEPTH && token == JsonToken.START_OBJECT && this.isExpDateMap()) {
+                        contractTokens = new TokenBuffer(parser);
+                        contractTokens.forceUseOfBigDecimal(true);
+                    }
+                }
+                if(contractTokens != null) {
+                    contractTokens.copyCurrentEvent(parser);
+                }
+                if(token.isStructEnd()) {
+                    depth--;
+                    if(depth == CONTRACT_DEPTH - 1 && contractTokens != null) {
+                        contracts.add(this.readContract());
+                    }
+                } else if(depth == 1) {
+                    if(token == JsonToken.FIELD_NAME) {
+                        rootFieldName = parser.currentName();
+                    } else if(token == JsonToken.VALUE_STRING && "symbol".equals(rootFieldName)) {
+                        symbol = parser.getText();
+                    }
+                }
+            }
+        }
+
+        private boolean isExpDateMap() {
+            return "callExpDateMap".equals(rootFieldName) || "putExpDateMap".equals(rootFieldName);
+        }
+
+        private OptionContract readContract() throws IOException {
+            try (JsonParser contractParser = contractTokens.asParser(objectMapper)) {
+                return contractReader.readValue(contractParser);
+            } finally {
+                contractTokens = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.FrequencyType;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryRequest;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Downloads the price history of many symbols for a date range.  The range of each symbol is split
+ * into windows no larger than one price history call returns, and the windows of a symbol and the
+ * symbols themselves are fetched in parallel up to the configured limits.  The requests still go
+ * through the client, so they stay within the Schwab rate limits.  The candles of the windows are
+ * merged in time order without duplicates, and each symbol is emitted as soon as all of its windows
+ * are done.
+ * </p>
+ * <p>
+ * With a checkpoint file, each symbol is handed to a persister and recorded in the checkpoint only
+ * after the persister completes.  Recorded symbols are skipped when the same download is started
+ * again, so a crashed backfill resumes with the symbols it had not saved.  Delivery is at least once:
+ * a crash between the persister and the checkpoint downloads and persists the symbol again, so the
+ * persister has to overwrite rather than add to what it saved before.  A symbol that fails to download
+ * or persist is logged, left out of the results and left out of the checkpoint.
+ * </p>
+ */
+@Slf4j
+public class SchwabPriceHistoryDownloader {
+
+    private static final String CHECKPOINT_HEADER_PREFIX = "# ";
+
+    private final int minuteWindowDays;
+    private final int windowDays;
+    private final int maxConcurrentSymbols;
+    private final int maxConcurrentWindows;
+    private final Function<PriceHistoryRequest, Mono<PriceHistoryResponse>> windowFetcher;
+
+    /**
+     * create a downloader
+     * @param minuteWindowDays int the most days fetched in one call for minute candles
+     * @param windowDays int the most days fetched in one call for daily, weekly and monthly candles
+     * @param maxConcurrentSymbols int the most symbols downloaded at once
+     * @param maxConcurrentWindows int the most windows of one symbol fetched at once
+     * @param windowFetcher {@literal @}NotNull function fetching the price history of one window, an empty
+     *                      window is returned as a response without candles
+     */
+    public SchwabPriceHistoryDownloader(int minuteWindowDays,
+                                        int windowDays,
+                                        int maxConcurrentSymbols,
+                                        int maxConcurrentWindows,
+                                        @NonNull Function<PriceHistoryRequest, Mono<PriceHistoryResponse>> windowFetcher) {
+        this.minuteWindowDays = Math.max(1, minuteWindowDays);
+        this.windowDays = Math.max(1, windowDays);
+        this.maxConcurrentSymbols = Math.max(1, maxConcurrentSymbols);
+        this.maxConcurrentWindows = Math.max(1, maxConcurrentWindows);
+        this.windowFetcher = windowFetcher;
+    }
+
+    /**
+     * download the price history of the symbols
+     * @param symbols {@literal @}NotNull {@link List}{@literal <}String{@literal >}
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest} with the startDate, endDate and
+     *                     frequency to use for every symbol, its symbol is ignored
+     * @return {@link Flux}{@literal <}{@link PriceHistoryResponse}{@literal >} in the order the symbols finish
+     */
+    public Flux<PriceHistoryResponse> download(@NonNull List<String> symbols,
+                                               @NonNull PriceHistoryRequest priceHistReq) {
+        return this.download(symbols, priceHistReq, null, response -> Mono.empty());
+    }
+
+    /**
+     * download the price history of the symbols, skipping the symbols recorded in the checkpoint file.
+     * A symbol is recorded once the persister has saved it, and may be delivered again after a crash.
+     * @param symbols {@literal @}NotNull {@link List}{@literal <}String{@literal >}
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest} with the startDate, endDate and
+     *                     frequency to use for every symbol, its symbol is ignored
+     * @param checkpointFile {@link Path} of the checkpoint file, created when missing and restarted when it
+     *                       belongs to another download, or null for no checkpoint
+     * @param persister {@literal @}NotNull function saving the price history of one symbol, completing when
+     *                  it is durable
+     * @return {@link Flux}{@literal <}{@link PriceHistoryResponse}{@literal >} in the order the symbols are saved
+     */
+    public Flux<PriceHistoryResponse> download(@NonNull List<String> symbols,
+                                               @NonNull PriceHistoryRequest priceHistReq,
+                                               Path checkpointFile,
+                                               @NonNull Function<PriceHistoryResponse, Mono<Void>> persister) {
+        if(priceHistReq.getStartDate() == null || priceHistReq.getEndDate() == null
+                || priceHistReq.getStartDate().isAfter(priceHistReq.getEndDate())) {
+            throw new IllegalArgumentException("A startDate before the endDate is required.");
+        }
+        List<LocalDate[]> windows = splitRange(priceHistReq.getStartDate(), priceHistReq.getEndDate(),
+                priceHistReq.getFrequencyType() == null || priceHistReq.getFrequencyType() == FrequencyType.minute
+                        ? minuteWindowDays : windowDays);
+
+        return Mono.fromCallable(() -> checkpointFile == null ? Collections.<String>emptySet()
+                        : readCheckpoint(checkpointFile, checkpointHeader(priceHistReq)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(completedSymbols -> {
+                    Set<String> pendingSymbols = new LinkedHashSet<>();
+                    symbols.forEach(symbol -> pendingSymbols.add(symbol.toUpperCase()));
+                    pendingSymbols.removeAll(completedSymbols);
+                    log.info("Download Price History -> {} symbols, {} already done, {} windows each",
+                            pendingSymbols.size() + completedSymbols.size(), completedSymbols.size(), windows.size());
+                    return Flux.fromIterable(pendingSymbols)
+                            .flatMap(symbol -> this.downloadSymbol(symbol, priceHistReq, windows)
+                                    .flatMap(response -> persister.apply(response).thenReturn(response))
+                                    .onErrorResume(throwable -> {
+                                        log.warn("Download Price History -> [{}] failed: {}", symbol, throwable.toString());
+                                        return Mono.empty();
+                                    }), maxConcurrentSymbols);
+                })
+                // the checkpoint records the symbols already persisted, not the ones fetched
+                .concatMap(response -> checkpointFile == null ? Mono.just(response)
+                        : Mono.fromCallable(() -> {
+                            appendCheckpoint(checkpointFile, response.getSymbol());
+                            return response;
+                        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * split a range of days into consecutive windows of at most windowDays days
+     * @param startDate {@literal @}NotNull {@link LocalDate} first day
+     * @param endDate {@literal @}NotNull {@link LocalDate} last day
+     * @param windowDays int the most days in a window
+     * @return {@link List} of the first and last day of each window
+     */
+    public static List<LocalDate[]> splitRange(@NonNull LocalDate startDate, @NonNull LocalDate endDate, int windowDays) {
+        List<LocalDate[]> windows = new ArrayList<>();
+        for(LocalDate windowStart = startDate; !windowStart.isAfter(endDate); windowStart = windowStart.plusDays(windowDays)) {
+            LocalDate windowEnd = windowStart.plusDays(windowDays - 1L);
+            windows.add(new LocalDate[] {windowStart, windowEnd.isAfter(endDate) ? endDate : windowEnd});
+        }
+        return windows;
+    }
+
+    private Mono<PriceHistoryResponse> downloadSymbol(String symbol, PriceHistoryRequest priceHistReq, List<LocalDate[]> windows) {
+        return Flux.fromIterable(windows)
+                .flatMap(window -> windowFetcher.apply(PriceHistoryRequest.builder()
+                        .withSymbol(symbol)
+                        .withPeriodType(priceHistReq.getPeriodType())
+                        .withPeriod(priceHistReq.getPeriod())
+                        .withFrequencyType(priceHistReq.getFrequencyType())
+                        .withFrequency(priceHistReq.getFrequency())
+                        .withStartDate(window[0])
+                        .withEndDate(window[1])
+                        .withNeedExtendedHoursData(priceHistReq.getNeedExtendedHoursData())
+                        .build()), maxConcurrentWindows)
+                .collect(TreeMap<Long, Candle>::new, (candles, response) -> {
+                    if(response.getCandles() != null) {
+                        response.getCandles().stream()
+                                .filter(candle -> candle.getDatetime() != null)
+                                .forEach(candle -> candles.putIfAbsent(candle.getDatetime(), candle));
+                    }
+                })
+                .map(candles -> {
+                    PriceHistoryResponse response = new PriceHistoryResponse();
+                    response.setSymbol(symbol);
+                    response.getCandles().addAll(candles.values());
+                    response.setEmpty(candles.isEmpty());
+                    return response;
+                });
+    }
+
+    private static String checkpointHeader(PriceHistoryRequest priceHistReq) {
+        return CHECKPOINT_HEADER_PREFIX + priceHistReq.getStartDate() + " " + priceHistReq.getEndDate()
+                + " " + priceHistReq.getFrequencyType() + " " + priceHistReq.getFrequency()
+                + " " + priceHistReq.getNeedExtendedHoursData();
+    }
+
+    private static Set<String> readCheckpoint(Path checkpointFile, String header) throws IOException {
+        if(Files.exists(checkpointFile)) {
+            List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            if(!lines.isEmpty() && lines.get(0).equals(header)) {
+                Set<String> completedSymbols = new HashSet<>();
+                lines.subList(1, lines.size()).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .forEach(completedSymbols::add);
+                return completedSymbols;
+            }
+            log.info("Download Price History -> checkpoint {} belongs to another download, starting over", checkpointFile);
+        }
+        if(checkpointFile.getParent() != null) {
+            Files.createDirectories(checkpointFile.getParent());
+        }
+        Files.writeString(checkpointFile, header + System.lineSeparator(), StandardCharsets.UTF_8);
+        return Collections.emptySet();
+    }
+
+    private static void appendCheckpoint(Path checkpointFile, String symbol) {
+        try {
+            Files.writeString(checkpointFile, symbol + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.FrequencyType;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryRequest;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Local candle store placed in front of the price history endpoint.  Each symbol, frequency and
+ * extended hours flag is kept in its own file holding the range of days already downloaded followed
+ * by fixed size candle records sorted by time.  Reads map the file into memory and binary search
+ * the first candle, new trailing candles are appended and older candles rewrite the file once.
+ * </p>
+ * <p>
+ * Days follow the UTC dates sent to the API as the startDate and endDate, and only days before
+ * the current UTC date are stored since the candles of today are still changing.
+ * </p>
+ */
+public class SchwabPriceHistoryStore {
+
+    private static final String FILE_EXTENSION = ".candles";
+    private static final int MAGIC = 0x53504853; // SPHS
+    private static final int VERSION = 1;
+    // magic, version, first covered epoch day, last covered epoch day
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    // datetime, open, high, low, close, volume
+    private static final int RECORD_SIZE = 8 + 4 * 8 + 8;
+    private static final long NO_VOLUME = Long.MIN_VALUE;
+    private static final long MILLIS_PER_DAY = 86400L * 1000;
+
+    private final Path directory;
+    private final Clock clock;
+    private final Map<Path, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * create a store
+     * @param directory {@literal @}NotNull {@link Path} of the directory holding the candle files, created when missing
+     */
+    public SchwabPriceHistoryStore(@NonNull Path directory) {
+        this(directory, Clock.systemUTC());
+    }
+
+    /**
+     * create a store
+     * @param directory {@literal @}NotNull {@link Path} of the directory holding the candle files, created when missing
+     * @param clock {@literal @}NotNull {@link Clock} used to find the last complete day
+     */
+    public SchwabPriceHistoryStore(@NonNull Path directory, @NonNull Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * check whether the candles of a request can be kept in the store.  Only requests for a date range
+     * without the previous close can be served from stored candles, and the frequency type and frequency
+     * must be explicit since the API defaults depend on the period type.
+     * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest}
+     * @return boolean
+     */
+    public static boolean isStorable(@NonNull PriceHistoryRequest priceHistReq) {
+        return priceHistReq.getStartDate() != null
+                && priceHistReq.getEndDate() != null
+                && priceHistReq.getFrequencyType() != null
+                && priceHistReq.getFrequency() != null
+                && !priceHistReq.getStartDate().isAfter(priceHistReq.getEndDate())
+                && !Boolean.TRUE.equals(priceHistReq.getNeedPreviousClose());
+    }
+
+    /**
+     * get the last day that is complete and can be stored
+     * @return {@link LocalDate}
+     */
+    public LocalDate getLastCompleteDay() {
+        return LocalDate.now(clock.withZone(ZoneOffset.UTC)).minusDays(1);
+    }
+
+    /**
+     * get the range of days already downloaded for a series
+     * @param key {@literal @}NotNull {@link Key}
+     * @return {@link Coverage} or null if nothing is stored
+     */
+    public Coverage getCoverage(@NonNull Key key) {
+        Path path = this.getPath(key);
+        synchronized (this.getLock(path)) {
+            if(!Files.exists(path)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return this.readCoverage(channel, path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * read the stored candles of the days from start to end
+     * @param key {@literal @}NotNull {@link Key}
+     * @param start {@literal @}NotNull {@link LocalDate} first day
+     * @param end {@literal @}NotNull {@link LocalDate} last day
+     * @return {@link List}{@literal <}{@link Candle}{@literal >} sorted by datetime
+     */
+    public List<Candle> read(@NonNull Key key, @NonNull LocalDate start, @NonNull LocalDate end) {
+        Path path = this.getPath(key);
+        synchronized (this.getLock(path)) {
+            if(!Files.exists(path)) {
+                return new ArrayList<>();
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                this.readCoverage(channel, path);
+                int count = this.recordCount(channel);
+                if(count == 0) {
+                    return new ArrayList<>();
+                }
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * RECORD_SIZE);
+                long from = start.toEpochDay() * MILLIS_PER_DAY;
+                long to = end.plusDays(1).toEpochDay() * MILLIS_PER_DAY;
+                List<Candle> candles = new ArrayList<>();
+                for(int index = firstIndexAtOrAfter(records, count, from); index < count; index++) {
+                    int offset = index * RECORD_SIZE;
+                    if(records.getLong(offset) >= to) {
+                        break;
+                    }
+                    candles.add(toCandle(records, offset));
+                }
+                return candles;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * add downloaded candles to the store and extend its coverage.  Candles after the last complete day
+     * are ignored, and a range that does not touch the stored range replaces it so the coverage stays
+     * a single range of days.
+     * @param key {@literal @}NotNull {@link Key}
+     * @param start {@literal @}NotNull {@link LocalDate} first day that was downloaded
+     * @param end {@literal @}NotNull {@link LocalDate} last day that was downloaded
+     * @param candles {@literal @}NotNull {@link List}{@literal <}{@link Candle}{@literal >} returned for the range
+     */
+    public void write(@NonNull Key key, @NonNull LocalDate start, @NonNull LocalDate end, @NonNull List<Candle> candles) {
+        LocalDate lastCompleteDay = this.getLastCompleteDay();
+        LocalDate storedEnd = end.isAfter(lastCompleteDay) ? lastCompleteDay : end;
+        if(start.isAfter(storedEnd)) {
+            return;
+        }
+        long from = start.toEpochDay() * MILLIS_PER_DAY;
+        long to = storedEnd.plusDays(1).toEpochDay() * MILLIS_PER_DAY;
+        TreeMap<Long, Candle> newCandles = new TreeMap<>();
+        for(Candle candle : candles) {
+            if(candle.getDatetime() != null && candle.getDatetime() >= from && candle.getDatetime() < to) {
+                newCandles.put(candle.getDatetime(), candle);
+            }
+        }
+
+        Path path = this.getPath(key);
+        synchronized (this.getLock(path)) {
+            try {
+                Files.createDirectories(directory);
+                Coverage coverage = Files.exists(path) ? this.getCoverage(key) : null;
+                if(coverage == null || start.isAfter(coverage.getEnd().plusDays(1)) || storedEnd.isBefore(coverage.getStart().minusDays(1))) {
+                    this.rewrite(path, new Coverage(start, storedEnd), newCandles);
+                    return;
+                }
+                Coverage merged = new Coverage(start.isBefore(coverage.getStart()) ? start : coverage.getStart(),
+                        storedEnd.isAfter(coverage.getEnd()) ? storedEnd : coverage.getEnd());
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    int count = this.recordCount(channel);
+                    long lastDatetime = count == 0 ? Long.MIN_VALUE : this.readDatetime(channel, count - 1);
+                    if(newCandles.isEmpty() || newCandles.firstKey() > lastDatetime) {
+                        this.append(channel, count, newCandles, merged);
+                        return;
+                    }
+                }
+                // older candles or corrections, merge everything into a new file
+                TreeMap<Long, Candle> allCandles = new TreeMap<>();
+                this.read(key, coverage.getStart(), coverage.getEnd())
+                        .forEach(candle -> allCandles.put(candle.getDatetime(), candle));
+                allCandles.putAll(newCandles);
+                this.rewrite(path, merged, allCandles);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * remove the stored candles of a series
+     * @param key {@literal @}NotNull {@link Key}
+     */
+    public void delete(@NonNull Key key) {
+        Path path = this.getPath(key);
+        synchronized (this.getLock(path)) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void append(FileChannel channel, int count, TreeMap<Long, Candle> candles, Coverage coverage) throws IOException {
+        if(!candles.isEmpty()) {
+            ByteBuffer records = ByteBuffer.allocate(candles.size() * RECORD_SIZE);
+            candles.values().forEach(candle -> putCandle(records, candle));
+            records.flip();
+            long position = HEADER_SIZE + (long) count * RECORD_SIZE;
+            while(records.hasRemaining()) {
+                position += channel.write(records, position);
+            }
+        }
+        // the header is written last so an interrupted append never claims days without candles
+        channel.write(header(coverage), 0);
+        channel.force(false);
+    }
+
+    private void rewrite(Path path, Coverage coverage, TreeMap<Long, Candle> candles) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + candles.size() * RECORD_SIZE);
+        file.put(header(coverage));
+        candles.values().forEach(candle -> putCandle(file, candle));
+        file.flip();
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while(file.hasRemaining()) {
+                channel.write(file);
+            }
+            channel.force(false);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Coverage readCoverage(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while(header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read the complete header
+        }
+        header.flip();
+        if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("'" + path + "' is not a price history store file");
+        }
+        return new Coverage(LocalDate.ofEpochDay(header.getLong()), LocalDate.ofEpochDay(header.getLong()));
+    }
+
+    private int recordCount(FileChannel channel) throws IOException {
+        return (int) Math.max(0, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private long readDatetime(FileChannel channel, int index) throws IOException {
+        ByteBuffer datetime = ByteBuffer.allocate(8);
+        channel.read(datetime, HEADER_SIZE + (long) index * RECORD_SIZE);
+        return datetime.getLong(0);
+    }
+
+    private Path getPath(Key key) {
+        return directory.resolve(key.getFileName());
+    }
+
+    private Object getLock(Path path) {
+        return locks.computeIfAbsent(path, p -> new Object());
+    }
+
+    private static ByteBuffer header(Coverage coverage) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(coverage.getStart().toEpochDay())
+                .putLong(coverage.getEnd().toEpochDay());
+        return header.flip();
+    }
+
+    private static int firstIndexAtOrAfter(ByteBuffer records, int count, long datetime) {
+        int low = 0;
+        int high = count;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(records.getLong(middle * RECORD_SIZE) < datetime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void putCandle(ByteBuffer records, Candle candle) {
+        records.putLong(candle.getDatetime())
+                .putDouble(toDouble(candle.getOpen()))
+                .putDouble(toDouble(candle.getHigh()))
+                .putDouble(toDouble(candle.getLow()))
+                .putDouble(toDouble(candle.getClose()))
+                .putLong(candle.getVolume() == null ? NO_VOLUME : candle.getVolume());
+    }
+
+    private static Candle toCandle(ByteBuffer records, int offset) {
+        Candle candle = new Candle();
+        candle.setDatetime(records.getLong(offset));
+        candle.setOpen(toBigDecimal(records.getDouble(offset + 8)));
+        candle.setHigh(toBigDecimal(records.getDouble(offset + 16)));
+        candle.setLow(toBigDecimal(records.getDouble(offset + 24)));
+        candle.setClose(toBigDecimal(records.getDouble(offset + 32)));
+        long volume = records.getLong(offset + 40);
+        candle.setVolume(volume == NO_VOLUME ? null : volume);
+        return candle;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    // prices are sent with a few decimals, so the shortest double representation restores them exactly
+    private static BigDecimal toBigDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+
+    /**
+     * Identifies a stored series of candles
+     */
+    @Getter
+    @ToString
+    public static class Key {
+        private final String symbol;
+        private final FrequencyType frequencyType;
+        private final Integer frequency;
+        private final Boolean extendedHours;
+
+        /**
+         * create a key
+         * @param symbol {@literal @}NotNull String
+         * @param frequencyType {@literal @}NotNull {@link FrequencyType}
+         * @param frequency {@literal @}NotNull Integer
+         * @param extendedHours Boolean or null for the API default
+         */
+        public Key(@NonNull String symbol, @NonNull FrequencyType frequencyType, @NonNull Integer frequency, Boolean extendedHours) {
+            this.symbol = symbol.toUpperCase();
+            this.frequencyType = frequencyType;
+            this.frequency = frequency;
+            this.extendedHours = extendedHours;
+        }
+
+        /**
+         * create the key of the candles returned for a storable request
+         * @param priceHistReq {@literal @}NotNull {@link PriceHistoryRequest} with a frequency type and frequency
+         * @return {@link Key}
+         */
+        public static Key of(@NonNull PriceHistoryRequest priceHistReq) {
+            return new Key(priceHistReq.getSymbol(), priceHistReq.getFrequencyType(),
+                    priceHistReq.getFrequency(), priceHistReq.getNeedExtendedHoursData());
+        }
+
+        String getFileName() {
+            // symbols like /ES or $SPX are not valid in every file system
+            StringBuilder fileName = new StringBuilder();
+            for(char c : symbol.toCharArray()) {
+                fileName.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' ? String.valueOf(c) : "_" + (int) c + "_");
+            }
+            return fileName.append('-').append(frequencyType.name())
+                    .append('-').append(frequency)
+                    .append('-').append(extendedHours == null ? "default" : (extendedHours ? "extended" : "regular"))
+                    .append(FILE_EXTENSION)
+                    .toString();
+        }
+    }
+
+    /**
+     * Range of days, both included, that were downloaded for a series
+     */
+    @Getter
+    @ToString
+    public static class Coverage {
+        private final LocalDate start;
+        private final LocalDate end;
+
+        /**
+         * create a coverage
+         * @param start {@literal @}NotNull {@link LocalDate} first day
+         * @param end {@literal @}NotNull {@link LocalDate} last day
+         */
+        public Coverage(@NonNull LocalDate start, @NonNull LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
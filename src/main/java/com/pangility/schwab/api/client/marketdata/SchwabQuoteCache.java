@@ -0,0 +1,298 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.marketdata.model.AssetMainType;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory quote cache placed in front of the quote endpoints.  Quotes expire after a time to live
+ * that depends on their {@link AssetMainType}, the least recently used quotes are evicted once the
+ * cache is full, and misses for a symbol that is already being fetched share the pending request.
+ * With stale-while-revalidate enabled an expired quote is returned immediately and refreshed in the
+ * background.
+ */
+@Slf4j
+public class SchwabQuoteCache {
+
+    private final int maxSize;
+    private final Duration defaultTtl;
+    private final Map<AssetMainType, Duration> ttlByAssetMainType;
+    private final Boolean staleWhileRevalidate;
+
+    private final Map<String, Entry> entries;
+    private final Map<String, Mono<QuoteResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong staleHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private LongSupplier nanoClock = System::nanoTime;
+
+    /**
+     * create a quote cache
+     * @param maxSize int the most quotes kept in the cache
+     * @param defaultTtl {@literal @}NotNull {@link Duration} time to live of asset types without their own
+     * @param ttlByAssetMainType {@literal @}NotNull {@link Map} of the time to live per {@link AssetMainType}
+     * @param staleWhileRevalidate Boolean return expired quotes while they are refreshed
+     */
+    public SchwabQuoteCache(int maxSize,
+                            @NonNull Duration defaultTtl,
+                            @NonNull Map<AssetMainType, Duration> ttlByAssetMainType,
+                            Boolean staleWhileRevalidate) {
+        this.maxSize = Math.max(1, maxSize);
+        this.defaultTtl = defaultTtl;
+        this.ttlByAssetMainType = ttlByAssetMainType.isEmpty() ? Collections.emptyMap() : new EnumMap<>(ttlByAssetMainType);
+        this.staleWhileRevalidate = Boolean.TRUE.equals(staleWhileRevalidate);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if(size() > SchwabQuoteCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * parse the time to live per asset type from a comma separated list like {@code EQUITY=1s,MUTUAL_FUND=5m}
+     * @param ttls String
+     * @return {@link Map}{@literal <}{@link AssetMainType}, {@link Duration}{@literal >}
+     */
+    public static Map<AssetMainType, Duration> parseTtls(String ttls) {
+        Map<AssetMainType, Duration> ttlByAssetMainType = new EnumMap<>(AssetMainType.class);
+        if(ttls != null && !ttls.isBlank()) {
+            for(String ttl : ttls.split(",")) {
+                String[] assetTypeAndTtl = ttl.split("=");
+                if(assetTypeAndTtl.length != 2) {
+                    throw new IllegalArgumentException("Invalid quote cache ttl '" + ttl + "'");
+                }
+                ttlByAssetMainType.put(AssetMainType.valueOf(assetTypeAndTtl[0].trim().toUpperCase()),
+                        DurationStyle.detectAndParse(assetTypeAndTtl[1].trim()));
+            }
+        }
+        return ttlByAssetMainType;
+    }
+
+    /**
+     * get a quote from the cache or the loader
+     * @param symbol {@literal @}NotNull String
+     * @param fields {@literal @}NotNull String (quote, fundamental or all)
+     * @param loader {@literal @}NotNull function fetching the quote for the symbol and fields
+     * @return {@link Mono}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public Mono<QuoteResponse> getQuote(@NonNull String symbol,
+                                        @NonNull String fields,
+                                        @NonNull BiFunction<String, String, Mono<QuoteResponse>> loader) {
+        return Mono.defer(() -> {
+            String key = this.toKey(symbol, fields);
+            long nowNanos = nanoClock.getAsLong();
+            Entry entry = entries.get(key);
+            if(entry != null && entry.isFresh(nowNanos)) {
+                hitCount.incrementAndGet();
+                return Mono.just(entry.quoteResponse);
+            }
+            if(entry != null && staleWhileRevalidate) {
+                staleHitCount.incrementAndGet();
+                this.load(key, () -> loader.apply(symbol, fields)).subscribe(quoteResponse -> {}, this::logRefreshError);
+                return Mono.just(entry.quoteResponse);
+            }
+            missCount.incrementAndGet();
+            return this.load(key, () -> loader.apply(symbol, fields));
+        });
+    }
+
+    /**
+     * get quotes from the cache and fetch the missing ones with a single call to the loader
+     * @param symbols {@literal @}NotNull List{@literal <}String{@literal >} distinct upper case symbols
+     * @param fields {@literal @}NotNull String (quote, fundamental or all)
+     * @param loader {@literal @}NotNull function fetching the quotes found for the symbols and fields
+     * @return {@link Mono}{@literal <}{@link Map}{@literal <}String, {@link QuoteResponse}{@literal >}{@literal >}
+     */
+    public Mono<Map<String, QuoteResponse>> getQuotes(@NonNull List<String> symbols,
+                                                      @NonNull String fields,
+                                                      @NonNull BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> loader) {
+        return Mono.defer(() -> {
+            long nowNanos = nanoClock.getAsLong();
+            Map<String, QuoteResponse> cached = new LinkedHashMap<>();
+            Map<String, Mono<QuoteResponse>> pendingBySymbol = new LinkedHashMap<>();
+            List<String> toFetch = new ArrayList<>();
+            List<String> toRefresh = new ArrayList<>();
+            for(String symbol : symbols) {
+                String key = this.toKey(symbol, fields);
+                Entry entry = entries.get(key);
+                if(entry != null && entry.isFresh(nowNanos)) {
+                    hitCount.incrementAndGet();
+                    cached.put(symbol, entry.quoteResponse);
+                } else if(entry != null && staleWhileRevalidate) {
+                    staleHitCount.incrementAndGet();
+                    cached.put(symbol, entry.quoteResponse);
+                    if(!inFlight.containsKey(key)) {
+                        toRefresh.add(symbol);
+                    }
+                } else {
+                    missCount.incrementAndGet();
+                    Mono<QuoteResponse> pending = inFlight.get(key);
+                    if(pending != null) {
+                        pendingBySymbol.put(symbol, pending);
+                    } else {
+                        toFetch.add(symbol);
+                    }
+                }
+            }
+            if(!toRefresh.isEmpty()) {
+                this.loadAll(toRefresh, fields, loader).values()
+                        .forEach(refresh -> refresh.subscribe(quoteResponse -> {}, this::logRefreshError));
+            }
+            if(!toFetch.isEmpty()) {
+                pendingBySymbol.putAll(this.loadAll(toFetch, fields, loader));
+            }
+            return Flux.fromIterable(pendingBySymbol.entrySet())
+                    .flatMap(pending -> pending.getValue()
+                            .map(quoteResponse -> Map.entry(pending.getKey(), quoteResponse))
+                            // symbols the API did not find are left out of the map
+                            .onErrorResume(SymbolNotFoundException.class, e -> Mono.empty()))
+                    .collect(() -> cached, (quoteResponseMap, quote) -> quoteResponseMap.put(quote.getKey(), quote.getValue()));
+        });
+    }
+
+    /**
+     * number of requests answered with a fresh cached quote
+     * @return long
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * number of requests answered with an expired quote while it was refreshed
+     * @return long
+     */
+    public long getStaleHitCount() {
+        return staleHitCount.get();
+    }
+
+    /**
+     * number of requests that had to wait for the API
+     * @return long
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * number of quotes evicted to keep the cache within its size
+     * @return long
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * number of quotes in the cache
+     * @return int
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * remove every quote from the cache
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private Mono<QuoteResponse> load(@NonNull String key,
+                                     @NonNull Supplier<Mono<QuoteResponse>> loader) {
+        Mono<QuoteResponse> existing = inFlight.get(key);
+        if(existing != null) {
+            return existing;
+        }
+        AtomicReference<Mono<QuoteResponse>> registered = new AtomicReference<>();
+        Mono<QuoteResponse> pending = Mono.defer(loader)
+                .doOnNext(quoteResponse -> this.put(key, quoteResponse))
+                // only remove this load, a newer one may have been registered for the key since
+                .doOnTerminate(() -> inFlight.remove(key, registered.get()))
+                .cache();
+        registered.set(pending);
+        existing = inFlight.putIfAbsent(key, pending);
+        return existing != null ? existing : pending;
+    }
+
+    private Map<String, Mono<QuoteResponse>> loadAll(@NonNull List<String> symbols,
+                                                     @NonNull String fields,
+                                                     @NonNull BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> loader) {
+        // the batch waits until every symbol is registered, so a caller joining early fetches the full list
+        Sinks.Empty<Void> registered = Sinks.empty();
+        Map<String, Mono<QuoteResponse>> owned = new LinkedHashMap<>();
+        Mono<Map<String, QuoteResponse>> batch = registered.asMono()
+                .then(Mono.defer(() -> loader.apply(List.copyOf(owned.keySet()), fields)))
+                .doOnNext(quoteResponseMap -> quoteResponseMap
+                        .forEach((symbol, quoteResponse) -> this.put(this.toKey(symbol, fields), quoteResponse)))
+                .doOnTerminate(() -> owned.forEach((symbol, pending) -> inFlight.remove(this.toKey(symbol, fields), pending)))
+                .cache();
+        Map<String, Mono<QuoteResponse>> pendingBySymbol = new LinkedHashMap<>();
+        symbols.forEach(symbol -> {
+            Mono<QuoteResponse> pending = batch.mapNotNull(quoteResponseMap -> quoteResponseMap.get(symbol))
+                    .switchIfEmpty(Mono.error(() -> new SymbolNotFoundException("'" + symbol + "' not found")));
+            Mono<QuoteResponse> existing = inFlight.putIfAbsent(this.toKey(symbol, fields), pending);
+            if(existing == null) {
+                owned.put(symbol, pending);
+                pendingBySymbol.put(symbol, pending);
+            } else {
+                pendingBySymbol.put(symbol, existing);
+            }
+        });
+        registered.tryEmitEmpty();
+        return pendingBySymbol;
+    }
+
+    private void put(@NonNull String key, @NonNull QuoteResponse quoteResponse) {
+        Duration ttl = quoteResponse.getAssetMainType() == null
+                ? defaultTtl
+                : ttlByAssetMainType.getOrDefault(quoteResponse.getAssetMainType(), defaultTtl);
+        entries.put(key, new Entry(quoteResponse, nanoClock.getAsLong() + ttl.toNanos()));
+    }
+
+    private String toKey(@NonNull String symbol, @NonNull String fields) {
+        return symbol.toUpperCase() + "|" + fields;
+    }
+
+    private void logRefreshError(@NonNull Throwable throwable) {
+        log.warn("Unable to refresh cached quote: {}", throwable.getMessage());
+    }
+
+    private static class Entry {
+        private final QuoteResponse quoteResponse;
+        private final long expiresAtNanos;
+
+        Entry(@NonNull QuoteResponse quoteResponse, long expiresAtNanos) {
+            this.quoteResponse = quoteResponse;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isFresh(long nowNanos) {
+            return expiresAtNanos - nowNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Merges single symbol quote requests made within a short window into one multi-symbol
+ * quote request.  The first request opens a batch, which is sent when the window elapses
+ * or when it holds {@code maxBatch} symbols.  The result map is split back out to each
+ * waiting subscriber, and a symbol missing from the result fails only its own subscribers
+ * with a {@link SymbolNotFoundException}.
+ */
+@Slf4j
+public class SchwabQuoteCoalescer {
+
+    private final Duration window;
+    private final int maxBatch;
+    private final BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> batchFetcher;
+    private final Scheduler scheduler;
+
+    private final Map<String, Batch> pendingBatchByFields = new HashMap<>();
+    private final AtomicLong quoteCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    /**
+     * create a coalescer
+     * @param window {@literal @}NotNull {@link Duration} how long a batch waits for more symbols
+     * @param maxBatch int the most symbols sent in one request
+     * @param batchFetcher {@literal @}NotNull function fetching the quote map for a list of symbols and the fields
+     */
+    public SchwabQuoteCoalescer(@NonNull Duration window,
+                                int maxBatch,
+                                @NonNull BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> batchFetcher) {
+        this(window, maxBatch, batchFetcher, Schedulers.parallel());
+    }
+
+    /**
+     * create a coalescer
+     * @param window {@literal @}NotNull {@link Duration} how long a batch waits for more symbols
+     * @param maxBatch int the most symbols sent in one request
+     * @param batchFetcher {@literal @}NotNull function fetching the quote map for a list of symbols and the fields
+     * @param scheduler {@literal @}NotNull {@link Scheduler} used to time the window
+     */
+    public SchwabQuoteCoalescer(@NonNull Duration window,
+                                int maxBatch,
+                                @NonNull BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> batchFetcher,
+                                @NonNull Scheduler scheduler) {
+        this.window = window;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.batchFetcher = batchFetcher;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * fetch a quote as part of the next batch
+     * @param symbol {@literal @}NotNull String
+     * @param fields {@literal @}NotNull String (quote, fundamental or all)
+     * @return {@link Mono}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public Mono<QuoteResponse> fetchQuoteToMono(@NonNull String symbol,
+                                                @NonNull String fields) {
+        return Mono.create(sink -> this.enqueue(symbol.toUpperCase(), fields, sink));
+    }
+
+    /**
+     * number of single symbol quotes requested
+     * @return long
+     */
+    public long getQuoteCount() {
+        return quoteCount.get();
+    }
+
+    /**
+     * number of batched requests sent to the API
+     * @return long
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    private void enqueue(@NonNull String symbol,
+                         @NonNull String fields,
+                         @NonNull MonoSink<QuoteResponse> sink) {
+        quoteCount.incrementAndGet();
+        Batch fullBatch = null;
+        synchronized (this) {
+            Batch batch = pendingBatchByFields.get(fields);
+            if(batch == null) {
+                batch = new Batch(fields);
+                pendingBatchByFields.put(fields, batch);
+                Batch scheduledBatch = batch;
+                scheduler.schedule(() -> this.flush(scheduledBatch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            batch.sinksBySymbol.computeIfAbsent(symbol, key -> new ArrayList<>()).add(sink);
+            if(batch.sinksBySymbol.size() >= maxBatch) {
+                pendingBatchByFields.remove(fields);
+                fullBatch = batch;
+            }
+        }
+        if(fullBatch != null) {
+            this.send(fullBatch);
+        }
+    }
+
+    private void flush(@NonNull Batch batch) {
+        synchronized (this) {
+            if(pendingBatchByFields.get(batch.fields) != batch) {
+                return;
+            }
+            pendingBatchByFields.remove(batch.fields);
+        }
+        this.send(batch);
+    }
+
+    private void send(@NonNull Batch batch) {
+        batchCount.incrementAndGet();
+        List<String> symbols = new ArrayList<>(batch.sinksBySymbol.keySet());
+        log.debug("Fetch coalesced quotes -> {}", symbols);
+        batchFetcher.apply(symbols, batch.fields)
+                .defaultIfEmpty(Collections.emptyMap())
+                .subscribe(quoteResponseMap -> batch.sinksBySymbol.forEach((symbol, sinks) -> {
+                            QuoteResponse quoteResponse = quoteResponseMap.get(symbol);
+                            if(quoteResponse != null) {
+                                sinks.forEach(sink -> sink.success(quoteResponse));
+                            } else {
+                                sinks.forEach(sink -> sink.error(new SymbolNotFoundException("'" + symbol + "' not found")));
+                            }
+                        }),
+                        throwable -> batch.sinksBySymbol.forEach((symbol, sinks) -> {
+                            Throwable error = throwable instanceof SymbolNotFoundException
+                                    ? new SymbolNotFoundException("'" + symbol + "' not found")
+                                    : throwable;
+                            sinks.forEach(sink -> sink.error(error));
+                        }));
+    }
+
+    private static class Batch {
+        private final String fields;
+        private final Map<String, List<MonoSink<QuoteResponse>>> sinksBySymbol = new LinkedHashMap<>();
+
+        Batch(@NonNull String fields) {
+            this.fields = fields;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import com.pangility.schwab.api.client.streaming.SchwabStreamerSession;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import lombok.NonNull;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * The latest quote of each symbol, merged from the REST quotes and the level one streamer updates.  The
+ * streamer only sends the fields that changed, so each update is merged into the {@link QuoteSnapshot} of
+ * its symbol, giving the current top of book whichever source updated it last.  A REST quote older than
+ * the snapshot is ignored.
+ * </p>
+ * <p>
+ * Each snapshot is guarded by a {@link StampedLock} used as a sequence lock: writers take the write lock
+ * for the few stores of an update, readers copy the snapshot under an optimistic read and retry when a
+ * write got in between, so reading never blocks the thread receiving the updates.
+ * </p>
+ * <p>
+ * {@link #updates} delivers conflated changes: a subscriber that falls behind receives the latest
+ * snapshot of each symbol that changed, never a backlog of intermediate updates.
+ * </p>
+ */
+public class SchwabQuoteSnapshotTable {
+
+    private final ObjectMapper objectMapper;
+    private final Scheduler deliveryScheduler;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<ConflatingSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * create an empty table
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read the fields of the REST quotes
+     * @param deliveryScheduler {@literal @}NotNull {@link Scheduler} the conflated updates are delivered on
+     */
+    public SchwabQuoteSnapshotTable(@NonNull ObjectMapper objectMapper,
+                                    @NonNull Scheduler deliveryScheduler) {
+        this.objectMapper = objectMapper;
+        this.deliveryScheduler = deliveryScheduler;
+    }
+
+    /**
+     * get the number of symbols in the table
+     * @return int
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * get the symbols in the table
+     * @return {@link Set}{@literal <}String{@literal >}
+     */
+    public Set<String> symbols() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    /**
+     * read the latest quote of a symbol into a snapshot, without allocating or blocking
+     * @param symbol {@literal @}NotNull String
+     * @param snapshot {@literal @}NotNull {@link QuoteSnapshot} to copy the quote into
+     * @return boolean false when the symbol is not in the table
+     */
+    public boolean read(@NonNull String symbol, @NonNull QuoteSnapshot snapshot) {
+        Entry entry = entries.get(symbol);
+        if(entry == null) {
+            return false;
+        }
+        entry.read(snapshot);
+        return true;
+    }
+
+    /**
+     * get a copy of the latest quote of a symbol
+     * @param symbol {@literal @}NotNull String
+     * @return {@link Optional}{@literal <}{@link QuoteSnapshot}{@literal >}
+     */
+    public Optional<QuoteSnapshot> get(@NonNull String symbol) {
+        QuoteSnapshot snapshot = new QuoteSnapshot();
+        return this.read(symbol, snapshot) ? Optional.of(snapshot) : Optional.empty();
+    }
+
+    /**
+     * merge REST quotes into the table
+     * @param quoteResponses {@literal @}NotNull {@link Collection}{@literal <}{@link QuoteResponse}{@literal >}
+     */
+    public void updateAll(@NonNull Collection<QuoteResponse> quoteResponses) {
+        quoteResponses.forEach(this::update);
+    }
+
+    /**
+     * merge a REST quote into the table, unless the snapshot of the symbol is more recent
+     * @param quoteResponse {@literal @}NotNull {@link QuoteResponse}
+     */
+    public void update(@NonNull QuoteResponse quoteResponse) {
+        if(quoteResponse.getSymbol() == null) {
+            return;
+        }
+        JsonNode quote = objectMapper.valueToTree(quoteResponse).get("quote");
+        if(quote == null || !quote.isObject()) {
+            return;
+        }
+        Entry entry = this.entry(quoteResponse.getSymbol());
+        long stamp = entry.lock.writeLock();
+        try {
+            JsonNode quoteTime = quote.get("quoteTime");
+            if(quoteTime != null && quoteTime.isNumber() && quoteTime.asLong() < entry.snapshot.getQuoteTime()) {
+                return;
+            }
+            entry.snapshot.merge(quote);
+            entry.snapshot.incrementVersion();
+        } finally {
+            entry.lock.unlockWrite(stamp);
+        }
+        this.changed(entry);
+    }
+
+    /**
+     * merge the changed fields of a level one streamer record into the table.  Matches
+     * {@link com.pangility.schwab.api.client.streaming.StreamerRecordListener}, so the table can listen to
+     * {@link SchwabStreamerSession#records} directly.
+     * @param record {@literal @}NotNull {@link StreamerRecord} of LEVELONE_EQUITIES, LEVELONE_OPTIONS or LEVELONE_FUTURES
+     */
+    public void update(@NonNull StreamerRecord record) {
+        if(!QuoteSnapshot.STREAMER_SERVICES.contains(record.getSchema().getService())) {
+            return;
+        }
+        Entry entry = this.entry(record.getKey());
+        long stamp = entry.lock.writeLock();
+        try {
+            entry.snapshot.merge(record);
+            entry.snapshot.incrementVersion();
+        } finally {
+            entry.lock.unlockWrite(stamp);
+        }
+        this.changed(entry);
+    }
+
+    /**
+     * merge the level one equity, option and future updates of a streamer session into the table
+     * @param session {@literal @}NotNull {@link SchwabStreamerSession}
+     * @return {@link Disposable} to stop listening to the session
+     */
+    public Disposable attach(@NonNull SchwabStreamerSession session) {
+        Disposable.Composite listeners = Disposables.composite();
+        QuoteSnapshot.STREAMER_SERVICES.forEach(service -> listeners.add(session.records(service, this::update)));
+        return listeners;
+    }
+
+    /**
+     * stream the conflated changes of every symbol, starting with the current snapshots
+     * @return {@link Flux}{@literal <}{@link QuoteSnapshot}{@literal >}
+     */
+    public Flux<QuoteSnapshot> updates() {
+        return this.updates(null);
+    }
+
+    /**
+     * stream the conflated changes of symbols, starting with their current snapshots.  While the subscriber
+     * has no demand the changes of a symbol collapse into its latest snapshot, so request a few at a time,
+     * with {@code limitRate} or a small {@code publishOn} prefetch, to keep what is delivered recent.
+     * @param symbols {@link Collection}{@literal <}String{@literal >} or null for every symbol
+     * @return {@link Flux}{@literal <}{@link QuoteSnapshot}{@literal >}
+     */
+    public Flux<QuoteSnapshot> updates(Collection<String> symbols) {
+        Set<String> filter = symbols == null ? null
+                : symbols.stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+        return Flux.create(sink -> {
+            ConflatingSubscriber subscriber = new ConflatingSubscriber(sink, filter, deliveryScheduler.createWorker());
+            sink.onRequest(requested -> subscriber.scheduleDrain());
+            sink.onDispose(() -> {
+                subscribers.remove(subscriber);
+                subscriber.worker.dispose();
+            });
+            subscribers.add(subscriber);
+            entries.values().forEach(subscriber::changed);
+        });
+    }
+
+    private Entry entry(String symbol) {
+        Entry entry = entries.get(symbol);
+        return entry != null ? entry : entries.computeIfAbsent(symbol, Entry::new);
+    }
+
+    private void changed(Entry entry) {
+        for(ConflatingSubscriber subscriber : subscribers) {
+            subscriber.changed(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final String symbol;
+        private final StampedLock lock = new StampedLock();
+        private final QuoteSnapshot snapshot;
+
+        private Entry(String symbol) {
+            this.symbol = symbol;
+            this.snapshot = new QuoteSnapshot(symbol);
+        }
+
+        // copy under an optimistic read, spinning past a writer rather than waiting on the lock
+        private void read(QuoteSnapshot into) {
+            while(true) {
+                long stamp = lock.tryOptimisticRead();
+                if(stamp != 0L) {
+                    into.copyFrom(snapshot);
+                    if(lock.validate(stamp)) {
+                        return;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static final class ConflatingSubscriber {
+        private final FluxSink<QuoteSnapshot> sink;
+        private final Set<String> filter;
+        private final Scheduler.Worker worker;
+        // the symbols changed since they were last delivered, each once
+        private final Set<Entry> changed = new LinkedHashSet<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Runnable drain = this::drain;
+
+        private ConflatingSubscriber(FluxSink<QuoteSnapshot> sink, Set<String> filter, Scheduler.Worker worker) {
+            this.sink = sink;
+            this.filter = filter;
+            this.worker = worker;
+        }
+
+        private void changed(Entry entry) {
+            if(filter == null || filter.contains(entry.symbol)) {
+                synchronized (changed) {
+                    changed.add(entry);
+                }
+                this.scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if(wip.getAndIncrement() == 0) {
+                worker.schedule(drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while(sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    Entry entry;
+                    synchronized (changed) {
+                        Iterator<Entry> iterator = changed.iterator();
+                        if(!iterator.hasNext()) {
+                            break;
+                        }
+                        entry = iterator.next();
+                        iterator.remove();
+                    }
+                    QuoteSnapshot snapshot = new QuoteSnapshot();
+                    entry.read(snapshot);
+                    sink.next(snapshot);
+                }
+                missed = wip.addAndGet(-missed);
+            } while(missed != 0);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.pangility.schwab.api.client.marketdata;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a consumer of a {@link SchwabMarketDataEventBus} waits for the next event, trading CPU for latency.
+ */
+public enum WaitStrategy {
+    /**
+     * spin on the cursor; the lowest latency, but each consumer keeps a core busy
+     */
+    BUSY_SPIN,
+    /**
+     * spin briefly, then yield the core between checks
+     */
+    YIELD,
+    /**
+     * spin and yield briefly, then park until the producer publishes; no CPU while idle
+     */
+    PARK;
+
+    static final int PARK_TRIES = 200;
+    private static final int SPIN_TRIES = 100;
+
+    // wait once, returns true when a PARK consumer should park on its next try
+    boolean idle(int tries) {
+        if(this == BUSY_SPIN || tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+            return false;
+        }
+        if(this == YIELD || tries < PARK_TRIES) {
+            Thread.yield();
+            return false;
+        }
+        return true;
+    }
+
+    // producer side wait for a consumer to free a slot
+    static void backOff(int tries) {
+        if(tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if(tries < PARK_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(1_000L);
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package com.pangility.schwab.api.client.marketdata.model.chains;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column-wise alternative to {@link OptionChainResponse} for large chains.  The contracts of both
+ * expiration maps are stored in primitive arrays indexed by contract, so a chain of thousands of
+ * contracts is held in a few dozen arrays instead of an object graph per contract.  The per
+ * contract accessors match the {@link OptionContract} getters; prices and greeks are NaN when
+ * Schwab returns no value or "NaN", and sizes and times are 0.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@JsonDeserialize(using = OptionChainColumnsDeserializer.class)
+public class OptionChainColumns {
+  static final int STRIKE_PRICE = 0;
+  static final int BID_PRICE = 1;
+  static final int ASK_PRICE = 2;
+  static final int LAST_PRICE = 3;
+  static final int MARK_PRICE = 4;
+  static final int HIGH_PRICE = 5;
+  static final int LOW_PRICE = 6;
+  static final int OPEN_PRICE = 7;
+  static final int CLOSE_PRICE = 8;
+  static final int NET_CHANGE = 9;
+  static final int VOLATILITY = 10;
+  static final int DELTA = 11;
+  static final int GAMMA = 12;
+  static final int THETA = 13;
+  static final int VEGA = 14;
+  static final int RHO = 15;
+  static final int TIME_VALUE = 16;
+  static final int THEORETICAL_OPTION_VALUE = 17;
+  static final int THEORETICAL_VOLATILITY = 18;
+  static final int MULTIPLIER = 19;
+  static final int PERCENT_CHANGE = 20;
+  static final int MARK_CHANGE = 21;
+  static final int MARK_PERCENT_CHANGE = 22;
+  static final int DOUBLE_COLUMNS = 23;
+
+  static final int BID_SIZE = 0;
+  static final int ASK_SIZE = 1;
+  static final int LAST_SIZE = 2;
+  static final int TOTAL_VOLUME = 3;
+  static final int OPEN_INTEREST = 4;
+  static final int QUOTE_TIME = 5;
+  static final int TRADE_TIME = 6;
+  static final int LONG_COLUMNS = 7;
+
+  static final int IN_THE_MONEY = 0;
+  static final int MINI = 1;
+  static final int NON_STANDARD = 2;
+  static final int INDEX_OPTION = 3;
+  static final int BOOLEAN_COLUMNS = 4;
+
+  @ToString.Include
+  @Getter
+  String symbol;
+  @ToString.Include
+  @Getter
+  String status;
+  @Getter
+  Underlying underlying;
+  @Getter
+  OptionChainRequest.Strategy strategy;
+  @Getter
+  BigDecimal interval;
+  @Getter
+  Boolean isDelayed;
+  @Getter
+  Boolean isIndex;
+  @Getter
+  Boolean isChainTruncated;
+  @Getter
+  BigDecimal daysToExpiration;
+  @Getter
+  BigDecimal interestRate;
+  @ToString.Include
+  @Getter
+  BigDecimal underlyingPrice;
+  @Getter
+  BigDecimal volatility;
+  @Getter
+  Integer numberOfContracts;
+
+  int size;
+  boolean[] calls = new boolean[0];
+  String[] symbols = new String[0];
+  String[] descriptions = new String[0];
+  int[] expirationIndexes = new int[0];
+  double[][] doubles = new double[DOUBLE_COLUMNS][0];
+  long[][] longs = new long[LONG_COLUMNS][0];
+  boolean[][] booleans = new boolean[BOOLEAN_COLUMNS][0];
+  List<LocalDate> expirationDays = new ArrayList<>();
+  List<LocalDateTime> expirationDates = new ArrayList<>();
+  List<Integer> daysToExpirations = new ArrayList<>();
+
+  /**
+   * number of contracts in the chain
+   * @return int
+   */
+  @ToString.Include
+  public int size() {
+    return size;
+  }
+
+  /**
+   * the expiration days of the chain in the order Schwab returned them
+   * @return {@link List}{@literal <}{@link LocalDate}{@literal >}
+   */
+  public List<LocalDate> getExpirations() {
+    return Collections.unmodifiableList(expirationDays);
+  }
+
+  /**
+   * @param index int contract index
+   * @return {@link OptionContract.PutCall}
+   */
+  public OptionContract.PutCall getPutCall(int index) {
+    return calls[index] ? OptionContract.PutCall.CALL : OptionContract.PutCall.PUT;
+  }
+
+  /**
+   * @param index int contract index
+   * @return String
+   */
+  public String getSymbol(int index) {
+    return symbols[index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return String
+   */
+  public String getDescription(int index) {
+    return descriptions[index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return int index of the contract's expiration in {@link #getExpirations()}
+   */
+  public int getExpirationIndex(int index) {
+    return expirationIndexes[index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return {@link LocalDateTime}
+   */
+  public LocalDateTime getExpirationDate(int index) {
+    return expirationDates.get(expirationIndexes[index]);
+  }
+
+  /**
+   * @param index int contract index
+   * @return int
+   */
+  public int getDaysToExpiration(int index) {
+    return daysToExpirations.get(expirationIndexes[index]);
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getStrikePrice(int index) {
+    return doubles[STRIKE_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getBidPrice(int index) {
+    return doubles[BID_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getAskPrice(int index) {
+    return doubles[ASK_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getLastPrice(int index) {
+    return doubles[LAST_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getMarkPrice(int index) {
+    return doubles[MARK_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getHighPrice(int index) {
+    return doubles[HIGH_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getLowPrice(int index) {
+    return doubles[LOW_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getOpenPrice(int index) {
+    return doubles[OPEN_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getClosePrice(int index) {
+    return doubles[CLOSE_PRICE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getNetChange(int index) {
+    return doubles[NET_CHANGE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getVolatility(int index) {
+    return doubles[VOLATILITY][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getDelta(int index) {
+    return doubles[DELTA][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getGamma(int index) {
+    return doubles[GAMMA][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getTheta(int index) {
+    return doubles[THETA][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getVega(int index) {
+    return doubles[VEGA][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getRho(int index) {
+    return doubles[RHO][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getTimeValue(int index) {
+    return doubles[TIME_VALUE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getTheoreticalOptionValue(int index) {
+    return doubles[THEORETICAL_OPTION_VALUE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getTheoreticalVolatility(int index) {
+    return doubles[THEORETICAL_VOLATILITY][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getMultiplier(int index) {
+    return doubles[MULTIPLIER][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getPercentChange(int index) {
+    return doubles[PERCENT_CHANGE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getMarkChange(int index) {
+    return doubles[MARK_CHANGE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return double
+   */
+  public double getMarkPercentChange(int index) {
+    return doubles[MARK_PERCENT_CHANGE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getBidSize(int index) {
+    return longs[BID_SIZE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getAskSize(int index) {
+    return longs[ASK_SIZE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getLastSize(int index) {
+    return longs[LAST_SIZE][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getTotalVolume(int index) {
+    return longs[TOTAL_VOLUME][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getOpenInterest(int index) {
+    return longs[OPEN_INTEREST][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getQuoteTimeInLong(int index) {
+    return longs[QUOTE_TIME][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return long
+   */
+  public long getTradeTimeInLong(int index) {
+    return longs[TRADE_TIME][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return boolean
+   */
+  public boolean getIsInTheMoney(int index) {
+    return booleans[IN_THE_MONEY][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return boolean
+   */
+  public boolean getIsMini(int index) {
+    return booleans[MINI][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return boolean
+   */
+  public boolean getIsNonStandard(int index) {
+    return booleans[NON_STANDARD][index];
+  }
+
+  /**
+   * @param index int contract index
+   * @return boolean
+   */
+  public boolean getIsIndexOption(int index) {
+    return booleans[INDEX_OPTION][index];
+  }
+
+  /**
+   * copy a contract into an {@link OptionContract} for code written against the object model
+   * @param index int contract index
+   * @return {@link OptionContract}
+   */
+  public OptionContract toOptionContract(int index) {
+    OptionContract optionContract = new OptionContract();
+    optionContract.setPutCall(this.getPutCall(index));
+    optionContract.setSymbol(symbols[index]);
+    optionContract.setDescription(descriptions[index]);
+    optionContract.setExpirationDate(this.getExpirationDate(index));
+    optionContract.setStrikePrice(toBigDecimal(doubles[STRIKE_PRICE][index]));
+    optionContract.setBidPrice(toBigDecimal(doubles[BID_PRICE][index]));
+    optionContract.setAskPrice(toBigDecimal(doubles[ASK_PRICE][index]));
+    optionContract.setLastPrice(toBigDecimal(doubles[LAST_PRICE][index]));
+    optionContract.setMarkPrice(toBigDecimal(doubles[MARK_PRICE][index]));
+    optionContract.setHighPrice(toBigDecimal(doubles[HIGH_PRICE][index]));
+    optionContract.setLowPrice(toBigDecimal(doubles[LOW_PRICE][index]));
+    optionContract.setOpenPrice(toBigDecimal(doubles[OPEN_PRICE][index]));
+    optionContract.setClosePrice(toBigDecimal(doubles[CLOSE_PRICE][index]));
+    optionContract.setNetChange(toBigDecimal(doubles[NET_CHANGE][index]));
+    optionContract.setVolatility(toBigDecimal(doubles[VOLATILITY][index]));
+    optionContract.setDelta(toBigDecimal(doubles[DELTA][index]));
+    optionContract.setGamma(toBigDecimal(doubles[GAMMA][index]));
+    optionContract.setTheta(toBigDecimal(doubles[THETA][index]));
+    optionContract.setVega(toBigDecimal(doubles[VEGA][index]));
+    optionContract.setRho(toBigDecimal(doubles[RHO][index]));
+    optionContract.setTimeValue(toBigDecimal(doubles[TIME_VALUE][index]));
+    optionContract.setTheoreticalOptionValue(toBigDecimal(doubles[THEORETICAL_OPTION_VALUE][index]));
+    optionContract.setTheoreticalVolatility(toBigDecimal(doubles[THEORETICAL_VOLATILITY][index]));
+    optionContract.setMultiplier(toBigDecimal(doubles[MULTIPLIER][index]));
+    optionContract.setPercentChange(toBigDecimal(doubles[PERCENT_CHANGE][index]));
+    optionContract.setMarkChange(toBigDecimal(doubles[MARK_CHANGE][index]));
+    optionContract.setMarkPercentChange(toBigDecimal(doubles[MARK_PERCENT_CHANGE][index]));
+    optionContract.setBidSize(longs[BID_SIZE][index]);
+    optionContract.setAskSize(longs[ASK_SIZE][index]);
+    optionContract.setLastSize(longs[LAST_SIZE][index]);
+    optionContract.setTotalVolume(longs[TOTAL_VOLUME][index]);
+    optionContract.setOpenInterest(BigDecimal.valueOf(longs[OPEN_INTEREST][index]));
+    optionContract.setQuoteTimeInLong(longs[QUOTE_TIME][index]);
+    optionContract.setTradeTimeInLong(longs[TRADE_TIME][index]);
+    optionContract.setIsInTheMoney(booleans[IN_THE_MONEY][index]);
+    optionContract.setIsMini(booleans[MINI][index]);
+    optionContract.setIsNonStandard(booleans[NON_STANDARD][index]);
+    optionContract.setIsIndexOption(booleans[INDEX_OPTION][index]);
+    return optionContract;
+  }
+
+  // make room for one more contract, doubling the columns when they are full
+  int addContract(boolean call, int expirationIndex) {
+    if(size == symbols.length) {
+      this.ensureCapacity(Math.max(64, size * 2));
+    }
+    calls[size] = call;
+    expirationIndexes[size] = expirationIndex;
+    return size++;
+  }
+
+  void ensureCapacity(int capacity) {
+    if(capacity <= symbols.length) {
+      return;
+    }
+    calls = Arrays.copyOf(calls, capacity);
+    symbols = Arrays.copyOf(symbols, capacity);
+    descriptions = Arrays.copyOf(descriptions, capacity);
+    expirationIndexes = Arrays.copyOf(expirationIndexes, capacity);
+    for(int column = 0; column < DOUBLE_COLUMNS; column++) {
+      int previousCapacity = doubles[column].length;
+      doubles[column] = Arrays.copyOf(doubles[column], capacity);
+      Arrays.fill(doubles[column], previousCapacity, capacity, Double.NaN);
+    }
+    for(int column = 0; column < LONG_COLUMNS; column++) {
+      longs[column] = Arrays.copyOf(longs[column], capacity);
+    }
+    for(int column = 0; column < BOOLEAN_COLUMNS; column++) {
+      booleans[column] = Arrays.copyOf(booleans[column], capacity);
+    }
+  }
+
+  private static BigDecimal toBigDecimal(double value) {
+    return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+  }
+}
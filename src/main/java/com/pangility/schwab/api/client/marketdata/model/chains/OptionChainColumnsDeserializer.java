@@ -0,0 +1,236 @@
+package com.pangility.schwab.api.client.marketdata.model.chains;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads an option chain response straight from the token stream into an {@link OptionChainColumns},
+ * without creating an {@link OptionContract} or a map entry per contract.
+ */
+public class OptionChainColumnsDeserializer extends JsonDeserializer<OptionChainColumns> {
+
+  @Override
+  public OptionChainColumns deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+    OptionChainColumns chain = new OptionChainColumns();
+    if(jsonParser.currentToken() != JsonToken.START_OBJECT) {
+      return (OptionChainColumns) context.handleUnexpectedToken(OptionChainColumns.class, jsonParser);
+    }
+    String fieldName;
+    while((fieldName = jsonParser.nextFieldName()) != null) {
+      JsonToken token = jsonParser.nextToken();
+      if(token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      switch (fieldName) {
+        case "symbol":
+          chain.symbol = jsonParser.getText();
+          break;
+        case "status":
+          chain.status = jsonParser.getText();
+          break;
+        case "underlying":
+          chain.underlying = context.readValue(jsonParser, Underlying.class);
+          break;
+        case "strategy":
+          chain.strategy = context.readValue(jsonParser, OptionChainRequest.Strategy.class);
+          break;
+        case "interval":
+          chain.interval = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "isDelayed":
+          chain.isDelayed = jsonParser.getValueAsBoolean();
+          break;
+        case "isIndex":
+          chain.isIndex = jsonParser.getValueAsBoolean();
+          break;
+        case "isChainTruncated":
+          chain.isChainTruncated = jsonParser.getValueAsBoolean();
+          break;
+        case "daysToExpiration":
+          chain.daysToExpiration = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "interestRate":
+          chain.interestRate = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "underlyingPrice":
+          chain.underlyingPrice = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "volatility":
+          chain.volatility = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "numberOfContracts":
+          chain.numberOfContracts = jsonParser.getValueAsInt();
+          chain.ensureCapacity(chain.numberOfContracts);
+          break;
+        case "callExpDateMap":
+          this.readExpDateMap(jsonParser, chain, true);
+          break;
+        case "putExpDateMap":
+          this.readExpDateMap(jsonParser, chain, false);
+          break;
+        default:
+          jsonParser.skipChildren();
+      }
+    }
+    return chain;
+  }
+
+  // {"2024-06-21:7": {"530.0": [contract, ...], ...}, ...}
+  private void readExpDateMap(JsonParser jsonParser, OptionChainColumns chain, boolean call) throws IOException {
+    String expirationKey;
+    while((expirationKey = jsonParser.nextFieldName()) != null) {
+      int expirationIndex = this.expirationIndex(chain, expirationKey);
+      jsonParser.nextToken();
+      while(jsonParser.nextFieldName() != null) {
+        jsonParser.nextToken();
+        while(jsonParser.nextToken() == JsonToken.START_OBJECT) {
+          this.readContract(jsonParser, chain, chain.addContract(call, expirationIndex));
+        }
+      }
+    }
+  }
+
+  private int expirationIndex(OptionChainColumns chain, String expirationKey) {
+    int separator = expirationKey.indexOf(':');
+    LocalDate expiration = LocalDate.parse(separator < 0 ? expirationKey : expirationKey.substring(0, separator));
+    int index = chain.expirationDays.indexOf(expiration);
+    if(index < 0) {
+      index = chain.expirationDays.size();
+      chain.expirationDays.add(expiration);
+      chain.expirationDates.add(null);
+      chain.daysToExpirations.add(separator < 0 ? 0 : Integer.parseInt(expirationKey.substring(separator + 1)));
+    }
+    return index;
+  }
+
+  private void readContract(JsonParser jsonParser, OptionChainColumns chain, int index) throws IOException {
+    String fieldName;
+    while((fieldName = jsonParser.nextFieldName()) != null) {
+      JsonToken token = jsonParser.nextToken();
+      int column = doubleColumn(fieldName);
+      if(column >= 0) {
+        chain.doubles[column][index] = readDouble(jsonParser, token);
+        continue;
+      }
+      column = longColumn(fieldName);
+      if(column >= 0) {
+        chain.longs[column][index] = readLong(jsonParser, token);
+        continue;
+      }
+      column = booleanColumn(fieldName);
+      if(column >= 0) {
+        chain.booleans[column][index] = token == JsonToken.VALUE_TRUE;
+        continue;
+      }
+      switch (fieldName) {
+        case "symbol":
+          chain.symbols[index] = jsonParser.getValueAsString();
+          break;
+        case "description":
+          chain.descriptions[index] = jsonParser.getValueAsString();
+          break;
+        case "expirationDate":
+          // every contract of an expiration repeats the same date, parse it once
+          int expirationIndex = chain.expirationIndexes[index];
+          if(chain.expirationDates.get(expirationIndex) == null && token == JsonToken.VALUE_STRING) {
+            chain.expirationDates.set(expirationIndex,
+                LocalDateTime.parse(jsonParser.getText(), DateTimeFormatter.ISO_DATE_TIME));
+          }
+          break;
+        default:
+          jsonParser.skipChildren();
+      }
+    }
+  }
+
+  private static double readDouble(JsonParser jsonParser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return jsonParser.getDoubleValue();
+      case VALUE_STRING:
+        // Schwab returns "NaN" for the greeks of contracts without a market
+        try {
+          return Double.parseDouble(jsonParser.getText());
+        } catch (NumberFormatException nfe) {
+          return Double.NaN;
+        }
+      default:
+        jsonParser.skipChildren();
+        return Double.NaN;
+    }
+  }
+
+  private static long readLong(JsonParser jsonParser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT:
+        return jsonParser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        // open interest is sent as a decimal
+        return (long) jsonParser.getDoubleValue();
+      default:
+        jsonParser.skipChildren();
+        return 0L;
+    }
+  }
+
+  private static int doubleColumn(String fieldName) {
+    switch (fieldName) {
+      case "strikePrice": return OptionChainColumns.STRIKE_PRICE;
+      case "bid": case "bidPrice": return OptionChainColumns.BID_PRICE;
+      case "ask": case "askPrice": return OptionChainColumns.ASK_PRICE;
+      case "last": case "lastPrice": return OptionChainColumns.LAST_PRICE;
+      case "mark": case "markPrice": return OptionChainColumns.MARK_PRICE;
+      case "highPrice": return OptionChainColumns.HIGH_PRICE;
+      case "lowPrice": return OptionChainColumns.LOW_PRICE;
+      case "openPrice": return OptionChainColumns.OPEN_PRICE;
+      case "closePrice": return OptionChainColumns.CLOSE_PRICE;
+      case "netChange": return OptionChainColumns.NET_CHANGE;
+      case "volatility": return OptionChainColumns.VOLATILITY;
+      case "delta": return OptionChainColumns.DELTA;
+      case "gamma": return OptionChainColumns.GAMMA;
+      case "theta": return OptionChainColumns.THETA;
+      case "vega": return OptionChainColumns.VEGA;
+      case "rho": return OptionChainColumns.RHO;
+      case "timeValue": return OptionChainColumns.TIME_VALUE;
+      case "theoreticalOptionValue": return OptionChainColumns.THEORETICAL_OPTION_VALUE;
+      case "theoreticalVolatility": return OptionChainColumns.THEORETICAL_VOLATILITY;
+      case "multiplier": return OptionChainColumns.MULTIPLIER;
+      case "percentChange": return OptionChainColumns.PERCENT_CHANGE;
+      case "markChange": return OptionChainColumns.MARK_CHANGE;
+      case "markPercentChange": return OptionChainColumns.MARK_PERCENT_CHANGE;
+      default: return -1;
+    }
+  }
+
+  private static int longColumn(String fieldName) {
+    switch (fieldName) {
+      case "bidSize": return OptionChainColumns.BID_SIZE;
+      case "askSize": return OptionChainColumns.ASK_SIZE;
+      case "lastSize": return OptionChainColumns.LAST_SIZE;
+      case "totalVolume": return OptionChainColumns.TOTAL_VOLUME;
+      case "openInterest": return OptionChainColumns.OPEN_INTEREST;
+      case "quoteTimeInLong": return OptionChainColumns.QUOTE_TIME;
+      case "tradeTimeInLong": return OptionChainColumns.TRADE_TIME;
+      default: return -1;
+    }
+  }
+
+  private static int booleanColumn(String fieldName) {
+    switch (fieldName) {
+      case "inTheMoney": case "isInTheMoney": return OptionChainColumns.IN_THE_MONEY;
+      case "mini": case "isMini": return OptionChainColumns.MINI;
+      case "nonStandard": case "isNonStandard": return OptionChainColumns.NON_STANDARD;
+      case "isIndexOption": return OptionChainColumns.INDEX_OPTION;
+      default: return -1;
+    }
+  }
+}
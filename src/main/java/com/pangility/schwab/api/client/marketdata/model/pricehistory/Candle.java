@@ -10,18 +10,27 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Candle used for PriceHistory
+ * Candle used for PriceHistory.  The datetimeISO8601 is computed from the datetime the first
+ * time it is read, in the time zone of the exchange ({@link #DEFAULT_ZONE_ID} unless another
+ * one is set).
  */
 @Getter
 @Setter
 @ToString
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class Candle {
+  /**
+   * time zone of the datetimeISO8601 when none is set
+   */
+  public static final ZoneId DEFAULT_ZONE_ID = ZoneId.of("America/New_York");
+
   private BigDecimal open;
   private BigDecimal high;
   private BigDecimal low;
@@ -31,6 +40,48 @@ public class Candle {
   @JsonDeserialize(using = LocalDateTimeDeserializer.class)
   private LocalDateTime datetimeISO8601;
   @JsonIgnore
+  @ToString.Exclude
+  private ZoneId zoneId;
+  @JsonIgnore
   @JsonAnySetter
   private Map<String, Object> otherFields = new HashMap<>();
+
+  /**
+   * set the datetime in epoch milliseconds
+   * @param datetime Long
+   */
+  public void setDatetime(Long datetime) {
+    this.datetime = datetime;
+    this.datetimeISO8601 = null;
+  }
+
+  /**
+   * set the time zone of the datetimeISO8601
+   * @param zoneId {@link ZoneId} or null for the {@link #DEFAULT_ZONE_ID}
+   */
+  public void setZoneId(ZoneId zoneId) {
+    if(datetime != null && !getZoneId().equals(zoneId == null ? DEFAULT_ZONE_ID : zoneId)) {
+      this.datetimeISO8601 = null;
+    }
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * get the time zone of the datetimeISO8601
+   * @return {@link ZoneId}
+   */
+  public ZoneId getZoneId() {
+    return zoneId == null ? DEFAULT_ZONE_ID : zoneId;
+  }
+
+  /**
+   * get the datetime as a local date and time, computed on first access
+   * @return {@link LocalDateTime}
+   */
+  public LocalDateTime getDatetimeISO8601() {
+    if(datetimeISO8601 == null && datetime != null) {
+      datetimeISO8601 = Instant.ofEpochMilli(datetime).atZone(this.getZoneId()).toLocalDateTime();
+    }
+    return datetimeISO8601;
+  }
 }
@@ -0,0 +1,266 @@
+package com.pangility.schwab.api.client.marketdata.model.pricehistory;
+
+import com.pangility.schwab.api.client.marketdata.model.markets.Hours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionStartEnd;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Builds longer candles, like 3, 5, 15, 30 or 60 minutes or daily, from one series of shorter
+ * candles, usually 1 minute, in a single pass over the {@link CandleSeries} arrays.  The open is the
+ * first open of the bar, the close the last close, the high and low the extremes and the volume the
+ * sum.  A bar is stamped with the time it starts, and daily bars with the midnight that starts their
+ * day in the exchange time zone.  The candles must be sorted by time.
+ * </p>
+ * <p>
+ * Created with the market {@link Hours} of the days of the series, only the candles inside the
+ * {@link Session} are kept, intraday bars are aligned to the start of each session (9:30, 10:30...
+ * for 60 minute bars) and end with it, and days without session hours are skipped.  Without market
+ * hours every candle is kept and bars are aligned to midnight in the exchange time zone.
+ * </p>
+ */
+public class CandleResampler {
+
+    private static final long MILLIS_PER_DAY = 86400L * 1000;
+
+    @Getter
+    private final ZoneId zoneId;
+    @Getter
+    private final Session session;
+    // session windows sorted by start with the midnight of their day, the windows never overlap
+    private final long[] windowStarts;
+    private final long[] windowEnds;
+    private final long[] windowDays;
+
+    /**
+     * Trading sessions kept when resampling with market hours
+     */
+    public enum Session {
+        /**
+         * the regular market session
+         */
+        REGULAR,
+        /**
+         * the pre-market, regular market and post-market sessions
+         */
+        EXTENDED
+    }
+
+    /**
+     * create a resampler keeping every candle, aligned in the {@link Candle#DEFAULT_ZONE_ID}
+     */
+    public CandleResampler() {
+        this(Candle.DEFAULT_ZONE_ID);
+    }
+
+    /**
+     * create a resampler keeping every candle
+     * @param zoneId {@literal @}NotNull {@link ZoneId} of the exchange, used to align the bars
+     */
+    public CandleResampler(@NonNull ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.session = null;
+        this.windowStarts = null;
+        this.windowEnds = null;
+        this.windowDays = null;
+    }
+
+    /**
+     * create a resampler keeping the candles of a session, in the {@link Candle#DEFAULT_ZONE_ID}
+     * @param marketHours {@literal @}NotNull {@link Collection}{@literal <}{@link Hours}{@literal >} of one market for the days of the series
+     * @param session {@literal @}NotNull {@link Session}
+     */
+    public CandleResampler(@NonNull Collection<Hours> marketHours, @NonNull Session session) {
+        this(marketHours, session, Candle.DEFAULT_ZONE_ID);
+    }
+
+    /**
+     * create a resampler keeping the candles of a session
+     * @param marketHours {@literal @}NotNull {@link Collection}{@literal <}{@link Hours}{@literal >} of one market for the days of the series
+     * @param session {@literal @}NotNull {@link Session}
+     * @param zoneId {@literal @}NotNull {@link ZoneId} of the exchange, the time zone of the session hours
+     */
+    public CandleResampler(@NonNull Collection<Hours> marketHours, @NonNull Session session, @NonNull ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.session = session;
+
+        // one set of hours per day, the first one returned wins
+        Map<LocalDate, Hours> hoursByDate = new TreeMap<>();
+        marketHours.stream()
+                .filter(hours -> hours.getDate() != null && Boolean.TRUE.equals(hours.getIsOpen()) && hours.getSessionHours() != null)
+                .forEach(hours -> hoursByDate.putIfAbsent(hours.getDate(), hours));
+        List<long[]> windows = new ArrayList<>();
+        hoursByDate.forEach((date, hours) -> {
+            long day = this.toEpochMilli(date.atStartOfDay());
+            if(session == Session.EXTENDED) {
+                this.addWindows(windows, hours.getSessionHours().getPreMarket(), day);
+            }
+            this.addWindows(windows, hours.getSessionHours().getRegularMarket(), day);
+            if(session == Session.EXTENDED) {
+                this.addWindows(windows, hours.getSessionHours().getPostMarket(), day);
+            }
+        });
+        windows.sort((first, second) -> Long.compare(first[0], second[0]));
+        this.windowStarts = new long[windows.size()];
+        this.windowEnds = new long[windows.size()];
+        this.windowDays = new long[windows.size()];
+        for(int index = 0; index < windows.size(); index++) {
+            windowStarts[index] = windows.get(index)[0];
+            windowEnds[index] = windows.get(index)[1];
+            windowDays[index] = windows.get(index)[2];
+        }
+    }
+
+    /**
+     * build bars of a fixed duration
+     * @param series {@literal @}NotNull {@link CandleSeries} sorted by time
+     * @param barDuration {@literal @}NotNull {@link Duration} of the bars, shorter than a day
+     * @return {@link CandleSeries}
+     */
+    public CandleSeries resample(@NonNull CandleSeries series, @NonNull Duration barDuration) {
+        long barMillis = barDuration.toMillis();
+        if(barMillis <= 0 || barMillis >= MILLIS_PER_DAY) {
+            throw new IllegalArgumentException("The bar duration must be between 1 millisecond and 1 day, use resampleDaily for daily bars.");
+        }
+        return this.aggregate(series, barMillis);
+    }
+
+    /**
+     * build one bar per day
+     * @param series {@literal @}NotNull {@link CandleSeries} sorted by time
+     * @return {@link CandleSeries}
+     */
+    public CandleSeries resampleDaily(@NonNull CandleSeries series) {
+        return this.aggregate(series, MILLIS_PER_DAY);
+    }
+
+    // barMillis of a day groups by day, anything shorter by bars inside the day or the session window
+    private CandleSeries aggregate(CandleSeries series, long barMillis) {
+        CandleSeries bars = new CandleSeries();
+        bars.symbol = series.symbol;
+        bars.previousClose = series.previousClose;
+        bars.previousCloseDate = series.previousCloseDate;
+        boolean daily = barMillis == MILLIS_PER_DAY;
+        if(series.size > 0) {
+            // room for a bar per bar duration of the series, so the arrays only grow on session edges
+            long span = series.epochMillis[series.size - 1] - series.epochMillis[0];
+            bars.ensureCapacity((int) Math.min(series.size, span / barMillis + 1));
+        }
+
+        long[] epochMillis = series.epochMillis;
+        int window = 0;
+        long dayStart = Long.MAX_VALUE;
+        long dayEnd = Long.MIN_VALUE;
+        long barStart = Long.MIN_VALUE;
+        long barEnd = Long.MIN_VALUE;
+        double open = Double.NaN;
+        double high = Double.NaN;
+        double low = Double.NaN;
+        double close = Double.NaN;
+        long volume = 0;
+        boolean hasBar = false;
+        for(int index = 0; index < series.size; index++) {
+            long time = epochMillis[index];
+            if(windowStarts != null) {
+                while(window < windowStarts.length && time >= windowEnds[window]) {
+                    window++;
+                }
+                if(window == windowStarts.length || time < windowStarts[window]) {
+                    continue;
+                }
+            }
+            if(time < barStart || time >= barEnd) {
+                long nextBarStart;
+                long nextBarEnd;
+                if(windowStarts != null) {
+                    if(daily) {
+                        nextBarStart = windowDays[window];
+                        nextBarEnd = this.lastWindowEnd(window);
+                    } else {
+                        nextBarStart = windowStarts[window] + (time - windowStarts[window]) / barMillis * barMillis;
+                        nextBarEnd = Math.min(nextBarStart + barMillis, windowEnds[window]);
+                    }
+                } else {
+                    if(time < dayStart || time >= dayEnd) {
+                        LocalDate date = Instant.ofEpochMilli(time).atZone(zoneId).toLocalDate();
+                        dayStart = this.toEpochMilli(date.atStartOfDay());
+                        dayEnd = this.toEpochMilli(date.plusDays(1).atStartOfDay());
+                    }
+                    // bars count from midnight, so a day shortened or lengthened by a DST change ends with a partial bar
+                    nextBarStart = daily ? dayStart : dayStart + (time - dayStart) / barMillis * barMillis;
+                    nextBarEnd = daily ? dayEnd : Math.min(nextBarStart + barMillis, dayEnd);
+                }
+                if(hasBar) {
+                    bars.add(barStart, open, high, low, close, volume);
+                }
+                barStart = nextBarStart;
+                barEnd = nextBarEnd;
+                open = series.open[index];
+                high = series.high[index];
+                low = series.low[index];
+                close = series.close[index];
+                volume = series.volume[index];
+                hasBar = true;
+                continue;
+            }
+            if(Double.isNaN(open)) {
+                open = series.open[index];
+            }
+            high = max(high, series.high[index]);
+            low = min(low, series.low[index]);
+            if(!Double.isNaN(series.close[index])) {
+                close = series.close[index];
+            }
+            volume += series.volume[index];
+        }
+        if(hasBar) {
+            bars.add(barStart, open, high, low, close, volume);
+        }
+        bars.empty = bars.size == 0;
+        bars.trimToSize();
+        return bars;
+    }
+
+    // a daily bar runs until the last session window of its day
+    private long lastWindowEnd(int window) {
+        int last = window;
+        while(last + 1 < windowDays.length && windowDays[last + 1] == windowDays[window]) {
+            last++;
+        }
+        return windowEnds[last];
+    }
+
+    private void addWindows(List<long[]> windows, List<SessionStartEnd> sessionWindows, long day) {
+        if(sessionWindows != null) {
+            for(SessionStartEnd sessionWindow : sessionWindows) {
+                if(sessionWindow.getStart() != null && sessionWindow.getEnd() != null) {
+                    windows.add(new long[] {this.toEpochMilli(sessionWindow.getStart()), this.toEpochMilli(sessionWindow.getEnd()), day});
+                }
+            }
+        }
+    }
+
+    private long toEpochMilli(LocalDateTime localDateTime) {
+        return localDateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private static double max(double current, double value) {
+        return Double.isNaN(current) || value > current ? value : current;
+    }
+
+    private static double min(double current, double value) {
+        return Double.isNaN(current) || value < current ? value : current;
+    }
+}
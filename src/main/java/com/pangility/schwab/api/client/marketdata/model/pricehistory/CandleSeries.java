@@ -0,0 +1,156 @@
+package com.pangility.schwab.api.client.marketdata.model.pricehistory;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Column-wise alternative to the candles of a {@link PriceHistoryResponse}.  Each candle field is
+ * stored in a primitive array indexed by candle, so indicators and backtests can scan millions of
+ * candles without boxing.  The arrays are exactly {@link #size()} long and are returned without
+ * copying.  Prices are NaN and the volume is 0 when Schwab returns no value.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@JsonDeserialize(using = CandleSeriesDeserializer.class)
+public class CandleSeries {
+
+  @ToString.Include
+  @Getter
+  String symbol;
+  @Getter
+  Boolean empty;
+  @Getter
+  BigDecimal previousClose;
+  @Getter
+  Long previousCloseDate;
+
+  int size;
+  @Getter
+  long[] epochMillis = new long[0];
+  @Getter
+  double[] open = new double[0];
+  @Getter
+  double[] high = new double[0];
+  @Getter
+  double[] low = new double[0];
+  @Getter
+  double[] close = new double[0];
+  @Getter
+  long[] volume = new long[0];
+
+  /**
+   * create an empty series, used by the deserializer
+   */
+  CandleSeries() {}
+
+  /**
+   * create a series from the candles of a price history response
+   * @param priceHistoryResponse {@literal @}NotNull {@link PriceHistoryResponse}
+   * @return {@link CandleSeries}
+   */
+  public static CandleSeries of(@NonNull PriceHistoryResponse priceHistoryResponse) {
+    CandleSeries candleSeries = new CandleSeries();
+    candleSeries.symbol = priceHistoryResponse.getSymbol();
+    candleSeries.empty = priceHistoryResponse.getEmpty();
+    candleSeries.previousClose = priceHistoryResponse.getPreviousClose();
+    candleSeries.previousCloseDate = priceHistoryResponse.getPreviousCloseDate();
+    if(priceHistoryResponse.getCandles() != null) {
+      candleSeries.ensureCapacity(priceHistoryResponse.getCandles().size());
+      for(Candle candle : priceHistoryResponse.getCandles()) {
+        candleSeries.add(candle.getDatetime() == null ? 0L : candle.getDatetime(),
+            toDouble(candle.getOpen()), toDouble(candle.getHigh()), toDouble(candle.getLow()), toDouble(candle.getClose()),
+            candle.getVolume() == null ? 0L : candle.getVolume());
+      }
+    }
+    candleSeries.trimToSize();
+    return candleSeries;
+  }
+
+  /**
+   * number of candles in the series
+   * @return int
+   */
+  @ToString.Include
+  public int size() {
+    return size;
+  }
+
+  /**
+   * convert a candle back to the {@link Candle} model
+   * @param index int candle index
+   * @return {@link Candle}
+   */
+  public Candle toCandle(int index) {
+    Candle candle = new Candle();
+    candle.setDatetime(epochMillis[index]);
+    candle.setOpen(toBigDecimal(open[index]));
+    candle.setHigh(toBigDecimal(high[index]));
+    candle.setLow(toBigDecimal(low[index]));
+    candle.setClose(toBigDecimal(close[index]));
+    candle.setVolume(volume[index]);
+    return candle;
+  }
+
+  /**
+   * convert the series back to a {@link PriceHistoryResponse}
+   * @return {@link PriceHistoryResponse}
+   */
+  public PriceHistoryResponse toPriceHistoryResponse() {
+    PriceHistoryResponse priceHistoryResponse = new PriceHistoryResponse();
+    priceHistoryResponse.setSymbol(symbol);
+    priceHistoryResponse.setEmpty(empty);
+    priceHistoryResponse.setPreviousClose(previousClose);
+    priceHistoryResponse.setPreviousCloseDate(previousCloseDate);
+    for(int index = 0; index < size; index++) {
+      priceHistoryResponse.getCandles().add(this.toCandle(index));
+    }
+    return priceHistoryResponse;
+  }
+
+  void add(long datetime, double openPrice, double highPrice, double lowPrice, double closePrice, long candleVolume) {
+    this.ensureCapacity(size + 1);
+    epochMillis[size] = datetime;
+    open[size] = openPrice;
+    high[size] = highPrice;
+    low[size] = lowPrice;
+    close[size] = closePrice;
+    volume[size] = candleVolume;
+    size++;
+  }
+
+  void ensureCapacity(int capacity) {
+    if(capacity > epochMillis.length) {
+      int length = Math.max(capacity, epochMillis.length + (epochMillis.length >> 1) + 16);
+      epochMillis = Arrays.copyOf(epochMillis, length);
+      open = Arrays.copyOf(open, length);
+      high = Arrays.copyOf(high, length);
+      low = Arrays.copyOf(low, length);
+      close = Arrays.copyOf(close, length);
+      volume = Arrays.copyOf(volume, length);
+    }
+  }
+
+  void trimToSize() {
+    if(epochMillis.length != size) {
+      epochMillis = Arrays.copyOf(epochMillis, size);
+      open = Arrays.copyOf(open, size);
+      high = Arrays.copyOf(high, size);
+      low = Arrays.copyOf(low, size);
+      close = Arrays.copyOf(close, size);
+      volume = Arrays.copyOf(volume, size);
+    }
+  }
+
+  private static double toDouble(BigDecimal value) {
+    return value == null ? Double.NaN : value.doubleValue();
+  }
+
+  private static BigDecimal toBigDecimal(double value) {
+    return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+  }
+}
@@ -0,0 +1,144 @@
+package com.pangility.schwab.api.client.marketdata.model.pricehistory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads a price history response straight from the token stream into a {@link CandleSeries},
+ * without creating a {@link Candle} per candle.
+ */
+public class CandleSeriesDeserializer extends JsonDeserializer<CandleSeries> {
+
+  @Override
+  public CandleSeries deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+    CandleSeries series = new CandleSeries();
+    if(jsonParser.currentToken() != JsonToken.START_OBJECT) {
+      return (CandleSeries) context.handleUnexpectedToken(CandleSeries.class, jsonParser);
+    }
+    String fieldName;
+    while((fieldName = jsonParser.nextFieldName()) != null) {
+      JsonToken token = jsonParser.nextToken();
+      if(token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      switch (fieldName) {
+        case "symbol":
+          series.symbol = jsonParser.getText();
+          break;
+        case "empty":
+          series.empty = jsonParser.getValueAsBoolean();
+          break;
+        case "previousClose":
+          series.previousClose = context.readValue(jsonParser, BigDecimal.class);
+          break;
+        case "previousCloseDate":
+          series.previousCloseDate = jsonParser.getValueAsLong();
+          break;
+        case "candles":
+          while(jsonParser.nextToken() == JsonToken.START_OBJECT) {
+            this.readCandle(jsonParser, series);
+          }
+          break;
+        default:
+          jsonParser.skipChildren();
+      }
+    }
+    series.trimToSize();
+    return series;
+  }
+
+  private void readCandle(JsonParser jsonParser, CandleSeries series) throws IOException {
+    long datetime = 0L;
+    double open = Double.NaN;
+    double high = Double.NaN;
+    double low = Double.NaN;
+    double close = Double.NaN;
+    long volume = 0L;
+    String fieldName;
+    while((fieldName = jsonParser.nextFieldName()) != null) {
+      JsonToken token = jsonParser.nextToken();
+      switch (fieldName) {
+        case "datetime":
+          datetime = token.isNumeric() ? jsonParser.getLongValue() : 0L;
+          break;
+        case "open":
+          open = readDouble(jsonParser, token);
+          break;
+        case "high":
+          high = readDouble(jsonParser, token);
+          break;
+        case "low":
+          low = readDouble(jsonParser, token);
+          break;
+        case "close":
+          close = readDouble(jsonParser, token);
+          break;
+        case "volume":
+          volume = token.isNumeric() ? jsonParser.getValueAsLong() : 0L;
+          break;
+        default:
+          jsonParser.skipChildren();
+      }
+    }
+    series.add(datetime, open, high, low, close, volume);
+  }
+
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  // prices like 528.39 are read from the parser's characters without creating a String, the digits and
+  // the power of ten are both exact doubles so a single division is correctly rounded
+  private static double parseDecimal(JsonParser jsonParser) throws IOException {
+    char[] characters = jsonParser.getTextCharacters();
+    int offset = jsonParser.getTextOffset();
+    int end = offset + jsonParser.getTextLength();
+    boolean negative = characters[offset] == '-';
+    long mantissa = 0;
+    int scale = -1;
+    for(int index = negative ? offset + 1 : offset; index < end; index++) {
+      char c = characters[index];
+      if(c == '.' && scale < 0) {
+        scale = 0;
+      } else if(c >= '0' && c <= '9' && mantissa < MAX_EXACT_MANTISSA) {
+        mantissa = mantissa * 10 + (c - '0');
+        if(scale >= 0) {
+          scale++;
+        }
+      } else {
+        // exponents and long mantissas take the exact path
+        return jsonParser.getDoubleValue();
+      }
+    }
+    if(mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+      return jsonParser.getDoubleValue();
+    }
+    double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+    return negative ? -value : value;
+  }
+
+  private static double readDouble(JsonParser jsonParser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT:
+        return jsonParser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parseDecimal(jsonParser);
+      case VALUE_STRING:
+        try {
+          return Double.parseDouble(jsonParser.getText());
+        } catch (NumberFormatException nfe) {
+          return Double.NaN;
+        }
+      default:
+        jsonParser.skipChildren();
+        return Double.NaN;
+    }
+  }
+}
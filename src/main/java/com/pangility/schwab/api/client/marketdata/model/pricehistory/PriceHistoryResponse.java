@@ -11,14 +11,18 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Object used to receive the response from the Schwab API <em>pricehistory</em> endpoint
+ * Object used to receive the response from the Schwab API <em>pricehistory</em> endpoint.
+ * The ISO8601 dates of the response and its candles are computed on first access in the
+ * time zone set with {@link #setZoneId(ZoneId)}, {@link Candle#DEFAULT_ZONE_ID} by default.
  * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
  */
 @Getter
@@ -42,6 +46,42 @@ public class PriceHistoryResponse {
   @JsonDeserialize(using = LocalDateDeserializer.class)
   private LocalDate previousCloseDateISO8601;
   @JsonIgnore
+  @ToString.Exclude
+  private ZoneId zoneId;
+  @JsonIgnore
   @JsonAnySetter
   private Map<String, Object> otherFields = new HashMap<>();
+
+  /**
+   * set the time zone of the ISO8601 dates of the response and its candles
+   * @param zoneId {@link ZoneId} or null for the {@link Candle#DEFAULT_ZONE_ID}
+   */
+  public void setZoneId(ZoneId zoneId) {
+    if(previousCloseDate != null && !this.getZoneId().equals(zoneId == null ? Candle.DEFAULT_ZONE_ID : zoneId)) {
+      previousCloseDateISO8601 = null;
+    }
+    this.zoneId = zoneId;
+    if(candles != null) {
+      candles.forEach(candle -> candle.setZoneId(zoneId));
+    }
+  }
+
+  /**
+   * get the time zone of the ISO8601 dates
+   * @return {@link ZoneId}
+   */
+  public ZoneId getZoneId() {
+    return zoneId == null ? Candle.DEFAULT_ZONE_ID : zoneId;
+  }
+
+  /**
+   * get the previous close date as a local date, computed on first access
+   * @return {@link LocalDate}
+   */
+  public LocalDate getPreviousCloseDateISO8601() {
+    if(previousCloseDateISO8601 == null && previousCloseDate != null) {
+      previousCloseDateISO8601 = Instant.ofEpochMilli(previousCloseDate).atZone(this.getZoneId()).toLocalDate();
+    }
+    return previousCloseDateISO8601;
+  }
 }
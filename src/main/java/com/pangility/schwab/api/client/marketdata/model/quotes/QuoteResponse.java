@@ -43,7 +43,8 @@ import java.util.Map;
 @JsonTypeInfo(
     use = Id.NAME,
     property = "assetMainType",
-    visible = true
+    visible = true,
+    defaultImpl = QuoteResponse.class
 )
 @JsonSubTypes({
     @JsonSubTypes.Type(value = QuoteResponse.EquityResponse.class, name = "EQUITY"),
@@ -33,9 +33,10 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Controller used by the client controllers
@@ -71,9 +72,13 @@ public class SchwabOauth2Controller {
     @Value("${schwab-api.oauth2.clientSecret}")
     private String schwabClientSecret;
 
-    private final HashMap<String, SchwabAccount> accountMapByUserId = new HashMap<>();
+    private final Map<String, SchwabAccount> accountMapByUserId = new ConcurrentHashMap<>();
 
-    private final HashMap<UUID, UuidMapInfo> uuids = new HashMap<>();
+    private final Map<UUID, UuidMapInfo> uuids = new ConcurrentHashMap<>();
+
+    private final Map<String, Mono<SchwabAccount>> pendingRefreshByUserId = new ConcurrentHashMap<>();
+
+    private WebClient tokenWebClient = WebClient.create();
 
     private SchwabTokenHandler tokenHandler = null;
 
@@ -146,6 +151,14 @@ public class SchwabOauth2Controller {
         return accountMapByUserId.get(schwabUserId);
     }
 
+    /**
+     * gets the Schwab account info for every registered user id
+     * @return {@link List}{@literal <}{@link SchwabAccount}{@literal >}
+     */
+    public List<SchwabAccount> getSchwabAccounts() {
+        return List.copyOf(accountMapByUserId.values());
+    }
+
     /**
      * gets the Schwab access token for the user id and retrieves a
      * new one if it's expired.
@@ -185,11 +198,19 @@ public class SchwabOauth2Controller {
     }
 
     /**
-     * refresh the Schwab access token for the account
+     * refresh the Schwab access token for the account. Only one refresh per user id is
+     * sent to the token endpoint at a time; concurrent callers share the pending refresh.
      * @param schwabAccount {@literal @}NotNull {@link SchwabAccount}
      * @return {@link Mono}{@literal <}{@link SchwabAccount}{@literal >}
      */
     public Mono<SchwabAccount> refreshAccessToken(@NonNull SchwabAccount schwabAccount) {
+        return Mono.defer(() -> pendingRefreshByUserId.computeIfAbsent(schwabAccount.getUserId(),
+                userId -> this.requestAccessToken(schwabAccount)
+                        .doOnTerminate(() -> pendingRefreshByUserId.remove(userId))
+                        .cache()));
+    }
+
+    private Mono<SchwabAccount> requestAccessToken(@NonNull SchwabAccount schwabAccount) {
         String tokenAuthorizationHeader = "Basic " + new String(Base64.getMimeEncoder().encode((schwabClientId + ":" + schwabClientSecret).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
 
         URI uri = UriComponentsBuilder.newInstance()
@@ -203,7 +224,7 @@ public class SchwabOauth2Controller {
         bodyValues.add("grant_type", schwabRefreshGrantType);
         bodyValues.add("refresh_token", schwabAccount.getRefreshToken());
 
-        return WebClient.create().post()
+        return tokenWebClient.post()
                 .uri(uri)
                 .header(HttpHeaders.AUTHORIZATION, tokenAuthorizationHeader)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -231,11 +252,7 @@ public class SchwabOauth2Controller {
                 .flatMap(tokenInfo -> {
                     schwabAccount.setAccessToken(tokenInfo.getAccess_token());
                     schwabAccount.setAccessExpiration(LocalDateTime.now().plusSeconds(tokenInfo.getExpires_in()));
-                    if(accountMapByUserId.containsKey(schwabAccount.getUserId())) {
-                        accountMapByUserId.replace(schwabAccount.getUserId(), schwabAccount);
-                    } else {
-                        accountMapByUserId.put(schwabAccount.getUserId(), schwabAccount);
-                    }
+                    accountMapByUserId.put(schwabAccount.getUserId(), schwabAccount);
                     if(tokenHandler != null) {
                         tokenHandler.onAccessTokenChange(schwabAccount);
                     }
@@ -274,8 +291,8 @@ public class SchwabOauth2Controller {
                             @RequestParam String state) {
         String tokenAuthorizationHeader = "Basic " + new String(Base64.getMimeEncoder().encode((schwabClientId + ":" + schwabClientSecret).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
         UUID paramUuid = UUID.fromString(state);
-        if (uuids.containsKey(paramUuid)) {
-            UuidMapInfo uuidMapInfo = uuids.get(paramUuid);
+        UuidMapInfo uuidMapInfo = uuids.get(paramUuid);
+        if (uuidMapInfo != null) {
             String schwabUserId = uuidMapInfo.getUserId();
             String callback = uuidMapInfo.getCallback();
 
@@ -293,7 +310,7 @@ public class SchwabOauth2Controller {
             bodyValues.add("client_id", schwabClientId);
             bodyValues.add("redirect_uri", schwabRedirectUri);
 
-            return WebClient.create().post()
+            return tokenWebClient.post()
                     .uri(uri)
                     .header(HttpHeaders.AUTHORIZATION, tokenAuthorizationHeader)
                     .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -309,30 +326,20 @@ public class SchwabOauth2Controller {
                     })
                     .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)))
                     .flatMap(tokenInfo -> {
-                        SchwabAccount schwabAccount;
-                        if(!accountMapByUserId.containsKey(schwabUserId)) {
+                        SchwabAccount schwabAccount = accountMapByUserId.get(schwabUserId);
+                        if(schwabAccount == null) {
                             schwabAccount = new SchwabAccount();
                             schwabAccount.setUserId(schwabUserId);
-                        } else {
-                            schwabAccount = accountMapByUserId.get(schwabUserId);
                         }
-                        if(schwabAccount != null) {
-                            schwabAccount.setRefreshToken(tokenInfo.getRefresh_token());
-                            schwabAccount.setRefreshExpiration(LocalDateTime.now().plusDays(7));
-                            schwabAccount.setAccessToken(tokenInfo.getAccess_token());
-                            schwabAccount.setAccessExpiration(LocalDateTime.now().plusSeconds(tokenInfo.getExpires_in()));
-                            if(accountMapByUserId.containsKey(schwabUserId)) {
-                                accountMapByUserId.replace(schwabUserId, schwabAccount);
-                            } else {
-                                accountMapByUserId.put(schwabUserId, schwabAccount);
-                            }
-                            if(tokenHandler != null) {
-                                tokenHandler.onRefreshTokenChange(schwabAccount);
-                            }
-                            return Mono.just(new RedirectView(callback));
-                        } else {
-                            return Mono.error(new RefreshTokenException("Unable to retrieve refresh token", null));
+                        schwabAccount.setRefreshToken(tokenInfo.getRefresh_token());
+                        schwabAccount.setRefreshExpiration(LocalDateTime.now().plusDays(7));
+                        schwabAccount.setAccessToken(tokenInfo.getAccess_token());
+                        schwabAccount.setAccessExpiration(LocalDateTime.now().plusSeconds(tokenInfo.getExpires_in()));
+                        accountMapByUserId.put(schwabUserId, schwabAccount);
+                        if(tokenHandler != null) {
+                            tokenHandler.onRefreshTokenChange(schwabAccount);
                         }
+                        return Mono.just(new RedirectView(callback));
                     })
                     .onErrorResume(e -> {
                         if(e instanceof WebClientResponseException wcre) {
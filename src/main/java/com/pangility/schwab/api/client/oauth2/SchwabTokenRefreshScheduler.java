@@ -0,0 +1,184 @@
+package com.pangility.schwab.api.client.oauth2;
+
+import com.pangility.schwab.api.client.common.OnApiEnabledCondition;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional scheduler that refreshes the access token of every account registered
+ * with the {@link SchwabOauth2Controller} before it expires, so API calls never
+ * wait on the token endpoint.  The scheduler is disabled unless
+ * {@code schwab-api.oauth2.backgroundRefresh.enabled=true}.  Token changes are
+ * reported through the {@link SchwabTokenHandler} passed to the controller.
+ */
+@Slf4j
+@Component
+@Conditional(OnApiEnabledCondition.class)
+public class SchwabTokenRefreshScheduler {
+
+    @Value("${schwab-api.oauth2.backgroundRefresh.enabled}")
+    private Boolean enabled;
+    @Value("${schwab-api.oauth2.backgroundRefresh.interval}")
+    private Duration interval;
+    @Value("${schwab-api.oauth2.backgroundRefresh.leadTime}")
+    private Duration leadTime;
+    @Value("${schwab-api.oauth2.backgroundRefresh.jitter}")
+    private Duration jitter;
+
+    @Autowired
+    private SchwabOauth2Controller schwabOauth2Controller;
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong lastLeadTimeMillis = new AtomicLong(-1);
+    private final AtomicLong minLeadTimeMillis = new AtomicLong(Long.MAX_VALUE);
+    private final Map<String, RefreshDeadline> refreshDeadlines = new ConcurrentHashMap<>();
+
+    private Disposable schedule = null;
+
+    /**
+     * start the scheduler if it's enabled
+     */
+    @PostConstruct
+    public void start() {
+        if(Boolean.TRUE.equals(enabled) && schedule == null) {
+            log.info("Starting background token refresh every {} with a lead time of {}", interval, leadTime);
+            schedule = Flux.interval(interval, interval)
+                    .onBackpressureDrop()
+                    // a failing tick is logged and the next one runs as usual
+                    .concatMap(tick -> Mono.defer(this::refreshDueAccounts)
+                            .onErrorResume(e -> {
+                                log.warn("Background token refresh failed: {}", e.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe(unused -> {}, e -> log.error("Background token refresh stopped: {}", e.getMessage()));
+        }
+    }
+
+    /**
+     * stop the scheduler
+     */
+    @PreDestroy
+    public void stop() {
+        if(schedule != null) {
+            schedule.dispose();
+            schedule = null;
+        }
+    }
+
+    /**
+     * is the scheduler running
+     * @return Boolean
+     */
+    public Boolean isRunning() {
+        return schedule != null && !schedule.isDisposed();
+    }
+
+    /**
+     * refresh the access token of every account that expires within the lead time
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> refreshDueAccounts() {
+        return Flux.fromIterable(schwabOauth2Controller.getSchwabAccounts())
+                .filter(this::isRefreshDue)
+                .flatMap(this::refreshAccount)
+                .then();
+    }
+
+    /**
+     * number of successful background refreshes
+     * @return long
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * number of failed background refreshes
+     * @return long
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * time remaining on the access token when it was last refreshed
+     * @return {@link Duration} or null if no refresh has happened yet
+     */
+    public Duration getLastLeadTime() {
+        long millis = lastLeadTimeMillis.get();
+        return millis < 0 ? null : Duration.ofMillis(millis);
+    }
+
+    /**
+     * shortest time remaining on an access token when it was refreshed
+     * @return {@link Duration} or null if no refresh has happened yet
+     */
+    public Duration getMinLeadTime() {
+        long millis = minLeadTimeMillis.get();
+        return millis == Long.MAX_VALUE ? null : Duration.ofMillis(millis);
+    }
+
+    private boolean isRefreshDue(@NonNull SchwabAccount schwabAccount) {
+        if(schwabAccount.getRefreshToken() == null) {
+            return false;
+        }
+        LocalDateTime accessExpiration = schwabAccount.getAccessExpiration();
+        if(schwabAccount.getAccessToken() == null || accessExpiration == null) {
+            return true;
+        }
+        // the jitter is drawn once per access token, so the refreshes of the accounts stay spread out
+        RefreshDeadline refreshDeadline = refreshDeadlines.compute(schwabAccount.getUserId(), (userId, deadline) ->
+                deadline != null && deadline.accessExpiration.equals(accessExpiration) ? deadline : new RefreshDeadline(accessExpiration,
+                        accessExpiration.minus(leadTime).minusNanos(this.nextJitterMillis() * 1_000_000)));
+        return LocalDateTime.now().isAfter(refreshDeadline.refreshAt);
+    }
+
+    private long nextJitterMillis() {
+        return jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+    }
+
+    private Mono<SchwabAccount> refreshAccount(@NonNull SchwabAccount schwabAccount) {
+        LocalDateTime accessExpiration = schwabAccount.getAccessExpiration();
+        Duration remaining = accessExpiration == null ? Duration.ZERO : Duration.between(LocalDateTime.now(), accessExpiration);
+        return schwabOauth2Controller.validateRefreshTokenToMono(schwabAccount)
+                .flatMap(validatedSchwabAccount -> schwabOauth2Controller.refreshAccessToken(validatedSchwabAccount))
+                .doOnNext(refreshedSchwabAccount -> {
+                    long leadMillis = Math.max(remaining.toMillis(), 0);
+                    refreshCount.incrementAndGet();
+                    lastLeadTimeMillis.set(leadMillis);
+                    minLeadTimeMillis.accumulateAndGet(leadMillis, Math::min);
+                })
+                .onErrorResume(e -> {
+                    failureCount.incrementAndGet();
+                    log.warn("Background token refresh failed for {}: {}", schwabAccount.getUserId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static class RefreshDeadline {
+        private final LocalDateTime accessExpiration;
+        private final LocalDateTime refreshAt;
+
+        RefreshDeadline(@NonNull LocalDateTime accessExpiration, @NonNull LocalDateTime refreshAt) {
+            this.accessExpiration = accessExpiration;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
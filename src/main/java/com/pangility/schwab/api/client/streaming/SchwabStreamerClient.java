@@ -0,0 +1,115 @@
+package com.pangility.schwab.api.client.streaming;
+
+import com.pangility.schwab.api.client.accountsandtrading.model.userpreference.StreamerInfo;
+import com.pangility.schwab.api.client.accountsandtrading.model.userpreference.UserPreferenceResponse;
+import com.pangility.schwab.api.client.common.SchwabBaseApiClient;
+import com.pangility.schwab.api.client.common.SchwabWebClient;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client for the Schwab streamer API.
+ * Use {@code @Autowire} to create the component in any class annotated with
+ * {@literal @}EnableSchwabMarketDataApi, {@literal @}EnableSchwabAccountsAndTradingApi or {@literal @}EnableSchwabApi
+ */
+@Service
+@ConditionalOnResource(resources = {"classpath:schwabapiclient.properties"})
+@Slf4j
+public class SchwabStreamerClient extends SchwabBaseApiClient {
+
+    @Value("${schwab-api.traderPath}")
+    private String schwabTraderPath;
+    @Value("${schwab-api.streamer.heartbeatTimeout}")
+    private Duration streamerHeartbeatTimeout;
+    @Value("${schwab-api.streamer.commandTimeout}")
+    private Duration streamerCommandTimeout;
+    @Value("${schwab-api.streamer.reconnect.initialBackoff}")
+    private Duration streamerReconnectInitialBackoff;
+    @Value("${schwab-api.streamer.reconnect.maxBackoff}")
+    private Duration streamerReconnectMaxBackoff;
+    @Value("${schwab-api.streamer.reconnect.maxAttempts}")
+    private Integer streamerReconnectMaxAttempts;
+
+    private final Map<String, SchwabStreamerSession> sessions = new ConcurrentHashMap<>();
+    private WebSocketClient webSocketClient = null;
+
+    /**
+     * fetch the streamer connection information of the user
+     * @param schwabUserId the Charles Schwab user id of the account to be used for API authentication
+     * @return {@link Mono}{@literal <}{@link StreamerInfo}{@literal >}
+     */
+    public Mono<StreamerInfo> fetchStreamerInfoToMono(@NonNull String schwabUserId) {
+        log.info("Fetch Streamer Info");
+
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.newInstance()
+                .pathSegment(schwabTraderPath, schwabApiVersion, "userPreference");
+        return this.callGetApiToMono(schwabUserId, uriBuilder, UserPreferenceResponse.class)
+                .flatMap(userPreferenceResponse -> {
+                    if(userPreferenceResponse.getStreamerInfo() != null && !userPreferenceResponse.getStreamerInfo().isEmpty()) {
+                        return Mono.just(userPreferenceResponse.getStreamerInfo().get(0));
+                    } else {
+                        return Mono.error(new StreamerException("Streamer info not found for user '" + schwabUserId + "'"));
+                    }
+                });
+    }
+
+    /**
+     * get the streamer session of the user, creating it on first use.  The session connects
+     * when {@link SchwabStreamerSession#connect} is called or the first subscription is made.
+     * @param schwabUserId the Charles Schwab user id of the account to be used for API authentication
+     * @return {@link SchwabStreamerSession}
+     */
+    public SchwabStreamerSession getSession(@NonNull String schwabUserId) {
+        return sessions.computeIfAbsent(schwabUserId, userId -> new SchwabStreamerSession(
+                () -> this.fetchStreamerInfoToMono(userId),
+                () -> this.getAccessTokenToMono(userId),
+                this.getObjectMapper(),
+                this.getWebSocketClient(),
+                streamerHeartbeatTimeout,
+                streamerCommandTimeout,
+                streamerReconnectInitialBackoff,
+                streamerReconnectMaxBackoff,
+                streamerReconnectMaxAttempts));
+    }
+
+    /**
+     * close the streamer session of the user
+     * @param schwabUserId the Charles Schwab user id of the account to be used for API authentication
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> closeSession(@NonNull String schwabUserId) {
+        SchwabStreamerSession session = sessions.remove(schwabUserId);
+        return session == null ? Mono.empty() : session.close();
+    }
+
+    @PreDestroy
+    private void closeSessions() {
+        Flux.fromIterable(sessions.keySet())
+                .flatMap(this::closeSession)
+                .then()
+                .block(streamerCommandTimeout);
+    }
+
+    private synchronized WebSocketClient getWebSocketClient() {
+        if(webSocketClient == null) {
+            webSocketClient = new ReactorNettyWebSocketClient(HttpClient.create(),
+                    () -> WebsocketClientSpec.builder().maxFramePayloadLength(SchwabWebClient.MAX_IN_MEMORY_SIZE));
+        }
+        return webSocketClient;
+    }
+}
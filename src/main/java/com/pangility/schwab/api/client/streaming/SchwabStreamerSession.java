@@ -0,0 +1,606 @@
+package com.pangility.schwab.api.client.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pangility.schwab.api.client.accountsandtrading.model.userpreference.StreamerInfo;
+import com.pangility.schwab.api.client.streaming.model.AccountActivity;
+import com.pangility.schwab.api.client.streaming.model.ChartEquity;
+import com.pangility.schwab.api.client.streaming.model.LevelOneEquity;
+import com.pangility.schwab.api.client.streaming.model.LevelOneFuture;
+import com.pangility.schwab.api.client.streaming.model.LevelOneOption;
+import com.pangility.schwab.api.client.streaming.model.StreamerCommand;
+import com.pangility.schwab.api.client.streaming.model.StreamerContent;
+import com.pangility.schwab.api.client.streaming.model.StreamerMessage;
+import com.pangility.schwab.api.client.streaming.model.StreamerRequest;
+import com.pangility.schwab.api.client.streaming.model.StreamerResponse;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A connection to the Schwab streamer for one user.  {@link #connect} opens the WebSocket found in the
+ * user preferences and logs in with the access token.  The subscriptions made with {@link #subscribe},
+ * {@link #add} and {@link #unsubscribe} are kept by the session, and when the connection is lost, or no
+ * message or heartbeat arrives within the heartbeat timeout, the session reconnects with an exponential
+ * backoff, logs in again and subscribes to the same keys again.
+ * </p>
+ * <p>
+ * The data of each service is published on a hot {@link Flux}, like {@link #levelOneEquities}, shared by
+ * every subscriber and kept across reconnects.  The streams complete when the session is closed and
+ * error when it cannot reconnect.
+ * </p>
+ * <p>
+ * For large watchlists {@link #records} decodes the updates straight from the message bytes into one
+ * reusable {@link StreamerRecord} per key instead, and the content classes are then only read for the
+ * services someone streams.
+ * </p>
+ */
+@Slf4j
+public class SchwabStreamerSession {
+
+    private static final List<StreamerService> DATA_SERVICES = List.of(StreamerService.LEVELONE_EQUITIES,
+            StreamerService.LEVELONE_OPTIONS, StreamerService.LEVELONE_FUTURES, StreamerService.CHART_EQUITY,
+            StreamerService.ACCT_ACTIVITY);
+
+    private final Supplier<Mono<StreamerInfo>> streamerInfoSupplier;
+    private final Supplier<Mono<String>> accessTokenSupplier;
+    private final WebSocketClient webSocketClient;
+    private final Duration heartbeatTimeout;
+    private final Duration commandTimeout;
+    private final Retry reconnectRetry;
+
+    private final ObjectReader messageReader;
+    private final ObjectWriter requestWriter;
+    private final Map<StreamerService, ObjectReader> contentReaders = new EnumMap<>(StreamerService.class);
+    private final Map<StreamerService, Sinks.Many<StreamerContent>> dataSinks = new EnumMap<>(StreamerService.class);
+    private final Sinks.Many<StreamerResponse> responseSink = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<Boolean> loggedInState = Sinks.many().replay().latest();
+
+    // the keys and fields subscribed for each service, subscribed again after every login
+    private final Map<StreamerService, Subscription> subscriptions = new EnumMap<>(StreamerService.class);
+    private final Map<String, Sinks.One<StreamerResponse>> pendingResponses = new ConcurrentHashMap<>();
+    private final Map<StreamerService, RecordListeners> recordListeners = new ConcurrentHashMap<>();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    private volatile Connection connection = null;
+    private volatile boolean closing = false;
+    private Disposable connectionLoop = null;
+
+    /**
+     * create a session, which does not connect until {@link #connect} or a subscription is made
+     * @param streamerInfoSupplier {@literal @}NotNull {@link Supplier} of the {@link StreamerInfo} of the user,
+     *                             called before each connection
+     * @param accessTokenSupplier {@literal @}NotNull {@link Supplier} of a valid access token, called before each login
+     * @param objectMapper {@literal @}NotNull {@link ObjectMapper} used to read and write the messages
+     * @param webSocketClient {@literal @}NotNull {@link WebSocketClient}
+     * @param heartbeatTimeout {@literal @}NotNull {@link Duration} without any message after which the connection is
+     *                         considered lost
+     * @param commandTimeout {@literal @}NotNull {@link Duration} to wait for the response to a command
+     * @param reconnectInitialBackoff {@literal @}NotNull {@link Duration} before the first reconnect attempt
+     * @param reconnectMaxBackoff {@literal @}NotNull {@link Duration} the longest wait between reconnect attempts
+     * @param reconnectMaxAttempts int the most reconnect attempts in a row before the session fails
+     */
+    public SchwabStreamerSession(@NonNull Supplier<Mono<StreamerInfo>> streamerInfoSupplier,
+                                 @NonNull Supplier<Mono<String>> accessTokenSupplier,
+                                 @NonNull ObjectMapper objectMapper,
+                                 @NonNull WebSocketClient webSocketClient,
+                                 @NonNull Duration heartbeatTimeout,
+                                 @NonNull Duration commandTimeout,
+                                 @NonNull Duration reconnectInitialBackoff,
+                                 @NonNull Duration reconnectMaxBackoff,
+                                 int reconnectMaxAttempts) {
+        this.streamerInfoSupplier = streamerInfoSupplier;
+        this.accessTokenSupplier = accessTokenSupplier;
+        this.webSocketClient = webSocketClient;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.commandTimeout = commandTimeout;
+        // the attempts start over once a connection has logged in
+        this.reconnectRetry = Retry.backoff(Math.max(0, reconnectMaxAttempts), reconnectInitialBackoff)
+                .maxBackoff(reconnectMaxBackoff)
+                .transientErrors(true)
+                .filter(throwable -> !closing)
+                .doBeforeRetry(retrySignal -> log.warn("Streamer -> reconnecting after: {}", retrySignal.failure().toString()));
+
+        this.messageReader = objectMapper.readerFor(StreamerMessage.class);
+        this.requestWriter = objectMapper.writer();
+        contentReaders.put(StreamerService.LEVELONE_EQUITIES, objectMapper.readerFor(LevelOneEquity.class));
+        contentReaders.put(StreamerService.LEVELONE_OPTIONS, objectMapper.readerFor(LevelOneOption.class));
+        contentReaders.put(StreamerService.LEVELONE_FUTURES, objectMapper.readerFor(LevelOneFuture.class));
+        contentReaders.put(StreamerService.CHART_EQUITY, objectMapper.readerFor(ChartEquity.class));
+        contentReaders.put(StreamerService.ACCT_ACTIVITY, objectMapper.readerFor(AccountActivity.class));
+        DATA_SERVICES.forEach(service -> dataSinks.put(service, Sinks.many().multicast().directBestEffort()));
+    }
+
+    /**
+     * connect and log in, unless the session is already connected
+     * @return {@link Mono}{@literal <}Void{@literal >} completing once logged in
+     */
+    public Mono<Void> connect() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if(closing) {
+                    return Mono.error(new StreamerException("Streamer session is closed"));
+                }
+                if(connectionLoop == null) {
+                    connectionLoop = Flux.defer(this::connectOnce)
+                            .concatWith(Mono.defer(() -> closing ? Mono.empty()
+                                    : Mono.error(new StreamerException("Streamer connection closed"))))
+                            .retryWhen(reconnectRetry)
+                            .subscribe(loggedIn -> loggedInState.tryEmitNext(true), this::fail, this::complete);
+                }
+            }
+            return loggedInState.asFlux()
+                    .filter(Boolean::booleanValue)
+                    .next()
+                    .switchIfEmpty(Mono.error(new StreamerException("Streamer session is closed")))
+                    .then();
+        });
+    }
+
+    /**
+     * check if the session is connected and logged in
+     * @return boolean
+     */
+    public boolean isConnected() {
+        return connection != null;
+    }
+
+    /**
+     * log out and close the connection, completing the data streams
+     * @return {@link Mono}{@literal <}Void{@literal >}
+     */
+    public Mono<Void> close() {
+        return Mono.defer(() -> {
+            closing = true;
+            Connection current = connection;
+            Mono<Void> logout = current == null ? Mono.empty()
+                    : this.send(current, StreamerService.ADMIN, StreamerCommand.LOGOUT, Collections.emptyMap())
+                        .onErrorResume(throwable -> Mono.empty())
+                        .then();
+            return logout.doFinally(signalType -> {
+                synchronized (this) {
+                    if(connectionLoop != null) {
+                        connectionLoop.dispose();
+                    }
+                }
+                this.complete();
+            });
+        });
+    }
+
+    /**
+     * subscribe to keys of a service, replacing the keys already subscribed for it
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @param keys {@literal @}NotNull {@link Collection}{@literal <}String{@literal >} like symbols
+     * @param fields {@literal @}NotNull String comma separated field numbers, like {@link LevelOneEquity#ALL_FIELDS}
+     * @return {@link Mono}{@literal <}{@link StreamerResponse}{@literal >}
+     */
+    public Mono<StreamerResponse> subscribe(@NonNull StreamerService service,
+                                            @NonNull Collection<String> keys,
+                                            @NonNull String fields) {
+        this.checkDataService(service);
+        return this.command(service, StreamerCommand.SUBS, this.parameters(keys, fields), () ->
+                subscriptions.put(service, new Subscription(new LinkedHashSet<>(keys), fields)));
+    }
+
+    /**
+     * add keys to the keys subscribed for a service
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @param keys {@literal @}NotNull {@link Collection}{@literal <}String{@literal >} like symbols
+     * @param fields {@literal @}NotNull String comma separated field numbers, which replace the fields of the service
+     * @return {@link Mono}{@literal <}{@link StreamerResponse}{@literal >}
+     */
+    public Mono<StreamerResponse> add(@NonNull StreamerService service,
+                                      @NonNull Collection<String> keys,
+                                      @NonNull String fields) {
+        this.checkDataService(service);
+        return this.command(service, StreamerCommand.ADD, this.parameters(keys, fields), () -> {
+            Subscription subscription = subscriptions.get(service);
+            Set<String> subscribedKeys = subscription == null ? new LinkedHashSet<>() : new LinkedHashSet<>(subscription.keys);
+            subscribedKeys.addAll(keys);
+            subscriptions.put(service, new Subscription(subscribedKeys, fields));
+        });
+    }
+
+    /**
+     * remove keys from the keys subscribed for a service
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @param keys {@literal @}NotNull {@link Collection}{@literal <}String{@literal >} like symbols
+     * @return {@link Mono}{@literal <}{@link StreamerResponse}{@literal >}
+     */
+    public Mono<StreamerResponse> unsubscribe(@NonNull StreamerService service,
+                                              @NonNull Collection<String> keys) {
+        this.checkDataService(service);
+        return this.command(service, StreamerCommand.UNSUBS, this.parameters(keys, null), () -> {
+            Subscription subscription = subscriptions.get(service);
+            if(subscription != null) {
+                Set<String> subscribedKeys = new LinkedHashSet<>(subscription.keys);
+                subscribedKeys.removeAll(keys);
+                if(subscribedKeys.isEmpty()) {
+                    subscriptions.remove(service);
+                } else {
+                    subscriptions.put(service, new Subscription(subscribedKeys, subscription.fields));
+                }
+            }
+        });
+    }
+
+    /**
+     * get the keys subscribed for a service
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @return {@link Set}{@literal <}String{@literal >}
+     */
+    public Set<String> getSubscribedKeys(@NonNull StreamerService service) {
+        synchronized (subscriptions) {
+            Subscription subscription = subscriptions.get(service);
+            return subscription == null ? Collections.emptySet() : Collections.unmodifiableSet(subscription.keys);
+        }
+    }
+
+    /**
+     * stream the level one equity updates of the subscribed keys
+     * @return {@link Flux}{@literal <}{@link LevelOneEquity}{@literal >}
+     */
+    public Flux<LevelOneEquity> levelOneEquities() {
+        return this.data(StreamerService.LEVELONE_EQUITIES, LevelOneEquity.class);
+    }
+
+    /**
+     * stream the level one option updates of the subscribed keys
+     * @return {@link Flux}{@literal <}{@link LevelOneOption}{@literal >}
+     */
+    public Flux<LevelOneOption> levelOneOptions() {
+        return this.data(StreamerService.LEVELONE_OPTIONS, LevelOneOption.class);
+    }
+
+    /**
+     * stream the level one future updates of the subscribed keys
+     * @return {@link Flux}{@literal <}{@link LevelOneFuture}{@literal >}
+     */
+    public Flux<LevelOneFuture> levelOneFutures() {
+        return this.data(StreamerService.LEVELONE_FUTURES, LevelOneFuture.class);
+    }
+
+    /**
+     * stream the one minute equity candles of the subscribed keys
+     * @return {@link Flux}{@literal <}{@link ChartEquity}{@literal >}
+     */
+    public Flux<ChartEquity> chartEquities() {
+        return this.data(StreamerService.CHART_EQUITY, ChartEquity.class);
+    }
+
+    /**
+     * stream the order and account activity of every account of the user, once subscribed to
+     * {@link StreamerService#ACCT_ACTIVITY} with {@link AccountActivity#SUBSCRIPTION_KEY}
+     * @return {@link Flux}{@literal <}{@link AccountActivity}{@literal >}
+     */
+    public Flux<AccountActivity> accountActivities() {
+        return this.data(StreamerService.ACCT_ACTIVITY, AccountActivity.class);
+    }
+
+    /**
+     * stream the responses to every command, including the ones sent again after a reconnect
+     * @return {@link Flux}{@literal <}{@link StreamerResponse}{@literal >}
+     */
+    public Flux<StreamerResponse> responses() {
+        return responseSink.asFlux();
+    }
+
+    /**
+     * listen to the updates of a service decoded into reusable {@link StreamerRecord}s, one per key, which
+     * allocates nothing per update.  The listener is called on the thread reading the connection with the
+     * record of each update, and must copy what it needs out of the record before returning.
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @param listener {@literal @}NotNull {@link StreamerRecordListener}
+     * @return {@link Disposable} removing the listener
+     */
+    public Disposable records(@NonNull StreamerService service, @NonNull StreamerRecordListener listener) {
+        this.checkDataService(service);
+        RecordListeners listeners = recordListeners.computeIfAbsent(service, RecordListeners::new);
+        listeners.listeners.add(listener);
+        return () -> listeners.listeners.remove(listener);
+    }
+
+    private <T extends StreamerContent> Flux<T> data(StreamerService service, Class<T> contentClass) {
+        return dataSinks.get(service).asFlux().cast(contentClass);
+    }
+
+    // one connection, emitting once it is logged in and completing when the socket closes
+    private Flux<Boolean> connectOnce() {
+        return Mono.zip(streamerInfoSupplier.get(), accessTokenSupplier.get())
+                .switchIfEmpty(Mono.error(new StreamerException("Streamer info or access token not found")))
+                .flatMapMany(streamerInfoAndToken -> {
+                    StreamerInfo streamerInfo = streamerInfoAndToken.getT1();
+                    Connection newConnection = new Connection(streamerInfo);
+                    Sinks.Many<Boolean> loggedIn = Sinks.many().unicast().onBackpressureBuffer();
+                    log.info("Streamer -> connecting to {}", streamerInfo.getStreamerSocketUrl());
+                    Mono<Void> socket = webSocketClient.execute(URI.create(streamerInfo.getStreamerSocketUrl()), session -> {
+                        this.sendLogin(newConnection, streamerInfoAndToken.getT2());
+                        Mono<Void> outbound = session.send(newConnection.outbound.asFlux().map(session::textMessage));
+                        Mono<Void> inbound = session.receive()
+                                .timeout(heartbeatTimeout)
+                                .concatMap(message -> this.handle(newConnection, message, loggedIn))
+                                .then();
+                        return Mono.firstWithSignal(inbound, outbound);
+                    });
+                    return Flux.merge(loggedIn.asFlux(),
+                                    socket.doFinally(signalType -> loggedIn.tryEmitComplete()).then(Mono.<Boolean>empty()))
+                            .doFinally(signalType -> this.disconnected(newConnection));
+                });
+    }
+
+    // data messages are decoded into the records, and read into the content classes only when those are streamed
+    private Mono<Void> handle(Connection current, WebSocketMessage webSocketMessage, Sinks.Many<Boolean> loggedIn) {
+        DataBuffer payload = webSocketMessage.getPayload();
+        if(StreamerFieldDecoder.isDataMessage(payload)) {
+            recordListeners.values().forEach(listeners -> listeners.decode(payload));
+            if(!this.hasDataSubscribers(payload)) {
+                return Mono.empty();
+            }
+        }
+        return this.handle(current, webSocketMessage.getPayloadAsText(), loggedIn);
+    }
+
+    private Mono<Void> handle(Connection current, String text, Sinks.Many<Boolean> loggedIn) {
+        StreamerMessage message;
+        try {
+            message = messageReader.readValue(text);
+        } catch (IOException e) {
+            log.warn("Streamer -> unable to read message: {}", e.getMessage());
+            return Mono.empty();
+        }
+        if(message.getResponse() != null) {
+            for(StreamerResponse response : message.getResponse()) {
+                Integer code = response.getContent() == null ? null : response.getContent().getCode();
+                if(StreamerService.ADMIN.name().equals(response.getService())
+                        && StreamerCommand.LOGIN.name().equals(response.getCommand())) {
+                    if(code == null || code != 0) {
+                        return Mono.error(new StreamerException("Streamer login failed: " + this.responseMessage(response), code));
+                    }
+                    log.info("Streamer -> logged in");
+                    connection = current;
+                    this.resubscribe(current);
+                    loggedIn.tryEmitNext(true);
+                }
+                Sinks.One<StreamerResponse> pendingResponse = pendingResponses.remove(current.id + ":" + response.getRequestId());
+                if(pendingResponse != null) {
+                    pendingResponse.tryEmitValue(response);
+                }
+                responseSink.tryEmitNext(response);
+            }
+        }
+        if(message.getData() != null) {
+            for(StreamerMessage.Data data : message.getData()) {
+                this.publish(data);
+            }
+        }
+        return Mono.empty();
+    }
+
+    private void publish(StreamerMessage.Data data) {
+        StreamerService service;
+        try {
+            service = StreamerService.valueOf(data.getService());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.debug("Streamer -> ignoring data of service {}", data.getService());
+            return;
+        }
+        Sinks.Many<StreamerContent> dataSink = dataSinks.get(service);
+        ObjectReader contentReader = contentReaders.get(service);
+        if(dataSink != null && contentReader != null && data.getContent() != null) {
+            for(JsonNode content : data.getContent()) {
+                try {
+                    dataSink.tryEmitNext(contentReader.readValue(content));
+                } catch (IOException e) {
+                    log.warn("Streamer -> unable to read {} content: {}", service, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void sendLogin(Connection current, String accessToken) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("Authorization", accessToken);
+        parameters.put("SchwabClientChannel", current.streamerInfo.getSchwabClientChannel());
+        parameters.put("SchwabClientFunctionId", current.streamerInfo.getSchwabClientFunctionId());
+        this.write(current, this.request(current, StreamerService.ADMIN, StreamerCommand.LOGIN, parameters));
+    }
+
+    private void resubscribe(Connection current) {
+        Map<StreamerService, Subscription> subscribed;
+        synchronized (subscriptions) {
+            subscribed = new EnumMap<>(StreamerService.class);
+            subscribed.putAll(subscriptions);
+        }
+        subscribed.forEach((service, subscription) ->
+                this.send(current, service, StreamerCommand.SUBS, this.parameters(subscription.keys, subscription.fields))
+                        .subscribe(response -> log.info("Streamer -> subscribed {} to {} keys", service, subscription.keys.size()),
+                                throwable -> log.warn("Streamer -> unable to subscribe {}: {}", service, throwable.toString())));
+    }
+
+    // the subscriptions change when the command is sent, so a command waiting for a login is not
+    // also sent by the resubscription of that login
+    private Mono<StreamerResponse> command(StreamerService service,
+                                           StreamerCommand command,
+                                           Map<String, String> parameters,
+                                           Runnable updateSubscriptions) {
+        return this.connect()
+                .then(Mono.defer(() -> {
+                    Connection current = connection;
+                    if(current == null) {
+                        return Mono.error(new StreamerException("Streamer connection lost before " + service + " " + command));
+                    }
+                    synchronized (subscriptions) {
+                        updateSubscriptions.run();
+                    }
+                    return this.send(current, service, command, parameters);
+                }));
+    }
+
+    private Mono<StreamerResponse> send(Connection current, StreamerService service, StreamerCommand command, Map<String, String> parameters) {
+        return Mono.defer(() -> {
+            StreamerRequest request = this.request(current, service, command, parameters);
+            String pendingKey = current.id + ":" + request.getRequestId();
+            Sinks.One<StreamerResponse> pendingResponse = Sinks.one();
+            pendingResponses.put(pendingKey, pendingResponse);
+            this.write(current, request);
+            return pendingResponse.asMono()
+                    .timeout(commandTimeout, Mono.error(new StreamerException("No response to " + service + " " + command)))
+                    .flatMap(response -> {
+                        Integer code = response.getContent() == null ? null : response.getContent().getCode();
+                        return code == null || code == 0 ? Mono.just(response)
+                                : Mono.error(new StreamerException(service + " " + command + " failed: " + this.responseMessage(response), code));
+                    })
+                    .doFinally(signalType -> pendingResponses.remove(pendingKey));
+        });
+    }
+
+    private StreamerRequest request(Connection current, StreamerService service, StreamerCommand command, Map<String, String> parameters) {
+        return StreamerRequest.builder()
+                .withService(service)
+                .withRequestId(String.valueOf(requestIds.incrementAndGet()))
+                .withCommand(command)
+                .withSchwabClientCustomerId(current.streamerInfo.getSchwabClientCustomerId())
+                .withSchwabClientCorrelId(current.streamerInfo.getSchwabClientCorrelId())
+                .withParameters(parameters)
+                .build();
+    }
+
+    private void write(Connection current, StreamerRequest request) {
+        String text;
+        try {
+            text = requestWriter.writeValueAsString(Map.of("requests", List.of(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write streamer request", e);
+        }
+        current.outbound.emitNext(text, Sinks.EmitFailureHandler.busyLooping(commandTimeout));
+    }
+
+    private Map<String, String> parameters(Collection<String> keys, String fields) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("keys", String.join(",", keys));
+        if(fields != null) {
+            parameters.put("fields", fields);
+        }
+        return parameters;
+    }
+
+    private String responseMessage(StreamerResponse response) {
+        return response.getContent() == null ? "no content" : response.getContent().getCode() + " " + response.getContent().getMsg();
+    }
+
+    private boolean hasDataSubscribers(DataBuffer payload) {
+        for(Map.Entry<StreamerService, Sinks.Many<StreamerContent>> dataSink : dataSinks.entrySet()) {
+            if(dataSink.getValue().currentSubscriberCount() > 0
+                    && StreamerFieldDecoder.mentionsService(payload, dataSink.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkDataService(StreamerService service) {
+        if(!dataSinks.containsKey(service)) {
+            throw new IllegalArgumentException("Service " + service + " has no data to subscribe to.");
+        }
+    }
+
+    private void disconnected(Connection current) {
+        if(connection == current) {
+            connection = null;
+            loggedInState.tryEmitNext(false);
+            log.info("Streamer -> disconnected");
+        }
+        current.outbound.tryEmitComplete();
+    }
+
+    private void fail(Throwable throwable) {
+        log.error("Streamer -> unable to reconnect: {}", throwable.toString());
+        loggedInState.tryEmitError(throwable);
+        dataSinks.values().forEach(dataSink -> dataSink.tryEmitError(throwable));
+        responseSink.tryEmitError(throwable);
+    }
+
+    private void complete() {
+        loggedInState.tryEmitComplete();
+        dataSinks.values().forEach(Sinks.Many::tryEmitComplete);
+        responseSink.tryEmitComplete();
+    }
+
+    private static final class Connection {
+        private static final AtomicLong IDS = new AtomicLong();
+
+        private final long id = IDS.incrementAndGet();
+        private final StreamerInfo streamerInfo;
+        private final Sinks.Many<String> outbound = Sinks.many().unicast().onBackpressureBuffer();
+
+        private Connection(StreamerInfo streamerInfo) {
+            this.streamerInfo = streamerInfo;
+        }
+    }
+
+    // the decoder of a service is only used by the thread reading the connection
+    private static final class RecordListeners implements StreamerRecordListener {
+        private final StreamerFieldDecoder decoder;
+        private final List<StreamerRecordListener> listeners = new CopyOnWriteArrayList<>();
+
+        private RecordListeners(StreamerService service) {
+            this.decoder = new StreamerFieldDecoder(service);
+        }
+
+        private void decode(DataBuffer payload) {
+            if(!listeners.isEmpty()) {
+                try {
+                    decoder.decode(payload, this);
+                } catch (RuntimeException e) {
+                    log.warn("Streamer -> unable to decode {} records: {}", decoder.getSchema().getService(), e.toString());
+                }
+            }
+        }
+
+        @Override
+        public void onUpdate(StreamerRecord record) {
+            for(StreamerRecordListener listener : listeners) {
+                listener.onUpdate(record);
+            }
+        }
+    }
+
+    private static final class Subscription {
+        private final Set<String> keys;
+        private final String fields;
+
+        private Subscription(Set<String> keys, String fields) {
+            this.keys = keys;
+            this.fields = fields;
+        }
+    }
+}
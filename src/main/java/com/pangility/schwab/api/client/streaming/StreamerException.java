@@ -0,0 +1,32 @@
+package com.pangility.schwab.api.client.streaming;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when the Schwab streamer rejects a command or the connection to it is lost
+ */
+@Getter
+public class StreamerException extends Exception {
+    /**
+     * the code of the streamer response, null when the streamer did not send one
+     */
+    private final Integer code;
+
+    /**
+     * Constructor for passing a message about the exception
+     * @param msg String
+     */
+    public StreamerException(String msg) {
+        this(msg, null);
+    }
+
+    /**
+     * Constructor for passing a message and the code of the streamer response
+     * @param msg String
+     * @param code Integer
+     */
+    public StreamerException(String msg, Integer code) {
+        super(msg);
+        this.code = code;
+    }
+}
@@ -0,0 +1,799 @@
+package com.pangility.schwab.api.client.streaming;
+
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.ByteBuf;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Decodes the data of one streamer service straight from the bytes of a message into reusable
+ * {@link StreamerRecord}s, one per key.  The decoder walks the JSON in place: the numbered fields are
+ * looked up in the {@link StreamerSchema} tables, numbers are parsed into primitives and strings are
+ * copied into the byte slots of the record, so once every key has been seen decoding a message
+ * allocates nothing.  Heap buffers are read in place, direct buffers are first copied into an array
+ * the decoder reuses.  The data of other services, responses and notifications are skipped.
+ * </p>
+ * <p>
+ * A decoder keeps its records between messages and is not thread safe; it is meant to be called by the
+ * one thread reading a connection.
+ * </p>
+ */
+public final class StreamerFieldDecoder {
+
+    private static final byte[] DATA = ascii("data");
+    private static final byte[] SERVICE = ascii("service");
+    private static final byte[] TIMESTAMP = ascii("timestamp");
+    private static final byte[] CONTENT = ascii("content");
+    private static final byte[] KEY = ascii("key");
+    private static final byte[] DELAYED = ascii("delayed");
+    private static final Map<StreamerService, byte[]> QUOTED_SERVICES = new EnumMap<>(StreamerService.class);
+
+    static {
+        for(StreamerService service : StreamerService.values()) {
+            QUOTED_SERVICES.put(service, ascii('"' + service.name() + '"'));
+        }
+    }
+    // the powers of ten a double holds exactly, see Clinger's fast path
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    @Getter
+    private final StreamerSchema schema;
+    private final byte[] serviceName;
+    private StreamerRecord[] records = new StreamerRecord[64];
+    private int size = 0;
+
+    // direct buffers are copied into the scratch array, which only grows
+    private byte[] scratch = new byte[4096];
+    // the message being decoded
+    private byte[] buffer;
+    private int position;
+    private int end;
+    private int nameEnd;
+
+    /**
+     * create a decoder for the data of a service
+     * @param service {@literal @}NotNull {@link StreamerService} with a {@link StreamerSchema}
+     */
+    public StreamerFieldDecoder(@NonNull StreamerService service) {
+        this(StreamerSchema.of(service));
+    }
+
+    /**
+     * create a decoder for the fields of a schema
+     * @param schema {@literal @}NotNull {@link StreamerSchema}
+     */
+    public StreamerFieldDecoder(@NonNull StreamerSchema schema) {
+        this.schema = schema;
+        this.serviceName = ascii(schema.getService().name());
+    }
+
+    /**
+     * decode the data of the service in a message, leaving the reader index of the buffer as it is
+     * @param message {@literal @}NotNull {@link ByteBuf} holding one streamer message
+     * @param listener {@literal @}NotNull {@link StreamerRecordListener} called with the record of each update
+     * @return int the number of updates decoded
+     */
+    public int decode(@NonNull ByteBuf message, @NonNull StreamerRecordListener listener) {
+        int length = message.readableBytes();
+        if(message.hasArray()) {
+            return this.decode(message.array(), message.arrayOffset() + message.readerIndex(), length, listener);
+        }
+        message.getBytes(message.readerIndex(), this.scratch(length), 0, length);
+        return this.decode(scratch, 0, length, listener);
+    }
+
+    /**
+     * decode the data of the service in a message, leaving the read position of the buffer as it is.
+     * The Netty buffers of the reactor-netty WebSocket client are decoded as a {@link ByteBuf}.
+     * @param message {@literal @}NotNull {@link DataBuffer} holding one streamer message
+     * @param listener {@literal @}NotNull {@link StreamerRecordListener} called with the record of each update
+     * @return int the number of updates decoded
+     */
+    public int decode(@NonNull DataBuffer message, @NonNull StreamerRecordListener listener) {
+        if(message instanceof NettyDataBuffer nettyDataBuffer) {
+            return this.decode(nettyDataBuffer.getNativeBuffer(), listener);
+        }
+        int length = message.readableByteCount();
+        message.toByteBuffer(message.readPosition(), ByteBuffer.wrap(this.scratch(length)), 0, length);
+        return this.decode(scratch, 0, length, listener);
+    }
+
+    /**
+     * decode the data of the service in a message
+     * @param message {@literal @}NotNull byte[] holding one streamer message
+     * @param offset int index of the first byte of the message
+     * @param length int number of bytes of the message
+     * @param listener {@literal @}NotNull {@link StreamerRecordListener} called with the record of each update
+     * @return int the number of updates decoded
+     */
+    public int decode(@NonNull byte[] message, int offset, int length, @NonNull StreamerRecordListener listener) {
+        this.buffer = message;
+        this.position = offset;
+        this.end = offset + length;
+        try {
+            return this.decodeMessage(listener);
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * get the record of a key
+     * @param key {@literal @}NotNull String like a symbol
+     * @return {@link StreamerRecord} or null when no update of the key has been decoded
+     */
+    public StreamerRecord getRecord(@NonNull String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = 0;
+        for(byte keyByte : keyBytes) {
+            hash = 31 * hash + keyByte;
+        }
+        int mask = records.length - 1;
+        for(int slot = mix(hash) & mask; records[slot] != null; slot = (slot + 1) & mask) {
+            if(records[slot].keyHash == hash && Arrays.equals(records[slot].keyBytes, keyBytes)) {
+                return records[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * get the number of keys with a record
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * call an action with every record
+     * @param action {@literal @}NotNull {@link Consumer}{@literal <}{@link StreamerRecord}{@literal >}
+     */
+    public void forEach(@NonNull Consumer<StreamerRecord> action) {
+        for(StreamerRecord record : records) {
+            if(record != null) {
+                action.accept(record);
+            }
+        }
+    }
+
+    /**
+     * check if a message holds data only, without responses or notifications.  The streamer sends the data
+     * of the subscribed services in messages of their own.
+     * @param message {@literal @}NotNull {@link DataBuffer}
+     * @return boolean
+     */
+    public static boolean isDataMessage(@NonNull DataBuffer message) {
+        int index = message.readPosition();
+        int limit = message.writePosition();
+        while(index < limit && isWhitespace(message.getByte(index))) {
+            index++;
+        }
+        if(index >= limit || message.getByte(index++) != '{') {
+            return false;
+        }
+        while(index < limit && isWhitespace(message.getByte(index))) {
+            index++;
+        }
+        if(index + DATA.length + 2 > limit || message.getByte(index++) != '"') {
+            return false;
+        }
+        for(byte dataByte : DATA) {
+            if(message.getByte(index++) != dataByte) {
+                return false;
+            }
+        }
+        return message.getByte(index) == '"';
+    }
+
+    /**
+     * check if a message mentions a service, without reading it.  A quoted service name only appears
+     * as the service of some data, so the content classes of a data message only have to be read
+     * when a service it mentions is streamed.
+     * @param message {@literal @}NotNull {@link DataBuffer}
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @return boolean
+     */
+    public static boolean mentionsService(@NonNull DataBuffer message, @NonNull StreamerService service) {
+        byte[] quotedService = QUOTED_SERVICES.get(service);
+        int limit = message.writePosition() - quotedService.length;
+        for(int index = message.readPosition(); index <= limit; index++) {
+            int matched = 0;
+            while(matched < quotedService.length && message.getByte(index + matched) == quotedService[matched]) {
+                matched++;
+            }
+            if(matched == quotedService.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int decodeMessage(StreamerRecordListener listener) {
+        int updates = 0;
+        this.expect('{');
+        if(this.skipIf('}')) {
+            return 0;
+        }
+        do {
+            int nameStart = this.readName();
+            if(this.nameEquals(nameStart, nameEnd, DATA)) {
+                updates += this.decodeData(listener);
+            } else {
+                this.skipValue();
+            }
+        } while(this.nextMember('}'));
+        return updates;
+    }
+
+    private int decodeData(StreamerRecordListener listener) {
+        if(this.skipNull()) {
+            return 0;
+        }
+        int updates = 0;
+        this.expect('[');
+        if(this.skipIf(']')) {
+            return 0;
+        }
+        do {
+            updates += this.decodeDataItem(listener);
+        } while(this.nextMember(']'));
+        return updates;
+    }
+
+    private int decodeDataItem(StreamerRecordListener listener) {
+        boolean serviceMatches = false;
+        long timestamp = 0L;
+        int contentStart = -1;
+        this.expect('{');
+        if(this.skipIf('}')) {
+            return 0;
+        }
+        do {
+            int nameStart = this.readName();
+            if(this.nameEquals(nameStart, nameEnd, SERVICE) && this.peek() == '"') {
+                int valueStart = position + 1;
+                int valueEnd = this.skipString();
+                serviceMatches = this.nameEquals(valueStart, valueEnd, serviceName);
+            } else if(this.nameEquals(nameStart, nameEnd, TIMESTAMP)) {
+                timestamp = this.readLong();
+            } else if(this.nameEquals(nameStart, nameEnd, CONTENT)) {
+                // the content is decoded once the service is known, which may come after it
+                contentStart = position;
+                this.skipValue();
+            } else {
+                this.skipValue();
+            }
+        } while(this.nextMember('}'));
+
+        if(!serviceMatches || contentStart < 0) {
+            return 0;
+        }
+        int itemEnd = position;
+        position = contentStart;
+        int updates = this.decodeContent(timestamp, listener);
+        position = itemEnd;
+        return updates;
+    }
+
+    private int decodeContent(long timestamp, StreamerRecordListener listener) {
+        if(this.skipNull()) {
+            return 0;
+        }
+        int updates = 0;
+        this.expect('[');
+        if(this.skipIf(']')) {
+            return 0;
+        }
+        do {
+            updates += this.decodeContentItem(timestamp, listener);
+        } while(this.nextMember(']'));
+        return updates;
+    }
+
+    private int decodeContentItem(long timestamp, StreamerRecordListener listener) {
+        this.skipWhitespace();
+        int itemStart = position;
+        StreamerRecord record = this.findKey();
+        if(record == null) {
+            return 0;
+        }
+
+        position = itemStart;
+        record.beginUpdate(timestamp);
+        this.expect('{');
+        if(!this.skipIf('}')) {
+            do {
+                int nameStart = this.readName();
+                int field = this.fieldNumber(nameStart, nameEnd);
+                if(field >= 0) {
+                    this.decodeField(record, field);
+                } else if(this.nameEquals(nameStart, nameEnd, DELAYED)) {
+                    record.setDelayed(this.readBoolean());
+                } else {
+                    this.skipValue();
+                }
+            } while(this.nextMember('}'));
+        }
+        listener.onUpdate(record);
+        return 1;
+    }
+
+    // the key usually is the first member, an item without one is skipped
+    private StreamerRecord findKey() {
+        this.expect('{');
+        if(this.skipIf('}')) {
+            return null;
+        }
+        do {
+            int nameStart = this.readName();
+            if(this.nameEquals(nameStart, nameEnd, KEY) && this.peek() == '"') {
+                int keyStart = position + 1;
+                int keyEnd = this.skipString();
+                return this.record(keyStart, keyEnd);
+            }
+            this.skipValue();
+        } while(this.nextMember('}'));
+        return null;
+    }
+
+    private void decodeField(StreamerRecord record, int field) {
+        StreamerSchema.Kind kind = schema.kind(field);
+        if(kind == StreamerSchema.Kind.NONE) {
+            this.skipValue();
+        } else if(this.skipNull()) {
+            record.clear(field);
+        } else {
+            switch(kind) {
+                case DOUBLE -> record.setValue(field, Double.doubleToRawLongBits(this.readDouble()));
+                case LONG -> record.setValue(field, this.readLong());
+                case BOOLEAN -> record.setValue(field, this.readBoolean() ? 1L : 0L);
+                default -> this.readString(record, field);
+            }
+        }
+    }
+
+    private double readDouble() {
+        if(this.peek() != '"') {
+            return this.readNumber();
+        }
+        // a quoted number, or NaN for any other text
+        int valueStart = position + 1;
+        int valueEnd = this.skipString();
+        int valueAfter = position;
+        position = valueStart;
+        double value = Double.NaN;
+        if(valueStart < valueEnd && isNumberStart(buffer[valueStart])) {
+            value = this.readNumber();
+            if(position != valueEnd) {
+                value = Double.NaN;
+            }
+        }
+        position = valueAfter;
+        return value;
+    }
+
+    private long readLong() {
+        byte first = this.peek();
+        if(first == '"') {
+            return (long) this.readDouble();
+        }
+        int start = position;
+        boolean negative = first == '-';
+        if(negative) {
+            position++;
+        }
+        long value = 0L;
+        int digits = 0;
+        while(position < end) {
+            byte digit = buffer[position];
+            if(digit < '0' || digit > '9') {
+                break;
+            }
+            value = value * 10 + (digit - '0');
+            digits++;
+            position++;
+        }
+        if(digits == 0 || digits > MAX_MANTISSA_DIGITS || (position < end && isNumberPart(buffer[position]))) {
+            position = start;
+            return (long) this.readNumber();
+        }
+        return negative ? -value : value;
+    }
+
+    private double readNumber() {
+        int start = position;
+        boolean negative = this.skipIf('-');
+        long mantissa = 0L;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean anyDigit = false;
+        byte digit;
+        while(position < end && (digit = buffer[position]) >= '0' && digit <= '9') {
+            anyDigit = true;
+            if(digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + (digit - '0');
+                if(mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                exact = false;
+            }
+            position++;
+        }
+        if(position < end && buffer[position] == '.') {
+            position++;
+            while(position < end && (digit = buffer[position]) >= '0' && digit <= '9') {
+                anyDigit = true;
+                if(digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (digit - '0');
+                    if(mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else if(digit != '0') {
+                    exact = false;
+                }
+                position++;
+            }
+        }
+        if(position < end && (buffer[position] == 'e' || buffer[position] == 'E')) {
+            position++;
+            boolean negativeExponent = this.skipIf('-');
+            if(!negativeExponent) {
+                this.skipIf('+');
+            }
+            int exponentValue = 0;
+            while(position < end && (digit = buffer[position]) >= '0' && digit <= '9') {
+                exponentValue = Math.min(exponentValue * 10 + (digit - '0'), 100_000);
+                position++;
+            }
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+        if(!anyDigit) {
+            throw this.malformed();
+        }
+        double value;
+        if(exact && digits <= MAX_EXACT_DIGITS && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            // more digits than a double holds exactly, rare enough to parse the text
+            value = Math.abs(Double.parseDouble(new String(buffer, start, position - start, StandardCharsets.US_ASCII)));
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean readBoolean() {
+        byte first = this.peek();
+        if(first == 't') {
+            this.expectLiteral("true");
+            return true;
+        } else if(first == 'f') {
+            this.expectLiteral("false");
+            return false;
+        } else if(first == '"') {
+            int valueStart = position + 1;
+            int valueEnd = this.skipString();
+            return valueEnd - valueStart == 4 && buffer[valueStart] == 't';
+        }
+        return this.readDouble() != 0;
+    }
+
+    private void readString(StreamerRecord record, int field) {
+        if(this.peek() != '"') {
+            // a number or a literal is kept as its text
+            int valueStart = position;
+            this.skipValue();
+            int length = position - valueStart;
+            System.arraycopy(buffer, valueStart, record.stringSlot(field, length), 0, length);
+            record.setStringLength(field, length);
+            return;
+        }
+        int valueStart = position + 1;
+        int valueEnd = this.skipString();
+        // unescaping never makes a string longer
+        byte[] slot = record.stringSlot(field, valueEnd - valueStart);
+        int length = 0;
+        for(int index = valueStart; index < valueEnd; index++) {
+            byte value = buffer[index];
+            if(value != '\\') {
+                slot[length++] = value;
+                continue;
+            }
+            byte escaped = buffer[++index];
+            switch(escaped) {
+                case 'b' -> slot[length++] = '\b';
+                case 'f' -> slot[length++] = '\f';
+                case 'n' -> slot[length++] = '\n';
+                case 'r' -> slot[length++] = '\r';
+                case 't' -> slot[length++] = '\t';
+                case 'u' -> {
+                    int codePoint = this.hex(index + 1);
+                    index += 4;
+                    if(Character.isHighSurrogate((char) codePoint) && index + 6 < valueEnd
+                            && buffer[index + 1] == '\\' && buffer[index + 2] == 'u') {
+                        int low = this.hex(index + 3);
+                        if(Character.isLowSurrogate((char) low)) {
+                            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                            index += 6;
+                        }
+                    }
+                    length = utf8(codePoint, slot, length);
+                }
+                default -> slot[length++] = escaped;
+            }
+        }
+        record.setStringLength(field, length);
+    }
+
+    private StreamerRecord record(int keyStart, int keyEnd) {
+        int hash = 0;
+        for(int index = keyStart; index < keyEnd; index++) {
+            hash = 31 * hash + buffer[index];
+        }
+        int mask = records.length - 1;
+        int slot = mix(hash) & mask;
+        for(StreamerRecord record; (record = records[slot]) != null; slot = (slot + 1) & mask) {
+            if(record.keyHash == hash && this.nameEquals(keyStart, keyEnd, record.keyBytes)) {
+                return record;
+            }
+        }
+        byte[] keyBytes = Arrays.copyOfRange(buffer, keyStart, keyEnd);
+        StreamerRecord record = new StreamerRecord(schema, keyBytes, hash);
+        records[slot] = record;
+        if(++size * 2 > records.length) {
+            this.resize();
+        }
+        return record;
+    }
+
+    private void resize() {
+        StreamerRecord[] resized = new StreamerRecord[records.length * 2];
+        int mask = resized.length - 1;
+        for(StreamerRecord record : records) {
+            if(record != null) {
+                int slot = mix(record.keyHash) & mask;
+                while(resized[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                resized[slot] = record;
+            }
+        }
+        records = resized;
+    }
+
+    // the field number of a member name of digits only, -1 for any other name
+    private int fieldNumber(int nameStart, int numberEnd) {
+        if(numberEnd <= nameStart || numberEnd - nameStart > 4) {
+            return -1;
+        }
+        int field = 0;
+        for(int index = nameStart; index < numberEnd; index++) {
+            byte digit = buffer[index];
+            if(digit < '0' || digit > '9') {
+                return -1;
+            }
+            field = field * 10 + (digit - '0');
+        }
+        return field;
+    }
+
+    // reads "name": and returns the index of the first byte of the name, nameEnd is left at its closing quote
+    private int readName() {
+        this.skipWhitespace();
+        int nameStart = position + 1;
+        nameEnd = this.skipString();
+        this.skipWhitespace();
+        if(position >= end || buffer[position] != ':') {
+            throw this.malformed();
+        }
+        position++;
+        this.skipWhitespace();
+        return nameStart;
+    }
+
+    // reads the separator after a member or an element, true when another one follows
+    private boolean nextMember(char close) {
+        this.skipWhitespace();
+        if(position >= end) {
+            throw this.malformed();
+        }
+        byte separator = buffer[position++];
+        if(separator == ',') {
+            this.skipWhitespace();
+            return true;
+        } else if(separator == close) {
+            return false;
+        }
+        throw this.malformed();
+    }
+
+    private void skipValue() {
+        this.skipWhitespace();
+        if(position >= end) {
+            throw this.malformed();
+        }
+        byte first = buffer[position];
+        if(first == '"') {
+            this.skipString();
+        } else if(first == '{' || first == '[') {
+            int depth = 0;
+            while(position < end) {
+                byte value = buffer[position];
+                if(value == '"') {
+                    this.skipString();
+                    continue;
+                }
+                position++;
+                if(value == '{' || value == '[') {
+                    depth++;
+                } else if((value == '}' || value == ']') && --depth == 0) {
+                    return;
+                }
+            }
+            throw this.malformed();
+        } else {
+            while(position < end) {
+                byte value = buffer[position];
+                if(value == ',' || value == '}' || value == ']' || isWhitespace(value)) {
+                    break;
+                }
+                position++;
+            }
+        }
+    }
+
+    // skips a string and returns the index of its closing quote
+    private int skipString() {
+        if(position >= end || buffer[position] != '"') {
+            throw this.malformed();
+        }
+        position++;
+        while(position < end) {
+            byte value = buffer[position++];
+            if(value == '"') {
+                return position - 1;
+            } else if(value == '\\') {
+                position++;
+            }
+        }
+        throw this.malformed();
+    }
+
+    private boolean skipNull() {
+        this.skipWhitespace();
+        if(position < end && buffer[position] == 'n') {
+            this.expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    private boolean skipIf(char expected) {
+        this.skipWhitespace();
+        if(position < end && buffer[position] == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if(!this.skipIf(expected)) {
+            throw this.malformed();
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for(int index = 0; index < literal.length(); index++) {
+            if(position >= end || buffer[position++] != literal.charAt(index)) {
+                throw this.malformed();
+            }
+        }
+    }
+
+    private byte peek() {
+        this.skipWhitespace();
+        if(position >= end) {
+            throw this.malformed();
+        }
+        return buffer[position];
+    }
+
+    private void skipWhitespace() {
+        while(position < end && isWhitespace(buffer[position])) {
+            position++;
+        }
+    }
+
+    private boolean nameEquals(int start, int stringEnd, byte[] name) {
+        if(stringEnd - start != name.length) {
+            return false;
+        }
+        for(int index = 0; index < name.length; index++) {
+            if(buffer[start + index] != name[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hex(int index) {
+        int value = 0;
+        for(int digitIndex = index; digitIndex < index + 4; digitIndex++) {
+            int digit = Character.digit(buffer[digitIndex], 16);
+            if(digit < 0) {
+                throw this.malformed();
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed streamer message at offset " + position);
+    }
+
+    private static int utf8(int codePoint, byte[] bytes, int offset) {
+        if(codePoint < 0x80) {
+            bytes[offset++] = (byte) codePoint;
+        } else if(codePoint < 0x800) {
+            bytes[offset++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if(codePoint < 0x10000) {
+            bytes[offset++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return offset;
+    }
+
+
+    private byte[] scratch(int length) {
+        if(scratch.length < length) {
+            scratch = new byte[Integer.highestOneBit(length) << 1];
+        }
+        return scratch;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+
+    private static boolean isNumberStart(byte value) {
+        return value == '-' || (value >= '0' && value <= '9');
+    }
+
+    private static boolean isNumberPart(byte value) {
+        return value == '.' || value == 'e' || value == 'E';
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
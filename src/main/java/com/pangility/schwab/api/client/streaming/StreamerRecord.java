@@ -0,0 +1,199 @@
+package com.pangility.schwab.api.client.streaming;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The latest fields of one key of a streamer service, like the level one fields of a symbol, kept in
+ * primitive slots indexed by field number.  A {@link StreamerFieldDecoder} creates one record per key the
+ * first time the key is seen and writes every later update of the key into the same record, so decoding
+ * an update allocates nothing.  Fields missing from an update keep their previous value.
+ * </p>
+ * <p>
+ * A record is written by the thread decoding the messages and is only consistent while a
+ * {@link StreamerRecordListener} is called with it; copy the fields needed later out of it.
+ * </p>
+ */
+public final class StreamerRecord {
+
+    private static final int INITIAL_STRING_CAPACITY = 16;
+
+    @Getter
+    private final StreamerSchema schema;
+    @Getter
+    private final String key;
+    final byte[] keyBytes;
+    final int keyHash;
+
+    private final long[] values;
+    private final byte[][] strings;
+    private final int[] stringLengths;
+    private final long[] received;
+    private final long[] changed;
+    private boolean delayed;
+    private long timestamp;
+
+    StreamerRecord(StreamerSchema schema, byte[] keyBytes, int keyHash) {
+        this.schema = schema;
+        this.key = new String(keyBytes, StandardCharsets.UTF_8);
+        this.keyBytes = keyBytes;
+        this.keyHash = keyHash;
+        int fieldCount = schema.getFieldCount();
+        this.values = new long[fieldCount];
+        this.strings = new byte[fieldCount][];
+        this.stringLengths = new int[fieldCount];
+        this.received = new long[(fieldCount + 63) >>> 6];
+        this.changed = new long[received.length];
+    }
+
+    /**
+     * get the value of a double field
+     * @param field int field number
+     * @return double, 0 when the field has not been received
+     */
+    public double getDouble(int field) {
+        return Double.longBitsToDouble(values[field]);
+    }
+
+    /**
+     * get the value of a long field
+     * @param field int field number
+     * @return long, 0 when the field has not been received
+     */
+    public long getLong(int field) {
+        return values[field];
+    }
+
+    /**
+     * get the value of a boolean field
+     * @param field int field number
+     * @return boolean, false when the field has not been received
+     */
+    public boolean getBoolean(int field) {
+        return values[field] != 0;
+    }
+
+    /**
+     * get the value of a string field, creating a new String
+     * @param field int field number
+     * @return String or null when the field has not been received
+     */
+    public String getString(int field) {
+        return this.isReceived(field) && strings[field] != null
+                ? new String(strings[field], 0, stringLengths[field], StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * check if a string field holds a value, without creating a String
+     * @param field int field number
+     * @param value {@literal @}NotNull String holding ASCII characters only
+     * @return boolean
+     */
+    public boolean stringEquals(int field, String value) {
+        if(!this.isReceived(field) || strings[field] == null || stringLengths[field] != value.length()) {
+            return false;
+        }
+        byte[] bytes = strings[field];
+        for(int i = 0; i < bytes.length && i < stringLengths[field]; i++) {
+            if(bytes[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * check if a field has been received since the record was created
+     * @param field int field number
+     * @return boolean
+     */
+    public boolean isReceived(int field) {
+        return (received[field >>> 6] & (1L << field)) != 0;
+    }
+
+    /**
+     * check if a field was in the last update of the record
+     * @param field int field number
+     * @return boolean
+     */
+    public boolean isChanged(int field) {
+        return (changed[field >>> 6] & (1L << field)) != 0;
+    }
+
+    /**
+     * check if the last update of the record was delayed
+     * @return boolean
+     */
+    public boolean isDelayed() {
+        return delayed;
+    }
+
+    /**
+     * get the time the streamer sent the last update of the record
+     * @return long epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("StreamerRecord(key=").append(key);
+        for(int field = 0; field < values.length; field++) {
+            if(this.isReceived(field)) {
+                stringBuilder.append(", ").append(schema.name(field)).append('=');
+                switch(schema.kind(field)) {
+                    case DOUBLE -> stringBuilder.append(this.getDouble(field));
+                    case BOOLEAN -> stringBuilder.append(this.getBoolean(field));
+                    case STRING -> stringBuilder.append(this.getString(field));
+                    default -> stringBuilder.append(this.getLong(field));
+                }
+            }
+        }
+        return stringBuilder.append(')').toString();
+    }
+
+    void beginUpdate(long timestamp) {
+        this.timestamp = timestamp;
+        Arrays.fill(changed, 0L);
+    }
+
+    void setDelayed(boolean delayed) {
+        this.delayed = delayed;
+    }
+
+    void setValue(int field, long value) {
+        values[field] = value;
+        this.mark(field);
+    }
+
+    // the slot of a string field only grows, so a steady stream of updates reuses it
+    byte[] stringSlot(int field, int length) {
+        byte[] slot = strings[field];
+        if(slot == null || slot.length < length) {
+            slot = new byte[Math.max(INITIAL_STRING_CAPACITY, Integer.highestOneBit(Math.max(1, length - 1)) << 1)];
+            strings[field] = slot;
+        }
+        return slot;
+    }
+
+    void setStringLength(int field, int length) {
+        stringLengths[field] = length;
+        this.mark(field);
+    }
+
+    void clear(int field) {
+        values[field] = 0L;
+        stringLengths[field] = 0;
+        received[field >>> 6] &= ~(1L << field);
+        changed[field >>> 6] |= 1L << field;
+    }
+
+    private void mark(int field) {
+        received[field >>> 6] |= 1L << field;
+        changed[field >>> 6] |= 1L << field;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pangility.schwab.api.client.streaming;
+
+/**
+ * Called by a {@link StreamerFieldDecoder} with each {@link StreamerRecord} an update was decoded into
+ */
+@FunctionalInterface
+public interface StreamerRecordListener {
+    /**
+     * handle an update of a record; the record is reused for the next update of its key
+     * @param record {@link StreamerRecord}
+     */
+    void onUpdate(StreamerRecord record);
+}
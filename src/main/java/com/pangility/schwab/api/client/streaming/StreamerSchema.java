@@ -0,0 +1,153 @@
+package com.pangility.schwab.api.client.streaming;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.pangility.schwab.api.client.streaming.model.AccountActivity;
+import com.pangility.schwab.api.client.streaming.model.ChartEquity;
+import com.pangility.schwab.api.client.streaming.model.LevelOneEquity;
+import com.pangility.schwab.api.client.streaming.model.LevelOneFuture;
+import com.pangility.schwab.api.client.streaming.model.LevelOneOption;
+import com.pangility.schwab.api.client.streaming.model.StreamerContent;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The numbered fields of a streamer service, generated from the {@link JsonProperty} numbers and the
+ * field types of its content class, like {@link LevelOneEquity}.  The content class stays the one
+ * place the field numbers are written down; the schema turns them into the lookup tables the
+ * {@link StreamerFieldDecoder} reads the fields with.
+ */
+public final class StreamerSchema {
+
+    /**
+     * the kind of value a field holds
+     */
+    public enum Kind {
+        /**
+         * a number field not in the schema is skipped
+         */
+        NONE,
+        /**
+         * a price or other decimal, read as a double
+         */
+        DOUBLE,
+        /**
+         * a size, count or epoch millisecond time, read as a long
+         */
+        LONG,
+        /**
+         * a flag
+         */
+        BOOLEAN,
+        /**
+         * text, kept as the UTF-8 bytes
+         */
+        STRING
+    }
+
+    private static final Map<StreamerService, StreamerSchema> SCHEMAS = new EnumMap<>(StreamerService.class);
+
+    static {
+        SCHEMAS.put(StreamerService.LEVELONE_EQUITIES, new StreamerSchema(StreamerService.LEVELONE_EQUITIES, LevelOneEquity.class));
+        SCHEMAS.put(StreamerService.LEVELONE_OPTIONS, new StreamerSchema(StreamerService.LEVELONE_OPTIONS, LevelOneOption.class));
+        SCHEMAS.put(StreamerService.LEVELONE_FUTURES, new StreamerSchema(StreamerService.LEVELONE_FUTURES, LevelOneFuture.class));
+        SCHEMAS.put(StreamerService.CHART_EQUITY, new StreamerSchema(StreamerService.CHART_EQUITY, ChartEquity.class));
+        SCHEMAS.put(StreamerService.ACCT_ACTIVITY, new StreamerSchema(StreamerService.ACCT_ACTIVITY, AccountActivity.class));
+    }
+
+    @Getter
+    private final StreamerService service;
+    private final Kind[] kinds;
+    private final String[] names;
+    private final Map<String, Integer> fieldsByName = new HashMap<>();
+
+    private StreamerSchema(StreamerService service, Class<? extends StreamerContent> contentClass) {
+        this.service = service;
+        Map<Integer, Field> fieldsByNumber = new HashMap<>();
+        for(Field field : contentClass.getDeclaredFields()) {
+            JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+            if(jsonProperty != null && !jsonProperty.value().isEmpty() && jsonProperty.value().chars().allMatch(Character::isDigit)) {
+                fieldsByNumber.put(Integer.parseInt(jsonProperty.value()), field);
+            }
+        }
+        int fieldCount = fieldsByNumber.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        this.kinds = new Kind[fieldCount];
+        this.names = new String[fieldCount];
+        Arrays.fill(kinds, Kind.NONE);
+        fieldsByNumber.forEach((number, field) -> {
+            kinds[number] = kindOf(field.getType());
+            names[number] = field.getName();
+            fieldsByName.put(field.getName(), number);
+        });
+    }
+
+    /**
+     * get the schema of a service
+     * @param service {@literal @}NotNull {@link StreamerService}
+     * @return {@link StreamerSchema}
+     */
+    public static StreamerSchema of(@NonNull StreamerService service) {
+        StreamerSchema schema = SCHEMAS.get(service);
+        if(schema == null) {
+            throw new IllegalArgumentException("Service " + service + " has no field schema.");
+        }
+        return schema;
+    }
+
+    /**
+     * get the number of field numbers, one more than the highest field number
+     * @return int
+     */
+    public int getFieldCount() {
+        return kinds.length;
+    }
+
+    /**
+     * get the number of a field by the name of its content class property, like {@code bidPrice}
+     * @param name {@literal @}NotNull String
+     * @return int
+     */
+    public int field(@NonNull String name) {
+        Integer number = fieldsByName.get(name);
+        if(number == null) {
+            throw new IllegalArgumentException("Service " + service + " has no field '" + name + "'.");
+        }
+        return number;
+    }
+
+    /**
+     * get the kind of a field
+     * @param field int field number
+     * @return {@link Kind}, {@link Kind#NONE} for a number not in the schema
+     */
+    public Kind kind(int field) {
+        return field >= 0 && field < kinds.length ? kinds[field] : Kind.NONE;
+    }
+
+    /**
+     * get the name of a field
+     * @param field int field number
+     * @return String or null for a number not in the schema
+     */
+    public String name(int field) {
+        return field >= 0 && field < names.length ? names[field] : null;
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if(type == BigDecimal.class || type == Double.class || type == double.class) {
+            return Kind.DOUBLE;
+        } else if(type == Long.class || type == long.class || type == Integer.class || type == int.class) {
+            return Kind.LONG;
+        } else if(type == Boolean.class || type == boolean.class) {
+            return Kind.BOOLEAN;
+        }
+        return Kind.STRING;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * ACCT_ACTIVITY streamer content, an order or account event of one of the accounts of the user.
+ * The message data is the JSON of the event, which differs by message type.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class AccountActivity extends StreamerContent {
+    /**
+     * every field of the service, to subscribe with
+     */
+    public static final String ALL_FIELDS = "0,1,2,3";
+    /**
+     * the key to subscribe with, the service streams the activity of every account whatever the key
+     */
+    public static final String SUBSCRIPTION_KEY = "Account Activity";
+    /**
+     * the message type sent once the subscription is made, without data
+     */
+    public static final String SUBSCRIBED = "SUBSCRIBED";
+
+    @JsonProperty("seq")
+    private Long sequence;
+    @JsonProperty("0")
+    private String subscriptionKey;
+    @JsonProperty("1")
+    private String accountNumber;
+    @JsonProperty("2")
+    private String messageType;
+    @JsonProperty("3")
+    private String messageData;
+}
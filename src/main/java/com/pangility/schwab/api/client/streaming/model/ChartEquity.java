@@ -0,0 +1,43 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * CHART_EQUITY streamer content, a one minute equity candle.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ChartEquity extends StreamerContent {
+    /**
+     * every field of the service, to subscribe with
+     */
+    public static final String ALL_FIELDS = "0,1,2,3,4,5,6,7,8";
+
+    @JsonProperty("0")
+    private String symbol;
+    @JsonProperty("1")
+    private BigDecimal openPrice;
+    @JsonProperty("2")
+    private BigDecimal highPrice;
+    @JsonProperty("3")
+    private BigDecimal lowPrice;
+    @JsonProperty("4")
+    private BigDecimal closePrice;
+    @JsonProperty("5")
+    private Long volume;
+    @JsonProperty("6")
+    private Long sequence;
+    @JsonProperty("7")
+    private Long chartTime;
+    @JsonProperty("8")
+    private Integer chartDay;
+}
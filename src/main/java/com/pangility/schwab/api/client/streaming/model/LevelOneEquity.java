@@ -0,0 +1,130 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * LEVELONE_EQUITIES streamer content, a level one equity update.
+ * Level one updates only carry the fields that changed, the other fields are null.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class LevelOneEquity extends StreamerContent {
+    /**
+     * every field of the service, to subscribe with
+     */
+    public static final String ALL_FIELDS = "0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40,41,42,43,44,45,46,47,48,49,50,51";
+
+    @JsonProperty("0")
+    private String symbol;
+    @JsonProperty("1")
+    private BigDecimal bidPrice;
+    @JsonProperty("2")
+    private BigDecimal askPrice;
+    @JsonProperty("3")
+    private BigDecimal lastPrice;
+    @JsonProperty("4")
+    private Long bidSize;
+    @JsonProperty("5")
+    private Long askSize;
+    @JsonProperty("6")
+    private String askId;
+    @JsonProperty("7")
+    private String bidId;
+    @JsonProperty("8")
+    private Long totalVolume;
+    @JsonProperty("9")
+    private Long lastSize;
+    @JsonProperty("10")
+    private BigDecimal highPrice;
+    @JsonProperty("11")
+    private BigDecimal lowPrice;
+    @JsonProperty("12")
+    private BigDecimal closePrice;
+    @JsonProperty("13")
+    private String exchangeId;
+    @JsonProperty("14")
+    private Boolean marginable;
+    @JsonProperty("15")
+    private String description;
+    @JsonProperty("16")
+    private String lastId;
+    @JsonProperty("17")
+    private BigDecimal openPrice;
+    @JsonProperty("18")
+    private BigDecimal netChange;
+    @JsonProperty("19")
+    private BigDecimal high52Week;
+    @JsonProperty("20")
+    private BigDecimal low52Week;
+    @JsonProperty("21")
+    private BigDecimal peRatio;
+    @JsonProperty("22")
+    private BigDecimal annualDividendAmount;
+    @JsonProperty("23")
+    private BigDecimal dividendYield;
+    @JsonProperty("24")
+    private BigDecimal nav;
+    @JsonProperty("25")
+    private String exchangeName;
+    @JsonProperty("26")
+    private String dividendDate;
+    @JsonProperty("27")
+    private Boolean regularMarketQuote;
+    @JsonProperty("28")
+    private Boolean regularMarketTrade;
+    @JsonProperty("29")
+    private BigDecimal regularMarketLastPrice;
+    @JsonProperty("30")
+    private Long regularMarketLastSize;
+    @JsonProperty("31")
+    private BigDecimal regularMarketNetChange;
+    @JsonProperty("32")
+    private String securityStatus;
+    @JsonProperty("33")
+    private BigDecimal markPrice;
+    @JsonProperty("34")
+    private Long quoteTime;
+    @JsonProperty("35")
+    private Long tradeTime;
+    @JsonProperty("36")
+    private Long regularMarketTradeTime;
+    @JsonProperty("37")
+    private Long bidTime;
+    @JsonProperty("38")
+    private Long askTime;
+    @JsonProperty("39")
+    private String askMicId;
+    @JsonProperty("40")
+    private String bidMicId;
+    @JsonProperty("41")
+    private String lastMicId;
+    @JsonProperty("42")
+    private BigDecimal netPercentChange;
+    @JsonProperty("43")
+    private BigDecimal regularMarketPercentChange;
+    @JsonProperty("44")
+    private BigDecimal markPriceNetChange;
+    @JsonProperty("45")
+    private BigDecimal markPricePercentChange;
+    @JsonProperty("46")
+    private Long hardToBorrowQuantity;
+    @JsonProperty("47")
+    private BigDecimal hardToBorrowRate;
+    @JsonProperty("48")
+    private Integer hardToBorrow;
+    @JsonProperty("49")
+    private Integer shortable;
+    @JsonProperty("50")
+    private BigDecimal postMarketNetChange;
+    @JsonProperty("51")
+    private BigDecimal postMarketPercentChange;
+}
@@ -0,0 +1,108 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * LEVELONE_FUTURES streamer content, a level one future update.
+ * Level one updates only carry the fields that changed, the other fields are null.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class LevelOneFuture extends StreamerContent {
+    /**
+     * every field of the service, to subscribe with
+     */
+    public static final String ALL_FIELDS = "0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40";
+
+    @JsonProperty("0")
+    private String symbol;
+    @JsonProperty("1")
+    private BigDecimal bidPrice;
+    @JsonProperty("2")
+    private BigDecimal askPrice;
+    @JsonProperty("3")
+    private BigDecimal lastPrice;
+    @JsonProperty("4")
+    private Long bidSize;
+    @JsonProperty("5")
+    private Long askSize;
+    @JsonProperty("6")
+    private String bidId;
+    @JsonProperty("7")
+    private String askId;
+    @JsonProperty("8")
+    private Long totalVolume;
+    @JsonProperty("9")
+    private Long lastSize;
+    @JsonProperty("10")
+    private Long quoteTime;
+    @JsonProperty("11")
+    private Long tradeTime;
+    @JsonProperty("12")
+    private BigDecimal highPrice;
+    @JsonProperty("13")
+    private BigDecimal lowPrice;
+    @JsonProperty("14")
+    private BigDecimal closePrice;
+    @JsonProperty("15")
+    private String exchangeId;
+    @JsonProperty("16")
+    private String description;
+    @JsonProperty("17")
+    private String lastId;
+    @JsonProperty("18")
+    private BigDecimal openPrice;
+    @JsonProperty("19")
+    private BigDecimal netChange;
+    @JsonProperty("20")
+    private BigDecimal futurePercentChange;
+    @JsonProperty("21")
+    private String exchangeName;
+    @JsonProperty("22")
+    private String securityStatus;
+    @JsonProperty("23")
+    private Long openInterest;
+    @JsonProperty("24")
+    private BigDecimal mark;
+    @JsonProperty("25")
+    private BigDecimal tick;
+    @JsonProperty("26")
+    private BigDecimal tickAmount;
+    @JsonProperty("27")
+    private String product;
+    @JsonProperty("28")
+    private String futurePriceFormat;
+    @JsonProperty("29")
+    private String futureTradingHours;
+    @JsonProperty("30")
+    private Boolean futureIsTradable;
+    @JsonProperty("31")
+    private BigDecimal futureMultiplier;
+    @JsonProperty("32")
+    private Boolean futureIsActive;
+    @JsonProperty("33")
+    private BigDecimal futureSettlementPrice;
+    @JsonProperty("34")
+    private String futureActiveSymbol;
+    @JsonProperty("35")
+    private Long futureExpirationDate;
+    @JsonProperty("36")
+    private String expirationStyle;
+    @JsonProperty("37")
+    private Long askTime;
+    @JsonProperty("38")
+    private Long bidTime;
+    @JsonProperty("39")
+    private Boolean quotedInSession;
+    @JsonProperty("40")
+    private Long settlementDate;
+}
@@ -0,0 +1,138 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * LEVELONE_OPTIONS streamer content, a level one option update.
+ * Level one updates only carry the fields that changed, the other fields are null.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class LevelOneOption extends StreamerContent {
+    /**
+     * every field of the service, to subscribe with
+     */
+    public static final String ALL_FIELDS = "0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40,41,42,43,44,45,46,47,48,49,50,51,52,53,54,55";
+
+    @JsonProperty("0")
+    private String symbol;
+    @JsonProperty("1")
+    private String description;
+    @JsonProperty("2")
+    private BigDecimal bidPrice;
+    @JsonProperty("3")
+    private BigDecimal askPrice;
+    @JsonProperty("4")
+    private BigDecimal lastPrice;
+    @JsonProperty("5")
+    private BigDecimal highPrice;
+    @JsonProperty("6")
+    private BigDecimal lowPrice;
+    @JsonProperty("7")
+    private BigDecimal closePrice;
+    @JsonProperty("8")
+    private Long totalVolume;
+    @JsonProperty("9")
+    private Long openInterest;
+    @JsonProperty("10")
+    private BigDecimal volatility;
+    @JsonProperty("11")
+    private BigDecimal moneyIntrinsicValue;
+    @JsonProperty("12")
+    private Integer expirationYear;
+    @JsonProperty("13")
+    private BigDecimal multiplier;
+    @JsonProperty("14")
+    private Integer digits;
+    @JsonProperty("15")
+    private BigDecimal openPrice;
+    @JsonProperty("16")
+    private Long bidSize;
+    @JsonProperty("17")
+    private Long askSize;
+    @JsonProperty("18")
+    private Long lastSize;
+    @JsonProperty("19")
+    private BigDecimal netChange;
+    @JsonProperty("20")
+    private BigDecimal strikePrice;
+    @JsonProperty("21")
+    private String contractType;
+    @JsonProperty("22")
+    private String underlying;
+    @JsonProperty("23")
+    private Integer expirationMonth;
+    @JsonProperty("24")
+    private String deliverables;
+    @JsonProperty("25")
+    private BigDecimal timeValue;
+    @JsonProperty("26")
+    private Integer expirationDay;
+    @JsonProperty("27")
+    private Integer daysToExpiration;
+    @JsonProperty("28")
+    private BigDecimal delta;
+    @JsonProperty("29")
+    private BigDecimal gamma;
+    @JsonProperty("30")
+    private BigDecimal theta;
+    @JsonProperty("31")
+    private BigDecimal vega;
+    @JsonProperty("32")
+    private BigDecimal rho;
+    @JsonProperty("33")
+    private String securityStatus;
+    @JsonProperty("34")
+    private BigDecimal theoreticalOptionValue;
+    @JsonProperty("35")
+    private BigDecimal underlyingPrice;
+    @JsonProperty("36")
+    private String uvExpirationType;
+    @JsonProperty("37")
+    private BigDecimal markPrice;
+    @JsonProperty("38")
+    private Long quoteTime;
+    @JsonProperty("39")
+    private Long tradeTime;
+    @JsonProperty("40")
+    private String exchange;
+    @JsonProperty("41")
+    private String exchangeName;
+    @JsonProperty("42")
+    private Long lastTradingDay;
+    @JsonProperty("43")
+    private String settlementType;
+    @JsonProperty("44")
+    private BigDecimal netPercentChange;
+    @JsonProperty("45")
+    private BigDecimal markPriceNetChange;
+    @JsonProperty("46")
+    private BigDecimal markPricePercentChange;
+    @JsonProperty("47")
+    private BigDecimal impliedYield;
+    @JsonProperty("48")
+    private Boolean pennyPilot;
+    @JsonProperty("49")
+    private String optionRoot;
+    @JsonProperty("50")
+    private BigDecimal high52Week;
+    @JsonProperty("51")
+    private BigDecimal low52Week;
+    @JsonProperty("52")
+    private BigDecimal indicativeAskPrice;
+    @JsonProperty("53")
+    private BigDecimal indicativeBidPrice;
+    @JsonProperty("54")
+    private Long indicativeQuoteTime;
+    @JsonProperty("55")
+    private String exerciseType;
+}
@@ -0,0 +1,31 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+/**
+ * Commands sent to the Schwab streamer
+ */
+public enum StreamerCommand {
+    /**
+     * log in with the access token, the first command of a connection
+     */
+    LOGIN,
+    /**
+     * log out, the streamer then closes the connection
+     */
+    LOGOUT,
+    /**
+     * subscribe to keys, replacing the keys already subscribed for the service
+     */
+    SUBS,
+    /**
+     * add keys to the keys subscribed for the service
+     */
+    ADD,
+    /**
+     * remove keys from the keys subscribed for the service
+     */
+    UNSUBS,
+    /**
+     * change the fields streamed for the service
+     */
+    VIEW
+}
@@ -0,0 +1,31 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.pangility.schwab.api.client.marketdata.model.AssetMainType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fields shared by the content of every streamer service.
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StreamerContent {
+    private String key;
+    private Boolean delayed;
+    private AssetMainType assetMainType;
+    private String assetSubType;
+    private String cusip;
+    @JsonIgnore
+    @JsonAnySetter
+    private Map<String, Object> otherFields = new HashMap<>();
+}
@@ -0,0 +1,48 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message received from the Schwab streamer, holding command responses, notifications like
+ * heartbeats, or the data of subscribed services
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StreamerMessage {
+    private List<StreamerResponse> response;
+    private List<Map<String, Object>> notify;
+    private List<Data> data;
+    @JsonIgnore
+    @JsonAnySetter
+    private Map<String, Object> otherFields = new HashMap<>();
+
+    /**
+     * The data of a service, its content is read into the content class of the service
+     */
+    @Getter
+    @Setter
+    @ToString
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Data {
+        private String service;
+        private String command;
+        private Long timestamp;
+        private List<JsonNode> content;
+        @JsonIgnore
+        @JsonAnySetter
+        private Map<String, Object> otherFields = new HashMap<>();
+    }
+}
@@ -0,0 +1,33 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Object used to send a command to the Schwab streamer
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Builder(setterPrefix = "with")
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamerRequest {
+    private StreamerService service;
+    @JsonProperty("requestid")
+    private String requestId;
+    private StreamerCommand command;
+    @JsonProperty("SchwabClientCustomerId")
+    private String schwabClientCustomerId;
+    @JsonProperty("SchwabClientCorrelId")
+    private String schwabClientCorrelId;
+    private Map<String, String> parameters;
+}
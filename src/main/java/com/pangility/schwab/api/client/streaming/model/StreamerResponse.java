@@ -0,0 +1,49 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response of the Schwab streamer to a command, a code of 0 is a success
+ * See the <a href="https://developer.schwab.com">Schwab Developer Portal</a> for more information
+ */
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StreamerResponse {
+    private String service;
+    private String command;
+    @JsonProperty("requestid")
+    private String requestId;
+    @JsonProperty("SchwabClientCorrelId")
+    private String schwabClientCorrelId;
+    private Long timestamp;
+    private Content content;
+    @JsonIgnore
+    @JsonAnySetter
+    private Map<String, Object> otherFields = new HashMap<>();
+
+    /**
+     * Code and message of a response
+     */
+    @Getter
+    @Setter
+    @ToString
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Content {
+        private Integer code;
+        private String msg;
+        @JsonIgnore
+        @JsonAnySetter
+        private Map<String, Object> otherFields = new HashMap<>();
+    }
+}
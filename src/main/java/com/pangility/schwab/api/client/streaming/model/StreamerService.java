@@ -0,0 +1,31 @@
+package com.pangility.schwab.api.client.streaming.model;
+
+/**
+ * Services of the Schwab streamer
+ */
+public enum StreamerService {
+    /**
+     * login and logout
+     */
+    ADMIN,
+    /**
+     * level one equity quotes, see {@link LevelOneEquity}
+     */
+    LEVELONE_EQUITIES,
+    /**
+     * level one option quotes, see {@link LevelOneOption}
+     */
+    LEVELONE_OPTIONS,
+    /**
+     * level one future quotes, see {@link LevelOneFuture}
+     */
+    LEVELONE_FUTURES,
+    /**
+     * one minute equity candles, see {@link ChartEquity}
+     */
+    CHART_EQUITY,
+    /**
+     * order and account activity of every account of the user, see {@link AccountActivity}
+     */
+    ACCT_ACTIVITY
+}
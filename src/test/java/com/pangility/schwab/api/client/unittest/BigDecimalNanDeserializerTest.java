@@ -0,0 +1,48 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BigDecimalNanDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+
+    @Test
+    public void numbersAndNanStringsTest() throws Exception {
+        Map<String, BigDecimal> values = objectMapper.readValue(
+                "{\"int\":42,\"float\":-0.0125,\"exp\":1.5E-7,\"string\":\" 415.23 \",\"nan\":\"NaN\","
+                        + "\"null\":\"null\",\"empty\":\"\",\"infinity\":\"-Infinity\",\"jsonNull\":null}",
+                objectMapper.getTypeFactory().constructMapType(Map.class, String.class, BigDecimal.class));
+
+        assertThat(values.get("int")).isEqualTo(new BigDecimal("42"));
+        assertThat(values.get("float")).isEqualTo(new BigDecimal("-0.0125"));
+        assertThat(values.get("exp")).isEqualTo(new BigDecimal("1.5E-7"));
+        assertThat(values.get("string")).isEqualTo(new BigDecimal("415.23"));
+        assertThat(values).containsEntry("nan", null)
+                .containsEntry("null", null)
+                .containsEntry("empty", null)
+                .containsEntry("infinity", null)
+                .containsEntry("jsonNull", null);
+    }
+
+    @Test
+    public void invalidValueTest() throws Exception {
+        Map<String, BigDecimal> values = objectMapper.readValue(
+                "{\"string\":\"12.5x\",\"boolean\":true,\"object\":{\"lo\":1},\"array\":[1,2],\"after\":7}",
+                objectMapper.getTypeFactory().constructMapType(Map.class, String.class, BigDecimal.class));
+
+        assertThat(values).containsEntry("string", null)
+                .containsEntry("boolean", null)
+                .containsEntry("object", null)
+                .containsEntry("array", null)
+                .containsEntry("after", new BigDecimal("7"));
+    }
+}
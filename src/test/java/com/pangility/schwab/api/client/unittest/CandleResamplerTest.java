@@ -0,0 +1,106 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.model.markets.Hours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionHours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionStartEnd;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleResampler;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleSeries;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CandleResamplerTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 14);
+
+    @Test
+    public void sessionAlignedBarsTest() {
+        // one minute candles from 04:00 to 19:59, each minute's close is its index
+        CandleSeries minutes = minutes(LocalTime.of(4, 0), 16 * 60);
+        List<Hours> hours = List.of(hours(DAY), hours(DAY.plusDays(1)));
+
+        CandleSeries allHours = new CandleResampler().resample(minutes, Duration.ofMinutes(60));
+        assertThat(allHours.size()).isEqualTo(16);
+        assertThat(time(allHours, 0)).isEqualTo(LocalTime.of(4, 0));
+
+        CandleSeries regular = new CandleResampler(hours, CandleResampler.Session.REGULAR).resample(minutes, Duration.ofMinutes(60));
+        assertThat(regular.size()).isEqualTo(7);
+        assertThat(time(regular, 0)).isEqualTo(LocalTime.of(9, 30));
+        assertThat(time(regular, 6)).isEqualTo(LocalTime.of(15, 30));
+        // 09:30 is minute 330 after 04:00
+        assertThat(regular.getOpen()[0]).isEqualTo(330.0);
+        assertThat(regular.getClose()[0]).isEqualTo(389.0);
+        assertThat(regular.getHigh()[0]).isEqualTo(389.5);
+        assertThat(regular.getLow()[0]).isEqualTo(329.5);
+        assertThat(regular.getVolume()[0]).isEqualTo(60 * 100L);
+        assertThat(regular.getVolume()[6]).isEqualTo(30 * 100L);
+        assertThat(new CandleResampler(hours, CandleResampler.Session.REGULAR).resample(minutes, Duration.ofMinutes(5)).size())
+                .isEqualTo(78);
+
+        CandleSeries extended = new CandleResampler(hours, CandleResampler.Session.EXTENDED).resample(minutes, Duration.ofMinutes(60));
+        assertThat(time(extended, 0)).isEqualTo(LocalTime.of(7, 0));
+        assertThat(time(extended, 2)).isEqualTo(LocalTime.of(9, 0));
+        assertThat(time(extended, 3)).isEqualTo(LocalTime.of(9, 30));
+        assertThat(extended.size()).isEqualTo(3 + 7 + 4);
+
+        CandleSeries daily = new CandleResampler(hours, CandleResampler.Session.REGULAR).resampleDaily(minutes);
+        assertThat(daily.size()).isEqualTo(1);
+        assertThat(daily.getEpochMillis()[0]).isEqualTo(DAY.atStartOfDay(NEW_YORK).toInstant().toEpochMilli());
+        assertThat(daily.getOpen()[0]).isEqualTo(330.0);
+        assertThat(daily.getClose()[0]).isEqualTo(719.0);
+        assertThat(daily.getVolume()[0]).isEqualTo(390 * 100L);
+        assertThat(new CandleResampler(hours, CandleResampler.Session.EXTENDED).resampleDaily(minutes).getOpen()[0]).isEqualTo(180.0);
+    }
+
+    private static LocalTime time(CandleSeries series, int index) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(series.getEpochMillis()[index]), NEW_YORK).toLocalTime();
+    }
+
+    private static CandleSeries minutes(LocalTime start, int count) {
+        PriceHistoryResponse response = new PriceHistoryResponse();
+        response.setSymbol("SPY");
+        long first = DAY.atTime(start).atZone(NEW_YORK).toInstant().toEpochMilli();
+        for(int index = 0; index < count; index++) {
+            Candle candle = new Candle();
+            candle.setDatetime(first + index * 60000L);
+            candle.setOpen(BigDecimal.valueOf(index));
+            candle.setHigh(BigDecimal.valueOf(index + 0.5));
+            candle.setLow(BigDecimal.valueOf(index - 0.5));
+            candle.setClose(BigDecimal.valueOf(index));
+            candle.setVolume(100L);
+            response.getCandles().add(candle);
+        }
+        return CandleSeries.of(response);
+    }
+
+    private static Hours hours(LocalDate date) {
+        SessionHours sessionHours = new SessionHours();
+        sessionHours.setPreMarket(List.of(window(date, LocalTime.of(7, 0), LocalTime.of(9, 30))));
+        sessionHours.setRegularMarket(List.of(window(date, LocalTime.of(9, 30), LocalTime.of(16, 0))));
+        sessionHours.setPostMarket(List.of(window(date, LocalTime.of(16, 0), LocalTime.of(20, 0))));
+        Hours hours = new Hours();
+        hours.setDate(date);
+        hours.setIsOpen(true);
+        hours.setSessionHours(sessionHours);
+        return hours;
+    }
+
+    private static SessionStartEnd window(LocalDate date, LocalTime start, LocalTime end) {
+        SessionStartEnd sessionStartEnd = new SessionStartEnd();
+        sessionStartEnd.setStart(date.atTime(start));
+        sessionStartEnd.setEnd(date.atTime(end));
+        return sessionStartEnd;
+    }
+}
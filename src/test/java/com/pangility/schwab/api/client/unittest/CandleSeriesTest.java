@@ -0,0 +1,74 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.CandleSeries;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CandleSeriesTest {
+
+    private static final String[] PRICES = {"528.39", "-0.0001", "0.1", "12345678.987654321", "4.35e2", "0.30000000000000004", "99999999999999999.5"};
+
+    private static final String PRICE_HISTORY = "{\"candles\":["
+            + "{\"open\":542.78,\"high\":543.1,\"low\":541.0,\"close\":542.9,\"volume\":120345,\"datetime\":1718371800000},"
+            + "{\"open\":542.9,\"high\":\"NaN\",\"low\":542.1,\"close\":542.5,\"volume\":98000,\"datetime\":1718373600000,\"extra\":{\"a\":1}},"
+            + "{\"open\":542.5,\"high\":544,\"low\":542.5,\"close\":543.75,\"datetime\":1718375400000}],"
+            + "\"symbol\":\"SPY\",\"empty\":false,\"previousClose\":540.12,\"previousCloseDate\":1718316000000}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+
+    @Test
+    public void seriesMatchesCandlesTest() throws Exception {
+        CandleSeries series = objectMapper.readValue(PRICE_HISTORY, CandleSeries.class);
+        PriceHistoryResponse response = objectMapper.readValue(PRICE_HISTORY, PriceHistoryResponse.class);
+
+        assertThat(series.getSymbol()).isEqualTo("SPY");
+        assertThat(series.getEmpty()).isFalse();
+        assertThat(series.getPreviousClose()).isEqualByComparingTo("540.12");
+        assertThat(series.getPreviousCloseDate()).isEqualTo(1718316000000L);
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.getEpochMillis()).hasSize(3).containsExactly(1718371800000L, 1718373600000L, 1718375400000L);
+        assertThat(series.getClose()).containsExactly(542.9, 542.5, 543.75);
+        assertThat(series.getHigh()[1]).isNaN();
+        assertThat(series.getVolume()).containsExactly(120345L, 98000L, 0L);
+
+        CandleSeries converted = CandleSeries.of(response);
+        assertThat(converted.size()).isEqualTo(3);
+        assertThat(converted.getOpen()).containsExactly(series.getOpen());
+        assertThat(converted.getEpochMillis()).containsExactly(series.getEpochMillis());
+
+        PriceHistoryResponse roundTrip = series.toPriceHistoryResponse();
+        assertThat(roundTrip.getSymbol()).isEqualTo("SPY");
+        assertThat(roundTrip.getCandles()).hasSize(3);
+        for(int index = 0; index < 3; index++) {
+            Candle candle = response.getCandles().get(index);
+            Candle restored = roundTrip.getCandles().get(index);
+            assertThat(restored.getDatetime()).isEqualTo(candle.getDatetime());
+            assertThat(restored.getOpen()).isEqualByComparingTo(candle.getOpen());
+            assertThat(restored.getClose()).isEqualByComparingTo(candle.getClose());
+        }
+        assertThat(roundTrip.getCandles().get(1).getHigh()).isNull();
+    }
+
+    @Test
+    public void decimalPricesTest() throws Exception {
+        StringBuilder json = new StringBuilder("{\"symbol\":\"SPY\",\"candles\":[");
+        for(int index = 0; index < PRICES.length; index++) {
+            json.append(index == 0 ? "" : ",").append("{\"close\":").append(PRICES[index]).append("}");
+        }
+        CandleSeries series = objectMapper.readValue(json.append("]}").toString(), CandleSeries.class);
+
+        assertThat(series.size()).isEqualTo(PRICES.length);
+        for(int index = 0; index < PRICES.length; index++) {
+            assertThat(series.getClose()[index]).isEqualTo(Double.parseDouble(PRICES[index]));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CandleTest {
+
+    // 2024-06-14T13:30:00Z
+    private static final String PRICE_HISTORY = "{\"candles\":[{\"open\":542.78,\"close\":542.9,\"datetime\":1718371800000}],"
+            + "\"symbol\":\"SPY\",\"empty\":false,\"previousCloseDate\":1718316000000}";
+
+    @Test
+    public void lazyIsoDatesInExchangeZoneTest() throws Exception {
+        PriceHistoryResponse response = new ObjectMapper().readValue(PRICE_HISTORY, PriceHistoryResponse.class);
+        Candle candle = response.getCandles().get(0);
+
+        assertThat(candle.getZoneId()).isEqualTo(ZoneId.of("America/New_York"));
+        assertThat(candle.getDatetimeISO8601()).isEqualTo(LocalDateTime.of(2024, 6, 14, 9, 30));
+        assertThat(response.getPreviousCloseDateISO8601()).isEqualTo(LocalDate.of(2024, 6, 13));
+
+        response.setZoneId(ZoneId.of("UTC"));
+        assertThat(candle.getDatetimeISO8601()).isEqualTo(LocalDateTime.of(2024, 6, 14, 13, 30));
+
+        candle.setDatetime(1718375400000L);
+        assertThat(candle.getDatetimeISO8601()).isEqualTo(LocalDateTime.of(2024, 6, 14, 14, 30));
+    }
+}
@@ -0,0 +1,82 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainColumns;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainResponse;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionContract;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OptionChainColumnsTest {
+
+    private static final String CHAIN = "{\"symbol\":\"SPY\",\"status\":\"SUCCESS\",\"underlying\":null,\"strategy\":\"SINGLE\","
+            + "\"interval\":0.0,\"isDelayed\":false,\"isIndex\":false,\"interestRate\":5.339,\"underlyingPrice\":542.78,"
+            + "\"volatility\":29.0,\"daysToExpiration\":0.0,\"numberOfContracts\":3,\"isChainTruncated\":false,"
+            + "\"callExpDateMap\":{"
+            + "\"2024-06-17:3\":{\"540.0\":[" + contract("SPY   240617C00540000", "CALL", "2024-06-17", 540, "3.12", true) + "]},"
+            + "\"2024-06-21:7\":{\"600.0\":[" + contract("SPY   240621C00600000", "CALL", "2024-06-21", 600, "\"NaN\"", false) + "]}},"
+            + "\"putExpDateMap\":{"
+            + "\"2024-06-17:3\":{\"540.0\":[" + contract("SPY   240617P00540000", "PUT", "2024-06-17", 540, "-0.45", false) + "]}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+
+    @Test
+    public void columnsMatchContractsTest() throws Exception {
+        OptionChainColumns columns = objectMapper.readValue(CHAIN, OptionChainColumns.class);
+        OptionChainResponse response = objectMapper.readValue(CHAIN, OptionChainResponse.class);
+        List<OptionContract> contracts = new ArrayList<>();
+        response.getCallExpDateMap().values().forEach(strikes -> strikes.values().forEach(contracts::addAll));
+        response.getPutExpDateMap().values().forEach(strikes -> strikes.values().forEach(contracts::addAll));
+
+        assertThat(columns.getSymbol()).isEqualTo("SPY");
+        assertThat(columns.getUnderlyingPrice()).isEqualByComparingTo("542.78");
+        assertThat(columns.getNumberOfContracts()).isEqualTo(3);
+        assertThat(columns.size()).isEqualTo(3);
+        assertThat(columns.getExpirations()).containsExactly(LocalDate.of(2024, 6, 17), LocalDate.of(2024, 6, 21));
+        assertThat(columns.getDaysToExpiration(1)).isEqualTo(7);
+        assertThat(columns.getDelta(1)).isNaN();
+        assertThat(columns.getDelta(2)).isEqualTo(-0.45);
+        assertThat(columns.getOpenInterest(0)).isEqualTo(1234L);
+        assertThat(columns.getIsInTheMoney(0)).isTrue();
+        for(int index = 0; index < columns.size(); index++) {
+            OptionContract contract = contracts.get(index);
+            OptionContract converted = columns.toOptionContract(index);
+            assertThat(converted.getPutCall()).isEqualTo(contract.getPutCall());
+            assertThat(converted.getSymbol()).isEqualTo(contract.getSymbol());
+            assertThat(converted.getExpirationDate()).isEqualTo(contract.getExpirationDate());
+            assertThat(converted.getStrikePrice()).isEqualByComparingTo(contract.getStrikePrice());
+            assertThat(converted.getBidPrice()).isEqualByComparingTo(contract.getBidPrice());
+            assertThat(converted.getMarkPrice()).isEqualByComparingTo(contract.getMarkPrice());
+            if(contract.getDelta() == null) {
+                assertThat(converted.getDelta()).isNull();
+            } else {
+                assertThat(converted.getDelta()).isEqualByComparingTo(contract.getDelta());
+            }
+            assertThat(converted.getTotalVolume()).isEqualTo(contract.getTotalVolume());
+            assertThat(converted.getQuoteTimeInLong()).isEqualTo(contract.getQuoteTimeInLong());
+            assertThat(converted.getIsInTheMoney()).isEqualTo(contract.getIsInTheMoney());
+        }
+    }
+
+    private static String contract(String symbol, String putCall, String expiration, int strike, String delta, boolean inTheMoney) {
+        return "{\"putCall\":\"" + putCall + "\",\"symbol\":\"" + symbol + "\",\"description\":\"SPY " + strike + "\","
+                + "\"exchangeName\":\"OPR\",\"bid\":3.1,\"ask\":3.14,\"last\":3.12,\"mark\":3.12,\"bidSize\":12,\"askSize\":40,"
+                + "\"bidAskSize\":\"12X40\",\"lastSize\":1,\"highPrice\":3.5,\"lowPrice\":2.9,\"openPrice\":0.0,\"closePrice\":3.0,"
+                + "\"totalVolume\":5321,\"tradeTimeInLong\":1718394000000,\"quoteTimeInLong\":1718395199000,\"netChange\":0.12,"
+                + "\"volatility\":12.5,\"delta\":" + delta + ",\"gamma\":0.05,\"theta\":-0.4,\"vega\":0.1,\"rho\":0.01,"
+                + "\"openInterest\":1234.0,\"timeValue\":0.34,\"theoreticalOptionValue\":3.12,\"theoreticalVolatility\":29.0,"
+                + "\"optionDeliverablesList\":[{\"symbol\":\"SPY\",\"assetType\":\"STOCK\",\"deliverableUnits\":100.0}],"
+                + "\"strikePrice\":" + strike + ".0,\"expirationDate\":\"" + expiration + "T20:00:00.000+00:00\","
+                + "\"daysToExpiration\":3,\"expirationType\":\"W\",\"multiplier\":100.0,\"settlementType\":\"P\","
+                + "\"inTheMoney\":" + inTheMoney + ",\"mini\":false,\"nonStandard\":false,\"pennyPilot\":true}";
+    }
+}
@@ -0,0 +1,116 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.SchwabInstrumentIndex;
+import com.pangility.schwab.api.client.marketdata.model.instruments.Fundamental;
+import com.pangility.schwab.api.client.marketdata.model.instruments.Instrument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabInstrumentIndexTest {
+
+    private static final String MISSING_CUSIP = "000000000";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void resolveCusipsTest() {
+        Path file = directory.resolve("instruments.json");
+        SchwabInstrumentIndex index = new SchwabInstrumentIndex(100, 2, objectMapper, file, this::fetchBatch);
+        List<String> cusips = new ArrayList<>();
+        IntStream.range(0, 250).forEach(i -> cusips.add(cusip(i)));
+        cusips.add(MISSING_CUSIP);
+        cusips.add(cusip(7).toLowerCase());
+
+        Map<String, Instrument> resolved = index.resolveCusips(cusips).block();
+        assertThat(resolved).hasSize(250).doesNotContainKey(MISSING_CUSIP);
+        assertThat(resolved.get(cusip(7)).getSymbol()).isEqualTo("SYM7");
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+
+        // indexed instruments are answered without a request, only the misses are fetched
+        assertThat(index.resolveSymbols(List.of("sym1", "SYM2")).block()).containsOnlyKeys("SYM1", "SYM2");
+        assertThat(index.resolveCusips(List.of(cusip(3), MISSING_CUSIP)).block()).containsOnlyKeys(cusip(3));
+        assertThat(requests.get()).isEqualTo(4);
+
+        assertThat(index.search("sym24", 5))
+                .extracting(Instrument::getSymbol)
+                .containsExactly("SYM24", "SYM240", "SYM241", "SYM242", "SYM243");
+        assertThat(index.getBySymbol("SYM249")).get().extracting(Instrument::getCusip).isEqualTo(cusip(249));
+        assertThat(index.getByCusip(MISSING_CUSIP)).isEmpty();
+    }
+
+    @Test
+    public void persistenceTest() {
+        Path file = directory.resolve("index").resolve("instruments.json");
+        SchwabInstrumentIndex index = new SchwabInstrumentIndex(100, 2, objectMapper, file, this::fetchBatch);
+        index.resolveSymbols(List.of("SYM1", "BOND1")).block();
+        assertThat(file).exists();
+
+        SchwabInstrumentIndex reloaded = new SchwabInstrumentIndex(100, 2, objectMapper, file, this::fetchBatch);
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.resolveCusips(List.of(cusip(1))).block()).containsOnlyKeys(cusip(1));
+        assertThat(requests.get()).isEqualTo(1);
+
+        Instrument equity = reloaded.getBySymbol("SYM1").orElseThrow();
+        assertThat(equity.getAssetType()).isEqualTo(Instrument.AssetType.EQUITY);
+        assertThat(equity.getDescription()).isEqualTo("Instrument 1");
+        assertThat(equity.getFundamental()).isNull();
+        Instrument bond = reloaded.getBySymbol("BOND1").orElseThrow();
+        assertThat(bond).isInstanceOf(Instrument.Bond.class);
+        assertThat(((Instrument.Bond) bond).getBondPrice()).isEqualByComparingTo("99.5");
+    }
+
+    private Flux<Instrument> fetchBatch(List<String> keys) {
+        requests.incrementAndGet();
+        assertThat(keys).hasSizeLessThanOrEqualTo(100);
+        return Flux.fromIterable(keys)
+                .filter(key -> !key.equals(MISSING_CUSIP))
+                .map(SchwabInstrumentIndexTest::instrument)
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(signalType -> inFlight.decrementAndGet());
+    }
+
+    private static Instrument instrument(String key) {
+        if(key.startsWith("BOND")) {
+            Instrument.Bond bond = new Instrument.Bond();
+            bond.setSymbol(key);
+            bond.setCusip("912828ZZ1");
+            bond.setAssetType(Instrument.AssetType.BOND);
+            bond.setBondPrice(new BigDecimal("99.5"));
+            return bond;
+        }
+        int i = key.startsWith("SYM") ? Integer.parseInt(key.substring(3)) : Integer.parseInt(key.substring(3, 8));
+        Instrument instrument = new Instrument();
+        instrument.setSymbol("SYM" + i);
+        instrument.setCusip(cusip(i));
+        instrument.setDescription("Instrument " + i);
+        instrument.setAssetType(Instrument.AssetType.EQUITY);
+        Fundamental fundamental = new Fundamental();
+        fundamental.setDividendDate(LocalDate.of(2024, 6, 14));
+        instrument.setFundamental(fundamental);
+        return instrument;
+    }
+
+    private static String cusip(int i) {
+        return String.format("CUS%05dX", i);
+    }
+}
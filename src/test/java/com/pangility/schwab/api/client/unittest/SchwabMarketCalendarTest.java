@@ -0,0 +1,168 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.SchwabMarketCalendar;
+import com.pangility.schwab.api.client.marketdata.SchwabMarketDataApiClient.Market;
+import com.pangility.schwab.api.client.marketdata.model.markets.Hours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionHours;
+import com.pangility.schwab.api.client.marketdata.model.markets.SessionStartEnd;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SchwabMarketCalendarTest {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("America/New_York");
+    private static final LocalDate FRIDAY = LocalDate.of(2024, 7, 19);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 7, 22);
+
+    private final List<LocalDate> fetchedDates = new ArrayList<>();
+
+    @Test
+    public void sessionsTest() {
+        Clock clock = Clock.fixed(at(FRIDAY, 10, 0), ZONE_ID);
+        SchwabMarketCalendar calendar = new SchwabMarketCalendar(ZONE_ID, 7, this::fetchHours, clock);
+
+        calendar.load(List.of(Market.EQUITY)).block();
+        calendar.load(List.of(Market.EQUITY)).block();
+        assertThat(fetchedDates).hasSize(7).doesNotHaveDuplicates();
+
+        assertThat(calendar.isOpen(Market.EQUITY, at(FRIDAY, 10, 0))).isTrue();
+        assertThat(calendar.isOpen(Market.EQUITY, at(FRIDAY, 8, 0))).isFalse();
+        assertThat(calendar.isOpen(Market.EQUITY, at(FRIDAY, 8, 0), true)).isTrue();
+        assertThat(calendar.isOpen(Market.EQUITY, at(FRIDAY, 16, 0))).isFalse();
+        assertThat(calendar.isOpen(Market.EQUITY, at(FRIDAY.plusDays(1), 10, 0), true)).isFalse();
+        // the pre-market, regular and post-market sessions make one extended session
+        assertThat(calendar.sessionEnd(Market.EQUITY, at(FRIDAY, 8, 0), true)).contains(at(FRIDAY, 20, 0));
+        assertThat(calendar.nextSessionStart(Market.EQUITY, at(FRIDAY, 10, 0))).contains(at(MONDAY, 9, 30));
+        assertThat(calendar.nextSessionStart(Market.EQUITY, at(FRIDAY, 20, 30), true)).contains(at(MONDAY, 7, 0));
+        assertThat(calendar.nextSessionStart(Market.EQUITY, at(FRIDAY.plusDays(6), 17, 0))).isEmpty();
+
+        assertThatThrownBy(() -> calendar.isOpen(Market.EQUITY, at(FRIDAY.plusDays(7), 10, 0)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> calendar.isOpen(Market.OPTION, at(FRIDAY, 10, 0)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void pollTest() {
+        VirtualTimeScheduler virtualTimeScheduler = VirtualTimeScheduler.create();
+        Instant start = at(FRIDAY, 15, 58).plusSeconds(30);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZONE_ID;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return start.plusMillis(virtualTimeScheduler.now(TimeUnit.MILLISECONDS));
+            }
+        };
+        SchwabMarketCalendar calendar = new SchwabMarketCalendar(ZONE_ID, 7, this::fetchHours, clock);
+
+        StepVerifier.withVirtualTime(() -> calendar.poll(Market.EQUITY, false, Duration.ofMinutes(1),
+                        () -> Mono.fromCallable(clock::instant)), () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNext(start)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNext(start.plusSeconds(60))
+                .thenAwait(Duration.ofDays(3))
+                .expectNext(at(MONDAY, 9, 30))
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNext(at(MONDAY, 9, 31))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        // the days loaded ahead move with the sessions
+        assertThat(fetchedDates).hasSize(10).doesNotHaveDuplicates().endsWith(MONDAY.plusDays(6));
+    }
+
+    @Test
+    public void pollErrorTest() {
+        VirtualTimeScheduler virtualTimeScheduler = VirtualTimeScheduler.create();
+        Instant start = at(FRIDAY, 10, 0);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZONE_ID;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return start.plusMillis(virtualTimeScheduler.now(TimeUnit.MILLISECONDS));
+            }
+        };
+        AtomicInteger hoursFailures = new AtomicInteger(2);
+        SchwabMarketCalendar calendar = new SchwabMarketCalendar(ZONE_ID, 1, (markets, date) ->
+                hoursFailures.getAndDecrement() > 0 ? Mono.error(new IllegalStateException("503")) : this.fetchHours(markets, date), clock);
+        AtomicInteger polls = new AtomicInteger();
+
+        // the market hours fail twice and every other poll fails, yet polling goes on
+        StepVerifier.withVirtualTime(() -> calendar.poll(Market.EQUITY, false, Duration.ofMinutes(1),
+                        () -> polls.incrementAndGet() % 2 == 0 ? Mono.error(new IllegalStateException("poll")) : Mono.fromCallable(clock::instant)),
+                        () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(10))
+                .assertNext(instant -> assertThat(instant).isBetween(start, start.plusSeconds(10)))
+                .thenAwait(Duration.ofMinutes(2))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        assertThat(polls.get()).isEqualTo(3);
+    }
+
+    private Mono<Map<String, Map<String, Hours>>> fetchHours(List<Market> markets, LocalDate date) {
+        fetchedDates.add(date);
+        Hours hours = new Hours();
+        hours.setDate(date);
+        hours.setMarketType(Hours.MarketType.EQUITY);
+        boolean open = date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+        hours.setIsOpen(open);
+        if(open) {
+            SessionHours sessionHours = new SessionHours();
+            sessionHours.setPreMarket(List.of(window(date, LocalTime.of(7, 0), LocalTime.of(9, 30))));
+            sessionHours.setRegularMarket(List.of(window(date, LocalTime.of(9, 30), LocalTime.of(16, 0))));
+            sessionHours.setPostMarket(List.of(window(date, LocalTime.of(16, 0), LocalTime.of(20, 0))));
+            hours.setSessionHours(sessionHours);
+        }
+        return Mono.just(Map.of("equity", Map.of("EQ", hours)));
+    }
+
+    private static SessionStartEnd window(LocalDate date, LocalTime start, LocalTime end) {
+        SessionStartEnd sessionStartEnd = new SessionStartEnd();
+        sessionStartEnd.setStart(LocalDateTime.of(date, start));
+        sessionStartEnd.setEnd(LocalDateTime.of(date, end));
+        return sessionStartEnd;
+    }
+
+    private static Instant at(LocalDate date, int hour, int minute) {
+        return LocalDateTime.of(date, LocalTime.of(hour, minute)).atZone(ZONE_ID).toInstant();
+    }
+}
@@ -138,14 +138,25 @@ public class SchwabMarketDataApiTest {
                 .verifyComplete();
     }
 
-    /*@Test
+    @Test
     public void quotesNotFoundTest() {
         Mono<Map<String, QuoteResponse>> quoteResponses = schwabMarketDataApiClient.fetchQuotesToMono(Arrays.asList("TQQQ","UPRO","XXXXXX"));
         StepVerifier
                 .create(quoteResponses)
                 .expectError(SymbolNotFoundException.class)
                 .verify();
-    }*/
+    }
+
+    @Test
+    public void quotesFluxTest() {
+        Flux<QuoteResponse> quoteResponses = schwabMarketDataApiClient.fetchQuotesToFlux(Arrays.asList("TQQQ","UPRO","XXXXXX"), "quote", null);
+        StepVerifier
+                .create(quoteResponses.map(QuoteResponse::getSymbol).collectList())
+                .expectNextMatches(symbols -> symbols.size() == 2 &&
+                        symbols.contains("TQQQ") &&
+                        symbols.contains("UPRO"))
+                .verifyComplete();
+    }
 
     @Test
     public void chainsTest() {
@@ -0,0 +1,159 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.MarketDataEvent;
+import com.pangility.schwab.api.client.marketdata.QuoteSnapshot;
+import com.pangility.schwab.api.client.marketdata.SchwabMarketDataEventBus;
+import com.pangility.schwab.api.client.marketdata.WaitStrategy;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SchwabMarketDataEventBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StreamerFieldDecoder decoder = new StreamerFieldDecoder(StreamerService.LEVELONE_EQUITIES);
+
+    @Test
+    public void fanOutTest() throws InterruptedException {
+        int events = 20_000;
+        for(WaitStrategy waitStrategy : WaitStrategy.values()) {
+            // a small ring, so the producer has to wait for the slowest consumer many times over
+            SchwabMarketDataEventBus bus = new SchwabMarketDataEventBus(64, waitStrategy, objectMapper);
+            int consumers = 3;
+            CountDownLatch done = new CountDownLatch(consumers);
+            AtomicLong outOfOrder = new AtomicLong();
+            List<Disposable> subscriptions = new ArrayList<>();
+            for(int c = 0; c < consumers; c++) {
+                long[] expected = {0};
+                int slow = c;
+                subscriptions.add(bus.subscribe((event, endOfBatch) -> {
+                    if(event.getQuote().getBidPrice() != expected[0] || event.getSequence() != expected[0]
+                            || event.getSource() != MarketDataEvent.Source.STREAMER) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    if(slow == 0 && expected[0] % 1000 == 0) {
+                        Thread.yield();
+                    }
+                    if(++expected[0] == events) {
+                        done.countDown();
+                    }
+                }));
+            }
+            assertThat(bus.getConsumerCount()).isEqualTo(consumers);
+
+            for(int i = 0; i < events; i++) {
+                bus.publish(this.record("AAPL", i));
+            }
+            assertThat(done.await(30, TimeUnit.SECONDS)).as(waitStrategy.name()).isTrue();
+            assertThat(outOfOrder.get()).as(waitStrategy.name()).isZero();
+            assertThat(bus.getCursor()).isEqualTo(events - 1);
+            subscriptions.forEach(Disposable::dispose);
+            assertThat(bus.getConsumerCount()).isZero();
+        }
+        assertThatThrownBy(() -> new SchwabMarketDataEventBus(100, WaitStrategy.PARK, objectMapper))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void fluxTest() {
+        SchwabMarketDataEventBus bus = new SchwabMarketDataEventBus(16, WaitStrategy.PARK, objectMapper);
+
+        StepVerifier.create(bus.flux(List.of("aapl")), 1)
+                // a subscriber without demand never holds up the publisher
+                .then(() -> {
+                    bus.publish(this.quote("MSFT", 415.10));
+                    bus.publish(this.quote("AAPL", 224.30));
+                    for(int i = 1; i <= 100; i++) {
+                        bus.publish(this.record("AAPL", i));
+                    }
+                })
+                .assertNext(event -> {
+                    assertThat(event.getSource()).isEqualTo(MarketDataEvent.Source.QUOTES);
+                    assertThat(event.getSequence()).isEqualTo(1);
+                    assertThat(event.getQuote().getSymbol()).isEqualTo("AAPL");
+                    assertThat(event.getQuote().getBidPrice()).isEqualTo(224.30);
+                    assertThat(event.getQuote().getBidSize()).isEqualTo(3);
+                })
+                .expectNoEvent(Duration.ofMillis(500))
+                // a ring of the latest events is kept for it, the oldest are dropped
+                .thenRequest(100)
+                .expectNextCount(15)
+                .assertNext(event -> {
+                    assertThat(event.getSource()).isEqualTo(MarketDataEvent.Source.STREAMER);
+                    assertThat(event.getService()).isEqualTo(StreamerService.LEVELONE_EQUITIES);
+                    assertThat(event.getQuote().getBidPrice()).isEqualTo(100.0);
+                    assertThat(event.getQuote().isReceived(QuoteSnapshot.Field.BID_SIZE)).isFalse();
+                })
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+        assertThat(bus.getCursor()).isEqualTo(101);
+        assertThat(bus.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void tryPublishTest() throws InterruptedException {
+        SchwabMarketDataEventBus bus = new SchwabMarketDataEventBus(4, WaitStrategy.PARK, objectMapper);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Disposable subscription = bus.subscribe((event, endOfBatch) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // the consumer is stuck on the first event, which keeps its slot, so the ring fills after 3 more
+        // and tryPublish drops instead of waiting
+        assertThat(bus.tryPublish(this.record("AAPL", 0))).isTrue();
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        int published = 0;
+        for(int i = 1; i <= 10; i++) {
+            if(bus.tryPublish(this.record("AAPL", i))) {
+                published++;
+            }
+        }
+        assertThat(published).isEqualTo(3);
+        assertThat(bus.tryPublish(this.quote("AAPL", 224.30))).isFalse();
+        assertThat(bus.getDroppedCount()).isEqualTo(8);
+        release.countDown();
+        subscription.dispose();
+    }
+
+    private StreamerRecord record(String symbol, int bidPrice) {
+        decoder.decode(Unpooled.wrappedBuffer(("{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"timestamp\":1721400000000,"
+                + "\"command\":\"SUBS\",\"content\":[{\"key\":\"" + symbol + "\",\"1\":" + bidPrice + "}]}]}")
+                .getBytes(StandardCharsets.UTF_8)), record -> {});
+        return decoder.getRecord(symbol);
+    }
+
+    private QuoteResponse quote(String symbol, double bidPrice) {
+        try {
+            return objectMapper.readValue("""
+                    {"assetMainType":"EQUITY","symbol":"%s","quote":{"bidPrice":%s,"bidSize":3,"quoteTime":1721400000000}}
+                    """.formatted(symbol, bidPrice), QuoteResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.oauth2.SchwabAccount;
+import com.pangility.schwab.api.client.oauth2.SchwabOauth2Controller;
+import com.pangility.schwab.api.client.oauth2.SchwabTokenHandler;
+import com.pangility.schwab.api.client.oauth2.SchwabTokenRefreshScheduler;
+import lombok.NonNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabOauth2ControllerTest {
+
+    private static final String USER_ID = "testUser";
+    private static final String TOKEN_RESPONSE = "{\"expires_in\":1800,\"token_type\":\"Bearer\",\"scope\":\"api\","
+            + "\"refresh_token\":\"refresh\",\"access_token\":\"newAccessToken\",\"id_token\":\"id\"}";
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger failingTokenRequests = new AtomicInteger();
+    private final AtomicInteger accessTokenChanges = new AtomicInteger();
+    private SchwabOauth2Controller schwabOauth2Controller;
+
+    @BeforeEach
+    public void setUpEachTest() {
+        tokenRequests.set(0);
+        failingTokenRequests.set(0);
+        accessTokenChanges.set(0);
+
+        WebClient tokenWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    tokenRequests.incrementAndGet();
+                    if(failingTokenRequests.getAndDecrement() > 0) {
+                        return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(TOKEN_RESPONSE)
+                                    .build())
+                            .delayElement(Duration.ofMillis(200));
+                })
+                .build();
+
+        schwabOauth2Controller = new SchwabOauth2Controller();
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabTargetUrl", "localhost");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabApiVersion", "v1");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabTokenUri", "/oauth/token");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabRefreshGrantType", "refresh_token");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabClientId", "clientId");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "schwabClientSecret", "clientSecret");
+        ReflectionTestUtils.setField(schwabOauth2Controller, "tokenWebClient", tokenWebClient);
+
+        SchwabAccount schwabAccount = new SchwabAccount();
+        schwabAccount.setUserId(USER_ID);
+        schwabAccount.setRefreshToken("refresh");
+        schwabAccount.setRefreshExpiration(LocalDateTime.now().plusDays(7));
+        schwabAccount.setAccessToken("expiringAccessToken");
+        schwabAccount.setAccessExpiration(LocalDateTime.now().plusMinutes(1));
+        schwabOauth2Controller.init(List.of(schwabAccount), new CountingTokenHandler());
+    }
+
+    @Test
+    public void concurrentRefreshTest() {
+        int callers = 64;
+        List<SchwabAccount> results = Flux.range(0, callers)
+                .flatMap(i -> schwabOauth2Controller.getAccessToken(USER_ID)
+                        .subscribeOn(Schedulers.parallel()), callers)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).hasSize(callers);
+        assertThat(results).allSatisfy(schwabAccount -> assertThat(schwabAccount.getAccessToken()).isEqualTo("newAccessToken"));
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(accessTokenChanges.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void sequentialRefreshTest() {
+        schwabOauth2Controller.refreshAccessToken(USER_ID).block(Duration.ofSeconds(10));
+        schwabOauth2Controller.refreshAccessToken(USER_ID).block(Duration.ofSeconds(10));
+
+        assertThat(tokenRequests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void backgroundRefreshTest() {
+        SchwabTokenRefreshScheduler scheduler = new SchwabTokenRefreshScheduler();
+        ReflectionTestUtils.setField(scheduler, "leadTime", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(scheduler, "jitter", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(scheduler, "schwabOauth2Controller", schwabOauth2Controller);
+
+        scheduler.refreshDueAccounts().block(Duration.ofSeconds(10));
+        scheduler.refreshDueAccounts().block(Duration.ofSeconds(10));
+
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(accessTokenChanges.get()).isEqualTo(1);
+        assertThat(scheduler.getRefreshCount()).isEqualTo(1);
+        assertThat(scheduler.getFailureCount()).isZero();
+        assertThat(scheduler.getMinLeadTime()).isLessThanOrEqualTo(Duration.ofMinutes(1));
+        assertThat(schwabOauth2Controller.getSchwabAccount(USER_ID).getAccessToken()).isEqualTo("newAccessToken");
+    }
+
+    @Test
+    public void backgroundRefreshErrorTest() {
+        VirtualTimeScheduler virtualTimeScheduler = VirtualTimeScheduler.getOrSet();
+        try {
+            SchwabTokenRefreshScheduler scheduler = new SchwabTokenRefreshScheduler();
+            ReflectionTestUtils.setField(scheduler, "enabled", true);
+            ReflectionTestUtils.setField(scheduler, "interval", Duration.ofSeconds(1));
+            ReflectionTestUtils.setField(scheduler, "leadTime", Duration.ofMinutes(10));
+            ReflectionTestUtils.setField(scheduler, "jitter", Duration.ZERO);
+            ReflectionTestUtils.setField(scheduler, "schwabOauth2Controller", schwabOauth2Controller);
+            failingTokenRequests.set(2);
+            scheduler.start();
+
+            // the first two ticks fail
+            virtualTimeScheduler.advanceTimeBy(Duration.ofSeconds(2));
+            assertThat(scheduler.getFailureCount()).isEqualTo(2);
+            assertThat(scheduler.getRefreshCount()).isZero();
+            assertThat(tokenRequests.get()).isEqualTo(2);
+
+            // the next tick still refreshes, and later ticks find nothing due
+            virtualTimeScheduler.advanceTimeBy(Duration.ofSeconds(3));
+            assertThat(scheduler.getFailureCount()).isEqualTo(2);
+            assertThat(scheduler.getRefreshCount()).isEqualTo(1);
+            assertThat(tokenRequests.get()).isEqualTo(3);
+            assertThat(accessTokenChanges.get()).isEqualTo(1);
+            assertThat(scheduler.isRunning()).isTrue();
+            scheduler.stop();
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+
+    private class CountingTokenHandler implements SchwabTokenHandler {
+        @Override
+        public void onAccessTokenChange(@NonNull SchwabAccount schwabAccount) {
+            accessTokenChanges.incrementAndGet();
+        }
+
+        @Override
+        public void onRefreshTokenChange(@NonNull SchwabAccount schwabAccount) {
+        }
+    }
+}
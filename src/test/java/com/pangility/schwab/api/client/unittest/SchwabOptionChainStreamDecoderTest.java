@@ -0,0 +1,94 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.SchwabOptionChainStreamDecoder;
+import com.pangility.schwab.api.client.marketdata.SymbolNotFoundException;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionChainResponse;
+import com.pangility.schwab.api.client.marketdata.model.chains.OptionContract;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabOptionChainStreamDecoderTest {
+
+    private static final String CHAIN = "{\"symbol\":\"SPY\",\"status\":\"SUCCESS\",\"underlying\":null,\"strategy\":\"SINGLE\","
+            + "\"underlyingPrice\":542.78,\"numberOfContracts\":3,"
+            + "\"callExpDateMap\":{"
+            + "\"2024-06-17:3\":{\"540.0\":[" + contract("SPY   240617C00540000", "CALL", 540, "3.12") + "]},"
+            + "\"2024-06-21:7\":{\"600.0\":[" + contract("SPY   240621C00600000", "CALL", 600, "\"NaN\"") + "]}},"
+            + "\"putExpDateMap\":{"
+            + "\"2024-06-17:3\":{\"540.0\":[" + contract("SPY   240617P00540000", "PUT", 540, "-0.45") + "]}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+    private final SchwabOptionChainStreamDecoder decoder = new SchwabOptionChainStreamDecoder(objectMapper);
+
+    @Test
+    public void chunkedContractsMatchResponseTest() throws Exception {
+        OptionChainResponse response = objectMapper.readValue(CHAIN, OptionChainResponse.class);
+        List<OptionContract> expected = new ArrayList<>();
+        response.getCallExpDateMap().values().forEach(strikes -> strikes.values().forEach(expected::addAll));
+        response.getPutExpDateMap().values().forEach(strikes -> strikes.values().forEach(expected::addAll));
+
+        List<OptionContract> contracts = decoder.decode(chunks(CHAIN, 7)).collectList().block();
+
+        assertThat(contracts).hasSize(3);
+        for(int index = 0; index < contracts.size(); index++) {
+            assertThat(contracts.get(index)).usingRecursiveComparison().isEqualTo(expected.get(index));
+        }
+        assertThat(contracts.get(1).getDelta()).isNull();
+    }
+
+    @Test
+    public void firstContractBeforeEndOfBodyTest() {
+        int firstContractEnd = CHAIN.indexOf("]}") + 1;
+        Flux<DataBuffer> body = Flux.concat(chunks(CHAIN.substring(0, firstContractEnd), 16), Flux.never());
+        StepVerifier.create(decoder.decode(body))
+                .assertNext(contract -> assertThat(contract.getSymbol()).isEqualTo("SPY   240617C00540000"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void missingSymbolAndTruncatedBodyTest() {
+        StepVerifier.create(decoder.decode(chunks("{\"status\":\"FAILED\",\"callExpDateMap\":{},\"putExpDateMap\":{}}", 5)))
+                .expectError(SymbolNotFoundException.class)
+                .verify();
+        StepVerifier.create(decoder.decode(chunks(CHAIN.substring(0, CHAIN.length() - 10), 64)))
+                .expectNextCount(2)
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for(int offset = 0; offset < bytes.length; offset += chunkSize) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static String contract(String symbol, String putCall, int strike, String delta) {
+        return "{\"putCall\":\"" + putCall + "\",\"symbol\":\"" + symbol + "\",\"description\":\"SPY " + strike + "\","
+                + "\"bid\":3.1,\"ask\":3.14,\"last\":3.12,\"mark\":3.12,\"bidSize\":12,\"askSize\":40,\"totalVolume\":5321,"
+                + "\"quoteTimeInLong\":1718395199000,\"delta\":" + delta + ",\"openInterest\":1234.0,"
+                + "\"optionDeliverablesList\":[{\"symbol\":\"SPY\",\"assetType\":\"STOCK\",\"deliverableUnits\":100.0}],"
+                + "\"strikePrice\":" + strike + ".0,\"expirationDate\":\"2024-06-17T20:00:00.000+00:00\","
+                + "\"inTheMoney\":false,\"mini\":false,\"nonStandard\":false}";
+    }
+}
@@ -0,0 +1,220 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.accountsandtrading.OrderEvent;
+import com.pangility.schwab.api.client.accountsandtrading.SchwabOrderTracker;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.ActivityType;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.ExecutionLeg;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Order;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.OrderActivity;
+import com.pangility.schwab.api.client.accountsandtrading.model.order.Status;
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.model.AccountActivity;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabOrderTrackerTest {
+
+    private static final Long ACCOUNT = 12345678L;
+    private static final Long ORDER_ID = 1000001L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void fillTest() {
+        SchwabOrderTracker tracker = new SchwabOrderTracker(objectMapper, 16);
+        List<OrderEvent> events = new ArrayList<>();
+        List<OrderEvent> fills = new ArrayList<>();
+        Disposable eventSubscription = tracker.events().subscribe(events::add);
+        Disposable fillSubscription = tracker.fills().subscribe(fills::add);
+
+        tracker.update(this.activity(AccountActivity.SUBSCRIBED, null));
+        tracker.update(this.activity("OrderCreated", "{\"SchwabOrderID\":\"1000001\",\"Order\":{\"OrderQuantity\":100}}"));
+        tracker.update(this.activity("OrderAccepted", "{\"SchwabOrderID\":\"1000001\"}"));
+        tracker.update(this.activity("ExecutionCreated", """
+                {"SchwabOrderID":"1000001","ExecutionLeg":{"LegId":1,"ExecutionQuantity":40,
+                "ExecutionPrice":{"lo":"2243015","signScale":8},"ExecutionTimeStamp":{"Seconds":1721400000,"Nanos":500}}}
+                """));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).hasValueSatisfying(order -> {
+            assertThat(order.getStatus()).isEqualTo(Status.WORKING);
+            assertThat(order.getQuantity()).isEqualByComparingTo("100");
+            assertThat(order.getFilledQuantity()).isEqualByComparingTo("40");
+            assertThat(order.getRemainingQuantity()).isEqualByComparingTo("60");
+        });
+        // the quantity and price of the order are not a fill
+        tracker.update(this.activity("ExecutionCreated", """
+                {"SchwabOrderID":"1000001","Order":{"Quantity":100,"Price":225.00},"ExecutionLeg":{"LegId":2}}
+                """));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getFilledQuantity)
+                .satisfies(filled -> assertThat(filled).isEqualByComparingTo("40"));
+        tracker.update(this.activity("ExecutionCreated", """
+                {"SchwabOrderID":"1000001","LegId":"1","ExecutionQuantity":"60","ExecutionPrice":"224.31","LeavesQuantity":"0"}
+                """));
+        tracker.update(this.activity("OrderFillCompleted", "{\"SchwabOrderID\":\"1000001\"}"));
+        eventSubscription.dispose();
+        fillSubscription.dispose();
+
+        assertThat(events).extracting(OrderEvent::getStatus)
+                .containsExactly(Status.NEW, Status.WORKING, Status.WORKING, Status.FILLED, Status.FILLED);
+        assertThat(events.get(3).isStatusChanged()).isTrue();
+        assertThat(events.get(4).isStatusChanged()).isFalse();
+        // each event keeps the order as it was after that change
+        assertThat(events.get(2).getOrder().getOrderActivityCollection()).hasSize(1);
+        assertThat(events.get(3).getOrder().getOrderActivityCollection()).hasSize(2);
+
+        assertThat(fills).hasSize(2);
+        OrderActivity first = fills.get(0).getActivity();
+        assertThat(first.getActivityType()).isEqualTo(ActivityType.EXECUTION);
+        assertThat(first.getExecutionType()).isEqualTo(OrderActivity.ExecutionType.FILL);
+        ExecutionLeg leg = first.getExecutionLegs().get(0);
+        assertThat(leg.getLegId()).isEqualTo(1L);
+        assertThat(leg.getQuantity()).isEqualByComparingTo("40");
+        assertThat(leg.getPrice()).isEqualByComparingTo("224.3015");
+        assertThat(leg.getTime().toInstant()).isEqualTo(Instant.ofEpochSecond(1721400000, 500));
+        assertThat(first.getOtherFields()).containsEntry("messageType", "ExecutionCreated");
+        assertThat(fills.get(1).getActivity().getExecutionLegs().get(0).getPrice()).isEqualByComparingTo("224.31");
+        assertThat(fills.get(1).getActivity().getOrderRemainingQuantity()).isEqualByComparingTo("0");
+
+        assertThat(tracker.getOrders(ACCOUNT)).hasSize(1);
+        assertThat(tracker.getOpenOrders(ACCOUNT)).isEmpty();
+    }
+
+    @Test
+    public void transitionTest() {
+        SchwabOrderTracker tracker = new SchwabOrderTracker(objectMapper, 16);
+        Order fetched = new Order();
+        fetched.setAccountNumber(ACCOUNT);
+        fetched.setOrderId(ORDER_ID);
+        fetched.setStatus(Status.WORKING);
+        fetched.setQuantity(new BigDecimal("10"));
+        fetched.setFilledQuantity(BigDecimal.ZERO);
+        fetched.setRemainingQuantity(new BigDecimal("10"));
+        fetched.setPrice(new BigDecimal("12.5"));
+        fetched.setTag("tag");
+        fetched.getOtherFields().put("extra", "value");
+        tracker.update(fetched);
+        assertThat(tracker.getOpenOrders(ACCOUNT)).hasSize(1);
+
+        tracker.update(this.activity("CancelRequested", "{\"SchwabOrderID\":\"1000001\"}"));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getStatus).isEqualTo(Status.PENDING_CANCEL);
+        tracker.update(this.activity("CancelAccepted", "{\"SchwabOrderID\":\"1000001\"}"));
+        Order canceled = tracker.getOrder(ACCOUNT, ORDER_ID).orElseThrow();
+        assertThat(canceled.getStatus()).isEqualTo(Status.CANCELED);
+        assertThat(canceled.getOrderActivityCollection()).singleElement().satisfies(activity -> {
+            assertThat(activity.getActivityType()).isEqualTo(ActivityType.ORDER_ACTION);
+            assertThat(activity.getExecutionType()).isEqualTo(OrderActivity.ExecutionType.CANCELED);
+            assertThat(activity.getQuantity()).isEqualByComparingTo("10");
+        });
+        // the fetched order is not changed by the messages, and its other properties are kept
+        assertThat(fetched.getStatus()).isEqualTo(Status.WORKING);
+        assertThat(fetched.getOrderActivityCollection()).isEmpty();
+        assertThat(canceled.getPrice()).isEqualByComparingTo("12.5");
+        assertThat(canceled.getTag()).isEqualTo("tag");
+        assertThat(canceled.getOtherFields()).containsEntry("extra", "value");
+
+        // a final status does not change, neither by a late message nor by a stale fetch
+        tracker.update(this.activity("OrderAccepted", "{\"SchwabOrderID\":\"1000001\"}"));
+        tracker.update(fetched);
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getStatus).isEqualTo(Status.CANCELED);
+        assertThat(tracker.getOpenOrders(ACCOUNT)).isEmpty();
+        assertThat(SchwabOrderTracker.isTransitionAllowed(Status.PENDING_CANCEL, Status.FILLED)).isTrue();
+        assertThat(SchwabOrderTracker.isTransitionAllowed(Status.FILLED, Status.WORKING)).isFalse();
+        assertThat(SchwabOrderTracker.isTransitionAllowed(Status.AWAITING_CONDITION, Status.QUEUED)).isTrue();
+        assertThat(SchwabOrderTracker.isTransitionAllowed(Status.PENDING_CANCEL, Status.WORKING)).isFalse();
+        assertThat(SchwabOrderTracker.isTransitionAllowed(Status.WORKING, Status.NEW)).isFalse();
+
+        // messages without an order are ignored
+        tracker.update(this.activity("OrderAccepted", "{\"Something\":\"else\"}"));
+        tracker.update(this.activity("OrderAccepted", "not json"));
+        assertThat(tracker.getOrders(ACCOUNT)).hasSize(1);
+    }
+
+    @Test
+    public void backwardTransitionTest() {
+        SchwabOrderTracker tracker = new SchwabOrderTracker(objectMapper, 16);
+        tracker.update(this.activity("OrderCreated", "{\"SchwabOrderID\":\"1000001\",\"Order\":{\"OrderQuantity\":100}}"));
+        tracker.update(this.activity("OrderAccepted", "{\"SchwabOrderID\":\"1000001\"}"));
+
+        // a late OrderCreated does not move a working order back to new
+        tracker.update(this.activity("OrderCreated", "{\"SchwabOrderID\":\"1000001\",\"Order\":{\"OrderQuantity\":100}}"));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getStatus).isEqualTo(Status.WORKING);
+
+        // a partial fill during a pending cancel is recorded and keeps the order pending
+        tracker.update(this.activity("CancelRequested", "{\"SchwabOrderID\":\"1000001\"}"));
+        tracker.update(this.activity("ExecutionCreated",
+                "{\"SchwabOrderID\":\"1000001\",\"ExecutionLeg\":{\"ExecutionQuantity\":30,\"ExecutionPrice\":10.5}}"));
+        Order pendingCancel = tracker.getOrder(ACCOUNT, ORDER_ID).orElseThrow();
+        assertThat(pendingCancel.getStatus()).isEqualTo(Status.PENDING_CANCEL);
+        assertThat(pendingCancel.getFilledQuantity()).isEqualByComparingTo("30");
+        assertThat(pendingCancel.getRemainingQuantity()).isEqualByComparingTo("70");
+
+        // the same holds during a pending replace
+        tracker.update(this.activity("ChangeCreated", "{\"SchwabOrderID\":\"1000001\"}"));
+        tracker.update(this.activity("ExecutionCreated",
+                "{\"SchwabOrderID\":\"1000001\",\"ExecutionLeg\":{\"ExecutionQuantity\":10,\"ExecutionPrice\":10.5}}"));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getStatus).isEqualTo(Status.PENDING_REPLACE);
+
+        // the last fill still completes the order
+        tracker.update(this.activity("ExecutionCreated",
+                "{\"SchwabOrderID\":\"1000001\",\"ExecutionLeg\":{\"ExecutionQuantity\":60,\"ExecutionPrice\":10.5,\"LeavesQuantity\":0}}"));
+        assertThat(tracker.getOrder(ACCOUNT, ORDER_ID)).get().extracting(Order::getStatus).isEqualTo(Status.FILLED);
+    }
+
+    @Test
+    public void slowSubscriberTest() {
+        SchwabOrderTracker tracker = new SchwabOrderTracker(objectMapper, 4);
+        tracker.update(this.activity("OrderAccepted", "{\"SchwabOrderID\":\"1000001\",\"Order\":{\"OrderQuantity\":100}}"));
+
+        // fills pushed while the subscriber has no demand are buffered for it, then the oldest are dropped
+        StepVerifier.create(tracker.fills(), 0)
+                .then(() -> this.fill(tracker, 3))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .then(() -> assertThat(tracker.getDroppedCount()).isZero())
+                .then(() -> this.fill(tracker, 6))
+                .thenRequest(Long.MAX_VALUE)
+                .assertNext(event -> assertThat(event.getOrder().getFilledQuantity()).isEqualByComparingTo("6"))
+                .expectNextCount(3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        assertThat(tracker.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void mentionsServiceTest() {
+        String message = "{\"data\":[{\"service\":\"ACCT_ACTIVITY\",\"content\":[{\"seq\":1,\"key\":\"Account Activity\","
+                + "\"1\":\"12345678\",\"2\":\"OrderAccepted\",\"3\":\"{}\"}]}]}";
+        assertThat(StreamerFieldDecoder.mentionsService(DefaultDataBufferFactory.sharedInstance.wrap(message.getBytes(StandardCharsets.UTF_8)),
+                StreamerService.ACCT_ACTIVITY)).isTrue();
+        assertThat(StreamerFieldDecoder.mentionsService(DefaultDataBufferFactory.sharedInstance.wrap(message.getBytes(StandardCharsets.UTF_8)),
+                StreamerService.LEVELONE_EQUITIES)).isFalse();
+    }
+
+    private void fill(SchwabOrderTracker tracker, int count) {
+        for(int i = 0; i < count; i++) {
+            tracker.update(this.activity("ExecutionCreated",
+                    "{\"SchwabOrderID\":\"1000001\",\"ExecutionLeg\":{\"ExecutionQuantity\":1,\"ExecutionPrice\":10}}"));
+        }
+    }
+
+    private AccountActivity activity(String messageType, String messageData) {
+        AccountActivity activity = new AccountActivity();
+        activity.setSubscriptionKey(AccountActivity.SUBSCRIPTION_KEY);
+        activity.setAccountNumber(ACCOUNT.toString());
+        activity.setMessageType(messageType);
+        activity.setMessageData(messageData);
+        return activity;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.SchwabPriceHistoryDownloader;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.FrequencyType;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryRequest;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabPriceHistoryDownloaderTest {
+
+    private static final PriceHistoryRequest REQUEST = PriceHistoryRequest.builder()
+            .withFrequencyType(FrequencyType.minute)
+            .withFrequency(30)
+            .withStartDate(LocalDate.of(2024, 5, 1))
+            .withEndDate(LocalDate.of(2024, 5, 31))
+            .build();
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void splitMergeAndCheckpointTest() {
+        assertThat(SchwabPriceHistoryDownloader.splitRange(REQUEST.getStartDate(), REQUEST.getEndDate(), 10))
+                .extracting(window -> window[0] + "/" + window[1])
+                .containsExactly("2024-05-01/2024-05-10", "2024-05-11/2024-05-20", "2024-05-21/2024-05-30", "2024-05-31/2024-05-31");
+
+        Path checkpoint = directory.resolve("backfill.checkpoint");
+        SchwabPriceHistoryDownloader downloader = new SchwabPriceHistoryDownloader(10, 3650, 2, 2, this::fetchWindow);
+        Set<String> persisted = ConcurrentHashMap.newKeySet();
+        Map<String, PriceHistoryResponse> responses = downloader.download(List.of("aapl", "msft", "bad", "spy", "qqq"), REQUEST, checkpoint,
+                        response -> Mono.fromRunnable(() -> {
+                            // a symbol isn't in the checkpoint before it is saved
+                            assertThat(this.readCheckpoint(checkpoint)).doesNotContain(response.getSymbol());
+                            if(response.getSymbol().equals("QQQ")) {
+                                throw new IllegalStateException("disk full");
+                            }
+                            persisted.add(response.getSymbol());
+                        }))
+                .collectMap(PriceHistoryResponse::getSymbol)
+                .block(Duration.ofSeconds(10));
+
+        assertThat(responses).containsOnlyKeys("AAPL", "MSFT", "SPY");
+        assertThat(persisted).containsExactlyInAnyOrder("AAPL", "MSFT", "SPY");
+        assertThat(this.readCheckpoint(checkpoint)).containsExactlyInAnyOrder("AAPL", "MSFT", "SPY");
+        // the failed symbol stops at its first failed window
+        assertThat(calls.get()).isBetween(4 * 4 + 1, 5 * 4);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+        List<Candle> candles = responses.get("AAPL").getCandles();
+        // each window repeats the last candle of the previous one
+        assertThat(candles).hasSize(31);
+        assertThat(candles.stream().map(Candle::getDatetime).collect(Collectors.toList())).isSorted();
+
+        // the rerun only downloads the failed symbol and the one that wasn't saved
+        calls.set(0);
+        List<PriceHistoryResponse> rerun = downloader.download(List.of("AAPL", "MSFT", "BAD", "SPY", "QQQ"), REQUEST, checkpoint,
+                        response -> Mono.empty())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertThat(rerun).extracting(PriceHistoryResponse::getSymbol).containsExactly("QQQ");
+        assertThat(calls.get()).isBetween(4 + 1, 4 + 4);
+    }
+
+    private List<String> readCheckpoint(Path checkpoint) {
+        try {
+            List<String> lines = Files.readAllLines(checkpoint);
+            return lines.subList(1, lines.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Mono<PriceHistoryResponse> fetchWindow(PriceHistoryRequest window) {
+        calls.incrementAndGet();
+        if(window.getSymbol().equals("BAD")) {
+            return Mono.error(new IllegalStateException("boom"));
+        }
+        Function<LocalDate, Candle> candle = day -> {
+            Candle c = new Candle();
+            c.setDatetime(day.toEpochDay() * 86400000L);
+            return c;
+        };
+        PriceHistoryResponse response = new PriceHistoryResponse();
+        response.setSymbol(window.getSymbol());
+        for(LocalDate day = window.getStartDate().minusDays(1); !day.isAfter(window.getEndDate()); day = day.plusDays(1)) {
+            if(!day.isBefore(REQUEST.getStartDate())) {
+                response.getCandles().add(candle.apply(day));
+            }
+        }
+        return Mono.just(response)
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(20))
+                .doOnNext(fetched -> inFlight.decrementAndGet());
+    }
+}
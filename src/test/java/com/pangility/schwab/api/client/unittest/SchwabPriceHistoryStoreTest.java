@@ -0,0 +1,91 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.SchwabPriceHistoryStore;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.FrequencyType;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.PriceHistoryRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabPriceHistoryStoreTest {
+
+    private static final SchwabPriceHistoryStore.Key KEY =
+            new SchwabPriceHistoryStore.Key("/ES", FrequencyType.minute, 30, false);
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-06-14T15:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void appendPrependAndReadTest() {
+        SchwabPriceHistoryStore store = new SchwabPriceHistoryStore(directory, CLOCK);
+        assertThat(store.getCoverage(KEY)).isNull();
+
+        store.write(KEY, LocalDate.of(2024, 6, 10), LocalDate.of(2024, 6, 11), candles(LocalDate.of(2024, 6, 10), 2));
+        // today is not stored, the coverage stops at the last complete day
+        store.write(KEY, LocalDate.of(2024, 6, 12), LocalDate.of(2024, 6, 14), candles(LocalDate.of(2024, 6, 12), 3));
+        store.write(KEY, LocalDate.of(2024, 6, 8), LocalDate.of(2024, 6, 9), new ArrayList<>());
+        store.write(KEY, LocalDate.of(2024, 6, 7), LocalDate.of(2024, 6, 7), candles(LocalDate.of(2024, 6, 7), 1));
+
+        SchwabPriceHistoryStore reopened = new SchwabPriceHistoryStore(directory, CLOCK);
+        SchwabPriceHistoryStore.Coverage coverage = reopened.getCoverage(KEY);
+        assertThat(coverage.getStart()).isEqualTo(LocalDate.of(2024, 6, 7));
+        assertThat(coverage.getEnd()).isEqualTo(LocalDate.of(2024, 6, 13));
+
+        List<Candle> all = reopened.read(KEY, coverage.getStart(), coverage.getEnd());
+        assertThat(all).hasSize(5 * 48);
+        for(int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).getDatetime()).isGreaterThan(all.get(i - 1).getDatetime());
+        }
+        List<Candle> oneDay = reopened.read(KEY, LocalDate.of(2024, 6, 11), LocalDate.of(2024, 6, 11));
+        assertThat(oneDay).hasSize(48);
+        assertThat(oneDay.get(0).getDatetime()).isEqualTo(LocalDate.of(2024, 6, 11).toEpochDay() * 86400000L);
+        assertThat(oneDay.get(1).getClose()).isEqualByComparingTo("542.79");
+        assertThat(oneDay.get(1).getVolume()).isEqualTo(1001L);
+        assertThat(oneDay.get(2).getOpen()).isNull();
+    }
+
+    @Test
+    public void storableRequestTest() {
+        PriceHistoryRequest.PriceHistoryRequestBuilder builder = PriceHistoryRequest.builder()
+                .withSymbol("SPY")
+                .withStartDate(LocalDate.of(2024, 6, 3))
+                .withEndDate(LocalDate.of(2024, 6, 14));
+        // the default frequency depends on the period type, so it cannot name the stored series
+        assertThat(SchwabPriceHistoryStore.isStorable(builder.build())).isFalse();
+        builder.withFrequencyType(FrequencyType.minute).withFrequency(30);
+        assertThat(SchwabPriceHistoryStore.isStorable(builder.build())).isTrue();
+        builder.withStartDate(null);
+        assertThat(SchwabPriceHistoryStore.isStorable(builder.build())).isFalse();
+        builder.withStartDate(LocalDate.of(2024, 6, 3));
+        builder.withNeedPreviousClose(true);
+        assertThat(SchwabPriceHistoryStore.isStorable(builder.build())).isFalse();
+    }
+
+    private static List<Candle> candles(LocalDate start, int days) {
+        List<Candle> candles = new ArrayList<>();
+        long datetime = start.toEpochDay() * 86400000L;
+        for(int i = 0; i < days * 48; i++, datetime += 30 * 60000L) {
+            Candle candle = new Candle();
+            candle.setDatetime(datetime);
+            candle.setOpen(i % 48 == 2 ? null : new BigDecimal("542.78"));
+            candle.setHigh(new BigDecimal("543.1"));
+            candle.setLow(new BigDecimal("541.005"));
+            candle.setClose(new BigDecimal("542.78").add(new BigDecimal("0.01").multiply(BigDecimal.valueOf(i % 48))));
+            candle.setVolume(1000L + i % 48);
+            candles.add(candle);
+        }
+        return candles;
+    }
+}
@@ -0,0 +1,192 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.SchwabQuoteCache;
+import com.pangility.schwab.api.client.marketdata.SymbolNotFoundException;
+import com.pangility.schwab.api.client.marketdata.model.AssetMainType;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabQuoteCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void hitMissAndDeduplicationTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(100, Duration.ofMinutes(1), Map.of(), false);
+
+        List<QuoteResponse> quoteResponses = Flux.range(0, 100)
+                .flatMap(i -> quoteCache.getQuote("MSFT", "all", this::loadQuote)
+                        .subscribeOn(Schedulers.parallel()), 100)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        QuoteResponse cached = quoteCache.getQuote("MSFT", "all", this::loadQuote).block(Duration.ofSeconds(5));
+
+        assertThat(quoteResponses).hasSize(100);
+        assertThat(cached).isSameAs(quoteResponses.get(0));
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(quoteCache.getHitCount() + quoteCache.getMissCount()).isEqualTo(101);
+        assertThat(quoteCache.getHitCount()).isPositive();
+    }
+
+    @Test
+    public void ttlByAssetTypeTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(100, Duration.ofMillis(50),
+                SchwabQuoteCache.parseTtls("MUTUAL_FUND=1m"), false);
+        AtomicLong nanos = new AtomicLong();
+        ReflectionTestUtils.setField(quoteCache, "nanoClock", (LongSupplier) nanos::get);
+
+        quoteCache.getQuote("MSFT", "all", this::loadQuoteNow).block();
+        quoteCache.getQuote("VFIAX", "all", this::loadQuoteNow).block();
+        nanos.addAndGet(Duration.ofMillis(49).toNanos());
+        quoteCache.getQuote("MSFT", "all", this::loadQuoteNow).block();
+        assertThat(quoteCache.getHitCount()).isEqualTo(1);
+
+        nanos.addAndGet(Duration.ofMillis(1).toNanos());
+        quoteCache.getQuote("MSFT", "all", this::loadQuoteNow).block();
+        quoteCache.getQuote("VFIAX", "all", this::loadQuoteNow).block();
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(quoteCache.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void lruEvictionTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(2, Duration.ofMinutes(1), Map.of(), false);
+
+        quoteCache.getQuote("AAPL", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        quoteCache.getQuote("MSFT", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        quoteCache.getQuote("AAPL", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        quoteCache.getQuote("TSLA", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        quoteCache.getQuote("AAPL", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        quoteCache.getQuote("MSFT", "all", this::loadQuote).block(Duration.ofSeconds(5));
+
+        assertThat(quoteCache.size()).isEqualTo(2);
+        assertThat(quoteCache.getEvictionCount()).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void staleWhileRevalidateTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(100, Duration.ofMillis(300), Map.of(), true);
+        AtomicLong nanos = new AtomicLong();
+        ReflectionTestUtils.setField(quoteCache, "nanoClock", (LongSupplier) nanos::get);
+        Sinks.One<QuoteResponse> refresh = Sinks.one();
+        BiFunction<String, String, Mono<QuoteResponse>> refreshLoader = (symbol, fields) -> {
+            loads.incrementAndGet();
+            return refresh.asMono();
+        };
+
+        QuoteResponse first = quoteCache.getQuote("MSFT", "all", this::loadQuoteNow).block();
+        nanos.addAndGet(Duration.ofMillis(300).toNanos());
+
+        // the expired quote is returned while a single refresh is pending
+        QuoteResponse stale = quoteCache.getQuote("MSFT", "all", refreshLoader).block();
+        QuoteResponse staleAgain = quoteCache.getQuote("MSFT", "all", refreshLoader).block();
+        assertThat(stale).isSameAs(first);
+        assertThat(staleAgain).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(2);
+
+        QuoteResponse loaded = this.newQuoteResponse("MSFT", AssetMainType.EQUITY);
+        refresh.tryEmitValue(loaded);
+        QuoteResponse refreshed = quoteCache.getQuote("MSFT", "all", refreshLoader).block();
+
+        assertThat(refreshed).isSameAs(loaded);
+        assertThat(quoteCache.getStaleHitCount()).isEqualTo(2);
+        assertThat(quoteCache.getHitCount()).isEqualTo(1);
+        assertThat(quoteCache.getMissCount()).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getQuotesTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(100, Duration.ofMinutes(1), Map.of(), false);
+        AtomicInteger requestedSymbols = new AtomicInteger();
+
+        quoteCache.getQuote("MSFT", "all", this::loadQuote).block(Duration.ofSeconds(5));
+        Map<String, QuoteResponse> quoteResponseMap = quoteCache.getQuotes(List.of("MSFT", "AAPL", "BAD"), "all",
+                (symbols, fields) -> {
+                    requestedSymbols.addAndGet(symbols.size());
+                    Map<String, QuoteResponse> loaded = new LinkedHashMap<>();
+                    symbols.stream()
+                            .filter(symbol -> !symbol.equals("BAD"))
+                            .forEach(symbol -> loaded.put(symbol, this.newQuoteResponse(symbol, AssetMainType.EQUITY)));
+                    return Mono.just(loaded);
+                })
+                .block(Duration.ofSeconds(5));
+
+        assertThat(quoteResponseMap).containsOnlyKeys("MSFT", "AAPL");
+        assertThat(requestedSymbols.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void inFlightTest() {
+        SchwabQuoteCache quoteCache = new SchwabQuoteCache(100, Duration.ofMinutes(1), Map.of(), false);
+        AtomicInteger requestedSymbols = new AtomicInteger();
+        BiFunction<List<String>, String, Mono<Map<String, QuoteResponse>>> loader = (symbols, fields) -> Mono.fromSupplier(() -> {
+                    requestedSymbols.addAndGet(symbols.size());
+                    Map<String, QuoteResponse> loaded = new LinkedHashMap<>();
+                    symbols.stream()
+                            .filter(symbol -> !symbol.equals("BAD"))
+                            .forEach(symbol -> loaded.put(symbol, this.newQuoteResponse(symbol, AssetMainType.EQUITY)));
+                    return loaded;
+                })
+                .delayElement(Duration.ofMillis(50));
+
+        // concurrent batches fetch each symbol once
+        List<Map<String, QuoteResponse>> quoteResponseMaps = Flux.range(0, 20)
+                .flatMap(i -> quoteCache.getQuotes(List.of("AAPL", "MSFT", "BAD"), "all", loader)
+                        .subscribeOn(Schedulers.parallel()), 20)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(quoteResponseMaps).hasSize(20).allSatisfy(quoteResponseMap ->
+                assertThat(quoteResponseMap).containsOnlyKeys("AAPL", "MSFT"));
+        assertThat(requestedSymbols.get()).isEqualTo(3);
+
+        // a single quote joining a batch fails when the batch did not find its symbol
+        quoteCache.getQuotes(List.of("IBM", "BAD"), "quote", loader).subscribe();
+        StepVerifier.create(quoteCache.getQuote("BAD", "quote", this::loadQuote))
+                .expectError(SymbolNotFoundException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(quoteCache.getQuote("IBM", "quote", this::loadQuote))
+                .assertNext(quoteResponse -> assertThat(quoteResponse.getSymbol()).isEqualTo("IBM"))
+                .verifyComplete();
+        assertThat(loads.get()).isZero();
+    }
+
+    private Mono<QuoteResponse> loadQuote(String symbol, String fields) {
+        return Mono.fromSupplier(() -> {
+                    loads.incrementAndGet();
+                    return this.newQuoteResponse(symbol, symbol.equals("VFIAX") ? AssetMainType.MUTUAL_FUND : AssetMainType.EQUITY);
+                })
+                .delayElement(Duration.ofMillis(20));
+    }
+
+    private Mono<QuoteResponse> loadQuoteNow(String symbol, String fields) {
+        loads.incrementAndGet();
+        return Mono.just(this.newQuoteResponse(symbol, symbol.equals("VFIAX") ? AssetMainType.MUTUAL_FUND : AssetMainType.EQUITY));
+    }
+
+    private QuoteResponse newQuoteResponse(String symbol, AssetMainType assetMainType) {
+        QuoteResponse quoteResponse = new QuoteResponse();
+        quoteResponse.setSymbol(symbol);
+        quoteResponse.setAssetMainType(assetMainType);
+        return quoteResponse;
+    }
+}
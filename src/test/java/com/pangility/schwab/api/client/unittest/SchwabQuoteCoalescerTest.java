@@ -0,0 +1,72 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.marketdata.SchwabQuoteCoalescer;
+import com.pangility.schwab.api.client.marketdata.SymbolNotFoundException;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabQuoteCoalescerTest {
+
+    private static final String MISSING_SYMBOL = "BAD";
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Test
+    public void coalesceQuotesTest() {
+        SchwabQuoteCoalescer coalescer = new SchwabQuoteCoalescer(Duration.ofMillis(5), 100, this::fetchQuoteMap);
+
+        List<Object> results = Flux.range(0, 1000)
+                .flatMap(i -> coalescer.fetchQuoteToMono(i % 50 == 0 ? MISSING_SYMBOL : "sym" + (i % 200), "all")
+                        .<Object>map(QuoteResponse::getSymbol)
+                        .onErrorResume(SymbolNotFoundException.class, Mono::just)
+                        .subscribeOn(Schedulers.parallel()), 1000)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).hasSize(1000);
+        assertThat(results).filteredOn(result -> result instanceof SymbolNotFoundException).hasSize(20);
+        assertThat(results).filteredOn(result -> result instanceof String)
+                .allSatisfy(symbol -> assertThat((String) symbol).startsWith("SYM"));
+        assertThat(coalescer.getQuoteCount()).isEqualTo(1000);
+        assertThat(coalescer.getBatchCount()).isEqualTo(requests.get());
+        assertThat(requests.get()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void batchErrorTest() {
+        SchwabQuoteCoalescer coalescer = new SchwabQuoteCoalescer(Duration.ofMillis(5), 100,
+                (symbols, fields) -> Mono.error(new SymbolNotFoundException("'" + symbols + "' not found")));
+
+        StepVerifier.create(coalescer.fetchQuoteToMono("msft", "all"))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(SymbolNotFoundException.class)
+                        .hasMessage("'MSFT' not found"))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private Mono<Map<String, QuoteResponse>> fetchQuoteMap(List<String> symbols, String fields) {
+        requests.incrementAndGet();
+        assertThat(symbols).hasSizeLessThanOrEqualTo(100).doesNotHaveDuplicates();
+        Map<String, QuoteResponse> quoteResponseMap = new HashMap<>();
+        symbols.stream()
+                .filter(symbol -> !symbol.equals(MISSING_SYMBOL))
+                .forEach(symbol -> {
+                    QuoteResponse quoteResponse = new QuoteResponse();
+                    quoteResponse.setSymbol(symbol);
+                    quoteResponseMap.put(symbol, quoteResponse);
+                });
+        return Mono.just(quoteResponseMap).delayElement(Duration.ofMillis(20));
+    }
+}
@@ -0,0 +1,150 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.marketdata.QuoteSnapshot;
+import com.pangility.schwab.api.client.marketdata.SchwabQuoteSnapshotTable;
+import com.pangility.schwab.api.client.marketdata.model.quotes.QuoteResponse;
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabQuoteSnapshotTableTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StreamerFieldDecoder decoder = new StreamerFieldDecoder(StreamerService.LEVELONE_EQUITIES);
+
+    @Test
+    public void mergeTest() throws IOException {
+        SchwabQuoteSnapshotTable quoteSnapshots = new SchwabQuoteSnapshotTable(objectMapper, Schedulers.immediate());
+
+        quoteSnapshots.update(this.quote("AAPL", 224.30, 224.34, 1721400000000L));
+        QuoteSnapshot apple = quoteSnapshots.get("AAPL").orElseThrow();
+        assertThat(apple.getBidPrice()).isEqualTo(224.30);
+        assertThat(apple.getAskPrice()).isEqualTo(224.34);
+        assertThat(apple.getMark()).isEqualTo(224.32);
+        assertThat(apple.getBidSize()).isEqualTo(3);
+        assertThat(apple.getQuoteTime()).isEqualTo(1721400000000L);
+        assertThat(apple.isReceived(QuoteSnapshot.Field.TRADE_TIME)).isFalse();
+
+        // the streamer only sends what changed, the rest of the snapshot is kept
+        decoder.decode(this.message("{\"key\":\"AAPL\",\"1\":224.31,\"34\":1721400001000}"), quoteSnapshots::update);
+        QuoteSnapshot snapshot = new QuoteSnapshot();
+        assertThat(quoteSnapshots.read("AAPL", snapshot)).isTrue();
+        assertThat(snapshot.getSymbol()).isEqualTo("AAPL");
+        assertThat(snapshot.getBidPrice()).isEqualTo(224.31);
+        assertThat(snapshot.getAskPrice()).isEqualTo(224.34);
+        assertThat(snapshot.getBidSize()).isEqualTo(3);
+        assertThat(snapshot.getQuoteTime()).isEqualTo(1721400001000L);
+        assertThat(snapshot.getVersion()).isEqualTo(apple.getVersion() + 1);
+
+        // a REST quote older than the streamer update is ignored, a newer one is merged
+        quoteSnapshots.update(this.quote("AAPL", 224.00, 224.50, 1721400000500L));
+        quoteSnapshots.read("AAPL", snapshot);
+        assertThat(snapshot.getBidPrice()).isEqualTo(224.31);
+        quoteSnapshots.updateAll(List.of(this.quote("AAPL", 224.40, 224.42, 1721400002000L),
+                this.quote("MSFT", 415.10, 415.12, 1721400002000L)));
+        quoteSnapshots.read("AAPL", snapshot);
+        assertThat(snapshot.getBidPrice()).isEqualTo(224.40);
+        assertThat(quoteSnapshots.size()).isEqualTo(2);
+        assertThat(quoteSnapshots.read("TSLA", snapshot)).isFalse();
+        assertThat(quoteSnapshots.get("TSLA")).isEmpty();
+    }
+
+    @Test
+    public void conflationTest() {
+        SchwabQuoteSnapshotTable quoteSnapshots = new SchwabQuoteSnapshotTable(objectMapper, Schedulers.immediate());
+        decoder.decode(this.message("{\"key\":\"AAPL\",\"1\":1.0}"), quoteSnapshots::update);
+
+        StepVerifier.create(quoteSnapshots.updates(List.of("AAPL", "MSFT")), 0)
+                .then(() -> {
+                    for(int i = 2; i <= 1000; i++) {
+                        decoder.decode(this.message("{\"key\":\"AAPL\",\"1\":" + i + "}"), quoteSnapshots::update);
+                        decoder.decode(this.message("{\"key\":\"MSFT\",\"1\":" + i + "}"), quoteSnapshots::update);
+                        decoder.decode(this.message("{\"key\":\"TSLA\",\"1\":" + i + "}"), quoteSnapshots::update);
+                    }
+                })
+                .thenRequest(1)
+                .assertNext(snapshot -> {
+                    assertThat(snapshot.getSymbol()).isEqualTo("AAPL");
+                    assertThat(snapshot.getBidPrice()).isEqualTo(1000.0);
+                })
+                .thenRequest(1)
+                .assertNext(snapshot -> {
+                    assertThat(snapshot.getSymbol()).isEqualTo("MSFT");
+                    assertThat(snapshot.getBidPrice()).isEqualTo(1000.0);
+                })
+                .thenRequest(1)
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> decoder.decode(this.message("{\"key\":\"MSFT\",\"1\":1001}"), quoteSnapshots::update))
+                .assertNext(snapshot -> assertThat(snapshot.getBidPrice()).isEqualTo(1001.0))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void consistentReadTest() throws InterruptedException {
+        SchwabQuoteSnapshotTable quoteSnapshots = new SchwabQuoteSnapshotTable(objectMapper, Schedulers.immediate());
+        int updates = 200_000;
+        ByteBuf[] messages = new ByteBuf[1000];
+        for(int i = 0; i < messages.length; i++) {
+            messages[i] = this.message("{\"key\":\"AAPL\",\"1\":" + i + ",\"2\":" + i + ",\"4\":" + i + ",\"5\":" + i + "}");
+        }
+        decoder.decode(messages[0], quoteSnapshots::update);
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong torn = new AtomicLong();
+        Thread[] readers = new Thread[2];
+        for(int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                QuoteSnapshot snapshot = new QuoteSnapshot();
+                while(writing.get()) {
+                    quoteSnapshots.read("AAPL", snapshot);
+                    if(snapshot.getBidPrice() != snapshot.getAskPrice()
+                            || snapshot.getBidSize() != snapshot.getAskSize()
+                            || snapshot.getBidPrice() != snapshot.getBidSize()) {
+                        torn.incrementAndGet();
+                    }
+                    reads.incrementAndGet();
+                }
+            });
+            readers[r].start();
+        }
+        for(int i = 0; i < updates; i++) {
+            decoder.decode(messages[i % messages.length], quoteSnapshots::update);
+        }
+        writing.set(false);
+        for(Thread reader : readers) {
+            reader.join(5000);
+        }
+
+        assertThat(reads.get()).isPositive();
+        assertThat(torn.get()).isZero();
+        assertThat(quoteSnapshots.get("AAPL").orElseThrow().getVersion()).isEqualTo(updates + 1);
+    }
+
+    private QuoteResponse quote(String symbol, double bidPrice, double askPrice, long quoteTime) throws IOException {
+        return objectMapper.readValue("""
+                {"assetMainType":"EQUITY","symbol":"%s","realtime":true,"quote":{"bidPrice":%s,"askPrice":%s,
+                 "mark":%s,"bidSize":3,"askSize":5,"quoteTime":%d}}
+                """.formatted(symbol, bidPrice, askPrice, (bidPrice + askPrice) / 2, quoteTime), QuoteResponse.class);
+    }
+
+    private ByteBuf message(String content) {
+        return Unpooled.wrappedBuffer(("{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"timestamp\":1721400000000,"
+                + "\"command\":\"SUBS\",\"content\":[" + content + "]}]}").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,268 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.common.SchwabBaseApiClient;
+import com.pangility.schwab.api.client.common.SchwabRateLimiter;
+import com.pangility.schwab.api.client.common.SchwabWebClient;
+import com.pangility.schwab.api.client.oauth2.SchwabAccount;
+import com.pangility.schwab.api.client.oauth2.SchwabOauth2Controller;
+import lombok.NonNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabRateLimiterTest {
+
+    private static final String USER_ID = "testUser";
+    private static final int QUOTA_PER_SECOND = 20;
+    private static final int REQUESTS = 100;
+    private static final Duration ARRIVAL_INTERVAL = Duration.ofMillis(40);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger tooManyRequests = new AtomicInteger();
+    private final List<Long> requestNanos = Collections.synchronizedList(new ArrayList<>());
+    private VirtualTimeScheduler virtualTimeScheduler;
+    private long windowStart;
+    private int windowCount;
+
+    @BeforeEach
+    public void setUpEachTest() {
+        requests.set(0);
+        tooManyRequests.set(0);
+        requestNanos.clear();
+        windowStart = 0;
+        windowCount = 0;
+        virtualTimeScheduler = VirtualTimeScheduler.create();
+    }
+
+    @Test
+    public void rateLimiterTest() {
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(true);
+        RateLimitedApiClient client = this.newApiClient(schwabRateLimiter, request -> this.overQuota()
+                ? this.tooManyRequests(null)
+                : this.ok());
+
+        List<Long> latencies = this.runRequests(client);
+
+        // no request goes over the quota, so each one waits its turn in the bucket only
+        assertThat(latencies).hasSize(REQUESTS);
+        assertThat(tooManyRequests.get()).isZero();
+        assertThat(requests.get()).isEqualTo(REQUESTS);
+        assertThat(schwabRateLimiter.getDelayedCount()).isPositive();
+        assertThat(schwabRateLimiter.getPauseCount()).isZero();
+        assertThat(Collections.max(latencies)).isLessThan(Duration.ofSeconds(3).toMillis());
+    }
+
+    @Test
+    public void retryLoopTest() {
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(false);
+        RateLimitedApiClient client = this.newApiClient(schwabRateLimiter, request -> this.overQuota()
+                ? this.tooManyRequests(null)
+                : this.ok());
+
+        List<Long> latencies = this.runRequests(client);
+
+        // without the token bucket the quota is only found out through 429s and paused lanes
+        assertThat(latencies).hasSize(REQUESTS);
+        assertThat(tooManyRequests.get()).isPositive();
+        assertThat(requests.get()).isEqualTo(REQUESTS + tooManyRequests.get());
+        assertThat(schwabRateLimiter.getPauseCount()).isEqualTo(tooManyRequests.get());
+    }
+
+    @Test
+    public void disabledRateLimiterTest() {
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(false);
+
+        StepVerifier.withVirtualTime(() -> schwabRateLimiter.acquire(USER_ID, SchwabRateLimiter.Lane.TRADER),
+                        () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .verifyComplete();
+        assertThat(schwabRateLimiter.getDelayedCount()).isZero();
+    }
+
+    @Test
+    public void pauseWithRetryAfterTest() {
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(true);
+        RateLimitedApiClient client = this.newApiClient(schwabRateLimiter, request -> requests.get() == 1
+                ? this.tooManyRequests("2")
+                : this.ok());
+
+        // the first request gets a 429 that pauses the lane, the second arrives during the pause
+        StepVerifier.withVirtualTime(() -> Flux.merge(client.fetchMarketData(),
+                                Mono.delay(Duration.ofMillis(500)).then(client.fetchMarketData())),
+                        () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(1999))
+                .then(() -> assertThat(requests.get()).isEqualTo(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("{}", "{}")
+                .verifyComplete();
+        assertThat(requestNanos).containsExactly(0L, Duration.ofSeconds(2).toNanos(), Duration.ofSeconds(2).toNanos());
+        assertThat(schwabRateLimiter.getPauseCount()).isEqualTo(1);
+
+        // the trader lane of the user was never paused
+        assertThat(client.fetchTrader().block(Duration.ofSeconds(5))).isEqualTo("{}");
+        assertThat(requestNanos.get(3)).isEqualTo(Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    public void retryAfterZeroTest() {
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(true);
+        RateLimitedApiClient client = this.newApiClient(schwabRateLimiter, request -> this.tooManyRequests("0"));
+
+        // a zero Retry-After still pauses the lane for the initial backoff and the retries back off
+        StepVerifier.withVirtualTime(client::fetchMarketData, () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(99))
+                .then(() -> assertThat(requests.get()).isEqualTo(1))
+                .thenAwait(Duration.ofMinutes(1))
+                .verifyErrorMatches(Exceptions::isRetryExhausted);
+        assertThat(requests.get()).isEqualTo(11);
+        for(int i = 1; i < requestNanos.size(); i++) {
+            assertThat(requestNanos.get(i) - requestNanos.get(i - 1)).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        }
+        // the backoff reaches the max backoff, less its jitter
+        assertThat(requestNanos.get(10) - requestNanos.get(9))
+                .isBetween(Duration.ofMillis(500).toNanos(), Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    public void adaptiveBackoffTest() {
+        AtomicLong nanos = new AtomicLong();
+        SchwabRateLimiter schwabRateLimiter = this.newSchwabRateLimiter(true);
+        ReflectionTestUtils.setField(schwabRateLimiter, "nanoClock", (LongSupplier) nanos::get);
+        SchwabRateLimiter.Lane lane = SchwabRateLimiter.Lane.MARKET_DATA;
+
+        Duration first = schwabRateLimiter.pause(USER_ID, lane, null);
+        Duration whilePaused = schwabRateLimiter.pause(USER_ID, lane, null);
+        nanos.addAndGet(first.toNanos());
+        Duration second = schwabRateLimiter.pause(USER_ID, lane, null);
+        nanos.addAndGet(second.toNanos());
+        schwabRateLimiter.onSuccess(USER_ID, lane);
+        Duration afterSuccess = schwabRateLimiter.pause(USER_ID, lane, null);
+
+        assertThat(first).isBetween(Duration.ofMillis(100), Duration.ofMillis(125));
+        assertThat(whilePaused).isEqualTo(first);
+        assertThat(second).isBetween(Duration.ofMillis(200), Duration.ofMillis(250));
+        assertThat(afterSuccess).isBetween(Duration.ofMillis(100), Duration.ofMillis(125));
+    }
+
+    private SchwabRateLimiter newSchwabRateLimiter(boolean enabled) {
+        SchwabRateLimiter schwabRateLimiter = new SchwabRateLimiter();
+        ReflectionTestUtils.setField(schwabRateLimiter, "enabled", enabled);
+        ReflectionTestUtils.setField(schwabRateLimiter, "period", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(schwabRateLimiter, "burst", 2);
+        ReflectionTestUtils.setField(schwabRateLimiter, "marketDataRequestsPerPeriod", QUOTA_PER_SECOND - 2);
+        ReflectionTestUtils.setField(schwabRateLimiter, "traderRequestsPerPeriod", QUOTA_PER_SECOND - 2);
+        ReflectionTestUtils.setField(schwabRateLimiter, "initialBackoff", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(schwabRateLimiter, "maxBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(schwabRateLimiter, "nanoClock",
+                (LongSupplier) () -> virtualTimeScheduler.now(TimeUnit.NANOSECONDS));
+        return schwabRateLimiter;
+    }
+
+    private RateLimitedApiClient newApiClient(@NonNull SchwabRateLimiter schwabRateLimiter,
+                                              @NonNull Function<ClientRequest, ClientResponse> server) {
+        SchwabWebClient schwabWebClient = new SchwabWebClient();
+        ReflectionTestUtils.setField(schwabWebClient, "webClient", WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> {
+                    requests.incrementAndGet();
+                    requestNanos.add(virtualTimeScheduler.now(TimeUnit.NANOSECONDS));
+                    return server.apply(request);
+                }))
+                .build());
+
+        SchwabOauth2Controller schwabOauth2Controller = new SchwabOauth2Controller();
+        SchwabAccount schwabAccount = new SchwabAccount();
+        schwabAccount.setUserId(USER_ID);
+        schwabAccount.setRefreshToken("refresh");
+        schwabAccount.setRefreshExpiration(LocalDateTime.now().plusDays(7));
+        schwabAccount.setAccessToken("accessToken");
+        schwabAccount.setAccessExpiration(LocalDateTime.now().plusMinutes(30));
+        schwabOauth2Controller.init(List.of(schwabAccount), null);
+
+        RateLimitedApiClient client = new RateLimitedApiClient();
+        ReflectionTestUtils.setField(client, SchwabBaseApiClient.class, "schwabTargetUrl", "localhost", String.class);
+        ReflectionTestUtils.setField(client, SchwabBaseApiClient.class, "schwabMarketDataPath", "marketdata", String.class);
+        ReflectionTestUtils.setField(client, SchwabBaseApiClient.class, "schwabOauth2Controller", schwabOauth2Controller, SchwabOauth2Controller.class);
+        ReflectionTestUtils.setField(client, SchwabBaseApiClient.class, "schwabWebClient", schwabWebClient, SchwabWebClient.class);
+        ReflectionTestUtils.setField(client, SchwabBaseApiClient.class, "schwabRateLimiter", schwabRateLimiter, SchwabRateLimiter.class);
+        return client;
+    }
+
+    private List<Long> runRequests(@NonNull RateLimitedApiClient client) {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ZERO, ARRIVAL_INTERVAL)
+                                .take(REQUESTS)
+                                .flatMap(i -> {
+                                    long start = virtualTimeScheduler.now(TimeUnit.MILLISECONDS);
+                                    return client.fetchMarketData()
+                                            .doOnNext(body -> latencies.add(virtualTimeScheduler.now(TimeUnit.MILLISECONDS) - start));
+                                }, REQUESTS),
+                        () -> virtualTimeScheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNextCount(REQUESTS)
+                .verifyComplete();
+        return latencies;
+    }
+
+    private ClientResponse ok() {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{}")
+                .build();
+    }
+
+    private ClientResponse tooManyRequests(String retryAfter) {
+        tooManyRequests.incrementAndGet();
+        ClientResponse.Builder builder = ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS);
+        if(retryAfter != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return builder.build();
+    }
+
+    private synchronized boolean overQuota() {
+        long now = virtualTimeScheduler.now(TimeUnit.NANOSECONDS);
+        if(now - windowStart >= 1_000_000_000L) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        return ++windowCount > QUOTA_PER_SECOND;
+    }
+
+    private static class RateLimitedApiClient extends SchwabBaseApiClient {
+        Mono<String> fetchMarketData() {
+            return this.callGetApiToMono(USER_ID, UriComponentsBuilder.newInstance().pathSegment("marketdata", "v1", "quotes"), String.class);
+        }
+
+        Mono<String> fetchTrader() {
+            return this.callGetApiToMono(USER_ID, UriComponentsBuilder.newInstance().pathSegment("trader", "v1", "accounts"), String.class);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.pangility.schwab.api.client.common.SchwabResponseDecoder;
+import com.pangility.schwab.api.client.common.deserializers.BigDecimalNanDeserializer;
+import com.pangility.schwab.api.client.marketdata.model.pricehistory.Candle;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabResponseDecoderTest {
+
+    private static final ParameterizedTypeReference<Candle> CANDLE_TYPE = new ParameterizedTypeReference<>() {};
+    private static final String FIRST = "{\"open\":0.1,\"close\":\"NaN\",\"volume\":100,\"datetime\":1718000000000}";
+    private static final String SECOND = "{\"open\":542.78,\"close\":543.01,\"volume\":200,\"datetime\":1718000060000}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(BigDecimal.class, new BigDecimalNanDeserializer()));
+    private final SchwabResponseDecoder decoder = new SchwabResponseDecoder(objectMapper, 1024);
+
+    @Test
+    public void streamingArrayTest() {
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        String array = "[" + FIRST + "," + SECOND + "]";
+        int split = array.indexOf(SECOND) + 10;
+
+        // the first element is emitted before the rest of the body is received
+        StepVerifier.create(decoder.decodeToFlux(body.asFlux(), CANDLE_TYPE))
+                .then(() -> body.tryEmitNext(buffer(array.substring(0, 7))))
+                .then(() -> body.tryEmitNext(buffer(array.substring(7, split))))
+                .assertNext(candle -> {
+                    assertThat(candle.getOpen()).isEqualByComparingTo("0.1");
+                    assertThat(candle.getClose()).isNull();
+                    assertThat(candle.getVolume()).isEqualTo(100L);
+                })
+                .then(() -> body.tryEmitNext(buffer(array.substring(split))))
+                .then(body::tryEmitComplete)
+                .assertNext(candle -> assertThat(candle.getOpen()).isEqualByComparingTo("542.78"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void matchesBlockingReadTest() throws Exception {
+        String array = "[" + FIRST + "," + SECOND + "," + FIRST + "]";
+        List<Candle> expected = objectMapper.readerForListOf(Candle.class).readValue(array);
+
+        List<DataBuffer> buffers = new ArrayList<>();
+        for(int i = 0; i < array.length(); i += 3) {
+            buffers.add(buffer(array.substring(i, Math.min(array.length(), i + 3))));
+        }
+        List<Candle> decoded = decoder.decodeToFlux(Flux.fromIterable(buffers), CANDLE_TYPE)
+                .collectList()
+                .block();
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+    }
+
+    @Test
+    public void singleObjectAndEmptyBodyTest() {
+        StepVerifier.create(decoder.decodeToFlux(Flux.just(buffer(SECOND)), CANDLE_TYPE))
+                .assertNext(candle -> assertThat(candle.getVolume()).isEqualTo(200L))
+                .verifyComplete();
+        StepVerifier.create(decoder.decodeToFlux(Flux.just(buffer("[]")), CANDLE_TYPE))
+                .verifyComplete();
+        StepVerifier.create(decoder.decodeToFlux(Flux.empty(), CANDLE_TYPE))
+                .verifyComplete();
+    }
+
+    @Test
+    public void invalidBodyTest() {
+        StepVerifier.create(decoder.decodeToFlux(Flux.just(buffer("[" + FIRST + "," + SECOND.substring(0, 20))), CANDLE_TYPE))
+                .expectNextCount(1)
+                .verifyError(DecodingException.class);
+
+        // the limit applies to each element, not to the whole body
+        String large = "{\"open\":1,\"volume\":1,\"datetime\":1,\"padding\":\"" + "x".repeat(2000) + "\"}";
+        StepVerifier.create(decoder.decodeToFlux(Flux.just(buffer("[" + FIRST + ","), buffer(large + "]")), CANDLE_TYPE))
+                .expectNextCount(1)
+                .verifyError(DataBufferLimitException.class);
+        String many = "[" + String.join(",", Collections.nCopies(20, SECOND)) + "]";
+        StepVerifier.create(decoder.decodeToFlux(Flux.just(buffer(many)), CANDLE_TYPE))
+                .expectNextCount(20)
+                .verifyComplete();
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,205 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pangility.schwab.api.client.accountsandtrading.model.userpreference.StreamerInfo;
+import com.pangility.schwab.api.client.streaming.SchwabStreamerSession;
+import com.pangility.schwab.api.client.streaming.StreamerException;
+import com.pangility.schwab.api.client.streaming.StreamerSchema;
+import com.pangility.schwab.api.client.streaming.model.LevelOneEquity;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchwabStreamerSessionTest {
+
+    private static final String ACCESS_TOKEN = "token";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger connections = new AtomicInteger();
+    // the commands received by the stand-in streamer, as connection:command:keys
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+    // what the first connection does after its first subscription: drop, go silent or keep going
+    private volatile String firstConnectionFailure = "none";
+    private DisposableServer server;
+
+    @BeforeEach
+    public void startServer() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.ws("/ws", (in, out) -> {
+                    int connection = connections.incrementAndGet();
+                    Sinks.Many<String> outbound = Sinks.many().unicast().onBackpressureBuffer();
+                    // the connections after the first send a heartbeat every 200ms
+                    Disposable heartbeats = connection == 1 ? Disposables.disposed() : Flux.interval(Duration.ofMillis(200))
+                            .subscribe(tick -> this.emit(outbound, "{\"notify\":[{\"heartbeat\":\"1721400000000\"}]}"));
+                    in.receive().asString()
+                            .subscribe(text -> this.handle(connection, text, outbound), throwable -> {}, () -> this.complete(outbound));
+                    return out.sendString(outbound.asFlux()).then().doFinally(signalType -> heartbeats.dispose());
+                }))
+                .bindNow();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void reconnectTest() throws Exception {
+        firstConnectionFailure = "drop";
+        SchwabStreamerSession session = this.session(Duration.ofSeconds(5), ACCESS_TOKEN);
+        CompletableFuture<List<LevelOneEquity>> updates = session.levelOneEquities().take(5).collectList().toFuture();
+        List<String> records = new CopyOnWriteArrayList<>();
+        int bidPrice = StreamerSchema.of(StreamerService.LEVELONE_EQUITIES).field("bidPrice");
+        session.records(StreamerService.LEVELONE_EQUITIES, record -> records.add(record.getKey() + "@" + record.getDouble(bidPrice)));
+
+        StepVerifier.create(session.subscribe(StreamerService.LEVELONE_EQUITIES, List.of("AAPL", "MSFT"), LevelOneEquity.ALL_FIELDS))
+                .assertNext(response -> assertThat(response.getContent().getCode()).isZero())
+                .verifyComplete();
+        // the first connection drops after its first update, the session logs in again and resubscribes
+        waitFor(() -> session.isConnected() && commands.contains("2:SUBS:AAPL,MSFT"));
+        StepVerifier.create(session.add(StreamerService.LEVELONE_EQUITIES, List.of("TSLA"), "0,1"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        List<LevelOneEquity> received = updates.get(5, TimeUnit.SECONDS);
+        assertThat(received).extracting(LevelOneEquity::getKey).containsExactly("AAPL", "MSFT", "AAPL", "MSFT", "TSLA");
+        assertThat(received.get(4).getBidPrice()).isEqualByComparingTo("100.5");
+        assertThat(records).containsExactly("AAPL@100.5", "MSFT@100.5", "AAPL@100.5", "MSFT@100.5", "TSLA@100.5");
+        assertThat(session.getSubscribedKeys(StreamerService.LEVELONE_EQUITIES)).containsExactly("AAPL", "MSFT", "TSLA");
+        assertThat(commands).containsExactly("1:LOGIN:null", "1:SUBS:AAPL,MSFT", "2:LOGIN:null", "2:SUBS:AAPL,MSFT", "2:ADD:TSLA");
+
+        StepVerifier.create(session.unsubscribe(StreamerService.LEVELONE_EQUITIES, List.of("AAPL", "MSFT", "TSLA")))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(session.getSubscribedKeys(StreamerService.LEVELONE_EQUITIES)).isEmpty();
+        StepVerifier.create(session.levelOneEquities())
+                .then(() -> session.close().block())
+                .verifyComplete();
+        assertThat(commands).endsWith("2:LOGOUT:null");
+    }
+
+    @Test
+    public void heartbeatTimeoutTest() {
+        firstConnectionFailure = "silent";
+        SchwabStreamerSession session = this.session(Duration.ofMillis(500), ACCESS_TOKEN);
+
+        StepVerifier.create(session.subscribe(StreamerService.CHART_EQUITY, List.of("SPY"), "0,1,2,3,4,5,6,7,8"))
+                .expectNextCount(1)
+                .verifyComplete();
+        waitFor(() -> commands.contains("2:SUBS:SPY"));
+        // heartbeats keep the second connection alive
+        StepVerifier.create(session.chartEquities().take(Duration.ofSeconds(1)))
+                .verifyComplete();
+        assertThat(connections.get()).isEqualTo(2);
+        session.close().block();
+    }
+
+    @Test
+    public void loginFailureTest() {
+        SchwabStreamerSession session = this.session(Duration.ofSeconds(5), "expired");
+
+        StepVerifier.create(session.connect())
+                .expectErrorSatisfies(throwable -> assertThat(throwable)
+                        .hasRootCauseInstanceOf(StreamerException.class)
+                        .hasMessageContaining("Retries exhausted: 1/1"))
+                .verify(Duration.ofSeconds(5));
+        assertThat(connections.get()).isEqualTo(2);
+    }
+
+    private SchwabStreamerSession session(Duration heartbeatTimeout, String accessToken) {
+        StreamerInfo streamerInfo = new StreamerInfo();
+        streamerInfo.setStreamerSocketUrl("ws://localhost:" + server.port() + "/ws");
+        streamerInfo.setSchwabClientCustomerId("customer");
+        streamerInfo.setSchwabClientCorrelId("correl");
+        streamerInfo.setSchwabClientChannel("N9");
+        streamerInfo.setSchwabClientFunctionId("APIAPP");
+        return new SchwabStreamerSession(() -> Mono.just(streamerInfo), () -> Mono.just(accessToken), objectMapper,
+                new ReactorNettyWebSocketClient(), heartbeatTimeout, Duration.ofSeconds(2),
+                Duration.ofMillis(50), Duration.ofMillis(200), 1);
+    }
+
+    private void handle(int connection, String text, Sinks.Many<String> outbound) {
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(text).get("requests").get(0);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        String service = request.get("service").asText();
+        String command = request.get("command").asText();
+        JsonNode keys = request.get("parameters") == null ? null : request.get("parameters").get("keys");
+        commands.add(connection + ":" + command + ":" + (keys == null ? null : keys.asText()));
+        if(connection == 1 && "silent".equals(firstConnectionFailure) && commands.size() > 2) {
+            return;
+        }
+
+        boolean loginRejected = command.equals("LOGIN") && !ACCESS_TOKEN.equals(request.get("parameters").get("Authorization").asText());
+        this.emit(outbound, "{\"response\":[{\"service\":\"" + service + "\",\"command\":\"" + command
+                + "\",\"requestid\":\"" + request.get("requestid").asText() + "\",\"SchwabClientCorrelId\":\"correl\","
+                + "\"timestamp\":1721400000000,\"content\":{\"code\":" + (loginRejected ? 3 : 0) + ",\"msg\":\"\"}}]}");
+        if(service.equals("LEVELONE_EQUITIES") && (command.equals("SUBS") || command.equals("ADD"))) {
+            StringBuilder content = new StringBuilder();
+            for(String key : keys.asText().split(",")) {
+                content.append(content.isEmpty() ? "" : ",")
+                        .append("{\"key\":\"").append(key).append("\",\"delayed\":false,\"1\":100.5,\"3\":100.75}");
+            }
+            this.emit(outbound, "{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"command\":\"SUBS\","
+                    + "\"timestamp\":1721400000000,\"content\":[" + content + "]}]}");
+            if(connection == 1 && "drop".equals(firstConnectionFailure)) {
+                this.complete(outbound);
+            }
+        }
+        if(command.equals("LOGOUT")) {
+            this.complete(outbound);
+        }
+    }
+
+    // the handler and the heartbeats emit from different threads
+    private void emit(Sinks.Many<String> outbound, String text) {
+        synchronized (outbound) {
+            outbound.tryEmitNext(text);
+        }
+    }
+
+    private void complete(Sinks.Many<String> outbound) {
+        synchronized (outbound) {
+            outbound.tryEmitComplete();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
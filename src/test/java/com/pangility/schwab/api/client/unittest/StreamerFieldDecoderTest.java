@@ -0,0 +1,130 @@
+package com.pangility.schwab.api.client.unittest;
+
+import com.pangility.schwab.api.client.streaming.StreamerFieldDecoder;
+import com.pangility.schwab.api.client.streaming.StreamerRecord;
+import com.pangility.schwab.api.client.streaming.StreamerRecordListener;
+import com.pangility.schwab.api.client.streaming.StreamerSchema;
+import com.pangility.schwab.api.client.streaming.model.StreamerService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+public class StreamerFieldDecoderTest {
+
+    private static final StreamerSchema SCHEMA = StreamerSchema.of(StreamerService.LEVELONE_EQUITIES);
+    private static final int BID_PRICE = SCHEMA.field("bidPrice");
+    private static final int ASK_PRICE = SCHEMA.field("askPrice");
+    private static final int BID_SIZE = SCHEMA.field("bidSize");
+    private static final int MARGINABLE = SCHEMA.field("marginable");
+    private static final int DESCRIPTION = SCHEMA.field("description");
+    private static final int QUOTE_TIME = SCHEMA.field("quoteTime");
+    private static final int NET_PERCENT_CHANGE = SCHEMA.field("netPercentChange");
+
+    private final StreamerFieldDecoder decoder = new StreamerFieldDecoder(StreamerService.LEVELONE_EQUITIES);
+    private final List<String> updates = new ArrayList<>();
+    private final StreamerRecordListener listener = record -> updates.add(record.getKey());
+
+    @Test
+    public void decodeTest() {
+        assertThat(SCHEMA.getFieldCount()).isEqualTo(52);
+        assertThat(SCHEMA.kind(BID_PRICE)).isEqualTo(StreamerSchema.Kind.DOUBLE);
+        assertThat(SCHEMA.kind(QUOTE_TIME)).isEqualTo(StreamerSchema.Kind.LONG);
+        assertThat(SCHEMA.kind(DESCRIPTION)).isEqualTo(StreamerSchema.Kind.STRING);
+
+        int decoded = decoder.decode(buffer("""
+                {"data":[{"service":"LEVELONE_EQUITIES","timestamp":1721400000123,"command":"SUBS","content":[
+                  {"key":"AAPL","delayed":false,"assetMainType":"EQUITY","1":224.31,"2":224.33,"4":3,"14":true,
+                   "15":"Apple Inc \\"common\\" \\u00e9","34":1721399999000,"42":-1.5e-2,"99":"ignored"},
+                  {"2":415.1,"key":"MSFT","delayed":true,"nested":{"a":[1,{"b":"}"}]}}
+                ]},{"service":"LEVELONE_OPTIONS","content":[{"key":"AAPL  240719C00100000","2":1.0}]}]}
+                """), listener);
+        assertThat(decoded).isEqualTo(2);
+        assertThat(updates).containsExactly("AAPL", "MSFT");
+
+        StreamerRecord apple = decoder.getRecord("AAPL");
+        assertThat(apple.getDouble(BID_PRICE)).isEqualTo(224.31);
+        assertThat(apple.getDouble(ASK_PRICE)).isEqualTo(224.33);
+        assertThat(apple.getLong(BID_SIZE)).isEqualTo(3);
+        assertThat(apple.getBoolean(MARGINABLE)).isTrue();
+        assertThat(apple.getString(DESCRIPTION)).isEqualTo("Apple Inc \"common\" é");
+        assertThat(apple.getLong(QUOTE_TIME)).isEqualTo(1721399999000L);
+        assertThat(apple.getDouble(NET_PERCENT_CHANGE)).isEqualTo(-0.015);
+        assertThat(apple.getTimestamp()).isEqualTo(1721400000123L);
+        assertThat(apple.isDelayed()).isFalse();
+        StreamerRecord microsoft = decoder.getRecord("MSFT");
+        assertThat(microsoft.getDouble(ASK_PRICE)).isEqualTo(415.1);
+        assertThat(microsoft.isDelayed()).isTrue();
+        assertThat(microsoft.isReceived(BID_PRICE)).isFalse();
+        assertThat(decoder.getRecord("AAPL  240719C00100000")).isNull();
+
+        // an update only carries the fields that changed, the record keeps the others
+        decoder.decode(buffer("""
+                {"data":[{"service":"LEVELONE_EQUITIES","timestamp":1721400000456,"command":"SUBS",
+                  "content":[{"key":"AAPL","2":"224.35","15":null,"34":1721400000000.0,"1":12345678901234567890.5}]}]}
+                """), listener);
+        assertThat(decoder.size()).isEqualTo(2);
+        assertThat(apple).isSameAs(decoder.getRecord("AAPL"));
+        assertThat(apple.getDouble(ASK_PRICE)).isEqualTo(224.35);
+        assertThat(apple.isChanged(ASK_PRICE)).isTrue();
+        assertThat(apple.getDouble(BID_PRICE)).isEqualTo(12345678901234567890.5);
+        assertThat(apple.getLong(BID_SIZE)).isEqualTo(3);
+        assertThat(apple.isChanged(BID_SIZE)).isFalse();
+        assertThat(apple.isReceived(DESCRIPTION)).isFalse();
+        assertThat(apple.getString(DESCRIPTION)).isNull();
+        assertThat(apple.getLong(QUOTE_TIME)).isEqualTo(1721400000000L);
+
+        // responses and notifications hold no data
+        assertThat(decoder.decode(buffer("{\"notify\":[{\"heartbeat\":\"1721400000000\"}]}"), listener)).isZero();
+        assertThat(StreamerFieldDecoder.isDataMessage(DefaultDataBufferFactory.sharedInstance.wrap(bytes(" {\"data\":[]}")))).isTrue();
+        assertThat(StreamerFieldDecoder.isDataMessage(DefaultDataBufferFactory.sharedInstance.wrap(bytes("{\"response\":[]}")))).isFalse();
+        assertThat(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(bytes(
+                "{\"data\":[{\"service\":\"LEVELONE_EQUITIES\",\"content\":[{\"key\":\"MSFT\",\"1\":415}]}]}")), listener)).isOne();
+        assertThat(microsoft.getDouble(BID_PRICE)).isEqualTo(415.0);
+        assertThatThrownBy(() -> decoder.decode(buffer("{\"data\":[{\"service\":"), listener))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void zeroAllocationTest() {
+        ByteBuf message = buffer("""
+                {"data":[{"service":"LEVELONE_EQUITIES","timestamp":1721400000123,"command":"SUBS","content":[
+                  {"key":"AAPL","delayed":false,"1":224.31,"2":224.33,"3":224.32,"4":3,"5":7,"8":41234567,"34":1721399999000,"35":1721399999100},
+                  {"key":"MSFT","delayed":false,"1":415.1,"2":415.12,"3":415.11,"4":1,"5":2,"8":12345678,"34":1721399999000,"35":1721399999100,"32":"Normal"}
+                ]}]}
+                """);
+        double[] sum = new double[1];
+        StreamerRecordListener summingListener = record -> sum[0] += record.getDouble(BID_PRICE);
+        for(int i = 0; i < 20_000; i++) {
+            decoder.decode(message, summingListener);
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < 20_000; i++) {
+            decoder.decode(message, summingListener);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        // well under one byte per message, what is left is the measurement itself
+        assertThat(allocated).isLessThan(20_000);
+        assertThat(sum[0]).isEqualTo(40_000 * (224.31 + 415.1), offset(1.0));
+    }
+
+    private static ByteBuf buffer(String message) {
+        return Unpooled.wrappedBuffer(bytes(message));
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+}